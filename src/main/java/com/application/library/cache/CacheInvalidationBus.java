@@ -0,0 +1,12 @@
+package com.application.library.cache;
+
+/**
+ * Evicts cache entries on every running instance. Evictions are applied after the surrounding
+ * transaction commits, so readers never repopulate a cache with the value being replaced.
+ */
+public interface CacheInvalidationBus {
+
+    void evict(String cacheName, String key);
+
+    void evictAll(String cacheName);
+}
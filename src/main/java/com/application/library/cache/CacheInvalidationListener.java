@@ -0,0 +1,14 @@
+package com.application.library.cache;
+
+/**
+ * Receives the evictions of one named cache that is not managed by the cache manager, such as an in-memory
+ * index. Called on every instance, after the evicting transaction commits.
+ */
+public interface CacheInvalidationListener {
+
+    String getCacheName();
+
+    void evict(String key);
+
+    void evictAll();
+}
@@ -0,0 +1,71 @@
+package com.application.library.cache;
+
+import com.application.library.model.CacheInvalidation;
+import com.application.library.repository.CacheInvalidationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records every eviction in the {@code cache_invalidations} table within the caller's transaction
+ * and polls the table for evictions written by other instances. Each poll re-reads an overlap
+ * window to tolerate late commits and clock skew; replaying an eviction is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseCacheInvalidationBus extends LocalCacheInvalidationBus {
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final String origin = UUID.randomUUID().toString();
+    private final long overlapMillis;
+    private final long retentionMillis;
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+
+    public DatabaseCacheInvalidationBus(CacheManager cacheManager,
+                                        List<CacheInvalidationListener> listeners,
+                                        CacheInvalidationRepository cacheInvalidationRepository,
+                                        @Value("${cache.invalidation.overlap-ms:10000}") long overlapMillis,
+                                        @Value("${cache.invalidation.retention-ms:3600000}") long retentionMillis) {
+        super(cacheManager, listeners);
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.overlapMillis = overlapMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        cacheInvalidationRepository.save(new CacheInvalidation(cacheName, key, origin));
+        super.evict(cacheName, key);
+    }
+
+    @Override
+    public void evictAll(String cacheName) {
+        cacheInvalidationRepository.save(new CacheInvalidation(cacheName, null, origin));
+        super.evictAll(cacheName);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-interval-ms:2000}")
+    @Transactional(readOnly = true)
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastPoll.minus(overlapMillis, ChronoUnit.MILLIS);
+        for (CacheInvalidation invalidation : cacheInvalidationRepository.findAllByCreatedAtAfterAndOriginNot(since, origin)) {
+            evictLocally(invalidation.getCacheName(), invalidation.getCacheKey());
+        }
+        lastPoll = now;
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.retention-ms:3600000}")
+    @Transactional
+    public void purge() {
+        cacheInvalidationRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(retentionMillis, ChronoUnit.MILLIS));
+    }
+}
@@ -0,0 +1,64 @@
+package com.application.library.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.mode", havingValue = "local")
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final CacheManager cacheManager;
+    private final List<CacheInvalidationListener> listeners;
+
+    public LocalCacheInvalidationBus(CacheManager cacheManager, List<CacheInvalidationListener> listeners) {
+        this.cacheManager = cacheManager;
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        afterCommit(() -> evictLocally(cacheName, key));
+    }
+
+    @Override
+    public void evictAll(String cacheName) {
+        afterCommit(() -> evictLocally(cacheName, null));
+    }
+
+    protected void evictLocally(String cacheName, String key) {
+        for (CacheInvalidationListener listener : listeners) {
+            if (!listener.getCacheName().equals(cacheName)) continue;
+            if (key == null) {
+                listener.evictAll();
+            } else {
+                listener.evict(key);
+            }
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) return;
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.application.library.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String EVENT_EXECUTOR = "taskExecutor";
+    public static final String EVENT_EXECUTOR_METRIC_PREFIX = "library.events.executor";
+
+    @Bean(name = EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor eventExecutor(MeterRegistry meterRegistry,
+                                                @Value("${async.events.core-pool-size:4}") int corePoolSize,
+                                                @Value("${async.events.max-pool-size:8}") int maxPoolSize,
+                                                @Value("${async.events.queue-capacity:1000}") int queueCapacity,
+                                                @Value("${async.events.await-termination-seconds:30}") int awaitTerminationSeconds) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("library-events-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(timingDecorator(meterRegistry));
+        executor.setRejectedExecutionHandler(callerRunsWithCounter(meterRegistry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitTerminationSeconds);
+        return executor;
+    }
+
+    static TaskDecorator timingDecorator(MeterRegistry meterRegistry) {
+        Timer queueWait = Timer.builder(EVENT_EXECUTOR_METRIC_PREFIX + ".queue.wait").register(meterRegistry);
+        Timer execution = Timer.builder(EVENT_EXECUTOR_METRIC_PREFIX + ".execution").register(meterRegistry);
+        return task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    // Events keep derived counts consistent, so a saturated pool slows the publisher down instead of dropping work.
+    static RejectedExecutionHandler callerRunsWithCounter(MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder(EVENT_EXECUTOR_METRIC_PREFIX + ".rejected").register(meterRegistry);
+        ThreadPoolExecutor.CallerRunsPolicy callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        return (task, executor) -> {
+            rejected.increment();
+            callerRuns.rejectedExecution(task, executor);
+        };
+    }
+}
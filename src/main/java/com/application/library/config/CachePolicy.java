@@ -0,0 +1,25 @@
+package com.application.library.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+public record CachePolicy(String name, long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+
+    public static CachePolicy expireAfterWrite(String name, long maximumSize, Duration expireAfterWrite) {
+        return new CachePolicy(name, maximumSize, expireAfterWrite, null);
+    }
+
+    public static CachePolicy expireAfterAccess(String name, long maximumSize, Duration expireAfterAccess) {
+        return new CachePolicy(name, maximumSize, null, expireAfterAccess);
+    }
+
+    public Caffeine<Object, Object> toCaffeine() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats();
+        if (expireAfterWrite != null) builder.expireAfterWrite(expireAfterWrite);
+        if (expireAfterAccess != null) builder.expireAfterAccess(expireAfterAccess);
+        return builder;
+    }
+}
@@ -0,0 +1,59 @@
+package com.application.library.config;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects every {@link CachePolicy} bean declared in the context. Each policy can be tuned per
+ * environment with {@code cache.policies.<name>.maximum-size}, {@code .expire-after-write} and
+ * {@code .expire-after-access}.
+ */
+public class CachePolicyRegistry {
+
+    private static final String PROPERTY_PREFIX = "cache.policies.";
+
+    private final Environment environment;
+    private final Map<String, CachePolicy> policies = new LinkedHashMap<>();
+
+    public CachePolicyRegistry(Environment environment, List<CachePolicy> declaredPolicies) {
+        this.environment = environment;
+        declaredPolicies.forEach(this::register);
+    }
+
+    public Collection<CachePolicy> getPolicies() {
+        return Collections.unmodifiableCollection(policies.values());
+    }
+
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(policies.keySet());
+    }
+
+    public CachePolicy getPolicy(String name) {
+        return policies.get(name);
+    }
+
+    private void register(CachePolicy declared) {
+        String prefix = PROPERTY_PREFIX + declared.name() + ".";
+        CachePolicy policy = new CachePolicy(
+                declared.name(),
+                environment.getProperty(prefix + "maximum-size", Long.class, declared.maximumSize()),
+                getDuration(prefix + "expire-after-write", declared.expireAfterWrite()),
+                getDuration(prefix + "expire-after-access", declared.expireAfterAccess())
+        );
+        if (policies.putIfAbsent(policy.name(), policy) != null) {
+            throw new IllegalStateException("Duplicate cache policy: " + policy.name());
+        }
+    }
+
+    private Duration getDuration(String key, Duration defaultValue) {
+        String value = environment.getProperty(key);
+        return value == null ? defaultValue : DurationStyle.detectAndParse(value);
+    }
+}
@@ -2,21 +2,59 @@ package com.application.library.config;
 
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CachingConfig {
     public static final String LATE_FEE_PER_DAY = "late-fee-per-day";
     public static final String LEND_DAY = "lend_day";
+    public static final String BOOK_VIEW = "book-view";
+    public static final String BOOK_VIEW_PAGES = "book-view-pages";
+    public static final String BOOK_COMMENT_STATS = "book-comment-stats";
+
+    @Bean
+    public CachePolicy lateFeePerDayCachePolicy() {
+        return CachePolicy.expireAfterWrite(LATE_FEE_PER_DAY, 1, Duration.ofMinutes(10));
+    }
+
+    @Bean
+    public CachePolicy lendDayCachePolicy() {
+        return CachePolicy.expireAfterWrite(LEND_DAY, 1, Duration.ofMinutes(10));
+    }
+
+    @Bean
+    public CachePolicy bookViewCachePolicy() {
+        return CachePolicy.expireAfterWrite(BOOK_VIEW, 10000, Duration.ofMinutes(10));
+    }
+
+    @Bean
+    public CachePolicy bookViewPagesCachePolicy() {
+        return CachePolicy.expireAfterWrite(BOOK_VIEW_PAGES, 1000, Duration.ofMinutes(5));
+    }
+
+    @Bean
+    public CachePolicy bookCommentStatsCachePolicy() {
+        return CachePolicy.expireAfterWrite(BOOK_COMMENT_STATS, 10000, Duration.ofMinutes(10));
+    }
+
+    @Bean
+    public CachePolicyRegistry cachePolicyRegistry(Environment environment, List<CachePolicy> cachePolicies) {
+        return new CachePolicyRegistry(environment, cachePolicies);
+    }
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-                LATE_FEE_PER_DAY,
-                LEND_DAY
-        );
+    public CacheManager cacheManager(CachePolicyRegistry cachePolicyRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(cachePolicyRegistry.getCacheNames());
+        cachePolicyRegistry.getPolicies().forEach(policy ->
+                cacheManager.registerCustomCache(policy.name(), policy.toCaffeine().build()));
+        return cacheManager;
     }
 }
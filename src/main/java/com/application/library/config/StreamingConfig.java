@@ -0,0 +1,50 @@
+package com.application.library.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs streaming responses (exports) on their own bounded pool, so long downloads neither occupy the
+ * event executor nor spawn an unbounded thread per request.
+ * <p>
+ * The pool and the streaming timeout are the MVC-wide async defaults, as exports are the only asynchronous
+ * endpoints. One that needs another executor or timeout should return a
+ * {@link org.springframework.web.context.request.async.WebAsyncTask} carrying its own.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    public StreamingConfig(@Value("${streaming.max-concurrent:4}") int maxConcurrent,
+                           @Value("${streaming.queue-capacity:16}") int queueCapacity,
+                           @Value("${streaming.timeout-ms:3600000}") long timeoutMillis) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Bean(name = STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("library-streaming-");
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor());
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+}
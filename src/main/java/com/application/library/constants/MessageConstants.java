@@ -24,11 +24,32 @@ public class MessageConstants {
     public static final String MUST_PAY_LATE_FEE = "You have to pay late fee.";
     public static final String BOOK_HAS_ALREADY_BEEN_RETURN = "Book has already been returned.";
     public static final String NO_LATE_FEE_TO_PAY = "No late fee to pay.";
+    public static final String BOOK_HAS_A_RESERVATION = "Book has a reservation.";
+    public static final String LEND_TRANSACTION_NOT_FOUND = "Lend transaction not found.";
+    public static final String LEND_BATCH_SIZE_OUT_OF_RANGE = "Between 1 and the configured maximum of items must be given.";
+    public static final String LEND_BATCH_NULL_ITEM = "Batch items must not be null.";
+    public static final String BOOK_IMPORT_MISSING_FIELD = "A required book field is missing or invalid.";
+    public static final String BOOK_IMPORT_DUPLICATE_ISBN = "ISBN appears more than once in the import.";
+    public static final String BOOK_IMPORT_INVALID_ROW = "Row could not be parsed.";
+    public static final String BOOK_SEARCH_QUERY_EMPTY = "Search query must contain at least one letter or digit.";
+    public static final String BOOK_SUGGESTION_LIMIT_OUT_OF_RANGE = "Suggestion limit must be between 1 and 20.";
+    public static final String BOOK_FILTER_INVALID_PAGE_COUNT_RANGE = "Minimum page count must not be greater than maximum page count.";
+    public static final String BOOK_AVAILABILITY_IDS_OUT_OF_RANGE = "Between 1 and the configured maximum of book ids must be given.";
+    public static final String BOOK_AVAILABILITY_INVALID_DATE_RANGE = "Start date must not be after end date, and the range must not exceed the configured maximum of days.";
+    public static final String BOOK_IMPORT_INVALID_HEADER = "CSV header must contain name, author, isbn, pageCount, publisher, publishedAt, language, description, imageUrl, totalCount and shelfId.";
+    public static final String BOOK_IMPORT_UNTERMINATED_QUOTE = "CSV contains a quoted field that is never closed.";
+    public static final String CONCURRENT_MODIFICATION = "The record was modified by another request, please try again.";
 
     // Reservation Operations
     public static final String USER_ALREADY_HAS_A_RESERVATION = "User already has a reservation.";
     public static final String USER_HAS_AN_UNCOMPLETED_RESERVATION = "User has an uncompleted reservation.";
     public static final String BOOK_IS_NOT_AVAILABLE_FOR_THE_SELECTED_DATE = "Book is not available for the selected date.";
     public static final String RESERVATION_ALREADY_COMPLETED = "Reservation already completed.";
+    public static final String RESERVATION_ADMISSION_BUSY = "Too many reservations of this book are being made at once, please try again.";
+    public static final String RESERVATION_CALENDAR_DAYS_OUT_OF_RANGE = "Calendar days must be between 1 and the configured maximum.";
+
+    // Pagination
+    public static final String INVALID_PAGE_CURSOR = "Invalid page cursor.";
+    public static final String INVALID_PAGE_SIZE = "Page size must be greater than zero.";
 
 }
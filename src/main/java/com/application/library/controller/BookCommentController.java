@@ -4,8 +4,9 @@ package com.application.library.controller;
 import com.application.library.constants.MessageConstants;
 import com.application.library.data.dto.BookCommentDto;
 import com.application.library.data.dto.BookCommentRequestDto;
-import com.application.library.data.view.BookCommentStatsView;
+import com.application.library.data.dto.BookCommentStatsDto;
 import com.application.library.service.BookCommentService;
+import com.application.library.utils.CursorPage;
 import com.application.library.utils.ErrorResponseHandler;
 import com.application.library.utils.ResponseHandler;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +19,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/comments")
 @Tag(name = "Book Comment Controller", description = "Operations related to managing book comments.")
@@ -64,9 +67,30 @@ public class BookCommentController {
         return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookCommentService.getCommentsByBookId(bookId, page, size)));
     }
 
+    @Operation(
+            summary = "Get comments by book ID with cursor",
+            description = "Retrieve comments of a book, newest first, using keyset pagination.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Comments retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.INVALID_PAGE_CURSOR,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @GetMapping("/book/{bookId}/cursor")
+    public ResponseEntity<ResponseHandler<CursorPage<BookCommentDto>>> getCommentsByBookIdCursor(@PathVariable Long bookId,
+                                                                                                 @RequestParam Optional<String> cursor,
+                                                                                                 @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookCommentService.getCommentsByBookIdCursor(bookId, cursor, size)));
+    }
+
     @Operation(
             summary = "Get comments stats by book ID",
-            description = "Retrieve comments stats by providing the book ID.",
+            description = "Retrieve the comment count, average rating and rating histogram by providing the book ID.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -74,7 +98,7 @@ public class BookCommentController {
                     )
             })
     @GetMapping("/book/{bookId}/stats")
-    public ResponseEntity<ResponseHandler<BookCommentStatsView>> getBookCommentStats(@PathVariable Long bookId) {
+    public ResponseEntity<ResponseHandler<BookCommentStatsDto>> getBookCommentStats(@PathVariable Long bookId) {
         return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookCommentService.getBookCommentStats(bookId)));
     }
 
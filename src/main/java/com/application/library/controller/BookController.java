@@ -2,10 +2,19 @@ package com.application.library.controller;
 
 
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.BookAvailabilityDto;
+import com.application.library.data.dto.BookImportResultDto;
+import com.application.library.data.dto.BookSearchPageDto;
+import com.application.library.data.dto.BookFilterRequestDto;
 import com.application.library.data.dto.CreateBookRequestDto;
+import com.application.library.data.dto.FacetedBookPageDto;
 import com.application.library.data.dto.SaveBookRequestDto;
 import com.application.library.data.view.book.BookView;
+import com.application.library.search.InvertedIndex;
+import com.application.library.search.Suggestion;
+import com.application.library.service.BookImportService;
 import com.application.library.service.BookService;
+import com.application.library.utils.CursorPage;
 import com.application.library.utils.ErrorResponseHandler;
 import com.application.library.utils.ResponseHandler;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,10 +25,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.RolesAllowed;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -28,9 +44,11 @@ import java.util.Optional;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
     }
 
     @Operation(summary = "Save a new book", description = "Save a new book. Requires ADMIN or LIBRARIAN role.",
@@ -56,6 +74,41 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseHandler<>(bookService.saveBook(requestDto).getId()));
     }
 
+    @Operation(summary = "Import books", description = "Import many books at once. Invalid rows are skipped and reported per row. Requires ADMIN or LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import processed, see the per-row errors"
+                    )
+            })
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseHandler<BookImportResultDto>> importBooks(@RequestBody List<CreateBookRequestDto> requestDtos) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookImportService.importBooks(requestDtos)));
+    }
+
+    @Operation(summary = "Import books from CSV", description = "Import books from an uploaded CSV file with the header " +
+            "name,author,isbn,pageCount,publisher,publishedAt,language,description,imageUrl,totalCount,shelfId. " +
+            "Invalid rows are skipped and reported per row. Requires ADMIN or LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import processed, see the per-row errors"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.BOOK_IMPORT_INVALID_HEADER,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResponseHandler<BookImportResultDto>> importBooksCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookImportService.importCsv(inputStream)));
+        }
+    }
+
     @Operation(summary = "Get book by ID", description = "Retrieve book information by providing the book ID.",
             responses = {
                     @ApiResponse(
@@ -82,6 +135,96 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookService.getAllBooks(page, size, sortParam, direction)));
     }
 
+    @Operation(summary = "Get books by cursor", description = "Retrieve books ordered by name using keyset pagination. Pass the returned next cursor to fetch the following page.")
+    @GetMapping("/cursor")
+    public ResponseEntity<ResponseHandler<CursorPage<BookView>>> getBooksByCursor(@RequestParam Optional<String> cursor,
+                                                                                  @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookService.getBooksByCursor(cursor, size)));
+    }
+
+    @Operation(summary = "Filter books", description = "Filter books by language, publisher, author, shelf, availability and page count range. " +
+            "Values within a facet match any, different facets must all match. Books are ordered by name, and every facet " +
+            "is returned with the counts of its most common values among the books matching the other filters.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Filtered books and facet counts retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.BOOK_FILTER_INVALID_PAGE_COUNT_RANGE,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @GetMapping("/filter")
+    public ResponseEntity<ResponseHandler<FacetedBookPageDto>> filterBooks(BookFilterRequestDto requestDto,
+                                                                           @RequestParam int page,
+                                                                           @RequestParam int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookService.filterBooks(requestDto, page, size)));
+    }
+
+    @Operation(summary = "Search books", description = "Full-text search over name, author, publisher, description, ISBN and language. " +
+            "Terms also match by prefix and, when nothing else matches, with small typos. Results are ordered by relevance. " +
+            "Past " + InvertedIndex.MAX_COUNTED_HITS + " matches the total is a lower bound, flagged by totalIsLowerBound.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Matching books retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.BOOK_SEARCH_QUERY_EMPTY,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @GetMapping("/search")
+    public ResponseEntity<ResponseHandler<BookSearchPageDto>> searchBooks(@RequestParam String query,
+                                                                          @RequestParam int page,
+                                                                          @RequestParam int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookService.searchBooks(query, page, size)));
+    }
+
+    @Operation(summary = "Suggest titles and authors", description = "Completes the search box from book titles and authors. " +
+            "The prefix may start at any word, and suggestions are ordered by how often their books have been lent.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Suggestions retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.BOOK_SUGGESTION_LIMIT_OUT_OF_RANGE,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @GetMapping("/suggestions")
+    public ResponseEntity<ResponseHandler<List<Suggestion>>> suggestBooks(@RequestParam String prefix,
+                                                                         @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookService.suggestBooks(prefix, limit)));
+    }
+
+    @Operation(summary = "Get availability of several books", description = "Copies of each book available on every day from " +
+            "the start date to the end date inclusive, counting lent copies due back and copies held for reservations. " +
+            "The dates default to today, and unknown book ids are left out.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Availability retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.BOOK_AVAILABILITY_INVALID_DATE_RANGE,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @GetMapping("/availability")
+    public ResponseEntity<ResponseHandler<List<BookAvailabilityDto>>> getAvailability(@RequestParam List<Long> ids,
+                                                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+                                                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to) {
+        LocalDate start = from.orElseGet(LocalDate::now);
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(bookService.getAvailability(ids, start, to.orElse(start))));
+    }
+
     @Operation(summary = "Delete book by ID", description = "Delete a book by providing the book ID. Requires ADMIN or LIBRARIAN role.", responses = {
             @ApiResponse(
                     responseCode = "200",
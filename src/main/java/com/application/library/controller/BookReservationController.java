@@ -2,6 +2,7 @@ package com.application.library.controller;
 
 
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.AvailabilityDayDto;
 import com.application.library.data.dto.BookReservationRequestDto;
 import com.application.library.data.view.BookReservationView;
 import com.application.library.service.BookReservationService;
@@ -17,6 +18,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @Tag(name = "Book Reservation Controller", description = "Operations related to managing book reservations.")
 @RequestMapping("/api/reservations")
@@ -74,6 +77,27 @@ public class BookReservationController {
         return ResponseEntity.ok(new ResponseHandler<>(bookReservationService.getAuthenticationUserReservations(page, size)));
     }
 
+    @Operation(
+            summary = "Get the availability calendar of a book",
+            description = "Retrieve the number of copies available for reservation on each of the next days, starting today.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Availability calendar retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.RESERVATION_CALENDAR_DAYS_OUT_OF_RANGE,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            }
+    )
+    @GetMapping("/book/{bookId}/calendar")
+    public ResponseEntity<ResponseHandler<List<AvailabilityDayDto>>> getAvailabilityCalendar(@PathVariable Long bookId,
+                                                                                              @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(new ResponseHandler<>(bookReservationService.getAvailabilityCalendar(bookId, days)));
+    }
+
     @Operation(
             summary = "Update a reservation",
             description = "Update a reservation for a book by providing the reservation ID and new reservation details.",
@@ -2,10 +2,16 @@ package com.application.library.controller;
 
 
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.LendTransactionBatchResultDto;
 import com.application.library.data.dto.LendTransactionRequestDto;
+import com.application.library.data.dto.OverdueSummaryDto;
 import com.application.library.data.view.transaction.lend.LendTransactionAuthUserView;
+import com.application.library.data.view.transaction.lend.LendTransactionOverdueView;
 import com.application.library.data.view.transaction.lend.LendTransactionView;
+import com.application.library.enumerations.ExportFormat;
+import com.application.library.service.LendTransactionExportService;
 import com.application.library.service.LendTransactionService;
+import com.application.library.utils.CursorPage;
 import com.application.library.utils.ErrorResponseHandler;
 import com.application.library.utils.ResponseHandler;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,10 +21,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.RolesAllowed;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Tag(name = "Lend Transaction Controller", description = "Operations related to managing lend transactions.")
@@ -27,9 +41,11 @@ import java.util.UUID;
 public class LendTransactionController {
 
     private final LendTransactionService lendTransactionService;
+    private final LendTransactionExportService lendTransactionExportService;
 
-    public LendTransactionController(LendTransactionService lendTransactionService) {
+    public LendTransactionController(LendTransactionService lendTransactionService, LendTransactionExportService lendTransactionExportService) {
         this.lendTransactionService = lendTransactionService;
+        this.lendTransactionExportService = lendTransactionExportService;
     }
 
     @Operation(summary = "Save a new lend transaction", description = "Save a new lend transaction. Requires LIBRARIAN role.",
@@ -81,6 +97,44 @@ public class LendTransactionController {
     }
 
 
+    @Operation(summary = "Lend books in batch", description = "Lend several books in one transaction, reporting the result of each item. Requires LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch processed, items that could not be lent are reported with their error"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.LEND_BATCH_SIZE_OUT_OF_RANGE,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @RolesAllowed({"LIBRARIAN"})
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseHandler<LendTransactionBatchResultDto>> lendBooks(@RequestBody List<LendTransactionRequestDto> requestDtos) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(lendTransactionService.lendBooks(requestDtos)));
+    }
+
+
+    @Operation(summary = "Return lend transactions in batch", description = "Return several lend transactions in one transaction, reporting the result of each item. Requires LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch processed, items that could not be returned are reported with their error"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.LEND_BATCH_SIZE_OUT_OF_RANGE,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @RolesAllowed({"LIBRARIAN"})
+    @PutMapping("/batch/return")
+    public ResponseEntity<ResponseHandler<LendTransactionBatchResultDto>> returnBooks(@RequestBody List<UUID> ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(lendTransactionService.returnBooks(ids)));
+    }
+
+
     @Operation(summary = "Pay late fee", description = "Pay late fee for a lend transaction. Requires LIBRARIAN role.",
             responses = {
                     @ApiResponse(
@@ -142,4 +196,83 @@ public class LendTransactionController {
     public ResponseEntity<ResponseHandler<Page<LendTransactionView>>> findLendTransactionsByReturned(@PathVariable boolean returned, @RequestParam int page, @RequestParam int size) {
         return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(lendTransactionService.findLendTransactionsByReturned(returned, page, size)));
     }
+
+    @Operation(summary = "Find lend transactions by returned with cursor", description = "Find lend transactions by returned, newest first, using keyset pagination. Requires ADMIN or LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Lend transactions found successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.INVALID_PAGE_CURSOR,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @GetMapping("/returned/{returned}/cursor")
+    public ResponseEntity<ResponseHandler<CursorPage<LendTransactionView>>> findLendTransactionsByReturnedCursor(@PathVariable boolean returned,
+                                                                                                                @RequestParam Optional<String> cursor,
+                                                                                                                @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(lendTransactionService.findLendTransactionsByReturnedCursor(returned, cursor, size)));
+    }
+
+    @Operation(summary = "Find overdue lend transactions", description = "Find open lend transactions past their deadline, earliest deadline first, " +
+            "using keyset pagination. Late fees are those accrued by the nightly accrual job. Requires ADMIN or LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Overdue lend transactions found successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = MessageConstants.INVALID_PAGE_CURSOR,
+                            content = @Content(schema = @Schema(implementation = ErrorResponseHandler.class))
+                    )
+            })
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @GetMapping("/overdue")
+    public ResponseEntity<ResponseHandler<CursorPage<LendTransactionOverdueView>>> findOverdueLendTransactions(@RequestParam Optional<String> cursor,
+                                                                                                             @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(lendTransactionService.findOverdueLendTransactions(cursor, size)));
+    }
+
+    @Operation(summary = "Summarize overdue lend transactions", description = "Count overdue lend transactions and total their outstanding late fees " +
+            "as of the last accrued day. Requires ADMIN or LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Overdue summary retrieved successfully"
+                    )
+            })
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @GetMapping("/overdue/summary")
+    public ResponseEntity<ResponseHandler<OverdueSummaryDto>> getOverdueSummary() {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(lendTransactionService.getOverdueSummary()));
+    }
+
+    @Operation(summary = "Export lend transactions", description = "Stream lend transaction history, oldest first, as NDJSON or CSV. " +
+            "Optionally filtered by returned flag, user and creation date range (inclusive). Requires ADMIN or LIBRARIAN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Lend transactions streamed successfully"
+                    )
+            })
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLendTransactions(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                                        @RequestParam Optional<Boolean> returned,
+                                                                        @RequestParam Optional<Long> userId,
+                                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+                                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to) {
+        StreamingResponseBody body = outputStream -> lendTransactionExportService.export(format, returned, userId, from, to, outputStream);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("lend-transactions." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
@@ -8,6 +8,7 @@ import com.application.library.data.view.UserListView;
 import com.application.library.data.view.UserView;
 import com.application.library.enumerations.UserRole;
 import com.application.library.service.UserService;
+import com.application.library.utils.CursorPage;
 import com.application.library.utils.ErrorResponseHandler;
 import com.application.library.utils.ResponseHandler;
 import io.swagger.v3.oas.annotations.Operation;
@@ -88,6 +89,16 @@ public class UserController {
                 userService.getAllUsersByActiveUserAuthority(userType, page, size, sortParam, direction)));
     }
 
+    @Operation(summary = "Get users by cursor", description = "Retrieve users ordered by name using keyset pagination. Pass the returned next cursor to fetch the following page. Requires ADMIN or LIBRARIAN role.")
+    @RolesAllowed({"ADMIN", "LIBRARIAN"})
+    @GetMapping("/cursor")
+    public ResponseEntity<ResponseHandler<CursorPage<UserListView>>> getUsersByCursor(@RequestParam Optional<UserRole> userType,
+                                                                                      @RequestParam Optional<String> cursor,
+                                                                                      @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseHandler<>(
+                userService.getUsersByCursorByActiveUserAuthority(userType, cursor, size)));
+    }
+
     @Operation(
             summary = "Delete user by ID",
             description = "Delete a user by providing the user ID. Requires ADMIN or LIBRARIAN role.",
@@ -52,9 +52,10 @@ public abstract class LendTransactionConverter {
         Book book = bookService.findById(id);
         if (!book.isAvailable()) throw new EntityAlreadyExistsException(MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING);
 
-        long reservedCount = bookReservationRepository.countByBook_IdAndReservationDateBeforeAndCompletedFalse(id, LocalDate.now().plusDays(settingsService.getLendDay()));
+        // Lend admission counts in the database, as the timeline cache may not have seen a reservation committed on another node yet.
+        long reservedCount = bookReservationRepository.countByBook_IdAndCompletedFalseAndReservationDateBefore(id, LocalDate.now().plusDays(settingsService.getLendDay()));
         if (reservedCount >= book.getAvailableCount())
-            throw new EntityAlreadyExistsException("Book has a reservation");
+            throw new EntityAlreadyExistsException(MessageConstants.BOOK_HAS_A_RESERVATION);
 
         return book;
     }
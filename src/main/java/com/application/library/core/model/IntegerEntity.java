@@ -7,8 +7,12 @@ import jakarta.persistence.*;
 public abstract class IntegerEntity extends TimestampEntity {
 
 
+    /**
+     * Ids come from one sequence per entity, named {@code <entity name>_seq}, and are handed out in blocks by
+     * the pooled-lo optimizer so inserts can be batched. The block size is the sequence increment.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
@@ -16,4 +20,8 @@ public abstract class IntegerEntity extends TimestampEntity {
         return id;
     }
 
+    protected void setId(Long id) {
+        this.id = id;
+    }
+
 }
@@ -0,0 +1,76 @@
+package com.application.library.core.model;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Generates version 7 UUIDs: a 48 bit millisecond timestamp, a 12 bit counter and 62 random bits, so ids
+ * created later sort after earlier ones and inserts append to the tail of the primary key index. The counter
+ * keeps ids monotonic within a millisecond; when it runs out the timestamp is advanced by one.
+ * <p>
+ * Setting {@value #TIME_ORDERED_SETTING} to {@code false} falls back to random version 4 UUIDs.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    public static final String TIME_ORDERED_SETTING = "library.uuid.time-ordered";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_COUNTER = 0xFFF;
+    private static final int COUNTER_SEED_BOUND = 0x800;
+
+    private final boolean timeOrdered;
+    private long lastMillis;
+    private int counter;
+
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config, Member idMember, CustomIdGeneratorCreationContext context) {
+        this(ConfigurationHelper.getBoolean(TIME_ORDERED_SETTING,
+                context.getServiceRegistry().getService(ConfigurationService.class).getSettings(), true));
+    }
+
+    TimeOrderedUuidGenerator(boolean timeOrdered) {
+        this.timeOrdered = timeOrdered;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return timeOrdered ? next(System.currentTimeMillis()) : UUID.randomUUID();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    UUID next(long now) {
+        long millis;
+        int sequence;
+        synchronized (this) {
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = RANDOM.nextInt(COUNTER_SEED_BOUND);
+            } else if (++counter > MAX_COUNTER) {
+                lastMillis++;
+                counter = RANDOM.nextInt(COUNTER_SEED_BOUND);
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+        long mostSignificantBits = (millis << 16) | 0x7000L | sequence;
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -10,7 +10,7 @@ public abstract class UUIDEntity extends TimestampEntity {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", nullable = false, updatable = false)
     private UUID id;
 
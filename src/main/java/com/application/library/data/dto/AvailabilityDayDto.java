@@ -0,0 +1,22 @@
+package com.application.library.data.dto;
+
+import java.time.LocalDate;
+
+public class AvailabilityDayDto {
+
+    private final LocalDate date;
+    private final long availableCount;
+
+    public AvailabilityDayDto(LocalDate date, long availableCount) {
+        this.date = date;
+        this.availableCount = availableCount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getAvailableCount() {
+        return availableCount;
+    }
+}
@@ -0,0 +1,22 @@
+package com.application.library.data.dto;
+
+import java.util.List;
+
+public class BookAvailabilityDto {
+
+    private final Long bookId;
+    private final List<AvailabilityDayDto> days;
+
+    public BookAvailabilityDto(Long bookId, List<AvailabilityDayDto> days) {
+        this.bookId = bookId;
+        this.days = days;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public List<AvailabilityDayDto> getDays() {
+        return days;
+    }
+}
@@ -0,0 +1,28 @@
+package com.application.library.data.dto;
+
+import java.util.Map;
+
+public class BookCommentStatsDto {
+
+    private final long totalComments;
+    private final Double averageRating;
+    private final Map<Integer, Long> ratingHistogram;
+
+    public BookCommentStatsDto(long totalComments, Double averageRating, Map<Integer, Long> ratingHistogram) {
+        this.totalComments = totalComments;
+        this.averageRating = averageRating;
+        this.ratingHistogram = ratingHistogram;
+    }
+
+    public long getTotalComments() {
+        return totalComments;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public Map<Integer, Long> getRatingHistogram() {
+        return ratingHistogram;
+    }
+}
@@ -0,0 +1,70 @@
+package com.application.library.data.dto;
+
+import java.util.List;
+
+public class BookFilterRequestDto {
+
+    private List<String> language = List.of();
+    private List<String> publisher = List.of();
+    private List<String> author = List.of();
+    private List<Long> shelfId = List.of();
+    private Boolean available;
+    private Integer minPageCount;
+    private Integer maxPageCount;
+
+    public List<String> getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(List<String> language) {
+        this.language = language;
+    }
+
+    public List<String> getPublisher() {
+        return publisher;
+    }
+
+    public void setPublisher(List<String> publisher) {
+        this.publisher = publisher;
+    }
+
+    public List<String> getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(List<String> author) {
+        this.author = author;
+    }
+
+    public List<Long> getShelfId() {
+        return shelfId;
+    }
+
+    public void setShelfId(List<Long> shelfId) {
+        this.shelfId = shelfId;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public Integer getMinPageCount() {
+        return minPageCount;
+    }
+
+    public void setMinPageCount(Integer minPageCount) {
+        this.minPageCount = minPageCount;
+    }
+
+    public Integer getMaxPageCount() {
+        return maxPageCount;
+    }
+
+    public void setMaxPageCount(Integer maxPageCount) {
+        this.maxPageCount = maxPageCount;
+    }
+}
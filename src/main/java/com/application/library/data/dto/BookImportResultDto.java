@@ -0,0 +1,28 @@
+package com.application.library.data.dto;
+
+import java.util.List;
+
+public class BookImportResultDto {
+
+    private final int totalRows;
+    private final int importedRows;
+    private final List<BookImportRowErrorDto> errors;
+
+    public BookImportResultDto(int totalRows, int importedRows, List<BookImportRowErrorDto> errors) {
+        this.totalRows = totalRows;
+        this.importedRows = importedRows;
+        this.errors = errors;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getImportedRows() {
+        return importedRows;
+    }
+
+    public List<BookImportRowErrorDto> getErrors() {
+        return errors;
+    }
+}
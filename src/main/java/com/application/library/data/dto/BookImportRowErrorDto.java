@@ -0,0 +1,26 @@
+package com.application.library.data.dto;
+
+public class BookImportRowErrorDto {
+
+    private final int row;
+    private final String isbn;
+    private final String message;
+
+    public BookImportRowErrorDto(int row, String isbn, String message) {
+        this.row = row;
+        this.isbn = isbn;
+        this.message = message;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
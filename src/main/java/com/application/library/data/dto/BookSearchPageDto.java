@@ -0,0 +1,23 @@
+package com.application.library.data.dto;
+
+import com.application.library.data.view.book.BookView;
+import org.springframework.data.domain.Page;
+
+public class BookSearchPageDto {
+
+    private final Page<BookView> books;
+    private final boolean totalIsLowerBound;
+
+    public BookSearchPageDto(Page<BookView> books, boolean totalIsLowerBound) {
+        this.books = books;
+        this.totalIsLowerBound = totalIsLowerBound;
+    }
+
+    public Page<BookView> getBooks() {
+        return books;
+    }
+
+    public boolean isTotalIsLowerBound() {
+        return totalIsLowerBound;
+    }
+}
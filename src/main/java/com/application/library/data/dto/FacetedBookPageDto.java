@@ -0,0 +1,28 @@
+package com.application.library.data.dto;
+
+import com.application.library.data.view.book.BookView;
+import com.application.library.enumerations.BookFacet;
+import com.application.library.search.FacetCount;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetedBookPageDto {
+
+    private final Page<BookView> books;
+    private final Map<BookFacet, List<FacetCount>> facets;
+
+    public FacetedBookPageDto(Page<BookView> books, Map<BookFacet, List<FacetCount>> facets) {
+        this.books = books;
+        this.facets = facets;
+    }
+
+    public Page<BookView> getBooks() {
+        return books;
+    }
+
+    public Map<BookFacet, List<FacetCount>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,28 @@
+package com.application.library.data.dto;
+
+import java.util.UUID;
+
+public class LendTransactionBatchItemDto {
+
+    private final int item;
+    private final UUID transactionId;
+    private final String error;
+
+    public LendTransactionBatchItemDto(int item, UUID transactionId, String error) {
+        this.item = item;
+        this.transactionId = transactionId;
+        this.error = error;
+    }
+
+    public int getItem() {
+        return item;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
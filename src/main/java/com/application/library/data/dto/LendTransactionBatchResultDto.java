@@ -0,0 +1,28 @@
+package com.application.library.data.dto;
+
+import java.util.List;
+
+public class LendTransactionBatchResultDto {
+
+    private final int totalItems;
+    private final int succeededItems;
+    private final List<LendTransactionBatchItemDto> results;
+
+    public LendTransactionBatchResultDto(int totalItems, int succeededItems, List<LendTransactionBatchItemDto> results) {
+        this.totalItems = totalItems;
+        this.succeededItems = succeededItems;
+        this.results = results;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public int getSucceededItems() {
+        return succeededItems;
+    }
+
+    public List<LendTransactionBatchItemDto> getResults() {
+        return results;
+    }
+}
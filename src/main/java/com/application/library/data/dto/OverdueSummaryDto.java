@@ -0,0 +1,28 @@
+package com.application.library.data.dto;
+
+import java.time.LocalDate;
+
+public class OverdueSummaryDto {
+
+    private final long overdueCount;
+    private final double outstandingLateFees;
+    private final LocalDate accruedThrough;
+
+    public OverdueSummaryDto(long overdueCount, double outstandingLateFees, LocalDate accruedThrough) {
+        this.overdueCount = overdueCount;
+        this.outstandingLateFees = outstandingLateFees;
+        this.accruedThrough = accruedThrough;
+    }
+
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+
+    public double getOutstandingLateFees() {
+        return outstandingLateFees;
+    }
+
+    public LocalDate getAccruedThrough() {
+        return accruedThrough;
+    }
+}
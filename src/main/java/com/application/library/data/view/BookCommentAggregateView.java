@@ -0,0 +1,18 @@
+package com.application.library.data.view;
+
+public interface BookCommentAggregateView {
+
+    Long getCommentCount();
+
+    Double getRatingSum();
+
+    Long getOneStarCount();
+
+    Long getTwoStarCount();
+
+    Long getThreeStarCount();
+
+    Long getFourStarCount();
+
+    Long getFiveStarCount();
+}
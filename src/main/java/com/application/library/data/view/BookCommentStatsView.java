@@ -1,8 +0,0 @@
-package com.application.library.data.view;
-
-public interface BookCommentStatsView {
-
-    Long getTotalComments();
-
-    Double getAverageRating();
-}
@@ -0,0 +1,12 @@
+package com.application.library.data.view;
+
+import java.time.LocalDate;
+
+public interface BookDateCountView {
+
+    Long getBookId();
+
+    LocalDate getDate();
+
+    Long getCount();
+}
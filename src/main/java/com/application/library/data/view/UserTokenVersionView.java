@@ -0,0 +1,10 @@
+package com.application.library.data.view;
+
+public interface UserTokenVersionView {
+
+    Long getId();
+
+    Integer getTokenVersion();
+
+    Boolean getDeleted();
+}
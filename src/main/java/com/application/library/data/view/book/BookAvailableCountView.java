@@ -0,0 +1,8 @@
+package com.application.library.data.view.book;
+
+public interface BookAvailableCountView {
+
+    Long getId();
+
+    Integer getAvailableCount();
+}
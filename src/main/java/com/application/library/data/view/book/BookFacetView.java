@@ -0,0 +1,20 @@
+package com.application.library.data.view.book;
+
+public interface BookFacetView {
+
+    Long getId();
+
+    String getName();
+
+    String getAuthor();
+
+    String getPublisher();
+
+    String getLanguage();
+
+    Integer getPageCount();
+
+    Integer getAvailableCount();
+
+    Long getShelfId();
+}
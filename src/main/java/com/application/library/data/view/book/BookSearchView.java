@@ -0,0 +1,18 @@
+package com.application.library.data.view.book;
+
+public interface BookSearchView {
+
+    Long getId();
+
+    String getName();
+
+    String getAuthor();
+
+    String getIsbn();
+
+    String getPublisher();
+
+    String getLanguage();
+
+    String getDescription();
+}
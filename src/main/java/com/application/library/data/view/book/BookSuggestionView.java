@@ -0,0 +1,10 @@
+package com.application.library.data.view.book;
+
+public interface BookSuggestionView {
+
+    Long getId();
+
+    String getName();
+
+    String getAuthor();
+}
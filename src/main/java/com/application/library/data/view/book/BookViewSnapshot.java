@@ -0,0 +1,126 @@
+package com.application.library.data.view.book;
+
+import com.application.library.data.view.shelf.ShelfBaseView;
+import com.application.library.data.view.shelf.ShelfBaseViewSnapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a {@link BookView} projection, safe to keep in a cache after the persistence
+ * context that produced the projection is closed.
+ */
+public final class BookViewSnapshot implements BookView {
+
+    private final Long id;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final String name;
+    private final String author;
+    private final String isbn;
+    private final Integer pageCount;
+    private final String publisher;
+    private final String publishedAt;
+    private final String language;
+    private final String description;
+    private final String imageUrl;
+    private final Integer totalCount;
+    private final Integer availableCount;
+    private final ShelfBaseView shelf;
+
+    private BookViewSnapshot(BookView view) {
+        this.id = view.getId();
+        this.createdAt = view.getCreatedAt();
+        this.updatedAt = view.getUpdatedAt();
+        this.name = view.getName();
+        this.author = view.getAuthor();
+        this.isbn = view.getIsbn();
+        this.pageCount = view.getPageCount();
+        this.publisher = view.getPublisher();
+        this.publishedAt = view.getPublishedAt();
+        this.language = view.getLanguage();
+        this.description = view.getDescription();
+        this.imageUrl = view.getImageUrl();
+        this.totalCount = view.getTotalCount();
+        this.availableCount = view.getAvailableCount();
+        this.shelf = ShelfBaseViewSnapshot.of(view.getShelf());
+    }
+
+    public static BookView of(BookView view) {
+        return view instanceof BookViewSnapshot ? view : new BookViewSnapshot(view);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getAuthor() {
+        return author;
+    }
+
+    @Override
+    public String getIsbn() {
+        return isbn;
+    }
+
+    @Override
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    @Override
+    public String getPublisher() {
+        return publisher;
+    }
+
+    @Override
+    public String getPublishedAt() {
+        return publishedAt;
+    }
+
+    @Override
+    public String getLanguage() {
+        return language;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    @Override
+    public Integer getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public Integer getAvailableCount() {
+        return availableCount;
+    }
+
+    @Override
+    public ShelfBaseView getShelf() {
+        return shelf;
+    }
+}
@@ -0,0 +1,40 @@
+package com.application.library.data.view.shelf;
+
+public final class ShelfBaseViewSnapshot implements ShelfBaseView {
+
+    private final Long id;
+    private final String name;
+    private final Integer capacity;
+    private final Integer availableCapacity;
+
+    private ShelfBaseViewSnapshot(ShelfBaseView view) {
+        this.id = view.getId();
+        this.name = view.getName();
+        this.capacity = view.getCapacity();
+        this.availableCapacity = view.getAvailableCapacity();
+    }
+
+    public static ShelfBaseView of(ShelfBaseView view) {
+        return view == null ? null : new ShelfBaseViewSnapshot(view);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public Integer getAvailableCapacity() {
+        return availableCapacity;
+    }
+}
@@ -0,0 +1,31 @@
+package com.application.library.data.view.transaction.lend;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface LendTransactionExportView {
+
+    String getId();
+
+    LocalDateTime getCreatedAt();
+
+    Long getBookId();
+
+    String getBookIsbn();
+
+    String getBookName();
+
+    Long getUserId();
+
+    String getUserEmail();
+
+    Long getLenderId();
+
+    LocalDate getDeadlineDate();
+
+    LocalDateTime getReturnDate();
+
+    Boolean getReturned();
+
+    Double getLateFeePaid();
+}
@@ -0,0 +1,19 @@
+package com.application.library.data.view.transaction.lend;
+
+import com.application.library.core.view.UUIDEntityView;
+import com.application.library.data.view.UserListView;
+import com.application.library.data.view.book.BaseBookView;
+
+import java.time.LocalDate;
+
+public interface LendTransactionOverdueView extends UUIDEntityView {
+    LocalDate getDeadlineDate();
+
+    double getAccruedLateFee();
+
+    Double getLateFeePaid();
+
+    BaseBookView getBook();
+
+    UserListView getUser();
+}
@@ -0,0 +1,8 @@
+package com.application.library.data.view.transaction.lend;
+
+public interface OverdueSummaryView {
+
+    long getOverdueCount();
+
+    double getOutstandingLateFees();
+}
@@ -0,0 +1,10 @@
+package com.application.library.enumerations;
+
+public enum BookFacet {
+    LANGUAGE,
+    PUBLISHER,
+    AUTHOR,
+    SHELF,
+    AVAILABILITY,
+    PAGE_COUNT
+}
@@ -0,0 +1,6 @@
+package com.application.library.enumerations;
+
+public enum SuggestionType {
+    TITLE,
+    AUTHOR
+}
@@ -1,11 +1,15 @@
 package com.application.library.exception.handler;
 
+import com.application.library.constants.MessageConstants;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.exception.IllegalDeleteOperationException;
+import com.application.library.exception.ServiceBusyException;
 import com.application.library.exception.ShelfFullException;
 import com.application.library.utils.ErrorResponseHandler;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -39,6 +43,18 @@ public class DefaultExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponseHandler("Data Integrity Violation: " + message));
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponseHandler> handleConcurrencyFailureExceptions() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponseHandler(MessageConstants.CONCURRENT_MODIFICATION));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponseHandler> handleServiceBusyExceptions(ServiceBusyException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(new ErrorResponseHandler(exception.getMessage()));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponseHandler> handleAccessDeniedExceptions(AccessDeniedException exception) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponseHandler(exception.getMessage()));
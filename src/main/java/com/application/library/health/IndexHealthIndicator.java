@@ -0,0 +1,99 @@
+package com.application.library.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Verifies at startup that the indexes backing the hot query predicates exist. Missing indexes are
+ * logged, exposed on the health endpoint and counted by the {@code library.db.indexes.missing} gauge.
+ * The indicator reports {@code UP} with details, since a missing index degrades latency but not correctness.
+ */
+@Component("indexes")
+public class IndexHealthIndicator implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexHealthIndicator.class);
+
+    private final DataSource dataSource;
+    private final Set<String> expectedIndexes;
+    private volatile Set<String> missingIndexes;
+    private volatile String failure;
+
+    public IndexHealthIndicator(DataSource dataSource,
+                                MeterRegistry meterRegistry,
+                                @Value("${database.index-check.expected:}") List<String> expectedIndexes) {
+        this.dataSource = dataSource;
+        this.expectedIndexes = new TreeSet<>();
+        expectedIndexes.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .forEach(this.expectedIndexes::add);
+        Gauge.builder("library.db.indexes.missing", this, indicator -> indicator.missingIndexes == null ? 0 : indicator.missingIndexes.size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        try {
+            Set<String> missing = new TreeSet<>(expectedIndexes);
+            missing.removeAll(findIndexNames());
+            missingIndexes = missing;
+            failure = null;
+            if (!missing.isEmpty()) log.warn("Missing database indexes: {}", missing);
+        } catch (SQLException e) {
+            failure = e.getMessage();
+            log.warn("Could not inspect database indexes", e);
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (failure != null) return Health.unknown().withDetail("error", failure).build();
+        if (missingIndexes == null) return Health.unknown().build();
+        return Health.up()
+                .withDetail("expectedIndexes", expectedIndexes.size())
+                .withDetail("missingIndexes", missingIndexes)
+                .build();
+    }
+
+    public Set<String> getMissingIndexes() {
+        return missingIndexes == null ? Set.of() : Collections.unmodifiableSet(missingIndexes);
+    }
+
+    private Set<String> findIndexNames() throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String catalog = connection.getCatalog();
+            String schema = connection.getSchema();
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rs = metaData.getTables(catalog, schema, "%", new String[]{"TABLE"})) {
+                while (rs.next()) tables.add(rs.getString("TABLE_NAME"));
+            }
+            for (String table : tables) {
+                try (ResultSet rs = metaData.getIndexInfo(catalog, schema, table, false, true)) {
+                    while (rs.next()) {
+                        String name = rs.getString("INDEX_NAME");
+                        if (name != null) names.add(name.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -1,12 +1,16 @@
 package com.application.library.listener;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.config.CachingConfig;
 import com.application.library.listener.event.UpdateBookAvailableCountEvent;
 import com.application.library.repository.BookRepository;
 import com.application.library.repository.LendTransactionRepository;
-import org.springframework.scheduling.annotation.Async;
+import com.application.library.search.BookFacetIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
@@ -14,17 +18,34 @@ public class BookListener {
 
     private final BookRepository bookRepository;
     private final LendTransactionRepository lendTransactionRepository;
-
-    public BookListener(BookRepository bookRepository, LendTransactionRepository lendTransactionRepository) {
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final EventCoalescer<Long> coalescer;
+
+    public BookListener(BookRepository bookRepository,
+                        LendTransactionRepository lendTransactionRepository,
+                        CacheInvalidationBus cacheInvalidationBus,
+                        OptimisticRetryExecutor optimisticRetryExecutor,
+                        MeterRegistry meterRegistry) {
         this.bookRepository = bookRepository;
         this.lendTransactionRepository = lendTransactionRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.coalescer = new EventCoalescer<>(meterRegistry, UpdateBookAvailableCountEvent.class.getSimpleName());
     }
 
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     @TransactionalEventListener
     public void onRegistrationUserConfirmationOrderCreatedEvent(UpdateBookAvailableCountEvent event) {
-        Long bookId = event.getBookId();
+        coalescer.submit(event.getBookId());
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${events.coalescing.window-ms:500}")
+    public void flush() {
+        coalescer.flush(bookId -> optimisticRetryExecutor.run("recomputeAvailableCount", () -> recomputeAvailableCount(bookId)));
+    }
+
+    private void recomputeAvailableCount(Long bookId) {
         bookRepository.findById(bookId).ifPresent(book -> {
             int lentCount = lendTransactionRepository.countAllByBook_IdAndReturnedFalse(bookId);
 
@@ -33,6 +54,9 @@ public class BookListener {
             book.setAvailableCount(availableCount);
 
             bookRepository.save(book);
+            cacheInvalidationBus.evict(CachingConfig.BOOK_VIEW, bookId.toString());
+            cacheInvalidationBus.evict(BookFacetIndex.INDEX_NAME, bookId.toString());
+            cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
         });
     }
 }
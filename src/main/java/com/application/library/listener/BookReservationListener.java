@@ -1,20 +1,28 @@
 package com.application.library.listener;
 
+import com.application.library.cache.CacheInvalidationBus;
 import com.application.library.listener.event.UpdateUserReservationCompleteStatus;
+import com.application.library.listener.event.UpdateUserReservationsCompleteStatus;
+import com.application.library.model.BookReservation;
 import com.application.library.repository.BookReservationRepository;
+import com.application.library.reservation.AvailabilityTimelineCache;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.List;
+
 @Component
 public class BookReservationListener {
 
     private final BookReservationRepository bookReservationRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
-    public BookReservationListener(BookReservationRepository bookReservationRepository) {
+    public BookReservationListener(BookReservationRepository bookReservationRepository, CacheInvalidationBus cacheInvalidationBus) {
         this.bookReservationRepository = bookReservationRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     @Async
@@ -25,7 +33,23 @@ public class BookReservationListener {
                 .ifPresent(bookReservation -> {
                     bookReservation.setCompleted(true);
                     bookReservationRepository.save(bookReservation);
+                    cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, event.getBookId().toString());
                 });
 
     }
+
+    @Async
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener
+    public void onUpdateUserReservationsCompleteStatus(UpdateUserReservationsCompleteStatus event) {
+        List<BookReservation> completed = bookReservationRepository.findAllByUser_IdInAndCompletedFalse(event.getBookIdsByUserId().keySet())
+                .stream()
+                .filter(bookReservation -> bookReservation.getBook().getId().equals(event.getBookIdsByUserId().get(bookReservation.getUser().getId())))
+                .toList();
+        if (completed.isEmpty()) return;
+
+        completed.forEach(bookReservation -> bookReservation.setCompleted(true));
+        bookReservationRepository.saveAll(completed);
+        completed.forEach(bookReservation -> cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, bookReservation.getBook().getId().toString()));
+    }
 }
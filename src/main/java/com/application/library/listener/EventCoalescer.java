@@ -0,0 +1,59 @@
+package com.application.library.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Merges pending events by key so that a burst of events for the same entity results in a single
+ * recompute on the next flush. A key submitted while its recompute is running is kept for the
+ * following flush, and so is a key whose recompute failed; the other keys are still recomputed.
+ */
+public class EventCoalescer<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCoalescer.class);
+
+    private final String eventName;
+    private final Set<K> pending = ConcurrentHashMap.newKeySet();
+    private final Counter received;
+    private final Counter recomputed;
+    private final Counter failed;
+
+    public EventCoalescer(MeterRegistry meterRegistry, String eventName) {
+        this.eventName = eventName;
+        this.received = Counter.builder("library.events.coalescer.received").tag("event", eventName).register(meterRegistry);
+        this.recomputed = Counter.builder("library.events.coalescer.recomputed").tag("event", eventName).register(meterRegistry);
+        this.failed = Counter.builder("library.events.coalescer.failed").tag("event", eventName).register(meterRegistry);
+    }
+
+    public void submit(K key) {
+        received.increment();
+        pending.add(key);
+    }
+
+    public void flush(Consumer<K> recompute) {
+        List<K> keys = new ArrayList<>(pending);
+        for (K key : keys) {
+            if (!pending.remove(key)) continue;
+            try {
+                recompute.accept(key);
+                recomputed.increment();
+            } catch (RuntimeException e) {
+                pending.add(key);
+                failed.increment();
+                log.warn("Could not recompute {} for {}, keeping it for the next flush", eventName, key, e);
+            }
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+}
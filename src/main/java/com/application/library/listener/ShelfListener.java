@@ -1,29 +1,49 @@
 package com.application.library.listener;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.config.CachingConfig;
 import com.application.library.listener.event.UpdateShelfAvailableCapacityEvent;
 import com.application.library.repository.ShelfRepository;
-import org.springframework.scheduling.annotation.Async;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 public class ShelfListener {
 
     private final ShelfRepository shelfRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final EventCoalescer<Long> coalescer;
 
-    public ShelfListener(ShelfRepository shelfRepository) {
+    public ShelfListener(ShelfRepository shelfRepository,
+                         CacheInvalidationBus cacheInvalidationBus,
+                         OptimisticRetryExecutor optimisticRetryExecutor,
+                         MeterRegistry meterRegistry) {
         this.shelfRepository = shelfRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.coalescer = new EventCoalescer<>(meterRegistry, UpdateShelfAvailableCapacityEvent.class.getSimpleName());
     }
 
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     @TransactionalEventListener
     public void onRegistrationUserConfirmationOrderCreatedEvent(UpdateShelfAvailableCapacityEvent event) {
-        Long shelfId = event.getShelfId();
-        shelfRepository.findById(shelfId).ifPresent(shelf -> {
-            shelf.setAvailableCapacity(shelf.getCapacity() - shelf.getBooks().size());
-        });
+        coalescer.submit(event.getShelfId());
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${events.coalescing.window-ms:500}")
+    public void flush() {
+        coalescer.flush(shelfId -> optimisticRetryExecutor.run("recomputeAvailableCapacity", () -> recomputeAvailableCapacity(shelfId)));
+    }
+
+    // Counts the shelf's books in the update itself rather than loading them, and leaves a shelf that is already right untouched.
+    private void recomputeAvailableCapacity(Long shelfId) {
+        if (shelfRepository.recomputeAvailableCapacity(shelfId) == 0) return;
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW);
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
     }
 }
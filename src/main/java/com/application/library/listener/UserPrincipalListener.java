@@ -0,0 +1,25 @@
+package com.application.library.listener;
+
+import com.application.library.listener.event.UpdateUserPrincipalEvent;
+import com.application.library.security.TokenRevocationRegistry;
+import com.application.library.security.UserPrincipalCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class UserPrincipalListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    public UserPrincipalListener(UserPrincipalCache userPrincipalCache, TokenRevocationRegistry tokenRevocationRegistry) {
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+    }
+
+    @TransactionalEventListener
+    public void onUpdateUserPrincipalEvent(UpdateUserPrincipalEvent event) {
+        userPrincipalCache.evict(event.getEmail());
+        tokenRevocationRegistry.revoke(event.getUserId(), event.getMinimumTokenVersion());
+    }
+}
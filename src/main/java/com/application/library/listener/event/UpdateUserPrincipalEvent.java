@@ -0,0 +1,28 @@
+package com.application.library.listener.event;
+
+import org.springframework.context.ApplicationEvent;
+
+public class UpdateUserPrincipalEvent extends ApplicationEvent {
+    private final Long userId;
+    private final String email;
+    private final int minimumTokenVersion;
+
+    public UpdateUserPrincipalEvent(Object source, Long userId, String email, int minimumTokenVersion) {
+        super(source);
+        this.userId = userId;
+        this.email = email;
+        this.minimumTokenVersion = minimumTokenVersion;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public int getMinimumTokenVersion() {
+        return minimumTokenVersion;
+    }
+}
@@ -0,0 +1,18 @@
+package com.application.library.listener.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+public class UpdateUserReservationsCompleteStatus extends ApplicationEvent {
+    private final Map<Long, Long> bookIdsByUserId;
+
+    public UpdateUserReservationsCompleteStatus(Object source, Map<Long, Long> bookIdsByUserId) {
+        super(source);
+        this.bookIdsByUserId = bookIdsByUserId;
+    }
+
+    public Map<Long, Long> getBookIdsByUserId() {
+        return bookIdsByUserId;
+    }
+}
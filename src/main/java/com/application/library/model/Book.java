@@ -8,7 +8,7 @@ import org.hibernate.annotations.Where;
 
 @Entity(name = "books")
 @Table(name = "books")
-@SQLDelete(sql = "UPDATE books SET deleted = NULL, deleted_date_time = NOW() WHERE id = ?")
+@SQLDelete(sql = "UPDATE books SET deleted = NULL, deleted_date_time = NOW() WHERE id = ? AND version = ?")
 @Where(clause = "deleted = false")
 public class Book extends IntegerSoftDeleteEntity {
 
@@ -49,6 +49,10 @@ public class Book extends IntegerSoftDeleteEntity {
     @JoinColumn(name = "shelf_id", nullable = false)
     private Shelf shelf;
 
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
     public String getName() {
         return name;
     }
@@ -147,6 +151,10 @@ public class Book extends IntegerSoftDeleteEntity {
     }
 
 
+    public Long getVersion() {
+        return version;
+    }
+
     public boolean isAvailable() {
         return this.availableCount > 0;
     }
@@ -0,0 +1,40 @@
+package com.application.library.model;
+
+import com.application.library.core.model.IntegerEntity;
+import jakarta.persistence.*;
+
+
+@Entity(name = "cache_invalidations")
+@Table(name = "cache_invalidations", indexes = {@Index(name = "idx_cache_invalidations_created_at", columnList = "created_at")})
+public class CacheInvalidation extends IntegerEntity {
+
+    @Column(name = "cache_name", nullable = false)
+    private String cacheName;
+
+    @Column(name = "cache_key")
+    private String cacheKey;
+
+    @Column(name = "origin", nullable = false)
+    private String origin;
+
+    public CacheInvalidation() {
+    }
+
+    public CacheInvalidation(String cacheName, String cacheKey, String origin) {
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.origin = origin;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+}
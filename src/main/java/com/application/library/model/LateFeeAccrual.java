@@ -0,0 +1,44 @@
+package com.application.library.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity(name = "late_fee_accruals")
+@Table(name = "late_fee_accruals")
+public class LateFeeAccrual {
+
+    @Id
+    @Column(name = "accrual_date", nullable = false, updatable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "fee_per_day", nullable = false)
+    private double feePerDay;
+
+    @Column(name = "cumulative_fee", nullable = false)
+    private double cumulativeFee;
+
+    public LocalDate getAccrualDate() {
+        return accrualDate;
+    }
+
+    public void setAccrualDate(LocalDate accrualDate) {
+        this.accrualDate = accrualDate;
+    }
+
+    public double getFeePerDay() {
+        return feePerDay;
+    }
+
+    public void setFeePerDay(double feePerDay) {
+        this.feePerDay = feePerDay;
+    }
+
+    public double getCumulativeFee() {
+        return cumulativeFee;
+    }
+
+    public void setCumulativeFee(double cumulativeFee) {
+        this.cumulativeFee = cumulativeFee;
+    }
+}
@@ -35,6 +35,16 @@ public class LendTransaction extends UUIDEntity {
 
     private boolean returned = false;
 
+    @Column(name = "overdue", nullable = false)
+    private boolean overdue = false;
+
+    @Column(name = "accrued_late_fee", nullable = false)
+    private double accruedLateFee;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
     public Book getBook() {
         return book;
     }
@@ -91,6 +101,26 @@ public class LendTransaction extends UUIDEntity {
         this.returned = returned;
     }
 
+    public boolean isOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(boolean overdue) {
+        this.overdue = overdue;
+    }
+
+    public double getAccruedLateFee() {
+        return accruedLateFee;
+    }
+
+    public void setAccruedLateFee(double accruedLateFee) {
+        this.accruedLateFee = accruedLateFee;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
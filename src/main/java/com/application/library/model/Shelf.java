@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import java.util.Set;
 
@@ -24,6 +25,10 @@ public class Shelf extends IntegerEntity {
     @OneToMany(mappedBy = "shelf")
     private Set<Book> books;
 
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
 
     public String getName() {
         return name;
@@ -57,4 +62,8 @@ public class Shelf extends IntegerEntity {
         this.books = books;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
 }
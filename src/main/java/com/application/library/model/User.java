@@ -43,6 +43,10 @@ public class User extends IntegerSoftDeleteEntity implements UserDetails {
     @Column(name = "credentials_non_expired")
     private boolean credentialsNonExpired = true;
 
+    @JsonIgnore
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
 
     @ElementCollection(targetClass = UserRole.class, fetch = FetchType.EAGER)
     @JoinTable(name = "authorities", joinColumns = @JoinColumn(name = "user_id"))
@@ -50,6 +54,15 @@ public class User extends IntegerSoftDeleteEntity implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Set<UserRole> authorities;
 
+    public User() {
+    }
+
+    public User(Long id, String email, Set<UserRole> authorities) {
+        setId(id);
+        this.email = email;
+        this.authorities = authorities;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -133,6 +146,14 @@ public class User extends IntegerSoftDeleteEntity implements UserDetails {
         this.authorities = authorities;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public void incrementTokenVersion() {
+        this.tokenVersion = getTokenVersion() + 1;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -2,12 +2,16 @@ package com.application.library.repository;
 
 
 import com.application.library.data.dto.BookCommentDto;
-import com.application.library.data.view.BookCommentStatsView;
+import com.application.library.data.view.BookCommentAggregateView;
 import com.application.library.model.BookComment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface BookCommentRepository extends JpaRepository<BookComment, Long> {
 
@@ -16,10 +20,30 @@ public interface BookCommentRepository extends JpaRepository<BookComment, Long>
             "WHERE bc.book.id = :bookId")
     Page<BookCommentDto> getCommentsByBookId(Long bookId, Pageable pageable);
 
+    @Query("SELECT NEW com.application.library.data.dto.BookCommentDto(bc.id, bc.createdAt, bc.updatedAt, bc.commentText, bc.rating, bc.user.firstName, bc.user.lastName) " +
+            "FROM book_comment bc " +
+            "WHERE bc.book.id = :bookId " +
+            "ORDER BY bc.createdAt DESC, bc.id DESC")
+    List<BookCommentDto> findFirstByBookIdOrderByNewest(@Param("bookId") Long bookId, Pageable pageable);
+
+    @Query("SELECT NEW com.application.library.data.dto.BookCommentDto(bc.id, bc.createdAt, bc.updatedAt, bc.commentText, bc.rating, bc.user.firstName, bc.user.lastName) " +
+            "FROM book_comment bc " +
+            "WHERE bc.book.id = :bookId AND (bc.createdAt < :createdAt OR (bc.createdAt = :createdAt AND bc.id < :id)) " +
+            "ORDER BY bc.createdAt DESC, bc.id DESC")
+    List<BookCommentDto> findAfterByBookIdOrderByNewest(@Param("bookId") Long bookId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
+
 
-    @Query("SELECT COUNT(bc.id) as totalComments, AVG(bc.rating) as averageRating " +
+    @Query("SELECT COUNT(bc.id) AS commentCount, COALESCE(SUM(bc.rating), 0) AS ratingSum, " +
+            "COALESCE(SUM(CASE WHEN bc.rating < 1.5 THEN 1 ELSE 0 END), 0) AS oneStarCount, " +
+            "COALESCE(SUM(CASE WHEN bc.rating >= 1.5 AND bc.rating < 2.5 THEN 1 ELSE 0 END), 0) AS twoStarCount, " +
+            "COALESCE(SUM(CASE WHEN bc.rating >= 2.5 AND bc.rating < 3.5 THEN 1 ELSE 0 END), 0) AS threeStarCount, " +
+            "COALESCE(SUM(CASE WHEN bc.rating >= 3.5 AND bc.rating < 4.5 THEN 1 ELSE 0 END), 0) AS fourStarCount, " +
+            "COALESCE(SUM(CASE WHEN bc.rating >= 4.5 THEN 1 ELSE 0 END), 0) AS fiveStarCount " +
             "FROM book_comment bc " +
             "WHERE bc.book.id = :bookId")
-    BookCommentStatsView getBookCommentStats(Long bookId);
+    BookCommentAggregateView aggregateByBookId(Long bookId);
 
 }
@@ -0,0 +1,78 @@
+package com.application.library.repository;
+
+import com.application.library.model.BookCommentStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookCommentStatsRepository extends JpaRepository<BookCommentStats, Long> {
+
+    String LIVE_COMMENTS = "FROM book_comment bc WHERE bc.book.id = s.bookId";
+
+    @Modifying
+    @Query(value = "UPDATE book_comment_stats SET comment_count = comment_count + :count, " +
+            "rating_sum = rating_sum + :ratingSum, " +
+            "one_star_count = one_star_count + CASE WHEN :star = 1 THEN :count ELSE 0 END, " +
+            "two_star_count = two_star_count + CASE WHEN :star = 2 THEN :count ELSE 0 END, " +
+            "three_star_count = three_star_count + CASE WHEN :star = 3 THEN :count ELSE 0 END, " +
+            "four_star_count = four_star_count + CASE WHEN :star = 4 THEN :count ELSE 0 END, " +
+            "five_star_count = five_star_count + CASE WHEN :star = 5 THEN :count ELSE 0 END " +
+            "WHERE book_id = :bookId", nativeQuery = true)
+    int addRatings(@Param("bookId") Long bookId, @Param("star") int star, @Param("count") long count, @Param("ratingSum") double ratingSum);
+
+    @Modifying
+    @Query(value = "INSERT INTO book_comment_stats (book_id, comment_count, rating_sum, one_star_count, two_star_count, " +
+            "three_star_count, four_star_count, five_star_count) " +
+            "SELECT b.id, 0, 0, 0, 0, 0, 0, 0 FROM books b WHERE b.id IN (:bookIds)", nativeQuery = true)
+    int insertEmpty(@Param("bookIds") Collection<Long> bookIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM book_comment_stats s WHERE s.bookId = :bookId")
+    Optional<BookCommentStats> findByIdForUpdate(@Param("bookId") Long bookId);
+
+    // native so that comments deleted since are included
+    @Query(value = "SELECT DISTINCT bc.book_id FROM book_comment bc " +
+            "WHERE bc.updated_at >= :since OR bc.deleted_date_time >= :since", nativeQuery = true)
+    List<Long> findBookIdsWithCommentsChangedSince(@Param("since") LocalDateTime since);
+
+    // the five star count is implied by the comment count and the other four
+    @Query("SELECT s.bookId FROM book_comment_stats s WHERE s.bookId IN :bookIds AND (" +
+            "s.commentCount <> (SELECT COUNT(bc) " + LIVE_COMMENTS + ") " +
+            "OR ABS(s.ratingSum - (SELECT COALESCE(SUM(bc.rating), 0) " + LIVE_COMMENTS + ")) > 0.000001 " +
+            "OR s.oneStarCount <> (SELECT COUNT(bc) " + LIVE_COMMENTS + " AND bc.rating < 1.5) " +
+            "OR s.twoStarCount <> (SELECT COUNT(bc) " + LIVE_COMMENTS + " AND bc.rating >= 1.5 AND bc.rating < 2.5) " +
+            "OR s.threeStarCount <> (SELECT COUNT(bc) " + LIVE_COMMENTS + " AND bc.rating >= 2.5 AND bc.rating < 3.5) " +
+            "OR s.fourStarCount <> (SELECT COUNT(bc) " + LIVE_COMMENTS + " AND bc.rating >= 3.5 AND bc.rating < 4.5))")
+    List<Long> findBookIdsWithDrift(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT DISTINCT bc.book.id FROM book_comment bc WHERE bc.book.id IN :bookIds " +
+            "AND NOT EXISTS (SELECT 1 FROM book_comment_stats s WHERE s.bookId = bc.book.id)")
+    List<Long> findCommentedBookIdsWithoutStats(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT s.bookId FROM book_comment_stats s WHERE s.bookId > :afterBookId ORDER BY s.bookId")
+    List<Long> findBookIdsAfter(@Param("afterBookId") Long afterBookId, Pageable pageable);
+
+    @Query("SELECT DISTINCT bc.book.id FROM book_comment bc WHERE bc.book.id > :afterBookId " +
+            "AND NOT EXISTS (SELECT 1 FROM book_comment_stats s WHERE s.bookId = bc.book.id) ORDER BY bc.book.id")
+    List<Long> findCommentedBookIdsWithoutStatsAfter(@Param("afterBookId") Long afterBookId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE book_comment_stats_reconciliation SET claimed_at = :now WHERE id = 1 AND claimed_at < :claimableBefore", nativeQuery = true)
+    int claimReconciliation(@Param("now") LocalDateTime now, @Param("claimableBefore") LocalDateTime claimableBefore);
+
+    @Query(value = "SELECT reconciled_at FROM book_comment_stats_reconciliation WHERE id = 1", nativeQuery = true)
+    LocalDateTime findReconciledAt();
+
+    @Modifying
+    @Query(value = "UPDATE book_comment_stats_reconciliation SET reconciled_at = :reconciledAt WHERE id = 1", nativeQuery = true)
+    int updateReconciledAt(@Param("reconciledAt") LocalDateTime reconciledAt);
+}
@@ -1,16 +1,33 @@
 package com.application.library.repository;
 
 
+import com.application.library.data.view.book.BookAvailableCountView;
+import com.application.library.data.view.book.BookFacetView;
+import com.application.library.data.view.book.BookSearchView;
+import com.application.library.data.view.book.BookSuggestionView;
 import com.application.library.data.view.book.BookView;
 import com.application.library.model.Book;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String SEARCH_VIEW_SELECT = "SELECT b.id AS id, b.name AS name, b.author AS author, b.isbn AS isbn, b.publisher AS publisher, " +
+            "b.language AS language, b.description AS description FROM books b ";
+    String SUGGESTION_VIEW_SELECT = "SELECT b.id AS id, b.name AS name, b.author AS author FROM books b ";
+    String FACET_VIEW_SELECT = "SELECT b.id AS id, b.name AS name, b.author AS author, b.publisher AS publisher, b.language AS language, " +
+            "b.pageCount AS pageCount, b.availableCount AS availableCount, b.shelf.id AS shelfId FROM books b ";
+
     boolean existsByIsbn(String isbn);
 
     Optional<BookView> getBookById(Long id);
@@ -18,4 +35,65 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     Page<BookView> getAllBy(Pageable pageable);
 
     Page<BookView> findAllByShelfId(Long shelfId, Pageable pageable);
+
+    @Query("SELECT b FROM books b ORDER BY b.name, b.id")
+    List<BookView> findFirstOrderByName(Pageable pageable);
+
+    @Query("SELECT b FROM books b WHERE b.name > :name OR (b.name = :name AND b.id > :id) ORDER BY b.name, b.id")
+    List<BookView> findAfterOrderByName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    List<BookView> findAllByIdIn(Collection<Long> ids);
+
+    @Query(SEARCH_VIEW_SELECT + "WHERE b.id > :id ORDER BY b.id")
+    List<BookSearchView> findSearchViewsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query(SEARCH_VIEW_SELECT + "WHERE b.id IN (:ids)")
+    List<BookSearchView> findSearchViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUGGESTION_VIEW_SELECT + "WHERE b.id > :id ORDER BY b.id")
+    List<BookSuggestionView> findSuggestionViewsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query(SUGGESTION_VIEW_SELECT + "WHERE b.id IN (:ids)")
+    List<BookSuggestionView> findSuggestionViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(FACET_VIEW_SELECT + "WHERE b.id > :id ORDER BY b.id")
+    List<BookFacetView> findFacetViewsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query(FACET_VIEW_SELECT + "WHERE b.id IN (:ids)")
+    List<BookFacetView> findFacetViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM books b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM books b WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id AS id, b.availableCount AS availableCount FROM books b WHERE b.id IN :ids")
+    List<BookAvailableCountView> findAvailableCountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Native so that ISBNs of soft-deleted books, which still hold the unique constraint, are found too.
+    @Query(value = "SELECT b.isbn FROM books b WHERE b.isbn IN (:isbns)", nativeQuery = true)
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Modifying
+    @Query("UPDATE books b SET b.availableCount = b.availableCount - 1, b.version = b.version + 1 WHERE b.id = :id AND b.availableCount > 0")
+    int decrementAvailableCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE books b SET b.availableCount = b.availableCount + 1, b.version = b.version + 1 WHERE b.id = :id AND b.availableCount < b.totalCount")
+    int incrementAvailableCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE books b SET b.availableCount = b.availableCount - :count, b.version = b.version + 1 WHERE b.id = :id AND b.availableCount >= :count")
+    int decreaseAvailableCount(@Param("id") Long id, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE books b SET b.availableCount = b.availableCount + :count, b.version = b.version + 1 WHERE b.id = :id AND b.availableCount + :count <= b.totalCount")
+    int increaseAvailableCount(@Param("id") Long id, @Param("count") int count);
+
+    @Query("SELECT b.id FROM books b WHERE b.availableCount <> b.totalCount - " +
+            "(SELECT COUNT(l) FROM lend_transaction l WHERE l.book = b AND l.returned = false)")
+    List<Long> findIdsWithAvailableCountDrift();
 }
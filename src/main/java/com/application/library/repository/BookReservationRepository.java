@@ -1,6 +1,7 @@
 package com.application.library.repository;
 
 
+import com.application.library.data.view.BookDateCountView;
 import com.application.library.data.view.BookReservationView;
 import com.application.library.data.view.ReadingListView;
 import com.application.library.model.BookReservation;
@@ -8,9 +9,13 @@ import com.application.library.model.ReadingList;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BookReservationRepository extends JpaRepository<BookReservation, Long> {
@@ -20,9 +25,28 @@ public interface BookReservationRepository extends JpaRepository<BookReservation
     boolean existsByUser_IdAndReservationDateAfter(Long userId, LocalDate date);
     boolean existsByUser_IdAndCompletedAndCreatedAtAfter(Long userId, boolean completed, LocalDateTime date);
 
-    long countByBook_IdAndReservationDateAfterAndCompletedFalse(Long bookId, LocalDate date);
+    @Query("SELECT r.book.id FROM book_reservation r WHERE r.id = :id")
+    Optional<Long> findBookIdById(@Param("id") Long id);
 
-    long countByBook_IdAndReservationDateBeforeAndCompletedFalse(Long bookId, LocalDate date);
+    @Query("SELECT r.reservationDate FROM book_reservation r WHERE r.book.id = :bookId AND r.completed = false")
+    List<LocalDate> findPendingReservationDatesByBookId(@Param("bookId") Long bookId);
+
+    long countByBook_IdAndCompletedFalseAndReservationDateBefore(Long bookId, LocalDate date);
+
+    /**
+     * What the given date adds to the copies on the shelf of a book: its open lends due back before the date, minus
+     * its pending reservations after it.
+     */
+    @Query("SELECT (SELECT COUNT(l) FROM lend_transaction l WHERE l.book.id = b.id AND l.returned = false AND l.deadlineDate < :date) - " +
+            "(SELECT COUNT(r) FROM book_reservation r WHERE r.book.id = b.id AND r.completed = false AND r.reservationDate > :date) " +
+            "FROM books b WHERE b.id = :bookId")
+    long countAvailabilityChangeOn(@Param("bookId") Long bookId, @Param("date") LocalDate date);
+
+    @Query("SELECT r.book.id AS bookId, r.reservationDate AS date, COUNT(r) AS count FROM book_reservation r " +
+            "WHERE r.book.id IN :bookIds AND r.completed = false GROUP BY r.book.id, r.reservationDate")
+    List<BookDateCountView> countPendingReservationsByBookIdInGroupByDate(@Param("bookIds") Collection<Long> bookIds);
 
     Optional<BookReservation> findByBook_IdAndUser_IdAndCompletedFalse(Long bookId, Long userId);
+
+    List<BookReservation> findAllByUser_IdInAndCompletedFalse(Collection<Long> userIds);
 }
@@ -0,0 +1,19 @@
+package com.application.library.repository;
+
+import com.application.library.model.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    List<CacheInvalidation> findAllByCreatedAtAfterAndOriginNot(LocalDateTime createdAt, String origin);
+
+    @Modifying
+    @Query("DELETE FROM cache_invalidations c WHERE c.createdAt < :before")
+    int deleteAllCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,29 @@
+package com.application.library.repository;
+
+import com.application.library.model.LateFeeAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LateFeeAccrualRepository extends JpaRepository<LateFeeAccrual, LocalDate> {
+
+    @Query("SELECT MAX(a.accrualDate) FROM late_fee_accruals a")
+    Optional<LocalDate> findLatestAccrualDate();
+
+    @Query("SELECT a FROM late_fee_accruals a WHERE a.accrualDate = (SELECT MAX(m.accrualDate) FROM late_fee_accruals m)")
+    Optional<LateFeeAccrual> findLatest();
+
+    List<LateFeeAccrual> findAllByAccrualDateIn(Collection<LocalDate> accrualDates);
+
+    // A plain insert rather than save(), so that a day already accrued by another node fails on the primary key
+    // instead of being merged into.
+    @Modifying
+    @Query(value = "INSERT INTO late_fee_accruals (accrual_date, fee_per_day, cumulative_fee) VALUES (:accrualDate, :feePerDay, :cumulativeFee)", nativeQuery = true)
+    int insert(@Param("accrualDate") LocalDate accrualDate, @Param("feePerDay") double feePerDay, @Param("cumulativeFee") double cumulativeFee);
+}
@@ -1,25 +1,115 @@
 package com.application.library.repository;
 
 
+import com.application.library.data.view.BookDateCountView;
+import com.application.library.data.view.transaction.lend.BookLendCountView;
 import com.application.library.data.view.transaction.lend.LendTransactionAuthUserView;
+import com.application.library.data.view.transaction.lend.LendTransactionExportView;
+import com.application.library.data.view.transaction.lend.LendTransactionOverdueView;
 import com.application.library.data.view.transaction.lend.LendTransactionView;
+import com.application.library.data.view.transaction.lend.OverdueSummaryView;
 import com.application.library.model.LendTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface LendTransactionRepository extends JpaRepository<LendTransaction, UUID> {
 
+    // Late fee of an overdue loan: what was backfilled before the first accrued day, plus the running total of fees
+    // per day at the last accrued day less the total at its deadline.
+    String ACCRUED_LATE_FEE = "(l.accruedLateFee - COALESCE(d.cumulativeFee, 0) + " +
+            "COALESCE((SELECT a.cumulativeFee FROM late_fee_accruals a WHERE a.accrualDate = (SELECT MAX(m.accrualDate) FROM late_fee_accruals m)), 0))";
+    String OVERDUE_FROM = "FROM lend_transaction l LEFT JOIN late_fee_accruals d ON d.accrualDate = l.deadlineDate WHERE l.overdue = true ";
+    String OVERDUE_VIEW_SELECT = "SELECT l.id AS id, l.createdAt AS createdAt, l.updatedAt AS updatedAt, l.deadlineDate AS deadlineDate, " +
+            "l.lateFeePaid AS lateFeePaid, l.book AS book, l.user AS user, " + ACCRUED_LATE_FEE + " AS accruedLateFee " + OVERDUE_FROM;
+
+    String EXPORT_FETCH_SIZE = "1000";
+
     boolean existsByUser_IdAndReturnedFalse(Long userId);
 
     int countAllByBook_IdAndReturnedFalse(Long bookId);
 
+    @Query("SELECT DISTINCT l.user.id FROM lend_transaction l WHERE l.user.id IN (:userIds) AND l.returned = false")
+    List<Long> findUserIdsWithOpenLendIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT l.book.id AS bookId, COUNT(l) AS lendCount FROM lend_transaction l GROUP BY l.book.id")
+    List<BookLendCountView> countAllGroupByBook();
+
+    @Query("SELECT l.book.id AS bookId, COUNT(l) AS lendCount FROM lend_transaction l WHERE l.book.id IN (:bookIds) GROUP BY l.book.id")
+    List<BookLendCountView> countAllByBookIdInGroupByBook(@Param("bookIds") Collection<Long> bookIds);
+
     Page<LendTransactionAuthUserView> findAllByUser_Id(Long userId, Pageable pageable);
 
     Page<LendTransactionView> findAllByReturned(boolean returned, Pageable pageable);
 
-    int countByBook_IdAndReturnedAndDeadlineDateBefore(Long book, boolean returned, LocalDate date);
+    @Query("SELECT l FROM lend_transaction l WHERE l.returned = :returned ORDER BY l.createdAt DESC, l.id DESC")
+    List<LendTransactionView> findFirstByReturnedOrderByNewest(@Param("returned") boolean returned, Pageable pageable);
+
+    @Query("SELECT l FROM lend_transaction l WHERE l.returned = :returned " +
+            "AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id)) " +
+            "ORDER BY l.createdAt DESC, l.id DESC")
+    List<LendTransactionView> findAfterByReturnedOrderByNewest(@Param("returned") boolean returned,
+                                                               @Param("createdAt") LocalDateTime createdAt,
+                                                               @Param("id") UUID id,
+                                                               Pageable pageable);
+
+    // Native and left-joined so that history of soft-deleted books and users is exported as well.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT CAST(l.id AS varchar) AS id, l.created_at AS createdAt, l.book_id AS bookId, b.isbn AS bookIsbn, b.name AS bookName, " +
+            "l.user_id AS userId, u.email AS userEmail, l.lender_id AS lenderId, l.dead_line_date AS deadlineDate, " +
+            "l.return_date AS returnDate, l.returned AS returned, l.late_fee_paid AS lateFeePaid " +
+            "FROM lend_transaction l " +
+            "LEFT JOIN books b ON b.id = l.book_id " +
+            "LEFT JOIN users u ON u.id = l.user_id " +
+            "WHERE (CAST(:returned AS boolean) IS NULL OR l.returned = CAST(:returned AS boolean)) " +
+            "AND (CAST(:userId AS bigint) IS NULL OR l.user_id = CAST(:userId AS bigint)) " +
+            "AND (CAST(:from AS timestamp) IS NULL OR l.created_at >= CAST(:from AS timestamp)) " +
+            "AND (CAST(:to AS timestamp) IS NULL OR l.created_at < CAST(:to AS timestamp)) " +
+            "ORDER BY l.created_at, l.id", nativeQuery = true)
+    Stream<LendTransactionExportView> streamForExport(@Param("returned") Boolean returned,
+                                                      @Param("userId") Long userId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    @Query(OVERDUE_VIEW_SELECT + "ORDER BY l.deadlineDate, l.id")
+    List<LendTransactionOverdueView> findFirstOverdueOrderByDeadline(Pageable pageable);
+
+    @Query(OVERDUE_VIEW_SELECT +
+            "AND (l.deadlineDate > :deadlineDate OR (l.deadlineDate = :deadlineDate AND l.id > :id)) " +
+            "ORDER BY l.deadlineDate, l.id")
+    List<LendTransactionOverdueView> findAfterOverdueOrderByDeadline(@Param("deadlineDate") LocalDate deadlineDate,
+                                                                     @Param("id") UUID id,
+                                                                     Pageable pageable);
+
+    @Query("SELECT COUNT(l) AS overdueCount, COALESCE(SUM(" + ACCRUED_LATE_FEE + " - COALESCE(l.lateFeePaid, 0)), 0) AS outstandingLateFees " +
+            OVERDUE_FROM)
+    OverdueSummaryView summarizeOverdue();
+
+    @Modifying
+    @Query("UPDATE lend_transaction l SET l.overdue = true, l.version = l.version + 1 " +
+            "WHERE l.returned = false AND l.overdue = false AND l.deadlineDate < :date")
+    int markOverdueBefore(@Param("date") LocalDate date);
+
+    @Query("SELECT l.deadlineDate FROM lend_transaction l WHERE l.book.id = :bookId AND l.returned = false")
+    List<LocalDate> findOpenDeadlineDatesByBookId(@Param("bookId") Long bookId);
+
+    @Query("SELECT l.book.id AS bookId, l.deadlineDate AS date, COUNT(l) AS count FROM lend_transaction l " +
+            "WHERE l.book.id IN :bookIds AND l.returned = false GROUP BY l.book.id, l.deadlineDate")
+    List<BookDateCountView> countOpenLendsByBookIdInGroupByDeadline(@Param("bookIds") Collection<Long> bookIds);
 }
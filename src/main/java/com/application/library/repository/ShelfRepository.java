@@ -7,7 +7,11 @@ import com.application.library.model.Shelf;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ShelfRepository extends JpaRepository<Shelf, Long> {
@@ -18,4 +22,24 @@ public interface ShelfRepository extends JpaRepository<Shelf, Long> {
 
     Page<ShelfBaseView> getAllBy(Pageable pageable);
 
+    @Modifying
+    @Query("UPDATE shelf s SET s.availableCapacity = s.availableCapacity - 1, s.version = s.version + 1 WHERE s.id = :id AND s.availableCapacity > 0")
+    int decrementAvailableCapacity(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE shelf s SET s.availableCapacity = s.availableCapacity - :count, s.version = s.version + 1 WHERE s.id = :id AND s.availableCapacity >= :count")
+    int decreaseAvailableCapacity(@Param("id") Long id, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE shelf s SET s.availableCapacity = s.availableCapacity + 1, s.version = s.version + 1 WHERE s.id = :id AND s.availableCapacity < s.capacity")
+    int incrementAvailableCapacity(@Param("id") Long id);
+
+    @Query("SELECT s.id FROM shelf s WHERE s.availableCapacity <> s.capacity - (SELECT COUNT(b) FROM books b WHERE b.shelf = s)")
+    List<Long> findIdsWithAvailableCapacityDrift();
+
+    @Modifying
+    @Query("UPDATE shelf s SET s.availableCapacity = s.capacity - (SELECT COUNT(b) FROM books b WHERE b.shelf = s), s.version = s.version + 1 " +
+            "WHERE s.id = :id AND s.availableCapacity <> s.capacity - (SELECT COUNT(b) FROM books b WHERE b.shelf = s)")
+    int recomputeAvailableCapacity(@Param("id") Long id);
+
 }
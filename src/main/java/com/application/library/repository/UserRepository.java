@@ -2,17 +2,26 @@ package com.application.library.repository;
 
 
 import com.application.library.data.view.UserListView;
+import com.application.library.data.view.UserTokenVersionView;
 import com.application.library.data.view.UserView;
 import com.application.library.enumerations.UserRole;
 import com.application.library.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String AFTER_NAME_PREDICATE = "(u.firstName > :firstName " +
+            "OR (u.firstName = :firstName AND u.lastName > :lastName) " +
+            "OR (u.firstName = :firstName AND u.lastName = :lastName AND u.id > :id))";
+
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
@@ -22,4 +31,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<UserListView> getAllBy(Pageable pageable);
 
     Page<UserListView> findAllByAuthorities(UserRole role, Pageable pageable);
+
+    @Query("SELECT u FROM users u ORDER BY u.firstName, u.lastName, u.id")
+    List<UserListView> findFirstOrderByName(Pageable pageable);
+
+    @Query("SELECT u FROM users u WHERE " + AFTER_NAME_PREDICATE + " ORDER BY u.firstName, u.lastName, u.id")
+    List<UserListView> findAfterOrderByName(@Param("firstName") String firstName,
+                                            @Param("lastName") String lastName,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    @Query("SELECT u FROM users u JOIN u.authorities a WHERE a = :role ORDER BY u.firstName, u.lastName, u.id")
+    List<UserListView> findFirstByAuthorityOrderByName(@Param("role") UserRole role, Pageable pageable);
+
+    @Query("SELECT u FROM users u JOIN u.authorities a WHERE a = :role AND " + AFTER_NAME_PREDICATE + " ORDER BY u.firstName, u.lastName, u.id")
+    List<UserListView> findAfterByAuthorityOrderByName(@Param("role") UserRole role,
+                                                       @Param("firstName") String firstName,
+                                                       @Param("lastName") String lastName,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+
+    @Query(value = "SELECT u.id AS id, u.token_version AS tokenVersion, u.deleted AS deleted FROM users u " +
+            "WHERE u.updated_at > :since OR u.deleted_date_time > :since", nativeQuery = true)
+    List<UserTokenVersionView> findTokenVersionsChangedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,78 @@
+package com.application.library.reservation;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The open lends of one book by deadline and its pending reservations by date, each kept as sorted epoch days so
+ * that counting them before or after a date is a binary search.
+ */
+public final class AvailabilityTimeline {
+
+    private final long[] deadlines;
+    private final long[] reservationDates;
+
+    private AvailabilityTimeline(long[] deadlines, long[] reservationDates) {
+        this.deadlines = deadlines;
+        this.reservationDates = reservationDates;
+    }
+
+    public static AvailabilityTimeline of(Collection<LocalDate> deadlines, Collection<LocalDate> reservationDates) {
+        return new AvailabilityTimeline(sortedEpochDays(deadlines), sortedEpochDays(reservationDates));
+    }
+
+    /**
+     * Copies available on the given date: those on the shelf now, plus lent copies due back before the date, minus
+     * those held for reservations after it.
+     */
+    public long availableOn(int availableCount, LocalDate date) {
+        return availableCount + lendsDueBefore(date) - reservationsAfter(date);
+    }
+
+    /**
+     * {@link #availableOn} for every day from {@code from} to {@code to} inclusive, found in one sweep over both
+     * timelines after a binary search for the first day.
+     */
+    public long[] availableBetween(int availableCount, LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long[] available = new long[(int) (to.toEpochDay() - first + 1)];
+        int dueBefore = countBefore(deadlines, first);
+        int reservedUpTo = countBefore(reservationDates, first);
+        for (int i = 0; i < available.length; i++) {
+            long day = first + i;
+            while (dueBefore < deadlines.length && deadlines[dueBefore] < day) dueBefore++;
+            while (reservedUpTo < reservationDates.length && reservationDates[reservedUpTo] <= day) reservedUpTo++;
+            available[i] = availableCount + dueBefore - (reservationDates.length - reservedUpTo);
+        }
+        return available;
+    }
+
+    public long lendsDueBefore(LocalDate date) {
+        return countBefore(deadlines, date.toEpochDay());
+    }
+
+    public long reservationsBefore(LocalDate date) {
+        return countBefore(reservationDates, date.toEpochDay());
+    }
+
+    public long reservationsAfter(LocalDate date) {
+        return reservationDates.length - countBefore(reservationDates, date.toEpochDay() + 1);
+    }
+
+    private static long[] sortedEpochDays(Collection<LocalDate> dates) {
+        long[] days = dates.stream().mapToLong(LocalDate::toEpochDay).toArray();
+        Arrays.sort(days);
+        return days;
+    }
+
+    private static int countBefore(long[] days, long day) {
+        int low = 0, high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
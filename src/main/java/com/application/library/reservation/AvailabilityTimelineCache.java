@@ -0,0 +1,128 @@
+package com.application.library.reservation;
+
+import com.application.library.cache.CacheInvalidationListener;
+import com.application.library.data.view.BookDateCountView;
+import com.application.library.repository.BookReservationRepository;
+import com.application.library.repository.LendTransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Availability timelines per book, loaded from the database on first use and dropped through the cache invalidation
+ * bus whenever a lend or reservation of the book changes.
+ * <p>
+ * A timeline loaded while an eviction went by may already be stale, so it is dropped again instead of being kept
+ * until the ttl runs out.
+ */
+@Component
+public class AvailabilityTimelineCache implements CacheInvalidationListener {
+
+    public static final String CACHE_NAME = "availability-timelines";
+
+    private final LendTransactionRepository lendTransactionRepository;
+    private final BookReservationRepository bookReservationRepository;
+    private final Cache<Long, AvailabilityTimeline> timelines;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AvailabilityTimelineCache(LendTransactionRepository lendTransactionRepository,
+                                     BookReservationRepository bookReservationRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${reservations.timeline-cache.ttl-seconds:600}") long ttlSeconds,
+                                     @Value("${reservations.timeline-cache.maximum-size:10000}") long maximumSize) {
+        this.lendTransactionRepository = lendTransactionRepository;
+        this.bookReservationRepository = bookReservationRepository;
+        this.timelines = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, CACHE_NAME);
+    }
+
+    public AvailabilityTimeline get(Long bookId) {
+        AvailabilityTimeline timeline = timelines.getIfPresent(bookId);
+        if (timeline != null) return timeline;
+
+        long evictionsBeforeLoad = evictions.get();
+        timeline = load(bookId);
+        timelines.put(bookId, timeline);
+        if (evictions.get() != evictionsBeforeLoad) timelines.invalidate(bookId);
+        return timeline;
+    }
+
+    private AvailabilityTimeline load(Long bookId) {
+        return AvailabilityTimeline.of(
+                lendTransactionRepository.findOpenDeadlineDatesByBookId(bookId),
+                bookReservationRepository.findPendingReservationDatesByBookId(bookId));
+    }
+
+    /**
+     * Timelines of the given books, loading those not cached with one grouped query over lends and one over
+     * reservations rather than two per book.
+     */
+    public Map<Long, AvailabilityTimeline> getAll(Collection<Long> bookIds) {
+        Map<Long, AvailabilityTimeline> result = new HashMap<>(timelines.getAllPresent(bookIds));
+        Set<Long> missing = new HashSet<>(bookIds);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) return result;
+
+        long evictionsBeforeLoad = evictions.get();
+        Map<Long, AvailabilityTimeline> loaded = loadAll(missing);
+        timelines.putAll(loaded);
+        result.putAll(loaded);
+        if (evictions.get() != evictionsBeforeLoad) timelines.invalidateAll(missing);
+        return result;
+    }
+
+    /**
+     * Reads the timelines of the given books from the database without going through the cache, with the same two
+     * grouped queries as {@link #getAll(Collection)}.
+     */
+    public Map<Long, AvailabilityTimeline> loadAll(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) return new HashMap<>();
+        Map<Long, List<LocalDate>> deadlines = expand(lendTransactionRepository.countOpenLendsByBookIdInGroupByDeadline(bookIds));
+        Map<Long, List<LocalDate>> reservationDates = expand(bookReservationRepository.countPendingReservationsByBookIdInGroupByDate(bookIds));
+        Map<Long, AvailabilityTimeline> result = new HashMap<>();
+        for (Long bookId : bookIds) {
+            result.put(bookId, AvailabilityTimeline.of(
+                    deadlines.getOrDefault(bookId, List.of()),
+                    reservationDates.getOrDefault(bookId, List.of())));
+        }
+        return result;
+    }
+
+    private static Map<Long, List<LocalDate>> expand(List<BookDateCountView> counts) {
+        Map<Long, List<LocalDate>> dates = new HashMap<>();
+        for (BookDateCountView count : counts) {
+            dates.computeIfAbsent(count.getBookId(), ignored -> new ArrayList<>())
+                    .addAll(Collections.nCopies(count.getCount().intValue(), count.getDate()));
+        }
+        return dates;
+    }
+
+    @Override
+    public String getCacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        evictions.incrementAndGet();
+        timelines.invalidate(Long.valueOf(key));
+    }
+
+    @Override
+    public void evictAll() {
+        evictions.incrementAndGet();
+        timelines.invalidateAll();
+    }
+}
@@ -0,0 +1,89 @@
+package com.application.library.reservation;
+
+import com.application.library.constants.MessageConstants;
+import com.application.library.exception.EntityNotFoundException;
+import com.application.library.exception.ServiceBusyException;
+import com.application.library.model.Book;
+import com.application.library.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Admits reservations of a book one at a time, so that a burst of patrons asking for its last copy on the same date
+ * cannot all pass the availability check before any of them is saved.
+ * <p>
+ * Within a node, requests for the same book queue on one of a fixed set of striped locks before opening a
+ * transaction, which keeps them from tying up connections while they wait. Across nodes, the book row is locked
+ * for update at the start of the transaction. The stripe is held until the transaction has committed, so callers
+ * must not already be inside one.
+ */
+@Component
+public class ReservationAdmission {
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMillis;
+    private final Timer lockWait;
+
+    public ReservationAdmission(BookRepository bookRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${reservations.admission.lock-stripes:64}") int lockStripes,
+                                @Value("${reservations.admission.lock-timeout-ms:2000}") long lockTimeoutMillis) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.lockWait = Timer.builder("library.reservations.admission.wait").register(meterRegistry);
+    }
+
+    public <T> T admit(Long bookId, Function<Book, T> action) {
+        ReentrantLock stripe = stripes[Math.floorMod(Long.hashCode(bookId), stripes.length)];
+        if (!acquire(stripe)) {
+            counter("busy").increment();
+            throw new ServiceBusyException(MessageConstants.RESERVATION_ADMISSION_BUSY, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(lockTimeoutMillis + 999)));
+        }
+        try {
+            T result = transactionTemplate.execute(status -> action.apply(bookRepository.findByIdForUpdate(bookId)
+                    .orElseThrow(() -> new EntityNotFoundException(MessageConstants.BOOK_NOT_FOUND))));
+            counter("admitted").increment();
+            return result;
+        } catch (RuntimeException e) {
+            counter("rejected").increment();
+            throw e;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private boolean acquire(ReentrantLock stripe) {
+        long start = System.nanoTime();
+        try {
+            return stripe.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder("library.reservations.admission").tag("outcome", outcome).register(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.application.library.search;
+
+import com.application.library.data.view.book.BookFacetView;
+import com.application.library.enumerations.BookFacet;
+import com.application.library.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Facets of the book catalog, held in memory on every instance so that filtering the book listing and counting its
+ * facets never reaches the database.
+ * <p>
+ * Availability is a facet, so lending and returning a book evicts it as well.
+ */
+@Component
+public class BookFacetIndex extends InMemoryBookIndex<FacetIndex> {
+
+    public static final String INDEX_NAME = "book-facets";
+
+    private final BookRepository bookRepository;
+    private final int maxFacetValues;
+    private final Timer queryTimer;
+
+    public BookFacetIndex(BookRepository bookRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${search.facets.max-values:20}") int maxFacetValues) {
+        super(INDEX_NAME, new FacetIndex(), meterRegistry);
+        this.bookRepository = bookRepository;
+        this.maxFacetValues = maxFacetValues;
+        this.queryTimer = Timer.builder("library.search.facets.query").register(meterRegistry);
+        Gauge.builder("library.search.facets.books", this, InMemoryBookIndex::size).register(meterRegistry);
+    }
+
+    public FacetHits query(FacetFilter filter, int offset, int limit) {
+        return queryTimer.record(() -> index().query(filter, offset, limit, maxFacetValues));
+    }
+
+    @Override
+    protected FacetIndex rebuild() {
+        FacetIndex rebuilt = new FacetIndex();
+        forEachBook(bookRepository::findFacetViewsAfter, BookFacetView::getId, book -> put(rebuilt, book));
+        rebuilt.indexNameOrder();
+        return rebuilt;
+    }
+
+    @Override
+    protected void reindex(FacetIndex index, List<Long> bookIds) {
+        Map<Long, BookFacetView> books = new HashMap<>();
+        bookRepository.findFacetViewsByIdIn(bookIds).forEach(book -> books.put(book.getId(), book));
+        for (Long bookId : bookIds) {
+            BookFacetView book = books.get(bookId);
+            if (book == null) {
+                index.remove(bookId);
+            } else {
+                put(index, book);
+            }
+        }
+    }
+
+    @Override
+    protected int size(FacetIndex index) {
+        return index.size();
+    }
+
+    private static void put(FacetIndex index, BookFacetView book) {
+        Map<BookFacet, String> values = new EnumMap<>(BookFacet.class);
+        values.put(BookFacet.LANGUAGE, book.getLanguage());
+        values.put(BookFacet.PUBLISHER, book.getPublisher());
+        values.put(BookFacet.AUTHOR, book.getAuthor());
+        values.put(BookFacet.SHELF, String.valueOf(book.getShelfId()));
+        values.put(BookFacet.AVAILABILITY, String.valueOf(book.getAvailableCount() > 0));
+        index.put(book.getId(), book.getName(), book.getPageCount(), values);
+    }
+}
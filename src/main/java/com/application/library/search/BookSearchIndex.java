@@ -0,0 +1,90 @@
+package com.application.library.search;
+
+import com.application.library.data.view.book.BookSearchView;
+import com.application.library.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Full-text index over the book catalog, held in memory on every instance.
+ * <p>
+ * Books are indexed by name, author, publisher, description, ISBN and language.
+ */
+@Component
+public class BookSearchIndex extends InMemoryBookIndex<InvertedIndex> {
+
+    public static final String INDEX_NAME = "book-search";
+
+    private final BookRepository bookRepository;
+    private final Timer searchTimer;
+
+    public BookSearchIndex(BookRepository bookRepository, MeterRegistry meterRegistry) {
+        super(INDEX_NAME, new InvertedIndex(), meterRegistry);
+        this.bookRepository = bookRepository;
+        this.searchTimer = Timer.builder("library.search.query").register(meterRegistry);
+        Gauge.builder("library.search.index.books", this, InMemoryBookIndex::size).register(meterRegistry);
+    }
+
+    public SearchHits search(String query, int limit) {
+        List<String> terms = SearchTokenizer.tokenize(query);
+        return searchTimer.record(() -> index().search(terms, limit));
+    }
+
+    @Override
+    protected InvertedIndex rebuild() {
+        InvertedIndex rebuilt = new InvertedIndex();
+        forEachBook(bookRepository::findSearchViewsAfter, BookSearchView::getId, book -> rebuilt.put(book.getId(), termWeights(book)));
+        return rebuilt;
+    }
+
+    @Override
+    protected void reindex(InvertedIndex index, List<Long> bookIds) {
+        Map<Long, BookSearchView> books = new HashMap<>();
+        bookRepository.findSearchViewsByIdIn(bookIds).forEach(book -> books.put(book.getId(), book));
+        for (Long bookId : bookIds) {
+            BookSearchView book = books.get(bookId);
+            if (book == null) {
+                index.remove(bookId);
+            } else {
+                index.put(bookId, termWeights(book));
+            }
+        }
+    }
+
+    @Override
+    protected int size(InvertedIndex index) {
+        return index.size();
+    }
+
+    static Map<String, Integer> termWeights(BookSearchView book) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (SearchField field : SearchField.values()) {
+            for (String term : new HashSet<>(SearchTokenizer.tokenize(field.value.apply(book)))) {
+                weights.merge(term, field.weight, Integer::sum);
+            }
+        }
+        return weights;
+    }
+
+    private enum SearchField {
+        ISBN(10, BookSearchView::getIsbn),
+        NAME(8, BookSearchView::getName),
+        AUTHOR(5, BookSearchView::getAuthor),
+        PUBLISHER(3, BookSearchView::getPublisher),
+        LANGUAGE(2, BookSearchView::getLanguage),
+        DESCRIPTION(1, BookSearchView::getDescription);
+
+        private final int weight;
+        private final Function<BookSearchView, String> value;
+
+        SearchField(int weight, Function<BookSearchView, String> value) {
+            this.weight = weight;
+            this.value = value;
+        }
+    }
+}
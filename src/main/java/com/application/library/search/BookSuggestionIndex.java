@@ -0,0 +1,89 @@
+package com.application.library.search;
+
+import com.application.library.data.view.book.BookSuggestionView;
+import com.application.library.data.view.transaction.lend.BookLendCountView;
+import com.application.library.repository.BookRepository;
+import com.application.library.repository.LendTransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Title and author suggestions for the search box, held in memory on every instance so that keystrokes never reach
+ * the database.
+ * <p>
+ * Evicting a book id re-reads its name, author and lend count, so lending a book evicts it as well to move its
+ * suggestions up.
+ */
+@Component
+public class BookSuggestionIndex extends InMemoryBookIndex<SuggestionIndex> {
+
+    public static final String INDEX_NAME = "book-suggestions";
+
+    private final BookRepository bookRepository;
+    private final LendTransactionRepository lendTransactionRepository;
+    private final Duration topCacheTtl;
+    private final Timer suggestTimer;
+
+    public BookSuggestionIndex(BookRepository bookRepository,
+                               LendTransactionRepository lendTransactionRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${search.suggestions.ranking-cache-ttl-ms:30000}") long rankingCacheTtlMs) {
+        super(INDEX_NAME, new SuggestionIndex(Duration.ofMillis(rankingCacheTtlMs)), meterRegistry);
+        this.bookRepository = bookRepository;
+        this.lendTransactionRepository = lendTransactionRepository;
+        this.topCacheTtl = Duration.ofMillis(rankingCacheTtlMs);
+        this.suggestTimer = Timer.builder("library.search.suggest").register(meterRegistry);
+        Gauge.builder("library.search.suggestions.books", this, InMemoryBookIndex::size).register(meterRegistry);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggestTimer.record(() -> index().suggest(prefix, limit));
+    }
+
+    @Override
+    protected SuggestionIndex rebuild() {
+        SuggestionIndex rebuilt = new SuggestionIndex(topCacheTtl);
+        Map<Long, Long> lendCounts = lendCounts(lendTransactionRepository.countAllGroupByBook());
+        forEachBook(bookRepository::findSuggestionViewsAfter, BookSuggestionView::getId,
+                book -> rebuilt.put(book.getId(), book.getName(), book.getAuthor(), lendCounts.getOrDefault(book.getId(), 0L)));
+        rebuilt.publish();
+        return rebuilt;
+    }
+
+    @Override
+    protected void reindex(SuggestionIndex index, List<Long> bookIds) {
+        Map<Long, BookSuggestionView> books = new HashMap<>();
+        bookRepository.findSuggestionViewsByIdIn(bookIds).forEach(book -> books.put(book.getId(), book));
+        Map<Long, Long> lendCounts = lendCounts(lendTransactionRepository.countAllByBookIdInGroupByBook(bookIds));
+        for (Long bookId : bookIds) {
+            BookSuggestionView book = books.get(bookId);
+            if (book == null) {
+                index.remove(bookId);
+            } else {
+                index.put(bookId, book.getName(), book.getAuthor(), lendCounts.getOrDefault(bookId, 0L));
+            }
+        }
+    }
+
+    @Override
+    protected void refreshed(SuggestionIndex index) {
+        index.publish();
+    }
+
+    @Override
+    protected int size(SuggestionIndex index) {
+        return index.size();
+    }
+
+    private static Map<Long, Long> lendCounts(List<BookLendCountView> counts) {
+        Map<Long, Long> lendCounts = new HashMap<>();
+        counts.forEach(count -> lendCounts.put(count.getBookId(), count.getLendCount()));
+        return lendCounts;
+    }
+}
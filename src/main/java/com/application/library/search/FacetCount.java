@@ -0,0 +1,7 @@
+package com.application.library.search;
+
+/**
+ * A facet value and how many books among the filtered ones carry it.
+ */
+public record FacetCount(String value, long count) {
+}
@@ -0,0 +1,17 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.BookFacet;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facet values a book must carry, any of the values within a facet and every facet that has values, and an optional
+ * inclusive page count range.
+ */
+public record FacetFilter(Map<BookFacet, Set<String>> values, Integer minPageCount, Integer maxPageCount) {
+
+    public boolean hasPageCountRange() {
+        return minPageCount != null || maxPageCount != null;
+    }
+}
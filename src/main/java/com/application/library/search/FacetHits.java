@@ -0,0 +1,13 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.BookFacet;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ids of one page of filtered books in name order, the number of books that passed the filter in total, and the
+ * value counts of every facet.
+ */
+public record FacetHits(long total, List<Long> bookIds, Map<BookFacet, List<FacetCount>> facets) {
+}
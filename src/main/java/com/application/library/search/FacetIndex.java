@@ -0,0 +1,415 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.BookFacet;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index over books, answering filtered listings and their facet counts without a query per drill-down.
+ * <p>
+ * Every book gets a dense ordinal, and every facet keeps the value of each ordinal in an array that facet counts are
+ * tallied from. Facets with few distinct values, such as language, availability and page count range, also keep a
+ * bitset of ordinals per value, so that filtering on them is a handful of word-wise ORs and ANDs. A facet that grows
+ * past {@link #MAX_BITSET_VALUES} values drops its bitsets, which would otherwise cost a bit per book for every
+ * author or publisher, and is filtered by scanning its value array instead.
+ * <p>
+ * Counts are drill-sideways: a facet is counted over the books passing every filter except its own, so that the
+ * other values of a facet that is filtered on stay visible. Each value also keeps its count over all books, so a set
+ * covering most books is counted by subtracting the books it leaves out.
+ * <p>
+ * Once {@link #indexNameOrder()} has been called, the ordinals are kept in name order as books change, and a page of a
+ * filter matching a fair share of the books is read off that order instead of ranking every match.
+ */
+public class FacetIndex {
+
+    static final int MAX_BITSET_VALUES = 256;
+
+    // Walking the name order finds a page of a filter matching one in this many books within as many steps per book.
+    private static final int NAME_ORDER_WALK_DENSITY = 64;
+
+    private static final int[] PAGE_COUNT_BOUNDS = {100, 200, 300, 500, 1000};
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<BookFacet, Dimension> dimensions = new EnumMap<>(BookFacet.class);
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private long[] bookIds = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] pageCounts = new int[INITIAL_CAPACITY];
+    private int[] nameOrder;
+    private int ordinalCount;
+
+    public FacetIndex() {
+        for (BookFacet facet : BookFacet.values()) {
+            dimensions.put(facet, new Dimension());
+        }
+    }
+
+    /**
+     * Adds or replaces a book. The {@link BookFacet#PAGE_COUNT} value is the range {@code pageCount} falls in and
+     * need not be given.
+     */
+    public void put(long bookId, String name, int pageCount, Map<BookFacet, String> values) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(bookId);
+            if (ordinal == null) {
+                ordinal = freeOrdinals.isEmpty() ? ordinalCount++ : freeOrdinals.pop();
+                ensureCapacity(ordinalCount);
+                ordinals.put(bookId, ordinal);
+                bookIds[ordinal] = bookId;
+                live.set(ordinal);
+            } else {
+                for (Dimension dimension : dimensions.values()) {
+                    dimension.clear(ordinal);
+                }
+                if (!name.equals(names[ordinal])) removeFromNameOrder(ordinal);
+            }
+            if (!name.equals(names[ordinal])) {
+                names[ordinal] = name;
+                insertIntoNameOrder(ordinal);
+            }
+            pageCounts[ordinal] = pageCount;
+            for (BookFacet facet : BookFacet.values()) {
+                String value = facet == BookFacet.PAGE_COUNT ? pageCountRange(pageCount) : values.get(facet);
+                dimensions.get(facet).set(ordinal, Objects.toString(value, ""));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(bookId);
+            if (ordinal == null) return;
+            for (Dimension dimension : dimensions.values()) {
+                dimension.clear(ordinal);
+            }
+            live.clear(ordinal);
+            removeFromNameOrder(ordinal);
+            names[ordinal] = null;
+            freeOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorts the books by name once, after which every change keeps the order up to date. Meant to be called after
+     * loading an index in bulk, where maintaining the order book by book would cost a copy of it per book.
+     */
+    public void indexNameOrder() {
+        lock.writeLock().lock();
+        try {
+            nameOrder = live.stream().boxed()
+                    .sorted((ordinal, other) -> after(ordinal, other) ? 1 : after(other, ordinal) ? -1 : 0)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FacetHits query(FacetFilter filter, int offset, int limit, int maxFacetValues) {
+        lock.readLock().lock();
+        try {
+            Map<BookFacet, BitSet> selections = new EnumMap<>(BookFacet.class);
+            filter.values().forEach((facet, selected) -> {
+                if (facet != BookFacet.PAGE_COUNT && !selected.isEmpty())
+                    selections.put(facet, dimensions.get(facet).select(selected, live));
+            });
+            if (filter.hasPageCountRange())
+                selections.put(BookFacet.PAGE_COUNT, selectPageCounts(filter.minPageCount(), filter.maxPageCount()));
+
+            BitSet matches = intersect(selections, null);
+            Map<BookFacet, int[]> counts = new EnumMap<>(BookFacet.class);
+            List<BookFacet> unfiltered = new ArrayList<>();
+            for (BookFacet facet : BookFacet.values()) {
+                if (!selections.containsKey(facet)) unfiltered.add(facet);
+            }
+            count(matches, unfiltered, counts);
+            for (BookFacet facet : selections.keySet()) {
+                count(intersect(selections, facet), List.of(facet), counts);
+            }
+
+            Map<BookFacet, List<FacetCount>> facets = new EnumMap<>(BookFacet.class);
+            counts.forEach((facet, facetCounts) -> facets.put(facet, dimensions.get(facet)
+                    .top(facetCounts, maxFacetValues, filter.values().getOrDefault(facet, Set.of()))));
+            return new FacetHits(matches.cardinality(), page(matches, offset, limit), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String pageCountRange(int pageCount) {
+        int lower = 0;
+        for (int bound : PAGE_COUNT_BOUNDS) {
+            if (pageCount < bound) return lower + "-" + (bound - 1);
+            lower = bound;
+        }
+        return lower + "+";
+    }
+
+    private BitSet selectPageCounts(Integer minPageCount, Integer maxPageCount) {
+        int min = minPageCount == null ? Integer.MIN_VALUE : minPageCount;
+        int max = maxPageCount == null ? Integer.MAX_VALUE : maxPageCount;
+        BitSet selected = new BitSet(ordinalCount);
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            if (pageCounts[ordinal] >= min && pageCounts[ordinal] <= max) selected.set(ordinal);
+        }
+        return selected;
+    }
+
+    private BitSet intersect(Map<BookFacet, BitSet> selections, BookFacet except) {
+        BitSet result = (BitSet) live.clone();
+        selections.forEach((facet, selected) -> {
+            if (facet != except) result.and(selected);
+        });
+        return result;
+    }
+
+    private void count(BitSet books, List<BookFacet> facets, Map<BookFacet, int[]> counts) {
+        int bookCount = books.cardinality();
+        if (bookCount == ordinals.size()) {
+            for (BookFacet facet : facets) {
+                Dimension dimension = dimensions.get(facet);
+                counts.put(facet, Arrays.copyOf(dimension.totals, dimension.values.size()));
+            }
+        } else if (bookCount > ordinals.size() / 2) {
+            BitSet excluded = (BitSet) live.clone();
+            excluded.andNot(books);
+            tally(excluded, facets, counts);
+            for (BookFacet facet : facets) {
+                int[] facetCounts = counts.get(facet);
+                int[] totals = dimensions.get(facet).totals;
+                for (int valueId = 0; valueId < facetCounts.length; valueId++) {
+                    facetCounts[valueId] = totals[valueId] - facetCounts[valueId];
+                }
+            }
+        } else {
+            tally(books, facets, counts);
+        }
+    }
+
+    private void tally(BitSet books, List<BookFacet> facets, Map<BookFacet, int[]> counts) {
+        int[][] facetCounts = new int[facets.size()][];
+        int[][] valueOf = new int[facets.size()][];
+        for (int i = 0; i < facets.size(); i++) {
+            Dimension dimension = dimensions.get(facets.get(i));
+            facetCounts[i] = new int[dimension.values.size()];
+            valueOf[i] = dimension.valueOf;
+            counts.put(facets.get(i), facetCounts[i]);
+        }
+        for (int ordinal = books.nextSetBit(0); ordinal >= 0; ordinal = books.nextSetBit(ordinal + 1)) {
+            for (int i = 0; i < facetCounts.length; i++) {
+                facetCounts[i][valueOf[i][ordinal]]++;
+            }
+        }
+    }
+
+    private List<Long> page(BitSet matches, int offset, int limit) {
+        int total = matches.cardinality();
+        if (offset >= total || limit <= 0) return List.of();
+        if (nameOrder != null && (long) total * NAME_ORDER_WALK_DENSITY >= ordinals.size())
+            return walkNameOrder(matches, offset, limit);
+
+        // Keeps the first offset + limit books in name order in a binary max-heap: the last of them sits at the root.
+        int[] heap = new int[Math.min(offset + limit, total)];
+        int heapSize = 0;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = ordinal;
+                siftUp(heap, heapSize++);
+            } else if (after(heap[0], ordinal)) {
+                heap[0] = ordinal;
+                siftDown(heap, heapSize);
+            }
+        }
+        Long[] ids = new Long[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ids[i] = bookIds[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i);
+        }
+        return List.of(ids).subList(offset, heapSize);
+    }
+
+    private List<Long> walkNameOrder(BitSet matches, int offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        int skipped = 0;
+        for (int i = 0; i < nameOrder.length && ids.size() < limit; i++) {
+            int ordinal = nameOrder[i];
+            if (!matches.get(ordinal)) continue;
+            if (skipped < offset) skipped++;
+            else ids.add(bookIds[ordinal]);
+        }
+        return ids;
+    }
+
+    private void insertIntoNameOrder(int ordinal) {
+        if (nameOrder == null) return;
+        int position = nameOrderPosition(ordinal);
+        int[] grown = new int[nameOrder.length + 1];
+        System.arraycopy(nameOrder, 0, grown, 0, position);
+        grown[position] = ordinal;
+        System.arraycopy(nameOrder, position, grown, position + 1, nameOrder.length - position);
+        nameOrder = grown;
+    }
+
+    private void removeFromNameOrder(int ordinal) {
+        if (nameOrder == null) return;
+        int position = nameOrderPosition(ordinal);
+        int[] shrunk = new int[nameOrder.length - 1];
+        System.arraycopy(nameOrder, 0, shrunk, 0, position);
+        System.arraycopy(nameOrder, position + 1, shrunk, position, shrunk.length - position);
+        nameOrder = shrunk;
+    }
+
+    private int nameOrderPosition(int ordinal) {
+        int low = 0, high = nameOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (after(ordinal, nameOrder[mid])) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private boolean after(int ordinal, int other) {
+        int byName = names[ordinal].compareTo(names[other]);
+        return byName > 0 || (byName == 0 && bookIds[ordinal] > bookIds[other]);
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!after(heap[index], heap[parent])) return;
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) return;
+            if (child + 1 < size && after(heap[child + 1], heap[child])) child++;
+            if (!after(heap[child], heap[index])) return;
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int swapped = heap[i];
+        heap[i] = heap[j];
+        heap[j] = swapped;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= bookIds.length) return;
+        int grown = Math.max(capacity, bookIds.length * 2);
+        bookIds = Arrays.copyOf(bookIds, grown);
+        names = Arrays.copyOf(names, grown);
+        pageCounts = Arrays.copyOf(pageCounts, grown);
+        for (Dimension dimension : dimensions.values()) {
+            dimension.valueOf = Arrays.copyOf(dimension.valueOf, grown);
+        }
+    }
+
+    private static final class Dimension {
+        private final Map<String, Integer> valueIds = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private List<BitSet> books = new ArrayList<>();
+        private int[] valueOf = new int[INITIAL_CAPACITY];
+        private int[] totals = new int[16];
+
+        private void set(int ordinal, String value) {
+            Integer valueId = valueIds.get(value);
+            if (valueId == null) {
+                valueId = values.size();
+                valueIds.put(value, valueId);
+                values.add(value);
+                if (valueId == totals.length) totals = Arrays.copyOf(totals, totals.length * 2);
+                if (books != null && values.size() > MAX_BITSET_VALUES) {
+                    books = null;
+                } else if (books != null) {
+                    books.add(new BitSet());
+                }
+            }
+            valueOf[ordinal] = valueId;
+            totals[valueId]++;
+            if (books != null) books.get(valueId).set(ordinal);
+        }
+
+        private void clear(int ordinal) {
+            totals[valueOf[ordinal]]--;
+            if (books != null) books.get(valueOf[ordinal]).clear(ordinal);
+        }
+
+        private BitSet select(Set<String> selectedValues, BitSet live) {
+            BitSet selected = new BitSet();
+            BitSet selectedIds = new BitSet();
+            for (String value : selectedValues) {
+                Integer valueId = valueIds.get(value);
+                if (valueId == null) continue;
+                if (books != null) selected.or(books.get(valueId));
+                else selectedIds.set(valueId);
+            }
+            if (books == null && !selectedIds.isEmpty()) {
+                for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+                    if (selectedIds.get(valueOf[ordinal])) selected.set(ordinal);
+                }
+            }
+            return selected;
+        }
+
+        // The values with the highest counts, plus the selected ones so that an active filter is always listed.
+        private List<FacetCount> top(int[] counts, int limit, Set<String> selectedValues) {
+            int[] best = new int[Math.min(limit, counts.length)];
+            int size = 0;
+            for (int valueId = 0; valueId < counts.length; valueId++) {
+                if (counts[valueId] == 0 || size == best.length && (size == 0 || !ranksBefore(valueId, best[size - 1], counts)))
+                    continue;
+                int at = size == best.length ? size - 1 : size++;
+                while (at > 0 && ranksBefore(valueId, best[at - 1], counts)) {
+                    best[at] = best[at - 1];
+                    at--;
+                }
+                best[at] = valueId;
+            }
+
+            List<FacetCount> top = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                top.add(new FacetCount(values.get(best[i]), counts[best[i]]));
+            }
+            for (String value : selectedValues) {
+                if (top.stream().noneMatch(facetCount -> facetCount.value().equals(value))) {
+                    Integer valueId = valueIds.get(value);
+                    top.add(new FacetCount(value, valueId == null ? 0 : counts[valueId]));
+                }
+            }
+            return top;
+        }
+
+        private boolean ranksBefore(int valueId, int other, int[] counts) {
+            if (counts[valueId] != counts[other]) return counts[valueId] > counts[other];
+            return values.get(valueId).compareTo(values.get(other)) < 0;
+        }
+    }
+}
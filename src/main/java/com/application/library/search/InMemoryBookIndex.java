@@ -0,0 +1,119 @@
+package com.application.library.search;
+
+import com.application.library.cache.CacheInvalidationListener;
+import com.application.library.listener.EventCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * An index over the book catalog held in memory on every instance, built from the database on the first refresh
+ * and kept current through the cache invalidation bus: evicting a book id re-reads that book on the next refresh,
+ * evicting everything rebuilds the index off to the side and swaps it in. A failed rebuild is retried on the next
+ * refresh.
+ */
+public abstract class InMemoryBookIndex<I> implements CacheInvalidationListener {
+
+    protected static final int LOAD_CHUNK_SIZE = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryBookIndex.class);
+
+    private final String indexName;
+    private final EventCoalescer<Long> coalescer;
+    private volatile I index;
+    private volatile boolean rebuildRequested = true;
+
+    protected InMemoryBookIndex(String indexName, I emptyIndex, MeterRegistry meterRegistry) {
+        this.indexName = indexName;
+        this.index = emptyIndex;
+        this.coalescer = new EventCoalescer<>(meterRegistry, indexName);
+    }
+
+    public int size() {
+        return size(index);
+    }
+
+    @Override
+    public String getCacheName() {
+        return indexName;
+    }
+
+    @Override
+    public void evict(String key) {
+        coalescer.submit(Long.valueOf(key));
+    }
+
+    @Override
+    public void evictAll() {
+        rebuildRequested = true;
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (rebuildRequested) {
+            rebuildRequested = false;
+            try {
+                long startedAt = System.currentTimeMillis();
+                I rebuilt = rebuild();
+                index = rebuilt;
+                log.info("Built {} index of {} books in {} ms", indexName, size(rebuilt), System.currentTimeMillis() - startedAt);
+            } catch (RuntimeException e) {
+                rebuildRequested = true;
+                throw e;
+            }
+        }
+
+        List<Long> bookIds = new ArrayList<>();
+        coalescer.flush(bookIds::add);
+        for (int from = 0; from < bookIds.size(); from += LOAD_CHUNK_SIZE) {
+            reindex(index, bookIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, bookIds.size())));
+        }
+        refreshed(index);
+    }
+
+    protected I index() {
+        return index;
+    }
+
+    /**
+     * Builds a complete index from the database; it replaces the current one once returned.
+     */
+    protected abstract I rebuild();
+
+    /**
+     * Re-reads the given books, at most {@link #LOAD_CHUNK_SIZE} of them, into the index, removing those that are gone.
+     */
+    protected abstract void reindex(I index, List<Long> bookIds);
+
+    protected abstract int size(I index);
+
+    /**
+     * Called at the end of every refresh, after any rebuild and reindexing.
+     */
+    protected void refreshed(I index) {
+    }
+
+    /**
+     * Walks the whole catalog in id order, one page of {@link #LOAD_CHUNK_SIZE} books at a time.
+     */
+    protected static <V> void forEachBook(BiFunction<Long, Pageable, List<V>> loadAfter, ToLongFunction<V> idOf, Consumer<V> action) {
+        long lastId = 0;
+        List<V> chunk;
+        do {
+            chunk = loadAfter.apply(lastId, PageRequest.ofSize(LOAD_CHUNK_SIZE));
+            for (V book : chunk) {
+                action.accept(book);
+                lastId = idOf.applyAsLong(book);
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,590 @@
+package com.application.library.search;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from terms to weighted postings of book ids.
+ * <p>
+ * Every indexed book gets a dense ordinal, and each term keeps the ordinals of its books in primitive arrays, one per
+ * distinct weight, so a query walks arrays instead of boxed collections, scores into arrays indexed by ordinal, and
+ * can visit books from the highest scoring weight down. Re-indexing or removing a book only retires its ordinal;
+ * postings of retired ordinals are skipped and purged once they make up a quarter of all postings, or once retired
+ * ordinals outnumber live ones. An ordinal is reused as soon as no postings refer to it any more, so the arrays stay
+ * as large as the index.
+ * <p>
+ * A query term matches index terms exactly, by prefix, or, when neither exists, within one or two edits
+ * (swapped letters included) sharing the first letter. Every query term has to match for a book to be returned,
+ * and books are ranked by the sum over query terms of the best field weight times inverse document frequency among
+ * the terms matched, discounted for prefix and fuzzy matches.
+ */
+public class InvertedIndex {
+
+    public static final int MAX_QUERY_TERMS = 8;
+    public static final int MAX_COUNTED_HITS = 10_000;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDITS_MIN_LENGTH = 8;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MAX_PREFIX_SCAN = 4096;
+    private static final int MIN_PURGE_POSTINGS = 1 << 16;
+    private static final int MIN_PURGE_ORDINALS = 1 << 10;
+    private static final int MAX_POOLED_SCRATCHES = 16;
+    private static final float PREFIX_FACTOR = 0.6f;
+    private static final float FUZZY_FACTOR = 0.4f;
+    // postings walked for the cost of comparing one term of a book looked up out of ordinal order
+    private static final int SCATTERED_LOOKUP_COST = 4;
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final NavigableMap<String, Postings> sortedTerms = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Scratch> scratches = new ArrayBlockingQueue<>(MAX_POOLED_SCRATCHES);
+    private long[] bookIds = new long[INITIAL_CAPACITY];
+    private String[][] documentTerms = new String[INITIAL_CAPACITY][];
+    private short[][] documentWeights = new short[INITIAL_CAPACITY][];
+    private final BitSet retiredOrdinals = new BitSet();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int ordinalCount;
+    private int retiredOrdinalCount;
+    private long postingCount;
+    private long retiredPostingCount;
+
+    /**
+     * Indexes a book, replacing its previous terms. Term weights are the summed weights of the fields
+     * containing the term.
+     */
+    public void put(long bookId, Map<String, Integer> termWeights) {
+        lock.writeLock().lock();
+        try {
+            retire(bookId);
+            if (termWeights.isEmpty()) return;
+
+            int ordinal = freeOrdinals.isEmpty() ? ordinalCount++ : freeOrdinals.pop();
+            if (ordinal == bookIds.length) {
+                bookIds = Arrays.copyOf(bookIds, ordinal * 2);
+                documentTerms = Arrays.copyOf(documentTerms, ordinal * 2);
+                documentWeights = Arrays.copyOf(documentWeights, ordinal * 2);
+            }
+            String[] indexedTerms = new String[termWeights.size()];
+            short[] indexedWeights = new short[termWeights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> termWeight : termWeights.entrySet()) {
+                Postings postings = terms.get(termWeight.getKey());
+                if (postings == null) {
+                    postings = new Postings(termWeight.getKey());
+                    terms.put(postings.term, postings);
+                    sortedTerms.put(postings.term, postings);
+                }
+                short weight = (short) Math.min(termWeight.getValue(), Short.MAX_VALUE);
+                postings.add(ordinal, weight);
+                indexedTerms[i] = postings.term;
+                indexedWeights[i++] = weight;
+            }
+            bookIds[ordinal] = bookId;
+            documentTerms[ordinal] = indexedTerms;
+            documentWeights[ordinal] = indexedWeights;
+            ordinals.put(bookId, ordinal);
+            postingCount += indexedTerms.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long bookId) {
+        lock.writeLock().lock();
+        try {
+            retire(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int capacity() {
+        lock.readLock().lock();
+        try {
+            return bookIds.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} books matching every one of the (at most {@link #MAX_QUERY_TERMS}) query terms.
+     * Matches are counted exactly up to {@link #MAX_COUNTED_HITS}; past that, the search stops as soon as no book
+     * left to visit could outscore the top hits, and the total is only a lower bound. Books left out then score at
+     * most as much as the weakest hit, so only the order among equal scores may differ from a full count.
+     */
+    public SearchHits search(List<String> queryTerms, int limit) {
+        List<String> distinctTerms = queryTerms.stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        if (distinctTerms.isEmpty() || limit < 1) return SearchHits.empty();
+
+        lock.readLock().lock();
+        try {
+            List<List<Candidate>> candidates = new ArrayList<>();
+            for (String queryTerm : distinctTerms) {
+                List<Candidate> termCandidates = candidates(queryTerm);
+                if (termCandidates.isEmpty()) return SearchHits.empty();
+                candidates.add(termCandidates);
+            }
+            // The rarest query term goes first: only books it matched can match all terms.
+            candidates.sort(Comparator.comparingLong(InvertedIndex::postingCount));
+
+            Scratch scratch = acquireScratch();
+            try {
+                return search(scratch, candidates, limit);
+            } finally {
+                releaseScratch(scratch);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks the impacts of the rarest term from the highest score down. The other terms are either looked up in the
+    // terms of each book reached or, when walking their postings is cheaper, marked beforehand on the books of the
+    // rarest term. Books of a single impact are read in ordinal order; across impacts the reads are scattered, so
+    // each lookup costs several postings.
+    private SearchHits search(Scratch scratch, List<List<Candidate>> candidates, int limit) {
+        List<ImpactRun> runs = impactRuns(candidates.get(0));
+        long bookTermsVisited = expectedVisits(candidates) * averageTermsPerBook() * (runs.size() == 1 ? 1 : SCATTERED_LOOKUP_COST);
+        float otherTermsMaxScore = 0;
+        long lookupCost = 0;
+        long markCost = postingCount(candidates.get(0));
+        for (int term = 1; term < candidates.size(); term++) {
+            otherTermsMaxScore += maxScore(candidates.get(term));
+            lookupCost += candidates.get(term).size() * bookTermsVisited;
+            markCost += postingCount(candidates.get(term));
+        }
+        boolean premarked = markCost < lookupCost;
+        int requiredMarks = 1;
+        List<List<Candidate>> lookedUp = new ArrayList<>();
+        if (premarked) {
+            markRarestTerm(scratch, candidates.get(0));
+            for (int term = 1; term < candidates.size(); term++) {
+                markByPostings(scratch, term, candidates.get(term));
+                requiredMarks |= 1 << term;
+            }
+        } else {
+            lookedUp.addAll(candidates.subList(1, candidates.size()));
+        }
+        String[][] lookedUpTerms = new String[lookedUp.size()][];
+        float[][] lookedUpScores = new float[lookedUp.size()][];
+        for (int term = 0; term < lookedUp.size(); term++) {
+            lookedUpTerms[term] = lookedUp.get(term).stream().map(candidate -> candidate.postings.term).toArray(String[]::new);
+            lookedUpScores[term] = new float[lookedUp.get(term).size()];
+            for (int candidate = 0; candidate < lookedUpScores[term].length; candidate++) {
+                lookedUpScores[term][candidate] = termScore(lookedUp.get(term).get(candidate));
+            }
+        }
+
+        float[] scores = scratch.scores;
+        byte[] marks = scratch.marks;
+        // Binary min-heap of ordinals: the weakest of the best hits so far sits at the root.
+        int[] heap = new int[(int) Math.min(limit, postingCount(candidates.get(0)))];
+        int heapSize = 0;
+        long total = 0;
+        for (ImpactRun run : runs) {
+            float maxScore = run.score + otherTermsMaxScore;
+            Impact impact = run.impact;
+            for (int i = 0; i < impact.size; i++) {
+                if (total >= MAX_COUNTED_HITS && heapSize == heap.length && maxScore <= scores[heap[0]]) {
+                    return new SearchHits(total, true, hitIds(heap, heapSize, scores));
+                }
+                int ordinal = impact.ordinals[i];
+                byte mark = marks[ordinal];
+                // A book is reached first through its best scoring impact. Premarked books lose the first bit
+                // once reached; others gain it.
+                if (premarked) {
+                    if ((mark & 1) == 0) continue;
+                    marks[ordinal] = (byte) (mark & ~1);
+                    if ((mark & requiredMarks) != requiredMarks) continue;
+                } else {
+                    if (mark != 0 || retiredOrdinals.get(ordinal)) continue;
+                    scratch.touch(ordinal);
+                    marks[ordinal] = 1;
+                }
+                float score = lookUp(ordinal, lookedUpTerms, lookedUpScores);
+                if (score < 0) continue;
+                scores[ordinal] += run.score + score;
+                total++;
+                if (heapSize < heap.length) {
+                    heap[heapSize] = ordinal;
+                    siftUp(heap, heapSize++, scores);
+                } else if (weaker(heap[0], ordinal, scores)) {
+                    heap[0] = ordinal;
+                    siftDown(heap, heapSize, scores);
+                }
+            }
+        }
+        return new SearchHits(total, false, hitIds(heap, heapSize, scores));
+    }
+
+    // How many books of the rarest term are likely to be reached before the search stops, if the terms occur
+    // independently of each other.
+    private long expectedVisits(List<List<Candidate>> candidates) {
+        long postings = postingCount(candidates.get(0));
+        double selectivity = 1;
+        for (int term = 1; term < candidates.size(); term++) {
+            selectivity *= Math.min(1, (double) postingCount(candidates.get(term)) / Math.max(ordinals.size(), 1));
+        }
+        return (long) Math.min(postings, MAX_COUNTED_HITS / Math.max(selectivity, 1e-9));
+    }
+
+    private void markRarestTerm(Scratch scratch, List<Candidate> candidates) {
+        for (Candidate candidate : candidates) {
+            for (Impact impact : candidate.postings.impacts) {
+                for (int i = 0; i < impact.size; i++) {
+                    int ordinal = impact.ordinals[i];
+                    if (scratch.marks[ordinal] != 0 || retiredOrdinals.get(ordinal)) continue;
+                    scratch.touch(ordinal);
+                    scratch.marks[ordinal] = 1;
+                }
+            }
+        }
+    }
+
+    // Marks the books of the rarest term that contain this one, adding the score of the best scoring impact they
+    // are in.
+    private void markByPostings(Scratch scratch, int term, List<Candidate> candidates) {
+        byte bit = (byte) (1 << term);
+        for (ImpactRun run : impactRuns(candidates)) {
+            Impact impact = run.impact;
+            for (int i = 0; i < impact.size; i++) {
+                int ordinal = impact.ordinals[i];
+                byte mark = scratch.marks[ordinal];
+                if ((mark & 1) == 0 || (mark & bit) != 0) continue;
+                scratch.marks[ordinal] = (byte) (mark | bit);
+                scratch.scores[ordinal] += run.score;
+            }
+        }
+    }
+
+    // The summed best scores of the book for the given terms, or -1 if it lacks one of them. Index terms are
+    // interned in their postings, so they are compared by reference without reading the strings.
+    private float lookUp(int ordinal, String[][] lookedUpTerms, float[][] lookedUpScores) {
+        String[] bookTerms = documentTerms[ordinal];
+        float score = 0;
+        for (int term = 0; term < lookedUpTerms.length; term++) {
+            String[] candidateTerms = lookedUpTerms[term];
+            float best = -1;
+            for (int i = 0; i < bookTerms.length; i++) {
+                for (int candidate = 0; candidate < candidateTerms.length; candidate++) {
+                    if (bookTerms[i] == candidateTerms[candidate]) {
+                        best = Math.max(best, documentWeights[ordinal][i] * lookedUpScores[term][candidate]);
+                    }
+                }
+            }
+            if (best < 0) return -1;
+            score += best;
+        }
+        return score;
+    }
+
+    private List<ImpactRun> impactRuns(List<Candidate> candidates) {
+        List<ImpactRun> runs = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            float termScore = termScore(candidate);
+            for (Impact impact : candidate.postings.impacts) {
+                runs.add(new ImpactRun(impact, impact.weight * termScore));
+            }
+        }
+        runs.sort(Comparator.comparingDouble(ImpactRun::score).reversed());
+        return runs;
+    }
+
+    private float maxScore(List<Candidate> candidates) {
+        float maxScore = 0;
+        for (Candidate candidate : candidates) {
+            maxScore = Math.max(maxScore, candidate.postings.impacts[0].weight * termScore(candidate));
+        }
+        return maxScore;
+    }
+
+    private float termScore(Candidate candidate) {
+        return candidate.factor * idf(candidate.postings);
+    }
+
+    private List<Long> hitIds(int[] heap, int heapSize, float[] scores) {
+        Long[] ids = new Long[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ids[i] = bookIds[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        return List.of(ids);
+    }
+
+    // Lower scores are weaker; on equal scores the book with the higher id is weaker.
+    private boolean weaker(int ordinal, int other, float[] scores) {
+        return scores[ordinal] < scores[other] || (scores[ordinal] == scores[other] && bookIds[ordinal] > bookIds[other]);
+    }
+
+    private void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!weaker(heap[index], heap[parent], scores)) return;
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int weakest = index;
+            int left = 2 * index + 1;
+            if (left < size && weaker(heap[left], heap[weakest], scores)) weakest = left;
+            if (left + 1 < size && weaker(heap[left + 1], heap[weakest], scores)) weakest = left + 1;
+            if (weakest == index) return;
+            swap(heap, index, weakest);
+            index = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int swapped = heap[i];
+        heap[i] = heap[j];
+        heap[j] = swapped;
+    }
+
+    private List<Candidate> candidates(String queryTerm) {
+        List<Candidate> candidates = new ArrayList<>();
+        Postings exact = terms.get(queryTerm);
+        if (exact != null) candidates.add(new Candidate(exact, 1f));
+
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            sortedTerms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values().stream()
+                    .limit(MAX_PREFIX_SCAN)
+                    .sorted(Comparator.comparingInt((Postings postings) -> postings.live).reversed())
+                    .limit(MAX_EXPANSIONS)
+                    .forEach(postings -> candidates.add(new Candidate(postings, PREFIX_FACTOR)));
+        }
+        if (candidates.isEmpty() && queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = queryTerm.length() >= TWO_EDITS_MIN_LENGTH ? 2 : 1;
+            char first = queryTerm.charAt(0);
+            List<Map.Entry<Integer, Postings>> fuzzy = new ArrayList<>();
+            for (Postings postings : sortedTerms.subMap(String.valueOf(first), true, String.valueOf((char) (first + 1)), false).values()) {
+                if (Math.abs(postings.term.length() - queryTerm.length()) > maxEdits) continue;
+                int distance = editDistance(queryTerm, postings.term, maxEdits);
+                if (distance <= maxEdits) fuzzy.add(Map.entry(distance, postings));
+            }
+            fuzzy.stream()
+                    .sorted(Map.Entry.<Integer, Postings>comparingByKey()
+                            .thenComparing(entry -> entry.getValue().live, Comparator.reverseOrder()))
+                    .limit(MAX_EXPANSIONS)
+                    .forEach(entry -> candidates.add(new Candidate(entry.getValue(), FUZZY_FACTOR / entry.getKey())));
+        }
+        return candidates;
+    }
+
+    private long averageTermsPerBook() {
+        return ordinals.isEmpty() ? 0 : (postingCount - retiredPostingCount) / ordinals.size() + 1;
+    }
+
+    private Scratch acquireScratch() {
+        Scratch scratch = scratches.poll();
+        if (scratch == null) scratch = new Scratch();
+        scratch.ensureCapacity(ordinalCount);
+        return scratch;
+    }
+
+    private void releaseScratch(Scratch scratch) {
+        scratch.clear();
+        scratches.offer(scratch);
+    }
+
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (double) ordinals.size() / Math.max(postings.live, 1));
+    }
+
+    private void retire(long bookId) {
+        Integer ordinal = ordinals.remove(bookId);
+        if (ordinal == null) return;
+
+        boolean referenced = false;
+        for (String term : documentTerms[ordinal]) {
+            Postings postings = terms.get(term);
+            if (--postings.live == 0) {
+                terms.remove(term);
+                sortedTerms.remove(term);
+                postingCount -= postings.size;
+                retiredPostingCount -= postings.size - 1;
+            } else {
+                retiredPostingCount++;
+                referenced = true;
+            }
+        }
+        documentTerms[ordinal] = null;
+        documentWeights[ordinal] = null;
+        // Only terms that are still indexed can hold postings of the ordinal.
+        if (!referenced) {
+            freeOrdinals.push(ordinal);
+            return;
+        }
+        retiredOrdinals.set(ordinal);
+        retiredOrdinalCount++;
+        if ((retiredPostingCount > MIN_PURGE_POSTINGS && retiredPostingCount * 4 > postingCount)
+                || retiredOrdinalCount > Math.max(ordinals.size(), MIN_PURGE_ORDINALS)) purgeRetired();
+    }
+
+    private void purgeRetired() {
+        for (Postings postings : terms.values()) {
+            postings.retainLive(retiredOrdinals);
+        }
+        postingCount -= retiredPostingCount;
+        retiredPostingCount = 0;
+        for (int ordinal = retiredOrdinals.nextSetBit(0); ordinal >= 0; ordinal = retiredOrdinals.nextSetBit(ordinal + 1)) {
+            freeOrdinals.push(ordinal);
+        }
+        retiredOrdinals.clear();
+        retiredOrdinalCount = 0;
+    }
+
+    private static long postingCount(List<Candidate> candidates) {
+        return candidates.stream().mapToLong(candidate -> candidate.postings.size).sum();
+    }
+
+    /**
+     * Optimal string alignment distance: insertions, deletions, substitutions and swaps of adjacent characters,
+     * returning {@code maxEdits + 1} as soon as the distance is known to exceed {@code maxEdits}.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxEdits) return maxEdits + 1;
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    private record Candidate(Postings postings, float factor) {
+    }
+
+    private record ImpactRun(Impact impact, float score) {
+    }
+
+    /**
+     * Per-query working arrays indexed by ordinal, pooled because they are as large as the index. Only the
+     * entries of touched books are written, so clearing them is enough to reuse the arrays. A mark holds a bit
+     * per query term found in the book.
+     */
+    private static final class Scratch {
+
+        private float[] scores = new float[0];
+        private byte[] marks = new byte[0];
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        private void ensureCapacity(int capacity) {
+            if (scores.length >= capacity) return;
+            scores = new float[capacity + capacity / 4];
+            marks = new byte[scores.length];
+        }
+
+        private void touch(int ordinal) {
+            if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+            touched[touchedCount++] = ordinal;
+        }
+
+        private void clear() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+                marks[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    private static final class Postings {
+
+        private final String term;
+        // highest weight first
+        private Impact[] impacts = new Impact[0];
+        private int size;
+        private int live;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(int ordinal, short weight) {
+            int index = 0;
+            while (index < impacts.length && impacts[index].weight > weight) index++;
+            if (index == impacts.length || impacts[index].weight != weight) {
+                Impact[] grown = new Impact[impacts.length + 1];
+                System.arraycopy(impacts, 0, grown, 0, index);
+                System.arraycopy(impacts, index, grown, index + 1, impacts.length - index);
+                grown[index] = new Impact(weight);
+                impacts = grown;
+            }
+            impacts[index].add(ordinal);
+            size++;
+            live++;
+        }
+
+        private void retainLive(BitSet retiredOrdinals) {
+            size = 0;
+            for (Impact impact : impacts) {
+                impact.retainLive(retiredOrdinals);
+                size += impact.size;
+            }
+            impacts = Arrays.stream(impacts).filter(impact -> impact.size > 0).toArray(Impact[]::new);
+        }
+    }
+
+    /**
+     * The ordinals of the books that have a term with the same weight, in insertion order.
+     */
+    private static final class Impact {
+
+        private final short weight;
+        private int[] ordinals = new int[2];
+        private int size;
+
+        private Impact(short weight) {
+            this.weight = weight;
+        }
+
+        private void add(int ordinal) {
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+            ordinals[size++] = ordinal;
+        }
+
+        private void retainLive(BitSet retiredOrdinals) {
+            int retained = 0;
+            for (int i = 0; i < size; i++) {
+                if (!retiredOrdinals.get(ordinals[i])) ordinals[retained++] = ordinals[i];
+            }
+            size = retained;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.application.library.search;
+
+import java.util.List;
+
+/**
+ * The ids of the best matching books, most relevant first, and the number of books that matched in total, or, when
+ * {@code totalIsLowerBound} is set, the number counted before the search stopped.
+ */
+public record SearchHits(long total, boolean totalIsLowerBound, List<Long> bookIds) {
+
+    public static SearchHits empty() {
+        return new SearchHits(0, false, List.of());
+    }
+}
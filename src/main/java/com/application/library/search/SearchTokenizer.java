@@ -0,0 +1,44 @@
+package com.application.library.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into lowercase terms on anything that is not a letter or a digit, after stripping accents.
+ * Hyphens between digits are dropped instead of splitting, so a hyphenated ISBN becomes a single term.
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            } else if (c == '-' && joinsDigits(token, normalized, i)) {
+                continue;
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) tokens.add(token.toString());
+        return tokens;
+    }
+
+    private static boolean joinsDigits(StringBuilder token, String text, int hyphen) {
+        if (token.isEmpty() || !Character.isDigit(token.charAt(token.length() - 1)) || hyphen + 1 >= text.length()) return false;
+        char next = text.charAt(hyphen + 1);
+        return Character.isDigit(next) || next == 'x' || next == 'X';
+    }
+}
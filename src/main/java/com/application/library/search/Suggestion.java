@@ -0,0 +1,9 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.SuggestionType;
+
+/**
+ * A title or author to complete the search box with, and how many times books carrying it have been lent.
+ */
+public record Suggestion(SuggestionType type, String text, long lendCount) {
+}
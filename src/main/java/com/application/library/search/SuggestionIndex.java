@@ -0,0 +1,314 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.SuggestionType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over book titles and authors, ranked by how often books carrying them have been lent.
+ * <p>
+ * Every distinct title and author is stored once as a phrase, keyed by its normalized text. Instead of a node per
+ * character, the index is a sorted array of (phrase, word offset) pairs, one per word of each phrase, so that a prefix
+ * of any word finds its phrases with two binary searches. Ranges too broad to scan on every keystroke have their top
+ * phrases cached until the next publish, or for {@code topCacheTtl} so that changed lend counts show up in the order.
+ * <p>
+ * {@link #put} and {@link #remove} must be called from a single writer and become visible to {@link #suggest} on
+ * {@link #publish}. Lend counts of phrases that are already published change in place.
+ */
+public class SuggestionIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    static final int SCAN_LIMIT = 2048;
+    private static final int TOP_CACHE_SIZE = 10_000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<SuggestionType, Map<String, Phrase>> phrases = new EnumMap<>(SuggestionType.class);
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+    private final List<Phrase> added = new ArrayList<>();
+    private final List<Phrase> released = new ArrayList<>();
+    private final Duration topCacheTtl;
+    private volatile Snapshot snapshot;
+
+    public SuggestionIndex(Duration topCacheTtl) {
+        this.topCacheTtl = topCacheTtl;
+        this.snapshot = new Snapshot(new Phrase[0], new int[0], topCacheTtl);
+        for (SuggestionType type : SuggestionType.values()) {
+            phrases.put(type, new HashMap<>());
+        }
+    }
+
+    public void put(long bookId, String title, String author, long lendCount) {
+        remove(bookId);
+        books.put(bookId, new IndexedBook(
+                attach(SuggestionType.TITLE, title, lendCount),
+                attach(SuggestionType.AUTHOR, author, lendCount),
+                lendCount));
+    }
+
+    public void remove(long bookId) {
+        IndexedBook book = books.remove(bookId);
+        if (book == null) return;
+        detach(book.title(), book.lendCount());
+        detach(book.author(), book.lendCount());
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public void publish() {
+        List<Phrase> removed = new ArrayList<>();
+        for (Phrase phrase : released) {
+            if (phrase.books == 0 && phrases.get(phrase.type).remove(phrase.key, phrase) && phrase.published) {
+                removed.add(phrase);
+            }
+        }
+        released.clear();
+
+        List<Entry> entries = new ArrayList<>();
+        for (Phrase phrase : added) {
+            if (phrase.books == 0) continue;
+            phrase.published = true;
+            for (int offset = 0; offset >= 0; offset = nextWord(phrase.key, offset)) {
+                entries.add(new Entry(phrase, offset, head(phrase.key, offset)));
+            }
+        }
+        added.clear();
+        if (entries.isEmpty() && removed.isEmpty()) return;
+
+        Entry[] inserted = entries.toArray(new Entry[0]);
+        Arrays.sort(inserted);
+        snapshot = snapshot.splice(removed, inserted, topCacheTtl);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return List.of();
+
+        Snapshot current = snapshot;
+        int from = current.lowerBound(key);
+        int to = current.upperBound(key, from);
+        Phrase[] top = to - from <= SCAN_LIMIT
+                ? top(current, from, to, Math.min(limit, MAX_LIMIT))
+                : current.topPhrases.get(key, ignored -> top(current, from, to, MAX_LIMIT));
+
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, top.length));
+        for (Phrase phrase : top) {
+            if (suggestions.size() == limit) break;
+            if (phrase.books > 0) suggestions.add(new Suggestion(phrase.type, phrase.text, phrase.lendCount));
+        }
+        return suggestions;
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", SearchTokenizer.tokenize(text));
+    }
+
+    private Phrase attach(SuggestionType type, String text, long lendCount) {
+        String key = normalize(text);
+        if (key.isEmpty()) return null;
+
+        Phrase phrase = phrases.get(type).get(key);
+        if (phrase == null) {
+            phrase = new Phrase(type, WHITESPACE.matcher(text.strip()).replaceAll(" "), key);
+            phrases.get(type).put(key, phrase);
+            added.add(phrase);
+        }
+        phrase.books++;
+        phrase.lendCount += lendCount;
+        return phrase;
+    }
+
+    private void detach(Phrase phrase, long lendCount) {
+        if (phrase == null) return;
+        phrase.lendCount -= lendCount;
+        if (--phrase.books == 0) released.add(phrase);
+    }
+
+    private static Phrase[] top(Snapshot snapshot, int from, int to, int limit) {
+        Phrase[] best = new Phrase[limit];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            Phrase phrase = snapshot.phrases[i];
+            if (phrase.books == 0 || count == limit && !ranksBefore(phrase, best[count - 1]) || contains(best, count, phrase))
+                continue;
+            int at = count == limit ? limit - 1 : count++;
+            while (at > 0 && ranksBefore(phrase, best[at - 1])) {
+                best[at] = best[at - 1];
+                at--;
+            }
+            best[at] = phrase;
+        }
+        return Arrays.copyOf(best, count);
+    }
+
+    private static boolean ranksBefore(Phrase a, Phrase b) {
+        if (a.lendCount != b.lendCount) return a.lendCount > b.lendCount;
+        int byKey = a.key.compareTo(b.key);
+        return byKey != 0 ? byKey < 0 : a.type.compareTo(b.type) < 0;
+    }
+
+    private static boolean contains(Phrase[] phrases, int count, Phrase phrase) {
+        for (int i = 0; i < count; i++) {
+            if (phrases[i] == phrase) return true;
+        }
+        return false;
+    }
+
+    private static int nextWord(String key, int offset) {
+        int space = key.indexOf(' ', offset);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    private static long head(String key, int offset) {
+        long head = 0;
+        for (int i = 0; i < 4; i++) {
+            head = head << 16 | (offset + i < key.length() ? key.charAt(offset + i) : 0);
+        }
+        return head;
+    }
+
+    private static int compareSuffixes(String a, int aOffset, String b, int bOffset) {
+        int aLength = a.length() - aOffset;
+        int bLength = b.length() - bOffset;
+        for (int i = 0; i < Math.min(aLength, bLength); i++) {
+            int diff = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+            if (diff != 0) return diff;
+        }
+        return aLength - bLength;
+    }
+
+    private static final class Phrase {
+        private final SuggestionType type;
+        private final String text;
+        private final String key;
+        private volatile int books;
+        private volatile long lendCount;
+        private boolean published;
+
+        private Phrase(SuggestionType type, String text, String key) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+        }
+    }
+
+    private record IndexedBook(Phrase title, Phrase author, long lendCount) {
+    }
+
+    // The first four characters of the suffix, so that most comparisons while sorting need not reach the strings.
+    private record Entry(Phrase phrase, int offset, long head) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byHead = Long.compareUnsigned(head, other.head);
+            return byHead != 0 ? byHead : compareSuffixes(phrase.key, offset, other.phrase.key, other.offset);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Phrase[] phrases;
+        private final int[] offsets;
+        private final Cache<String, Phrase[]> topPhrases;
+
+        private Snapshot(Phrase[] phrases, int[] offsets, Duration topCacheTtl) {
+            this.phrases = phrases;
+            this.offsets = offsets;
+            this.topPhrases = Caffeine.newBuilder()
+                    .maximumSize(TOP_CACHE_SIZE)
+                    .expireAfterWrite(topCacheTtl)
+                    .build();
+        }
+
+        /**
+         * Drops the entries of removed phrases and inserts new ones, both found by binary search, copying the runs in
+         * between so that a handful of changes does not cost a comparison per entry.
+         */
+        private Snapshot splice(List<Phrase> removed, Entry[] inserted, Duration topCacheTtl) {
+            int[] drops = removed.stream()
+                    .flatMapToInt(phrase -> positionsOf(phrase).stream().mapToInt(Integer::intValue))
+                    .sorted()
+                    .toArray();
+            int[] inserts = new int[inserted.length];
+            for (int i = 0; i < inserted.length; i++) {
+                inserts[i] = lowerBound(inserted[i].phrase().key, inserted[i].offset());
+            }
+
+            Phrase[] splicedPhrases = new Phrase[phrases.length - drops.length + inserted.length];
+            int[] splicedOffsets = new int[splicedPhrases.length];
+            int source = 0, target = 0, drop = 0, insert = 0;
+            while (true) {
+                int next = Math.min(drop < drops.length ? drops[drop] : phrases.length,
+                        insert < inserts.length ? inserts[insert] : phrases.length);
+                System.arraycopy(phrases, source, splicedPhrases, target, next - source);
+                System.arraycopy(offsets, source, splicedOffsets, target, next - source);
+                target += next - source;
+                source = next;
+                if (insert < inserts.length && inserts[insert] == source) {
+                    splicedPhrases[target] = inserted[insert].phrase();
+                    splicedOffsets[target++] = inserted[insert++].offset();
+                } else if (drop < drops.length && drops[drop] == source) {
+                    source++;
+                    drop++;
+                } else {
+                    break;
+                }
+            }
+            return new Snapshot(splicedPhrases, splicedOffsets, topCacheTtl);
+        }
+
+        private List<Integer> positionsOf(Phrase phrase) {
+            List<Integer> positions = new ArrayList<>();
+            for (int offset = 0; offset >= 0; offset = nextWord(phrase.key, offset)) {
+                int position = lowerBound(phrase.key, offset);
+                while (position < phrases.length && phrases[position] != phrase
+                        && compareSuffixes(phrases[position].key, offsets[position], phrase.key, offset) == 0) {
+                    position++;
+                }
+                if (position < phrases.length && phrases[position] == phrase) positions.add(position);
+            }
+            return positions;
+        }
+
+        private int lowerBound(String key, int offset) {
+            int low = 0, high = phrases.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareSuffixes(phrases[mid].key, offsets[mid], key, offset) < 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0, high = phrases.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) < 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private int upperBound(String prefix, int from) {
+            int low = from, high = phrases.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) <= 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private int comparePrefix(int entry, String prefix) {
+            String key = phrases[entry].key;
+            int offset = offsets[entry];
+            return key.startsWith(prefix, offset) ? 0 : compareSuffixes(key, offset, prefix, 0);
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.application.library.security;
 
 
+import com.application.library.model.User;
 import com.application.library.service.impl.UserDetailsServiceImpl;
 import com.application.library.utils.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,10 +23,20 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final boolean selfContainedClaimsEnabled;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil,
+                         UserDetailsServiceImpl userDetailsService,
+                         UserPrincipalCache userPrincipalCache,
+                         TokenRevocationRegistry tokenRevocationRegistry,
+                         @Value("${jwt.self-contained-claims.enabled:false}") boolean selfContainedClaimsEnabled) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.selfContainedClaimsEnabled = selfContainedClaimsEnabled;
     }
 
     @Override
@@ -32,16 +44,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String userName = null;
+        VerifiedToken verifiedToken = null;
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            userName = jwtUtil.extractUser(token);
+            verifiedToken = jwtUtil.verifyToken(authHeader.substring(7));
         }
 
-        if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails user = userDetailsService.loadUserByUsername(userName);
-            if (jwtUtil.validateToken(token, user)) {
+        if (verifiedToken != null && verifiedToken.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails user = resolvePrincipal(verifiedToken);
+            if (user != null && jwtUtil.validateToken(verifiedToken, user)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -51,4 +61,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(VerifiedToken verifiedToken) {
+        if (selfContainedClaimsEnabled && verifiedToken.hasPrincipalClaims()) {
+            if (tokenRevocationRegistry.isRevoked(verifiedToken.getUserId(), verifiedToken.getTokenVersion())) return null;
+            return new User(verifiedToken.getUserId(), verifiedToken.getSubject(), verifiedToken.getRoles());
+        }
+        return userPrincipalCache.get(verifiedToken.getSubject(), userDetailsService::loadUserByUsername);
+    }
 }
@@ -3,6 +3,7 @@ package com.application.library.security;
 
 import com.application.library.exception.AuthenticationEntryPointException;
 import com.application.library.service.impl.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -43,6 +44,10 @@ public class SecurityConfig {
                 .headers(x -> x.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(x ->
+                        // the initial request of a streamed response is already authorized
+                        x.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                )
                 .authorizeHttpRequests(x ->
                         x.requestMatchers("/auth/**", "/v3/api-docs/**", "/swagger-ui/**", "/h2-console/**").permitAll()
                 )
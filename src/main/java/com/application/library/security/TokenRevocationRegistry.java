@@ -0,0 +1,71 @@
+package com.application.library.security;
+
+import com.application.library.data.view.UserTokenVersionView;
+import com.application.library.repository.UserRepository;
+import com.application.library.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimum token version per user, learnt locally on revocation and by polling users changed since the last poll.
+ * Each poll re-reads an overlap window so that users committed late are not missed; re-reading a user is harmless.
+ * Revocations are only consulted for self-contained claims, so with those disabled the registry neither records nor
+ * polls anything.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    public static final int ALL_TOKENS_REVOKED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final long overlapMillis;
+    private final boolean enabled;
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh = LocalDateTime.now().minus(JwtUtil.TOKEN_VALIDITY_MILLIS, ChronoUnit.MILLIS);
+
+    public TokenRevocationRegistry(UserRepository userRepository,
+                                   @Value("${jwt.revocation.overlap-ms:10000}") long overlapMillis,
+                                   @Value("${jwt.self-contained-claims.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.overlapMillis = overlapMillis;
+        this.enabled = enabled;
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && tokenVersion < revocation.minimumTokenVersion();
+    }
+
+    public void revoke(Long userId, int minimumTokenVersion) {
+        if (!enabled || userId == null) return;
+        revocations.merge(userId, new Revocation(minimumTokenVersion, System.currentTimeMillis()),
+                (current, next) -> current.minimumTokenVersion() >= next.minimumTokenVersion() ? current : next);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) return;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastRefresh.minus(overlapMillis, ChronoUnit.MILLIS);
+        for (UserTokenVersionView view : userRepository.findTokenVersionsChangedSince(since)) {
+            revoke(view.getId(), Boolean.FALSE.equals(view.getDeleted()) ? tokenVersionOf(view) : ALL_TOKENS_REVOKED);
+        }
+        lastRefresh = now;
+
+        long pruneBefore = System.currentTimeMillis() - JwtUtil.TOKEN_VALIDITY_MILLIS;
+        revocations.values().removeIf(revocation -> revocation.revokedAtMillis() < pruneBefore);
+    }
+
+    private int tokenVersionOf(UserTokenVersionView view) {
+        return view.getTokenVersion() == null ? 0 : view.getTokenVersion();
+    }
+
+    private record Revocation(int minimumTokenVersion, long revokedAtMillis) {
+    }
+}
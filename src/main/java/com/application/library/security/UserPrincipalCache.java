@@ -0,0 +1,39 @@
+package com.application.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "user-principals";
+
+    private final Cache<String, UserDetails> principals;
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${security.principal-cache.maximum-size:10000}") long maximumSize) {
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        return principals.get(email, loader);
+    }
+
+    public void evict(String email) {
+        if (email != null) principals.invalidate(email);
+    }
+}
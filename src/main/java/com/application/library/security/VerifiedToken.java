@@ -0,0 +1,51 @@
+package com.application.library.security;
+
+import com.application.library.enumerations.UserRole;
+
+import java.util.Date;
+import java.util.Set;
+
+public class VerifiedToken {
+
+    private final String subject;
+    private final Date expiration;
+    private final Long userId;
+    private final Set<UserRole> roles;
+    private final Integer tokenVersion;
+
+    public VerifiedToken(String subject, Date expiration, Long userId, Set<UserRole> roles, Integer tokenVersion) {
+        this.subject = subject;
+        this.expiration = expiration;
+        this.userId = userId;
+        this.roles = roles;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Set<UserRole> getRoles() {
+        return roles;
+    }
+
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+
+    public boolean hasPrincipalClaims() {
+        return userId != null && roles != null && tokenVersion != null;
+    }
+}
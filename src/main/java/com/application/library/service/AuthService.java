@@ -32,9 +32,10 @@ public class AuthService {
             throw new AuthenticationServiceException("Authentication failed");
         }
 
+        User user = (User) authenticate.getPrincipal();
         return new LoginResponseDto(
-                jwtUtil.generateToken(loginRequestDto.getEmail()),
-                userConverter.toBaseDto((User) authenticate.getPrincipal())
+                jwtUtil.generateToken(user),
+                userConverter.toBaseDto(user)
         );
     }
 
@@ -0,0 +1,157 @@
+package com.application.library.service;
+
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
+import com.application.library.constants.MessageConstants;
+import com.application.library.exception.EntityAlreadyExistsException;
+import com.application.library.exception.ShelfFullException;
+import com.application.library.listener.event.UpdateBookAvailableCountEvent;
+import com.application.library.listener.event.UpdateShelfAvailableCapacityEvent;
+import com.application.library.repository.BookRepository;
+import com.application.library.repository.ShelfRepository;
+import com.application.library.search.BookFacetIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code books.available_count} and {@code shelf.available_capacity} in line with lends,
+ * returns and book moves. In {@code delta} mode each change is a single guarded UPDATE within the
+ * caller's transaction; in {@code recompute} mode a full recount is scheduled through the
+ * availability events. Either way, a periodic reconciliation reports and repairs drift.
+ */
+@Service
+public class AvailabilityService {
+
+    public static final String DELTA_MODE = "delta";
+
+    private final BookRepository bookRepository;
+    private final ShelfRepository shelfRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final boolean deltaMode;
+    private final Counter bookDrift;
+    private final Counter shelfDrift;
+
+    public AvailabilityService(BookRepository bookRepository,
+                               ShelfRepository shelfRepository,
+                               ApplicationEventPublisher applicationEventPublisher,
+                               CacheInvalidationBus cacheInvalidationBus,
+                               MeterRegistry meterRegistry,
+                               @Value("${availability.counters.mode:delta}") String mode) {
+        this.bookRepository = bookRepository;
+        this.shelfRepository = shelfRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.deltaMode = DELTA_MODE.equals(mode);
+        this.bookDrift = Counter.builder("library.availability.drift").tag("entity", "book").register(meterRegistry);
+        this.shelfDrift = Counter.builder("library.availability.drift").tag("entity", "shelf").register(meterRegistry);
+    }
+
+    public void bookLent(Long bookId) {
+        if (!deltaMode) {
+            applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
+            return;
+        }
+        if (bookRepository.decrementAvailableCount(bookId) == 0)
+            throw new EntityAlreadyExistsException(MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING);
+        evictBookView(bookId);
+    }
+
+    public void bookReturned(Long bookId) {
+        if (!deltaMode) {
+            applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
+            return;
+        }
+        if (bookRepository.incrementAvailableCount(bookId) == 0) {
+            applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
+        }
+        evictBookView(bookId);
+    }
+
+    public void booksLent(Map<Long, Integer> countsByBookId) {
+        countsByBookId.forEach((bookId, count) -> {
+            if (!deltaMode) {
+                applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
+                return;
+            }
+            if (bookRepository.decreaseAvailableCount(bookId, count) == 0)
+                throw new EntityAlreadyExistsException(MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING);
+            evictBookView(bookId);
+        });
+    }
+
+    public void booksReturned(Map<Long, Integer> countsByBookId) {
+        countsByBookId.forEach((bookId, count) -> {
+            if (!deltaMode) {
+                applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
+                return;
+            }
+            if (bookRepository.increaseAvailableCount(bookId, count) == 0) {
+                applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
+            }
+            evictBookView(bookId);
+        });
+    }
+
+    public void bookAddedToShelf(Long shelfId) {
+        if (!deltaMode) {
+            applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, shelfId));
+            return;
+        }
+        if (shelfRepository.decrementAvailableCapacity(shelfId) == 0)
+            throw new ShelfFullException(MessageConstants.SHELF_FULL);
+        evictAllBookViews();
+    }
+
+    public void booksAddedToShelf(Long shelfId, int count) {
+        if (!deltaMode) {
+            applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, shelfId));
+            return;
+        }
+        if (shelfRepository.decreaseAvailableCapacity(shelfId, count) == 0)
+            throw new ShelfFullException(MessageConstants.SHELF_FULL);
+        evictAllBookViews();
+    }
+
+    public void bookRemovedFromShelf(Long shelfId) {
+        if (!deltaMode) {
+            applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, shelfId));
+            return;
+        }
+        if (shelfRepository.incrementAvailableCapacity(shelfId) == 0) {
+            applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, shelfId));
+        }
+        evictAllBookViews();
+    }
+
+    @Scheduled(fixedDelayString = "${availability.reconciliation.interval-ms:3600000}", initialDelayString = "${availability.reconciliation.interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        List<Long> driftedBookIds = bookRepository.findIdsWithAvailableCountDrift();
+        bookDrift.increment(driftedBookIds.size());
+        driftedBookIds.forEach(bookId -> applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId)));
+
+        List<Long> driftedShelfIds = shelfRepository.findIdsWithAvailableCapacityDrift();
+        shelfDrift.increment(driftedShelfIds.size());
+        driftedShelfIds.forEach(shelfId -> applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, shelfId)));
+    }
+
+    private void evictBookView(Long bookId) {
+        cacheInvalidationBus.evict(CachingConfig.BOOK_VIEW, bookId.toString());
+        cacheInvalidationBus.evict(BookFacetIndex.INDEX_NAME, bookId.toString());
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
+    }
+
+    private void evictAllBookViews() {
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW);
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
+    }
+}
@@ -4,34 +4,45 @@ import com.application.library.constants.MessageConstants;
 import com.application.library.converter.BookCommentConverter;
 import com.application.library.data.dto.BookCommentDto;
 import com.application.library.data.dto.BookCommentRequestDto;
-import com.application.library.data.view.BookCommentStatsView;
+import com.application.library.data.dto.BookCommentStatsDto;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.helper.AuthHelper;
 import com.application.library.model.BookComment;
 import com.application.library.repository.BookCommentRepository;
+import com.application.library.utils.CursorPage;
+import com.application.library.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class BookCommentService {
 
     private final BookCommentRepository bookCommentRepository;
     private final BookCommentConverter bookCommentConverter;
+    private final BookCommentStatsService bookCommentStatsService;
 
-    public BookCommentService(BookCommentRepository bookCommentRepository, BookCommentConverter bookCommentConverter) {
+    public BookCommentService(BookCommentRepository bookCommentRepository,
+                              BookCommentConverter bookCommentConverter,
+                              BookCommentStatsService bookCommentStatsService) {
         this.bookCommentRepository = bookCommentRepository;
         this.bookCommentConverter = bookCommentConverter;
+        this.bookCommentStatsService = bookCommentStatsService;
     }
 
     @Transactional
     public BookComment saveCommentByBookId(Long bookId, BookCommentRequestDto requestDto) {
-        return bookCommentRepository.save(bookCommentConverter.toEntity(bookId, requestDto));
+        BookComment bookComment = bookCommentRepository.save(bookCommentConverter.toEntity(bookId, requestDto));
+        bookCommentStatsService.commentAdded(bookId, bookComment.getRating());
+        return bookComment;
     }
 
     @Transactional
@@ -40,7 +51,10 @@ public class BookCommentService {
         if (!Objects.equals(bookComment.getUser().getId(), AuthHelper.getActiveUser().getId()))
             throw new AccessDeniedException(MessageConstants.NOT_AUTHORIZED_FOR_UPDATE_COMMENT);
 
-        return bookCommentConverter.updateEntity(requestDto, bookComment);
+        double previousRating = bookComment.getRating();
+        BookComment updatedComment = bookCommentConverter.updateEntity(requestDto, bookComment);
+        bookCommentStatsService.ratingChanged(bookComment.getBook().getId(), previousRating, updatedComment.getRating());
+        return updatedComment;
     }
 
     @Transactional
@@ -50,6 +64,7 @@ public class BookCommentService {
             throw new AccessDeniedException(MessageConstants.NOT_AUTHORIZED_FOR_DELETE_COMMENT);
 
         bookCommentRepository.delete(bookComment);
+        bookCommentStatsService.commentRemoved(bookComment.getBook().getId(), bookComment.getRating());
         return commentId;
     }
 
@@ -61,8 +76,17 @@ public class BookCommentService {
     }
 
     @Transactional(readOnly = true)
-    public BookCommentStatsView getBookCommentStats(Long bookId) {
-        return bookCommentRepository.getBookCommentStats(bookId);
+    public CursorPage<BookCommentDto> getCommentsByBookIdCursor(Long bookId, Optional<String> cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<BookCommentDto> comments = cursor.map(token -> PageCursor.decode(token, 2))
+                .map(after -> bookCommentRepository.findAfterByBookIdOrderByNewest(bookId, after.getDateTime(0), after.getLong(1), limit))
+                .orElseGet(() -> bookCommentRepository.findFirstByBookIdOrderByNewest(bookId, limit));
+        return CursorPage.of(comments, size, comment -> PageCursor.encode(comment.getCreatedAt(), comment.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public BookCommentStatsDto getBookCommentStats(Long bookId) {
+        return bookCommentStatsService.getStats(bookId);
     }
 
     private BookComment findById(Long id) {
@@ -0,0 +1,183 @@
+package com.application.library.service;
+
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
+import com.application.library.data.dto.BookCommentStatsDto;
+import com.application.library.data.view.BookCommentAggregateView;
+import com.application.library.model.BookCommentStats;
+import com.application.library.repository.BookCommentRepository;
+import com.application.library.repository.BookCommentStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps {@code book_comment_stats} in line with saved, updated and deleted comments. Each change is a single UPDATE
+ * within the caller's transaction on the row created together with the book, so concurrent first comments do not race
+ * to insert it; a book that still lacks a row gets one from a recount, taken under a lock on the row so it does not
+ * overwrite a concurrent change. Reads are cached per book, and a periodic reconciliation reports and repairs drift
+ * among the books whose comments changed since its previous run. The run is taken by one node at a time through
+ * {@code book_comment_stats_reconciliation}, which also keeps when the last one started, and recounts in chunks of their
+ * own transactions. A slower rebuild walks every stats row, and every commented book without one, in the same kind of
+ * chunks, to repair drift the reconciliation cannot see, such as rows written around the service or drift older than
+ * its window.
+ */
+@Service
+public class BookCommentStatsService {
+
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
+    private final BookCommentStatsRepository bookCommentStatsRepository;
+    private final BookCommentRepository bookCommentRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter drift;
+    private final long reconciliationIntervalMillis;
+
+    public BookCommentStatsService(BookCommentStatsRepository bookCommentStatsRepository,
+                                   BookCommentRepository bookCommentRepository,
+                                   CacheInvalidationBus cacheInvalidationBus,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${comments.stats.reconciliation.interval-ms:3600000}") long reconciliationIntervalMillis) {
+        this.bookCommentStatsRepository = bookCommentStatsRepository;
+        this.bookCommentRepository = bookCommentRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.drift = Counter.builder("library.comments.stats.drift").register(meterRegistry);
+        this.reconciliationIntervalMillis = reconciliationIntervalMillis;
+    }
+
+    public void booksCreated(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) return;
+        bookCommentStatsRepository.insertEmpty(bookIds);
+    }
+
+    public void commentAdded(Long bookId, double rating) {
+        addRatings(bookId, rating, 1);
+    }
+
+    public void commentRemoved(Long bookId, double rating) {
+        addRatings(bookId, rating, -1);
+    }
+
+    public void ratingChanged(Long bookId, double previousRating, double rating) {
+        if (Double.compare(previousRating, rating) == 0) return;
+        addRatings(bookId, previousRating, -1);
+        addRatings(bookId, rating, 1);
+    }
+
+    @Cacheable(value = CachingConfig.BOOK_COMMENT_STATS, key = "#bookId.toString()")
+    @Transactional(readOnly = true)
+    public BookCommentStatsDto getStats(Long bookId) {
+        return bookCommentStatsRepository.findById(bookId)
+                .map(BookCommentStatsService::toDto)
+                .orElseGet(() -> toDto(new BookCommentStats()));
+    }
+
+    @Scheduled(fixedDelayString = "${comments.stats.reconciliation.interval-ms:3600000}", initialDelayString = "${comments.stats.reconciliation.interval-ms:3600000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        // one node per half interval takes the run, the others skip it rather than rescan and relock the same books
+        LocalDateTime reconciledAt = transactionTemplate.execute(status ->
+                bookCommentStatsRepository.claimReconciliation(now, now.minus(reconciliationIntervalMillis / 2, ChronoUnit.MILLIS)) == 0
+                        ? null : bookCommentStatsRepository.findReconciledAt());
+        if (reconciledAt == null) return;
+
+        // a full interval of overlap, so comments written in transactions that committed late are not missed
+        LocalDateTime since = reconciledAt.minus(reconciliationIntervalMillis, ChronoUnit.MILLIS);
+        List<Long> changedBookIds = bookCommentStatsRepository.findBookIdsWithCommentsChangedSince(since);
+        for (int from = 0; from < changedBookIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = changedBookIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, changedBookIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> driftedBookIds = new ArrayList<>(bookCommentStatsRepository.findBookIdsWithDrift(chunk));
+                driftedBookIds.addAll(bookCommentStatsRepository.findCommentedBookIdsWithoutStats(chunk));
+                drift.increment(driftedBookIds.size());
+                driftedBookIds.forEach(this::recount);
+            });
+        }
+        // only a completed run moves the window, so one that failed part way is covered again by the next
+        transactionTemplate.executeWithoutResult(status -> bookCommentStatsRepository.updateReconciledAt(now));
+    }
+
+    @Scheduled(cron = "${comments.stats.rebuild.cron:0 30 3 * * SUN}")
+    public void rebuild() {
+        rebuildChunks((afterBookId, page) -> bookCommentStatsRepository.findBookIdsAfter(afterBookId, page),
+                bookCommentStatsRepository::findBookIdsWithDrift);
+        rebuildChunks((afterBookId, page) -> bookCommentStatsRepository.findCommentedBookIdsWithoutStatsAfter(afterBookId, page),
+                Function.identity());
+    }
+
+    private void rebuildChunks(BiFunction<Long, PageRequest, List<Long>> nextChunk,
+                               Function<List<Long>, List<Long>> drifted) {
+        PageRequest page = PageRequest.of(0, RECONCILE_CHUNK_SIZE);
+        Long afterBookId = 0L;
+        while (afterBookId != null) {
+            Long from = afterBookId;
+            afterBookId = transactionTemplate.execute(status -> {
+                List<Long> chunk = nextChunk.apply(from, page);
+                if (chunk.isEmpty()) return null;
+                List<Long> driftedBookIds = drifted.apply(chunk);
+                drift.increment(driftedBookIds.size());
+                driftedBookIds.forEach(this::recount);
+                return chunk.size() < RECONCILE_CHUNK_SIZE ? null : chunk.get(chunk.size() - 1);
+            });
+        }
+    }
+
+    private void addRatings(Long bookId, double rating, long count) {
+        if (bookCommentStatsRepository.addRatings(bookId, BookCommentStats.starOf(rating), count, count * rating) == 0) {
+            recount(bookId);
+            return;
+        }
+        cacheInvalidationBus.evict(CachingConfig.BOOK_COMMENT_STATS, bookId.toString());
+    }
+
+    // The row is locked before aggregating, so a concurrent change either commits first and is counted, or waits and
+    // applies its delta on top. The aggregate query flushes pending comment writes, so it includes the current change.
+    private void recount(Long bookId) {
+        BookCommentStats stats = bookCommentStatsRepository.findByIdForUpdate(bookId).orElseGet(() -> {
+            BookCommentStats created = new BookCommentStats();
+            created.setBookId(bookId);
+            return created;
+        });
+        BookCommentAggregateView aggregate = bookCommentRepository.aggregateByBookId(bookId);
+        stats.setCommentCount(aggregate.getCommentCount());
+        stats.setRatingSum(aggregate.getRatingSum());
+        stats.setOneStarCount(aggregate.getOneStarCount());
+        stats.setTwoStarCount(aggregate.getTwoStarCount());
+        stats.setThreeStarCount(aggregate.getThreeStarCount());
+        stats.setFourStarCount(aggregate.getFourStarCount());
+        stats.setFiveStarCount(aggregate.getFiveStarCount());
+        bookCommentStatsRepository.save(stats);
+        cacheInvalidationBus.evict(CachingConfig.BOOK_COMMENT_STATS, bookId.toString());
+    }
+
+    private static BookCommentStatsDto toDto(BookCommentStats stats) {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, stats.getOneStarCount());
+        histogram.put(2, stats.getTwoStarCount());
+        histogram.put(3, stats.getThreeStarCount());
+        histogram.put(4, stats.getFourStarCount());
+        histogram.put(5, stats.getFiveStarCount());
+        Double averageRating = stats.getCommentCount() == 0 ? null : stats.getRatingSum() / stats.getCommentCount();
+        return new BookCommentStatsDto(stats.getCommentCount(), averageRating, histogram);
+    }
+}
@@ -0,0 +1,233 @@
+package com.application.library.service;
+
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
+import com.application.library.constants.MessageConstants;
+import com.application.library.converter.BookConverter;
+import com.application.library.data.dto.BookImportResultDto;
+import com.application.library.data.dto.BookImportRowErrorDto;
+import com.application.library.data.dto.CreateBookRequestDto;
+import com.application.library.model.Book;
+import com.application.library.model.Shelf;
+import com.application.library.repository.BookRepository;
+import com.application.library.repository.ShelfRepository;
+import com.application.library.search.BookFacetIndex;
+import com.application.library.search.BookSearchIndex;
+import com.application.library.search.BookSuggestionIndex;
+import com.application.library.utils.CsvReader;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports many books in one request. Rows are validated with set-based lookups (existing ISBNs, shelves),
+ * shelf capacity is checked per shelf for the whole import, and the accepted rows are persisted in chunks that
+ * hibernate sends as JDBC batches. Invalid rows are skipped and reported; they do not fail the import.
+ */
+@Service
+public class BookImportService {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("name", "author", "isbn", "pageCount", "publisher", "publishedAt",
+            "language", "description", "imageUrl", "totalCount", "shelfId");
+
+    private final BookRepository bookRepository;
+    private final ShelfRepository shelfRepository;
+    private final AvailabilityService availabilityService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final BookCommentStatsService bookCommentStatsService;
+    private final BookConverter bookConverter;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final int reindexMaxBooks;
+
+    public BookImportService(BookRepository bookRepository,
+                             ShelfRepository shelfRepository,
+                             AvailabilityService availabilityService,
+                             CacheInvalidationBus cacheInvalidationBus,
+                             BookCommentStatsService bookCommentStatsService,
+                             BookConverter bookConverter,
+                             EntityManager entityManager,
+                             @Value("${books.import.batch-size:500}") int batchSize,
+                             @Value("${books.import.reindex-max-books:100}") int reindexMaxBooks) {
+        this.bookRepository = bookRepository;
+        this.shelfRepository = shelfRepository;
+        this.availabilityService = availabilityService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.bookCommentStatsService = bookCommentStatsService;
+        this.bookConverter = bookConverter;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.reindexMaxBooks = reindexMaxBooks;
+    }
+
+    @Transactional
+    public BookImportResultDto importBooks(List<CreateBookRequestDto> books) {
+        List<BookImportRowErrorDto> errors = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            if (books.get(i) == null) errors.add(new BookImportRowErrorDto(i + 1, null, MessageConstants.BOOK_IMPORT_INVALID_ROW));
+        }
+        return importRows(books, errors);
+    }
+
+    /**
+     * Imports a CSV document whose header names the {@link CreateBookRequestDto} fields, in any order.
+     */
+    @Transactional
+    public BookImportResultDto importCsv(InputStream inputStream) throws IOException {
+        CsvReader csvReader = new CsvReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        Map<String, Integer> columns = readHeader(csvReader.readRecord());
+
+        List<CreateBookRequestDto> books = new ArrayList<>();
+        List<BookImportRowErrorDto> errors = new ArrayList<>();
+        List<String> record;
+        while ((record = csvReader.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            try {
+                books.add(toRequestDto(record, columns));
+            } catch (RuntimeException e) {
+                books.add(null);
+                errors.add(new BookImportRowErrorDto(books.size(), null, MessageConstants.BOOK_IMPORT_INVALID_ROW));
+            }
+        }
+        return importRows(books, errors);
+    }
+
+    private BookImportResultDto importRows(List<CreateBookRequestDto> books, List<BookImportRowErrorDto> errors) {
+        Map<Integer, CreateBookRequestDto> candidates = new LinkedHashMap<>();
+        Set<String> isbns = new HashSet<>();
+        for (int i = 0; i < books.size(); i++) {
+            CreateBookRequestDto book = books.get(i);
+            if (book == null) continue;
+            int row = i + 1;
+            if (!isComplete(book)) errors.add(new BookImportRowErrorDto(row, book.getIsbn(), MessageConstants.BOOK_IMPORT_MISSING_FIELD));
+            else if (!isbns.add(book.getIsbn())) errors.add(new BookImportRowErrorDto(row, book.getIsbn(), MessageConstants.BOOK_IMPORT_DUPLICATE_ISBN));
+            else candidates.put(row, book);
+        }
+
+        Set<String> existingIsbns = findExistingIsbns(isbns);
+        Map<Long, Shelf> shelves = shelfRepository.findAllById(candidates.values().stream().map(CreateBookRequestDto::getShelfId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Shelf::getId, Function.identity()));
+        Map<Long, Integer> remainingCapacity = new HashMap<>();
+        shelves.values().forEach(shelf -> remainingCapacity.put(shelf.getId(), Optional.ofNullable(shelf.getAvailableCapacity()).orElse(0)));
+
+        List<CreateBookRequestDto> accepted = new ArrayList<>();
+        for (Map.Entry<Integer, CreateBookRequestDto> candidate : candidates.entrySet()) {
+            CreateBookRequestDto book = candidate.getValue();
+            String error = null;
+            if (existingIsbns.contains(book.getIsbn())) error = MessageConstants.BOOK_ALREADY_EXISTS_WITH_ISBN;
+            else if (!shelves.containsKey(book.getShelfId())) error = MessageConstants.SHELF_NOT_FOUND;
+            else if (remainingCapacity.merge(book.getShelfId(), -1, Integer::sum) < 0) error = MessageConstants.SHELF_FULL;
+
+            if (error != null) errors.add(new BookImportRowErrorDto(candidate.getKey(), book.getIsbn(), error));
+            else accepted.add(book);
+        }
+
+        reindex(insert(accepted, shelves));
+        accepted.stream()
+                .collect(Collectors.groupingBy(CreateBookRequestDto::getShelfId, Collectors.counting()))
+                .forEach((shelfId, count) -> availabilityService.booksAddedToShelf(shelfId, count.intValue()));
+        if (!accepted.isEmpty()) cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
+
+        errors.sort(Comparator.comparingInt(BookImportRowErrorDto::getRow));
+        return new BookImportResultDto(books.size(), accepted.size(), errors);
+    }
+
+    private List<Long> insert(List<CreateBookRequestDto> books, Map<Long, Shelf> shelves) {
+        List<Long> insertedIds = new ArrayList<>(books.size());
+        for (int from = 0; from < books.size(); from += batchSize) {
+            List<Book> batch = new ArrayList<>();
+            for (CreateBookRequestDto dto : books.subList(from, Math.min(from + batchSize, books.size()))) {
+                Book book = bookConverter.updateEntity(dto, new Book());
+                book.setShelf(shelves.get(dto.getShelfId()));
+                book.setAvailableCount(book.getTotalCount());
+                batch.add(book);
+            }
+            bookRepository.saveAll(batch);
+            bookRepository.flush();
+            List<Long> bookIds = batch.stream().map(Book::getId).toList();
+            bookCommentStatsService.booksCreated(bookIds);
+            insertedIds.addAll(bookIds);
+            entityManager.clear();
+        }
+        return insertedIds;
+    }
+
+    // Each eviction is a row every node reads back, so a large import rebuilds the indexes once instead.
+    private void reindex(List<Long> bookIds) {
+        if (bookIds.isEmpty()) return;
+        if (bookIds.size() > reindexMaxBooks) {
+            cacheInvalidationBus.evictAll(BookSearchIndex.INDEX_NAME);
+            cacheInvalidationBus.evictAll(BookSuggestionIndex.INDEX_NAME);
+            cacheInvalidationBus.evictAll(BookFacetIndex.INDEX_NAME);
+            return;
+        }
+        for (Long bookId : bookIds) {
+            cacheInvalidationBus.evict(BookSearchIndex.INDEX_NAME, bookId.toString());
+            cacheInvalidationBus.evict(BookSuggestionIndex.INDEX_NAME, bookId.toString());
+            cacheInvalidationBus.evict(BookFacetIndex.INDEX_NAME, bookId.toString());
+        }
+    }
+
+    private Set<String> findExistingIsbns(Set<String> isbns) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(isbns);
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK_SIZE) {
+            existing.addAll(bookRepository.findExistingIsbns(all.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, all.size()))));
+        }
+        return existing;
+    }
+
+    private static boolean isComplete(CreateBookRequestDto book) {
+        return Stream.of(book.getName(), book.getAuthor(), book.getIsbn(), book.getPublisher(), book.getPublishedAt(),
+                        book.getLanguage(), book.getDescription(), book.getImageUrl())
+                .allMatch(value -> value != null && !value.isBlank())
+                && book.getPageCount() != null
+                && book.getTotalCount() != null && book.getTotalCount() >= 0
+                && book.getShelfId() != null;
+    }
+
+    private static Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) throw new IllegalArgumentException(MessageConstants.BOOK_IMPORT_INVALID_HEADER);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            int index = i;
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            CSV_COLUMNS.stream().filter(name::equalsIgnoreCase).findFirst().ifPresent(column -> columns.put(column, index));
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS)) throw new IllegalArgumentException(MessageConstants.BOOK_IMPORT_INVALID_HEADER);
+        return columns;
+    }
+
+    private static CreateBookRequestDto toRequestDto(List<String> record, Map<String, Integer> columns) {
+        Function<String, String> value = column -> {
+            String text = record.get(columns.get(column)).trim();
+            return text.isEmpty() ? null : text;
+        };
+        CreateBookRequestDto book = new CreateBookRequestDto();
+        book.setName(value.apply("name"));
+        book.setAuthor(value.apply("author"));
+        book.setIsbn(value.apply("isbn"));
+        book.setPageCount(Optional.ofNullable(value.apply("pageCount")).map(Integer::valueOf).orElse(null));
+        book.setPublisher(value.apply("publisher"));
+        book.setPublishedAt(value.apply("publishedAt"));
+        book.setLanguage(value.apply("language"));
+        book.setDescription(value.apply("description"));
+        book.setImageUrl(value.apply("imageUrl"));
+        book.setTotalCount(Optional.ofNullable(value.apply("totalCount")).map(Integer::valueOf).orElse(null));
+        book.setShelfId(Optional.ofNullable(value.apply("shelfId")).map(Long::valueOf).orElse(null));
+        return book;
+    }
+}
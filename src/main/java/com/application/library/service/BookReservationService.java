@@ -1,6 +1,8 @@
 package com.application.library.service;
 
+import com.application.library.cache.CacheInvalidationBus;
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.AvailabilityDayDto;
 import com.application.library.data.dto.BookReservationRequestDto;
 import com.application.library.data.view.BookReservationView;
 import com.application.library.exception.EntityAlreadyExistsException;
@@ -10,6 +12,10 @@ import com.application.library.model.Book;
 import com.application.library.model.BookReservation;
 import com.application.library.model.User;
 import com.application.library.repository.BookReservationRepository;
+import com.application.library.reservation.AvailabilityTimeline;
+import com.application.library.reservation.AvailabilityTimelineCache;
+import com.application.library.reservation.ReservationAdmission;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -17,36 +23,50 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class BookReservationService {
 
     private final BookReservationRepository bookReservationRepository;
     private final BookService bookService;
-    private final LendTransactionService lendTransactionService;
-
-    public BookReservationService(BookReservationRepository bookReservationRepository, BookService bookService, LendTransactionService lendTransactionService) {
+    private final AvailabilityTimelineCache availabilityTimelineCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ReservationAdmission reservationAdmission;
+    private final int calendarMaxDays;
+
+    public BookReservationService(BookReservationRepository bookReservationRepository,
+                                  BookService bookService,
+                                  AvailabilityTimelineCache availabilityTimelineCache,
+                                  CacheInvalidationBus cacheInvalidationBus,
+                                  ReservationAdmission reservationAdmission,
+                                  @Value("${reservations.calendar.max-days:90}") int calendarMaxDays) {
         this.bookReservationRepository = bookReservationRepository;
         this.bookService = bookService;
-        this.lendTransactionService = lendTransactionService;
+        this.availabilityTimelineCache = availabilityTimelineCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.reservationAdmission = reservationAdmission;
+        this.calendarMaxDays = calendarMaxDays;
     }
 
-    @Transactional
     public BookReservation reserveBook(Long bookId, BookReservationRequestDto requestDto) {
         User user = AuthHelper.getActiveUser();
 
-        if (bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), LocalDate.now()))
-            throw new EntityAlreadyExistsException(MessageConstants.USER_ALREADY_HAS_A_RESERVATION);
+        return reservationAdmission.admit(bookId, book -> {
+            if (bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), LocalDate.now()))
+                throw new EntityAlreadyExistsException(MessageConstants.USER_ALREADY_HAS_A_RESERVATION);
 
-        if (bookReservationRepository.existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, LocalDate.now().minusDays(7).atTime(LocalTime.MAX)))
-            throw new EntityAlreadyExistsException(MessageConstants.USER_HAS_AN_UNCOMPLETED_RESERVATION);
+            if (bookReservationRepository.existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, LocalDate.now().minusDays(7).atTime(LocalTime.MAX)))
+                throw new EntityAlreadyExistsException(MessageConstants.USER_HAS_AN_UNCOMPLETED_RESERVATION);
 
+            if (!isBookAvailableForDate(book, requestDto.getReservationDate()))
+                throw new IllegalStateException(MessageConstants.BOOK_IS_NOT_AVAILABLE_FOR_THE_SELECTED_DATE);
 
-        Book book = bookService.findById(bookId);
-        if (!isBookAvailableForDate(book, requestDto.getReservationDate()))
-            throw new IllegalStateException(MessageConstants.BOOK_IS_NOT_AVAILABLE_FOR_THE_SELECTED_DATE);
-
-        return bookReservationRepository.save(new BookReservation(user, book, requestDto.getReservationDate()));
+            BookReservation bookReservation = bookReservationRepository.save(new BookReservation(user, book, requestDto.getReservationDate()));
+            evictTimeline(bookId);
+            return bookReservation;
+        });
     }
 
     @Transactional(readOnly = true)
@@ -55,20 +75,24 @@ public class BookReservationService {
         return bookReservationRepository.findByUser_Id(user.getId(), PageRequest.of(page, size));
     }
 
-    @Transactional
     public BookReservation updateReservation(Long id, BookReservationRequestDto requestDto) {
-        BookReservation bookReservation = bookReservationRepository.findById(id)
+        // Only the book id is read before the lock, so that the reservation is loaded fresh once it is held.
+        Long bookId = bookReservationRepository.findBookIdById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reservation not found"));
 
-        if (bookReservation.isCompleted()) throw new IllegalStateException(MessageConstants.RESERVATION_ALREADY_COMPLETED);
+        return reservationAdmission.admit(bookId, book -> {
+            BookReservation bookReservation = findReservation(id);
 
+            if (bookReservation.isCompleted()) throw new IllegalStateException(MessageConstants.RESERVATION_ALREADY_COMPLETED);
 
-        if (!isBookAvailableForDate(bookReservation.getBook(), requestDto.getReservationDate()))
-            throw new IllegalStateException(MessageConstants.BOOK_IS_NOT_AVAILABLE_FOR_THE_SELECTED_DATE);
+            if (!isBookAvailableForDate(book, requestDto.getReservationDate()))
+                throw new IllegalStateException(MessageConstants.BOOK_IS_NOT_AVAILABLE_FOR_THE_SELECTED_DATE);
 
-        bookReservation.setReservationDate(requestDto.getReservationDate());
+            bookReservation.setReservationDate(requestDto.getReservationDate());
+            evictTimeline(bookId);
 
-        return bookReservation;
+            return bookReservation;
+        });
     }
 
     @Transactional
@@ -79,15 +103,38 @@ public class BookReservationService {
         if (bookReservation.isCompleted()) throw new IllegalStateException(MessageConstants.RESERVATION_ALREADY_COMPLETED);
 
         bookReservationRepository.delete(bookReservation);
+        evictTimeline(bookReservation.getBook().getId());
 
         return bookReservation;
     }
 
+    @Transactional(readOnly = true)
+    public List<AvailabilityDayDto> getAvailabilityCalendar(Long bookId, int days) {
+        if (days < 1 || days > calendarMaxDays)
+            throw new IllegalArgumentException(MessageConstants.RESERVATION_CALENDAR_DAYS_OUT_OF_RANGE);
+
+        Book book = bookService.findById(bookId);
+        AvailabilityTimeline timeline = availabilityTimelineCache.get(bookId);
+        LocalDate today = LocalDate.now();
+        long[] available = timeline.availableBetween(book.getAvailableCount(), today, today.plusDays(days - 1));
+        List<AvailabilityDayDto> calendar = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            calendar.add(new AvailabilityDayDto(today.plusDays(day), Math.max(0, available[day])));
+        }
+        return calendar;
+    }
+
+    private BookReservation findReservation(Long id) {
+        return bookReservationRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Reservation not found"));
+    }
+
+    // Counted in the database rather than read from the timeline cache, which may not have seen a change committed on another node yet.
     private boolean isBookAvailableForDate(Book book, LocalDate date) {
-        long totalAvailableCount = book.getAvailableCount()
-                + lendTransactionService.countByBookIdAndReturnedAndDeadlineDateAfter(book.getId(), false, date)
-                - bookReservationRepository.countByBook_IdAndReservationDateAfterAndCompletedFalse(book.getId(), date);
-        return totalAvailableCount > 0;
+        return book.getAvailableCount() + bookReservationRepository.countAvailabilityChangeOn(book.getId(), date) > 0;
+    }
+
+    private void evictTimeline(Long bookId) {
+        cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, bookId.toString());
     }
 
 }
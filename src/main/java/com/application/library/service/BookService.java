@@ -1,25 +1,64 @@
 package com.application.library.service;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.config.CachingConfig;
 import com.application.library.constants.MessageConstants;
 import com.application.library.converter.BookConverter;
+import com.application.library.data.dto.AvailabilityDayDto;
+import com.application.library.data.dto.BookAvailabilityDto;
+import com.application.library.data.dto.BookFilterRequestDto;
 import com.application.library.data.dto.CreateBookRequestDto;
+import com.application.library.data.dto.BookSearchPageDto;
+import com.application.library.data.dto.FacetedBookPageDto;
 import com.application.library.data.dto.SaveBookRequestDto;
+import com.application.library.data.view.book.BookAvailableCountView;
 import com.application.library.data.view.book.BookView;
+import com.application.library.data.view.book.BookViewSnapshot;
+import com.application.library.enumerations.BookFacet;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
-import com.application.library.listener.event.UpdateShelfAvailableCapacityEvent;
+import com.application.library.listener.event.UpdateBookAvailableCountEvent;
 import com.application.library.model.Book;
 import com.application.library.model.Shelf;
 import com.application.library.repository.BookRepository;
 import com.application.library.repository.LendTransactionRepository;
+import com.application.library.reservation.AvailabilityTimeline;
+import com.application.library.reservation.AvailabilityTimelineCache;
+import com.application.library.search.BookFacetIndex;
+import com.application.library.search.BookSearchIndex;
+import com.application.library.search.BookSuggestionIndex;
+import com.application.library.search.FacetFilter;
+import com.application.library.search.FacetHits;
+import com.application.library.search.SearchHits;
+import com.application.library.search.SearchTokenizer;
+import com.application.library.search.Suggestion;
+import com.application.library.search.SuggestionIndex;
+import com.application.library.utils.CursorPage;
+import com.application.library.utils.PageCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookService {
@@ -29,13 +68,35 @@ public class BookService {
     private final ShelfService shelfService;
     private final LendTransactionRepository lendTransactionRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final AvailabilityService availabilityService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final AvailabilityTimelineCache availabilityTimelineCache;
+    private final BookCommentStatsService bookCommentStatsService;
+    private final int availabilityMaxBooks;
+    private final int availabilityMaxDays;
 
-    public BookService(BookRepository bookRepository, BookConverter bookConverter, ShelfService shelfService, LendTransactionRepository lendTransactionRepository, ApplicationEventPublisher applicationEventPublisher) {
+    public BookService(BookRepository bookRepository, BookConverter bookConverter, ShelfService shelfService, LendTransactionRepository lendTransactionRepository, ApplicationEventPublisher applicationEventPublisher, CacheInvalidationBus cacheInvalidationBus, AvailabilityService availabilityService, OptimisticRetryExecutor optimisticRetryExecutor, BookSearchIndex bookSearchIndex, BookSuggestionIndex bookSuggestionIndex, BookFacetIndex bookFacetIndex, AvailabilityTimelineCache availabilityTimelineCache, BookCommentStatsService bookCommentStatsService,
+                       @Value("${books.availability.max-books:100}") int availabilityMaxBooks,
+                       @Value("${reservations.calendar.max-days:90}") int availabilityMaxDays) {
         this.bookRepository = bookRepository;
         this.bookConverter = bookConverter;
         this.shelfService = shelfService;
         this.lendTransactionRepository = lendTransactionRepository;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.availabilityService = availabilityService;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookSuggestionIndex = bookSuggestionIndex;
+        this.bookFacetIndex = bookFacetIndex;
+        this.availabilityTimelineCache = availabilityTimelineCache;
+        this.bookCommentStatsService = bookCommentStatsService;
+        this.availabilityMaxBooks = availabilityMaxBooks;
+        this.availabilityMaxDays = availabilityMaxDays;
     }
 
     @Transactional
@@ -45,11 +106,15 @@ public class BookService {
 
         Book book = bookConverter.toEntity(requestDto);
         shelfService.checkShelfCapacity(book.getShelf());
-        applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, book.getShelf().getId()));
 
         book.setAvailableCount(book.getTotalCount());
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
 
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        bookCommentStatsService.booksCreated(List.of(savedBook.getId()));
+        availabilityService.bookAddedToShelf(savedBook.getShelf().getId());
+        reindexBook(savedBook.getId());
+        return savedBook;
     }
 
     @Transactional(readOnly = true)
@@ -57,14 +122,19 @@ public class BookService {
         return bookRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(MessageConstants.BOOK_NOT_FOUND));
     }
 
+    @Cacheable(value = CachingConfig.BOOK_VIEW, key = "#id.toString()")
     @Transactional(readOnly = true)
     public BookView getBookById(Long id) {
-        return bookRepository.getBookById(id).orElseThrow(() -> new EntityNotFoundException(MessageConstants.BOOK_NOT_FOUND));
+        return bookRepository.getBookById(id).map(BookViewSnapshot::of).orElseThrow(() -> new EntityNotFoundException(MessageConstants.BOOK_NOT_FOUND));
     }
 
     @Transactional
     public Long deleteBook(Long id) {
-        bookRepository.delete(findById(id));
+        Book book = findById(id);
+        bookRepository.delete(book);
+        availabilityService.bookRemovedFromShelf(book.getShelf().getId());
+        evictBookViews(id);
+        reindexBook(id);
         return id;
     }
 
@@ -76,25 +146,99 @@ public class BookService {
         if (requestDto.getTotalCount() < lendBookCount)
             throw new IllegalArgumentException(MessageConstants.BOOK_WILL_BE_LESS_THAN_LEND_BOOK_COUNT);
 
+        evictBookViews(bookId);
+        reindexBook(bookId);
+        applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, bookId));
         return bookConverter.updateEntity(requestDto, book);
     }
 
+    @Cacheable(value = CachingConfig.BOOK_VIEW_PAGES)
     @Transactional(readOnly = true)
     public Page<BookView> getAllBooks(int page, int size, Optional<String> sortParam, Optional<Sort.Direction> direction) {
         PageRequest pageRequest = getPageRequest(page, size, sortParam, direction);
-        return bookRepository.getAllBy(pageRequest);
+        Page<BookView> books = bookRepository.getAllBy(pageRequest);
+        return new PageImpl<>(books.map(BookViewSnapshot::of).getContent(), books.getPageable(), books.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<BookView> getBooksByCursor(Optional<String> cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<BookView> books = cursor.map(token -> PageCursor.decode(token, 2))
+                .map(after -> bookRepository.findAfterOrderByName(after.getString(0), after.getLong(1), limit))
+                .orElseGet(() -> bookRepository.findFirstOrderByName(limit));
+        return CursorPage.of(books, size, book -> PageCursor.encode(book.getName(), book.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public BookSearchPageDto searchBooks(String query, int page, int size) {
+        if (SearchTokenizer.tokenize(query).isEmpty())
+            throw new IllegalArgumentException(MessageConstants.BOOK_SEARCH_QUERY_EMPTY);
+
+        PageRequest pageRequest = PageRequest.of(page, size);
+        SearchHits hits = bookSearchIndex.search(query, (int) pageRequest.getOffset() + size);
+        List<Long> pageIds = hits.bookIds().stream().skip(pageRequest.getOffset()).toList();
+        return new BookSearchPageDto(new PageImpl<>(findAllInOrder(pageIds), pageRequest, hits.total()), hits.totalIsLowerBound());
+    }
+
+    @Transactional(readOnly = true)
+    public FacetedBookPageDto filterBooks(BookFilterRequestDto requestDto, int page, int size) {
+        if (requestDto.getMinPageCount() != null && requestDto.getMaxPageCount() != null
+                && requestDto.getMinPageCount() > requestDto.getMaxPageCount())
+            throw new IllegalArgumentException(MessageConstants.BOOK_FILTER_INVALID_PAGE_COUNT_RANGE);
+
+        PageRequest pageRequest = PageRequest.of(page, size);
+        FacetHits hits = bookFacetIndex.query(toFacetFilter(requestDto), (int) pageRequest.getOffset(), size);
+        return new FacetedBookPageDto(new PageImpl<>(findAllInOrder(hits.bookIds()), pageRequest, hits.total()), hits.facets());
+    }
+
+    public List<Suggestion> suggestBooks(String prefix, int limit) {
+        if (limit < 1 || limit > SuggestionIndex.MAX_LIMIT)
+            throw new IllegalArgumentException(MessageConstants.BOOK_SUGGESTION_LIMIT_OUT_OF_RANGE);
+        return bookSuggestionIndex.suggest(prefix, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookAvailabilityDto> getAvailability(List<Long> ids, LocalDate from, LocalDate to) {
+        Set<Long> bookIds = new LinkedHashSet<>(ids);
+        if (bookIds.isEmpty() || bookIds.size() > availabilityMaxBooks)
+            throw new IllegalArgumentException(MessageConstants.BOOK_AVAILABILITY_IDS_OUT_OF_RANGE);
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= availabilityMaxDays)
+            throw new IllegalArgumentException(MessageConstants.BOOK_AVAILABILITY_INVALID_DATE_RANGE);
+
+        Map<Long, Integer> availableCounts = bookRepository.findAvailableCountsByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(BookAvailableCountView::getId, BookAvailableCountView::getAvailableCount));
+        Map<Long, AvailabilityTimeline> timelines = availabilityTimelineCache.getAll(availableCounts.keySet());
+
+        List<BookAvailabilityDto> availability = new ArrayList<>(availableCounts.size());
+        for (Long bookId : bookIds) {
+            Integer availableCount = availableCounts.get(bookId);
+            if (availableCount == null) continue;
+
+            long[] available = timelines.get(bookId).availableBetween(availableCount, from, to);
+            List<AvailabilityDayDto> days = new ArrayList<>(available.length);
+            for (int day = 0; day < available.length; day++) {
+                days.add(new AvailabilityDayDto(from.plusDays(day), Math.max(0, available[day])));
+            }
+            availability.add(new BookAvailabilityDto(bookId, days));
+        }
+        return availability;
     }
 
-    @Transactional
     public Book moveBook(Long bookId, Long shelfId) {
+        return optimisticRetryExecutor.execute("moveBook", () -> moveBookToShelf(bookId, shelfId));
+    }
+
+    private Book moveBookToShelf(Long bookId, Long shelfId) {
         Book book = findById(bookId);
         Shelf newShelf = shelfService.findById(shelfId);
         shelfService.checkShelfCapacity(newShelf);
 
-        applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, book.getShelf().getId()));
-        applicationEventPublisher.publishEvent(new UpdateShelfAvailableCapacityEvent(this, shelfId));
+        availabilityService.bookRemovedFromShelf(book.getShelf().getId());
+        availabilityService.bookAddedToShelf(shelfId);
 
         book.setShelf(newShelf);
+        evictBookViews(bookId);
+        reindexBook(bookId);
         return book;
     }
 
@@ -109,6 +253,34 @@ public class BookService {
                 PageRequest.of(page, size, Sort.Direction.ASC, "name");
     }
 
+    private void evictBookViews(Long bookId) {
+        cacheInvalidationBus.evict(CachingConfig.BOOK_VIEW, bookId.toString());
+        cacheInvalidationBus.evictAll(CachingConfig.BOOK_VIEW_PAGES);
+    }
+
+    private void reindexBook(Long bookId) {
+        cacheInvalidationBus.evict(BookSearchIndex.INDEX_NAME, bookId.toString());
+        cacheInvalidationBus.evict(BookSuggestionIndex.INDEX_NAME, bookId.toString());
+        cacheInvalidationBus.evict(BookFacetIndex.INDEX_NAME, bookId.toString());
+    }
+
+    private List<BookView> findAllInOrder(List<Long> ids) {
+        Map<Long, BookView> books = bookRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookView::getId, Function.identity()));
+        return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+    }
+
+    private static FacetFilter toFacetFilter(BookFilterRequestDto requestDto) {
+        Map<BookFacet, Set<String>> values = new EnumMap<>(BookFacet.class);
+        values.put(BookFacet.LANGUAGE, Set.copyOf(requestDto.getLanguage()));
+        values.put(BookFacet.PUBLISHER, Set.copyOf(requestDto.getPublisher()));
+        values.put(BookFacet.AUTHOR, Set.copyOf(requestDto.getAuthor()));
+        values.put(BookFacet.SHELF, requestDto.getShelfId().stream().map(String::valueOf).collect(Collectors.toSet()));
+        if (requestDto.getAvailable() != null)
+            values.put(BookFacet.AVAILABILITY, Set.of(requestDto.getAvailable().toString()));
+        return new FacetFilter(values, requestDto.getMinPageCount(), requestDto.getMaxPageCount());
+    }
+
     private boolean existsByIsbn(String isbn) {
         return bookRepository.existsByIsbn(isbn);
     }
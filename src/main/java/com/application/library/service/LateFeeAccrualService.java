@@ -0,0 +1,104 @@
+package com.application.library.service;
+
+import com.application.library.model.LateFeeAccrual;
+import com.application.library.repository.LateFeeAccrualRepository;
+import com.application.library.repository.LendTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Accrues late fees one day at a time, catching up from the last accrued day to today. Each day is recorded in
+ * {@code late_fee_accruals} with the fee then in effect and the running total of fees per day, and the loans that fell
+ * due before it are flagged overdue, found through an index over open loans not yet overdue. Loans already overdue
+ * are not touched: their fee is the running total at the last accrued day less the total at their deadline.
+ * <p>
+ * A day is recorded in the same transaction as its flags, so that it is accrued once even when the job runs on
+ * several nodes.
+ */
+@Service
+public class LateFeeAccrualService {
+
+    private final LateFeeAccrualRepository lateFeeAccrualRepository;
+    private final LendTransactionRepository lendTransactionRepository;
+    private final SettingsService settingsService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter markedOverdue;
+    private final Counter accruedDays;
+
+    public LateFeeAccrualService(LateFeeAccrualRepository lateFeeAccrualRepository,
+                                 LendTransactionRepository lendTransactionRepository,
+                                 SettingsService settingsService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.lateFeeAccrualRepository = lateFeeAccrualRepository;
+        this.lendTransactionRepository = lendTransactionRepository;
+        this.settingsService = settingsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.markedOverdue = Counter.builder("library.lend.overdue.marked").register(meterRegistry);
+        this.accruedDays = Counter.builder("library.lend.late-fee.accrued-days").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${lend.late-fee.accrual.cron:0 5 0 * * *}")
+    public void accrue() {
+        Optional<LateFeeAccrual> latest = lateFeeAccrualRepository.findLatest();
+        if (latest.isEmpty()) return;
+
+        LocalDate today = LocalDate.now();
+        double cumulativeFee = latest.get().getCumulativeFee();
+        for (LocalDate day = latest.get().getAccrualDate().plusDays(1); !day.isAfter(today); day = day.plusDays(1)) {
+            Optional<Double> accrued = accrueDay(day, cumulativeFee);
+            if (accrued.isEmpty()) return;
+            cumulativeFee = accrued.get();
+        }
+    }
+
+    /**
+     * The last accrued day, if the accrual has ever run.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDate> getAccruedThrough() {
+        return lateFeeAccrualRepository.findLatestAccrualDate();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LateFeeAccrual> getLatestAccrual() {
+        return lateFeeAccrualRepository.findLatest();
+    }
+
+    /**
+     * The running total of fees per day at each of the given days that has been accrued.
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Double> getCumulativeFeesOn(Collection<LocalDate> days) {
+        if (days.isEmpty()) return Map.of();
+        return lateFeeAccrualRepository.findAllByAccrualDateIn(days).stream()
+                .collect(Collectors.toMap(LateFeeAccrual::getAccrualDate, LateFeeAccrual::getCumulativeFee));
+    }
+
+    private Optional<Double> accrueDay(LocalDate day, double previousCumulativeFee) {
+        try {
+            return Optional.ofNullable(transactionTemplate.execute(status -> {
+                double feePerDay = settingsService.getLateFeePerDay();
+                lateFeeAccrualRepository.insert(day, feePerDay, previousCumulativeFee + feePerDay);
+                markedOverdue.increment(lendTransactionRepository.markOverdueBefore(day));
+                accruedDays.increment();
+                return previousCumulativeFee + feePerDay;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // another node has accrued this day already and is catching up the rest
+            return Optional.empty();
+        }
+    }
+}
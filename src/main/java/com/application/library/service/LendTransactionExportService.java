@@ -0,0 +1,129 @@
+package com.application.library.service;
+
+import com.application.library.data.view.transaction.lend.LendTransactionExportView;
+import com.application.library.enumerations.ExportFormat;
+import com.application.library.repository.LendTransactionRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes lend transaction history straight from a forward-only database cursor to the response, one row at a time,
+ * so memory use does not depend on the number of exported rows.
+ */
+@Service
+public class LendTransactionExportService {
+
+    private static final int FLUSH_INTERVAL_ROWS = 1000;
+    private static final String CSV_HEADER = "id,createdAt,bookId,bookIsbn,bookName,userId,userEmail,lenderId,deadlineDate,returnDate,returned,lateFeePaid";
+
+    private final LendTransactionRepository lendTransactionRepository;
+    private final JsonFactory jsonFactory;
+    private final Map<ExportFormat, Counter> exportedRows = new EnumMap<>(ExportFormat.class);
+
+    public LendTransactionExportService(LendTransactionRepository lendTransactionRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.lendTransactionRepository = lendTransactionRepository;
+        this.jsonFactory = objectMapper.getFactory();
+        for (ExportFormat format : ExportFormat.values()) {
+            exportedRows.put(format, Counter.builder("library.export.rows").tag("format", format.name().toLowerCase()).register(meterRegistry));
+        }
+    }
+
+    /**
+     * Exports the transactions created within [from, to] (both inclusive dates), oldest first.
+     *
+     * @return the number of exported rows
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format,
+                       Optional<Boolean> returned,
+                       Optional<Long> userId,
+                       Optional<LocalDate> from,
+                       Optional<LocalDate> to,
+                       OutputStream outputStream) throws IOException {
+        try (Stream<LendTransactionExportView> rows = lendTransactionRepository.streamForExport(
+                returned.orElse(null),
+                userId.orElse(null),
+                from.map(LocalDate::atStartOfDay).orElse(null),
+                to.map(date -> date.plusDays(1).atStartOfDay()).orElse(null))) {
+            long count = format == ExportFormat.CSV ? writeCsv(rows.iterator(), outputStream) : writeNdjson(rows.iterator(), outputStream);
+            exportedRows.get(format).increment(count);
+            return count;
+        }
+    }
+
+    private long writeNdjson(Iterator<LendTransactionExportView> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                LendTransactionExportView row = rows.next();
+                generator.writeStartObject();
+                generator.writeStringField("id", row.getId());
+                generator.writeStringField("createdAt", Objects.toString(row.getCreatedAt(), null));
+                writeNumberField(generator, "bookId", row.getBookId());
+                generator.writeStringField("bookIsbn", row.getBookIsbn());
+                generator.writeStringField("bookName", row.getBookName());
+                writeNumberField(generator, "userId", row.getUserId());
+                generator.writeStringField("userEmail", row.getUserEmail());
+                writeNumberField(generator, "lenderId", row.getLenderId());
+                generator.writeStringField("deadlineDate", Objects.toString(row.getDeadlineDate(), null));
+                generator.writeStringField("returnDate", Objects.toString(row.getReturnDate(), null));
+                generator.writeBooleanField("returned", Boolean.TRUE.equals(row.getReturned()));
+                if (row.getLateFeePaid() == null) generator.writeNullField("lateFeePaid");
+                else generator.writeNumberField("lateFeePaid", row.getLateFeePaid());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++count % FLUSH_INTERVAL_ROWS == 0) generator.flush();
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<LendTransactionExportView> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            LendTransactionExportView row = rows.next();
+            writer.write(String.join(",",
+                    csv(row.getId()), csv(row.getCreatedAt()), csv(row.getBookId()), csv(row.getBookIsbn()), csv(row.getBookName()),
+                    csv(row.getUserId()), csv(row.getUserEmail()), csv(row.getLenderId()), csv(row.getDeadlineDate()),
+                    csv(row.getReturnDate()), csv(row.getReturned()), csv(row.getLateFeePaid())));
+            writer.write('\n');
+            if (++count % FLUSH_INTERVAL_ROWS == 0) writer.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value == null) generator.writeNullField(name);
+        else generator.writeNumberField(name, value);
+    }
+
+    // Text that a spreadsheet would read as a formula is prefixed with a quote; numbers and dates are written as is.
+    private static String csv(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) text = "'" + text;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) return text;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
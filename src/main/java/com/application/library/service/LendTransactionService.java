@@ -1,17 +1,35 @@
 package com.application.library.service;
 
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
 import com.application.library.constants.MessageConstants;
 import com.application.library.converter.LendTransactionConverter;
+import com.application.library.data.dto.LendTransactionBatchItemDto;
+import com.application.library.data.dto.LendTransactionBatchResultDto;
 import com.application.library.data.dto.LendTransactionRequestDto;
+import com.application.library.data.dto.OverdueSummaryDto;
 import com.application.library.data.view.transaction.lend.LendTransactionAuthUserView;
+import com.application.library.data.view.transaction.lend.LendTransactionOverdueView;
 import com.application.library.data.view.transaction.lend.LendTransactionView;
+import com.application.library.data.view.transaction.lend.OverdueSummaryView;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.helper.AuthHelper;
-import com.application.library.listener.event.UpdateBookAvailableCountEvent;
 import com.application.library.listener.event.UpdateUserReservationCompleteStatus;
+import com.application.library.listener.event.UpdateUserReservationsCompleteStatus;
+import com.application.library.model.Book;
+import com.application.library.model.LateFeeAccrual;
 import com.application.library.model.LendTransaction;
+import com.application.library.model.User;
+import com.application.library.repository.BookRepository;
 import com.application.library.repository.LendTransactionRepository;
+import com.application.library.repository.UserRepository;
+import com.application.library.reservation.AvailabilityTimeline;
+import com.application.library.reservation.AvailabilityTimelineCache;
+import com.application.library.search.BookSuggestionIndex;
+import com.application.library.utils.CursorPage;
+import com.application.library.utils.PageCursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -21,7 +39,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class LendTransactionService {
@@ -30,29 +50,117 @@ public class LendTransactionService {
     private final ApplicationEventPublisher applicationEventPublisher;
     private final LendTransactionConverter lendTransactionConverter;
     private final SettingsService settingsService;
+    private final AvailabilityService availabilityService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final LateFeeAccrualService lateFeeAccrualService;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final AvailabilityTimelineCache availabilityTimelineCache;
+    private final int maxBatchItems;
 
-    public LendTransactionService(LendTransactionRepository lendTransactionRepository, ApplicationEventPublisher applicationEventPublisher, LendTransactionConverter lendTransactionConverter, SettingsService settingsService) {
+    public LendTransactionService(LendTransactionRepository lendTransactionRepository, ApplicationEventPublisher applicationEventPublisher, LendTransactionConverter lendTransactionConverter, SettingsService settingsService, AvailabilityService availabilityService, OptimisticRetryExecutor optimisticRetryExecutor, CacheInvalidationBus cacheInvalidationBus, LateFeeAccrualService lateFeeAccrualService, UserRepository userRepository, BookRepository bookRepository, AvailabilityTimelineCache availabilityTimelineCache, @Value("${lend.batch.max-items:100}") int maxBatchItems) {
         this.lendTransactionRepository = lendTransactionRepository;
         this.applicationEventPublisher = applicationEventPublisher;
         this.lendTransactionConverter = lendTransactionConverter;
         this.settingsService = settingsService;
+        this.availabilityService = availabilityService;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.lateFeeAccrualService = lateFeeAccrualService;
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.availabilityTimelineCache = availabilityTimelineCache;
+        this.maxBatchItems = maxBatchItems;
     }
 
     @Transactional(readOnly = true)
     public LendTransaction findById(UUID id) {
-        return lendTransactionRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Lend transaction not found"));
+        return lendTransactionRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(MessageConstants.LEND_TRANSACTION_NOT_FOUND));
     }
 
-    @Transactional
     public LendTransaction lendBook(LendTransactionRequestDto requestDto) {
-        LendTransaction lendTransaction = lendTransactionRepository.save(lendTransactionConverter.toEntity(requestDto));
-        applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, lendTransaction.getBook().getId()));
-        applicationEventPublisher.publishEvent(new UpdateUserReservationCompleteStatus(this, lendTransaction.getBook().getId(), lendTransaction.getUser().getId()));
-        return lendTransaction;
+        return optimisticRetryExecutor.execute("lendBook", () -> {
+            LendTransaction lendTransaction = lendTransactionRepository.save(lendTransactionConverter.toEntity(requestDto));
+            availabilityService.bookLent(lendTransaction.getBook().getId());
+            cacheInvalidationBus.evict(BookSuggestionIndex.INDEX_NAME, lendTransaction.getBook().getId().toString());
+            cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, lendTransaction.getBook().getId().toString());
+            applicationEventPublisher.publishEvent(new UpdateUserReservationCompleteStatus(this, lendTransaction.getBook().getId(), lendTransaction.getUser().getId()));
+            return lendTransaction;
+        });
+    }
+
+    /**
+     * Lends every requested book in one transaction. Users, their open lends and books are looked up once for the
+     * whole batch, with the books locked so that concurrent desks cannot lend the same copies. Items that cannot be
+     * lent are reported and skipped; the others update each book's available count once.
+     */
+    public LendTransactionBatchResultDto lendBooks(List<LendTransactionRequestDto> requests) {
+        validateBatch(requests);
+        return optimisticRetryExecutor.execute("lendBooks", () -> lendAll(requests));
+    }
+
+    private LendTransactionBatchResultDto lendAll(List<LendTransactionRequestDto> requests) {
+        Set<Long> userIds = requests.stream().map(LendTransactionRequestDto::getUserId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> bookIds = requests.stream().map(LendTransactionRequestDto::getBookId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<Long> usersWithOpenLend = users.isEmpty() ? new HashSet<>() : new HashSet<>(lendTransactionRepository.findUserIdsWithOpenLendIn(users.keySet()));
+        Map<Long, Book> books = bookIds.isEmpty() ? new HashMap<>() : bookRepository.findAllByIdInForUpdate(bookIds).stream().collect(Collectors.toMap(Book::getId, Function.identity()));
+        // Read past the cache: the rows are locked, and a cached timeline may miss lends committed just before.
+        Map<Long, AvailabilityTimeline> timelines = availabilityTimelineCache.loadAll(books.keySet());
+        LocalDate deadlineDate = LocalDate.now().plusDays(settingsService.getLendDay());
+        User lender = AuthHelper.getActiveUser();
+
+        Map<Integer, LendTransaction> lent = new LinkedHashMap<>();
+        Map<Integer, String> errors = new HashMap<>();
+        Map<Long, Integer> lentCounts = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            User user = users.get(requests.get(i).getUserId());
+            Book book = books.get(requests.get(i).getBookId());
+            String error;
+            if (user == null) error = MessageConstants.USER_NOT_FOUND;
+            else if (usersWithOpenLend.contains(user.getId())) error = MessageConstants.USER_HAS_ALREADY_LENT_A_BOOK;
+            else if (book == null) error = MessageConstants.BOOK_NOT_FOUND;
+            else error = availabilityError(book.getAvailableCount() - lentCounts.getOrDefault(book.getId(), 0), timelines.get(book.getId()), deadlineDate);
+
+            if (error != null) {
+                errors.put(i, error);
+                continue;
+            }
+            LendTransaction lendTransaction = new LendTransaction();
+            lendTransaction.setBook(book);
+            lendTransaction.setUser(user);
+            lendTransaction.setLender(lender);
+            lendTransaction.setDeadlineDate(deadlineDate);
+            lent.put(i, lendTransaction);
+            usersWithOpenLend.add(user.getId());
+            lentCounts.merge(book.getId(), 1, Integer::sum);
+        }
+
+        lendTransactionRepository.saveAll(lent.values());
+        availabilityService.booksLent(lentCounts);
+        lentCounts.keySet().forEach(bookId -> {
+            cacheInvalidationBus.evict(BookSuggestionIndex.INDEX_NAME, bookId.toString());
+            cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, bookId.toString());
+        });
+        if (!lent.isEmpty()) {
+            applicationEventPublisher.publishEvent(new UpdateUserReservationsCompleteStatus(this, lent.values().stream()
+                    .collect(Collectors.toMap(lendTransaction -> lendTransaction.getUser().getId(), lendTransaction -> lendTransaction.getBook().getId()))));
+        }
+        return batchResult(requests.size(), lent, errors);
+    }
+
+    private static String availabilityError(int availableCount, AvailabilityTimeline timeline, LocalDate deadlineDate) {
+        if (availableCount <= 0) return MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING;
+        if (timeline != null && timeline.reservationsBefore(deadlineDate) >= availableCount) return MessageConstants.BOOK_HAS_A_RESERVATION;
+        return null;
     }
 
-    @Transactional
     public LendTransaction returnBook(UUID id) {
+        return optimisticRetryExecutor.execute("returnBook", () -> returnLendTransaction(id));
+    }
+
+    private LendTransaction returnLendTransaction(UUID id) {
         LendTransaction lendTransaction = findById(id);
 
         if (lendTransaction.isReturned()) throw new IllegalStateException(MessageConstants.BOOK_HAS_ALREADY_BEEN_RETURN);
@@ -61,11 +169,82 @@ public class LendTransactionService {
 
         if (calculatedLateFee > 0) throw new IllegalStateException(MessageConstants.MUST_PAY_LATE_FEE + " " + calculatedLateFee);
 
+        markReturned(lendTransaction, lateFeeToDate(lendTransaction));
+
+        availabilityService.bookReturned(lendTransaction.getBook().getId());
+        cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, lendTransaction.getBook().getId().toString());
+        return lendTransaction;
+    }
+
+    /**
+     * Returns every given lend transaction in one transaction, loading them with a single lookup and pricing late
+     * fees with one read of the fee settings. Transactions that cannot be returned are reported and skipped.
+     */
+    public LendTransactionBatchResultDto returnBooks(List<UUID> ids) {
+        validateBatch(ids);
+        return optimisticRetryExecutor.execute("returnBooks", () -> returnAll(ids));
+    }
+
+    private LendTransactionBatchResultDto returnAll(List<UUID> ids) {
+        Map<UUID, LendTransaction> transactions = lendTransactionRepository.findAllById(new HashSet<>(ids))
+                .stream()
+                .collect(Collectors.toMap(LendTransaction::getId, Function.identity()));
+        Optional<LateFeeAccrual> latestAccrual = lateFeeAccrualService.getLatestAccrual();
+        Map<LocalDate, Double> cumulativeFees = lateFeeAccrualService.getCumulativeFeesOn(transactions.values().stream()
+                .filter(LendTransactionService::isAccruing)
+                .map(LendTransaction::getDeadlineDate)
+                .collect(Collectors.toSet()));
+        double lateFeePerDay = settingsService.getLateFeePerDay();
+
+        Map<Integer, LendTransaction> returned = new LinkedHashMap<>();
+        Map<Integer, String> errors = new HashMap<>();
+        Map<Long, Integer> returnedCounts = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            LendTransaction lendTransaction = transactions.get(ids.get(i));
+            if (lendTransaction == null) {
+                errors.put(i, MessageConstants.LEND_TRANSACTION_NOT_FOUND);
+                continue;
+            }
+            if (lendTransaction.isReturned()) {
+                errors.put(i, MessageConstants.BOOK_HAS_ALREADY_BEEN_RETURN);
+                continue;
+            }
+            double lateFeeToDate = lateFeeToDate(lendTransaction, latestAccrual, cumulativeFees, lateFeePerDay);
+            double lateFee = lateFeeDue(lendTransaction, lateFeeToDate);
+            if (lateFee > 0) {
+                errors.put(i, MessageConstants.MUST_PAY_LATE_FEE + " " + lateFee);
+                continue;
+            }
+            markReturned(lendTransaction, lateFeeToDate);
+            returned.put(i, lendTransaction);
+            returnedCounts.merge(lendTransaction.getBook().getId(), 1, Integer::sum);
+        }
+
+        availabilityService.booksReturned(returnedCounts);
+        returnedCounts.keySet().forEach(bookId -> cacheInvalidationBus.evict(AvailabilityTimelineCache.CACHE_NAME, bookId.toString()));
+        return batchResult(ids.size(), returned, errors);
+    }
+
+    private static void markReturned(LendTransaction lendTransaction, double lateFeeToDate) {
+        lendTransaction.setAccruedLateFee(lateFeeToDate);
         lendTransaction.setReturned(true);
+        lendTransaction.setOverdue(false);
         lendTransaction.setReturnDate(LocalDateTime.now());
+    }
 
-        applicationEventPublisher.publishEvent(new UpdateBookAvailableCountEvent(this, lendTransaction.getBook().getId()));
-        return lendTransaction;
+    private void validateBatch(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > maxBatchItems)
+            throw new IllegalArgumentException(MessageConstants.LEND_BATCH_SIZE_OUT_OF_RANGE);
+        if (items.stream().anyMatch(Objects::isNull)) throw new IllegalArgumentException(MessageConstants.LEND_BATCH_NULL_ITEM);
+    }
+
+    private static LendTransactionBatchResultDto batchResult(int totalItems, Map<Integer, LendTransaction> processed, Map<Integer, String> errors) {
+        List<LendTransactionBatchItemDto> results = new ArrayList<>(totalItems);
+        for (int i = 0; i < totalItems; i++) {
+            LendTransaction lendTransaction = processed.get(i);
+            results.add(new LendTransactionBatchItemDto(i + 1, lendTransaction == null ? null : lendTransaction.getId(), errors.get(i)));
+        }
+        return new LendTransactionBatchResultDto(totalItems, processed.size(), results);
     }
 
 
@@ -99,6 +278,30 @@ public class LendTransactionService {
         return lendTransactionRepository.findAllByReturned(returned, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<LendTransactionView> findLendTransactionsByReturnedCursor(boolean returned, Optional<String> cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<LendTransactionView> transactions = cursor.map(token -> PageCursor.decode(token, 2))
+                .map(after -> lendTransactionRepository.findAfterByReturnedOrderByNewest(returned, after.getDateTime(0), after.getUuid(1), limit))
+                .orElseGet(() -> lendTransactionRepository.findFirstByReturnedOrderByNewest(returned, limit));
+        return CursorPage.of(transactions, size, transaction -> PageCursor.encode(transaction.getCreatedAt(), transaction.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<LendTransactionOverdueView> findOverdueLendTransactions(Optional<String> cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<LendTransactionOverdueView> transactions = cursor.map(token -> PageCursor.decode(token, 2))
+                .map(after -> lendTransactionRepository.findAfterOverdueOrderByDeadline(after.getDate(0), after.getUuid(1), limit))
+                .orElseGet(() -> lendTransactionRepository.findFirstOverdueOrderByDeadline(limit));
+        return CursorPage.of(transactions, size, transaction -> PageCursor.encode(transaction.getDeadlineDate(), transaction.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public OverdueSummaryDto getOverdueSummary() {
+        OverdueSummaryView summary = lendTransactionRepository.summarizeOverdue();
+        return new OverdueSummaryDto(summary.getOverdueCount(), summary.getOutstandingLateFees(), lateFeeAccrualService.getAccruedThrough().orElse(null));
+    }
+
     @Transactional(readOnly = true)
     public double getLateFeeById(UUID id) {
         LendTransaction lendTransaction = findById(id);
@@ -106,22 +309,50 @@ public class LendTransactionService {
     }
 
     private double calculateLateFee(LendTransaction lendTransaction) {
+        return lateFeeDue(lendTransaction, lateFeeToDate(lendTransaction));
+    }
+
+    private static double lateFeeDue(LendTransaction lendTransaction, double lateFeeToDate) {
         LocalDate deadlineDate = lendTransaction.getDeadlineDate();
         LocalDate now = LocalDate.now();
 
         if (deadlineDate.isEqual(now) || deadlineDate.isAfter(now)) return 0.0;
 
-        double lateFeePerDay = settingsService.getLateFeePerDay();
-        long daysLate = now.toEpochDay() - deadlineDate.toEpochDay();
-        double totalFee = lateFeePerDay * daysLate;
-
         double lateFeePaid = lendTransaction.getLateFeePaid() == null ? 0 : lendTransaction.getLateFeePaid();
-        return totalFee - lateFeePaid;
+        return lateFeeToDate - lateFeePaid;
     }
 
-    @Transactional(readOnly = true)
-    public long countByBookIdAndReturnedAndDeadlineDateAfter(Long bookId, boolean returned, LocalDate date) {
-        return lendTransactionRepository.countByBook_IdAndReturnedAndDeadlineDateBefore(bookId, returned, date);
+    private double lateFeeToDate(LendTransaction lendTransaction) {
+        if (!isAccruing(lendTransaction)) return settledLateFee(lendTransaction);
+        return lateFeeToDate(lendTransaction, lateFeeAccrualService.getLatestAccrual(),
+                lateFeeAccrualService.getCumulativeFeesOn(List.of(lendTransaction.getDeadlineDate())), settingsService.getLateFeePerDay());
+    }
+
+    // The fee backfilled before the first accrued day, plus the running total of fees per day accrued since the
+    // deadline, plus the current fee per day for the days late the nightly job has not reached yet.
+    private static double lateFeeToDate(LendTransaction lendTransaction, Optional<LateFeeAccrual> latestAccrual,
+                                        Map<LocalDate, Double> cumulativeFees, double lateFeePerDay) {
+        if (!isAccruing(lendTransaction)) return settledLateFee(lendTransaction);
+
+        LocalDate deadlineDate = lendTransaction.getDeadlineDate();
+        double lateFee = lendTransaction.getAccruedLateFee();
+        LocalDate lateSince = deadlineDate;
+        if (latestAccrual.isPresent() && latestAccrual.get().getAccrualDate().isAfter(deadlineDate)) {
+            lateFee += latestAccrual.get().getCumulativeFee() - cumulativeFees.getOrDefault(deadlineDate, 0.0);
+            lateSince = latestAccrual.get().getAccrualDate();
+        }
+        long daysNotAccrued = Math.max(0, LocalDate.now().toEpochDay() - lateSince.toEpochDay());
+        return lateFee + lateFeePerDay * daysNotAccrued;
+    }
+
+    // Loans returned before the accrual job existed carry their fee only as what was paid for them.
+    private static double settledLateFee(LendTransaction lendTransaction) {
+        if (!lendTransaction.isReturned() || lendTransaction.getLateFeePaid() == null) return lendTransaction.getAccruedLateFee();
+        return Math.max(lendTransaction.getAccruedLateFee(), lendTransaction.getLateFeePaid());
+    }
+
+    private static boolean isAccruing(LendTransaction lendTransaction) {
+        return !lendTransaction.isReturned() && lendTransaction.getDeadlineDate().isBefore(LocalDate.now());
     }
 
 }
@@ -1,11 +1,11 @@
 package com.application.library.service;
 
 
+import com.application.library.cache.CacheInvalidationBus;
 import com.application.library.config.CachingConfig;
 import com.application.library.enumerations.SettingsKey;
 import com.application.library.model.Settings;
 import com.application.library.repository.SettingsRepository;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,9 +16,11 @@ import java.util.Optional;
 public class SettingsService {
 
     private final SettingsRepository settingsRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
-    public SettingsService(SettingsRepository settingsRepository) {
+    public SettingsService(SettingsRepository settingsRepository, CacheInvalidationBus cacheInvalidationBus) {
         this.settingsRepository = settingsRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     @Cacheable(value = CachingConfig.LATE_FEE_PER_DAY)
@@ -28,7 +30,6 @@ public class SettingsService {
         return lateFeePerDaySettings.map(settings -> Double.parseDouble(settings.getSettingsValue())).orElse(0.0);
     }
 
-    @CacheEvict(value = CachingConfig.LATE_FEE_PER_DAY, allEntries = true)
     @Transactional
     public Settings setLateFeePerDay(double lateFeePerDay) {
         Optional<Settings> optionalSettings = settingsRepository.findById(SettingsKey.LATE_FEE_PER_DAY);
@@ -41,10 +42,10 @@ public class SettingsService {
         }
 
         settings.setSettingsValue(String.valueOf(lateFeePerDay));
+        cacheInvalidationBus.evictAll(CachingConfig.LATE_FEE_PER_DAY);
         return settingsRepository.save(settings);
     }
 
-    @CacheEvict(value = CachingConfig.LEND_DAY, allEntries = true)
     @Transactional
     public Settings setLendDay(int lendDay) {
         Optional<Settings> optionalSettings = settingsRepository.findById(SettingsKey.LEND_DAY);
@@ -57,6 +58,7 @@ public class SettingsService {
         }
 
         settings.setSettingsValue(String.valueOf(lendDay));
+        cacheInvalidationBus.evictAll(CachingConfig.LEND_DAY);
         return settingsRepository.save(settings);
     }
 
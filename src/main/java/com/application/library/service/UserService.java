@@ -10,15 +10,24 @@ import com.application.library.enumerations.UserRole;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.helper.AuthHelper;
+import com.application.library.listener.event.UpdateUserPrincipalEvent;
 import com.application.library.model.User;
 import com.application.library.repository.UserRepository;
+import com.application.library.security.TokenRevocationRegistry;
+import com.application.library.utils.CursorPage;
+import com.application.library.utils.PageCursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -27,10 +36,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserConverter userConverter;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
 
-    public UserService(UserRepository userRepository, UserConverter userConverter) {
+    public UserService(UserRepository userRepository, UserConverter userConverter, ApplicationEventPublisher applicationEventPublisher, BCryptPasswordEncoder bCryptPasswordEncoder) {
         this.userRepository = userRepository;
         this.userConverter = userConverter;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
     }
 
     @Transactional
@@ -65,6 +78,23 @@ public class UserService {
         return userRepository.findAllByAuthorities(UserRole.ROLE_USER, pageRequest);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<UserListView> getUsersByCursorByActiveUserAuthority(Optional<UserRole> userType, Optional<String> cursor, int size) {
+        Optional<UserRole> role = AuthHelper.isUserAdmin() ? userType : Optional.of(UserRole.ROLE_USER);
+        Pageable limit = CursorPage.limit(size);
+        Optional<PageCursor> after = cursor.map(token -> PageCursor.decode(token, 3));
+
+        List<UserListView> users;
+        if (role.isPresent()) {
+            users = after.map(a -> userRepository.findAfterByAuthorityOrderByName(role.get(), a.getString(0), a.getString(1), a.getLong(2), limit))
+                    .orElseGet(() -> userRepository.findFirstByAuthorityOrderByName(role.get(), limit));
+        } else {
+            users = after.map(a -> userRepository.findAfterOrderByName(a.getString(0), a.getString(1), a.getLong(2), limit))
+                    .orElseGet(() -> userRepository.findFirstOrderByName(limit));
+        }
+        return CursorPage.of(users, size, user -> PageCursor.encode(user.getFirstName(), user.getLastName(), user.getId()));
+    }
+
     @Transactional
     public Long deleteUserByActiveUserAuthority(Long id) {
         User deleteUser = findById(id);
@@ -75,6 +105,7 @@ public class UserService {
         }
 
         userRepository.delete(deleteUser);
+        applicationEventPublisher.publishEvent(new UpdateUserPrincipalEvent(this, deleteUser.getId(), deleteUser.getEmail(), TokenRevocationRegistry.ALL_TOKENS_REVOKED));
         return id;
     }
 
@@ -87,12 +118,24 @@ public class UserService {
     public User updateUser(Long userId, UserSaveRequestDto requestDto) {
         User user = findById(userId);
         if (!user.getEmail().equals(requestDto.getEmail()) && existsByEmail(requestDto.getEmail())) throw new EntityAlreadyExistsException(MessageConstants.USER_ALREADY_EXISTS_WITH_EMAIL);
+        if (changesCredentials(user, requestDto) || !Objects.equals(requestDto.getRoles(), user.getAuthorities())) user.incrementTokenVersion();
+        applicationEventPublisher.publishEvent(new UpdateUserPrincipalEvent(this, user.getId(), user.getEmail(), user.getTokenVersion()));
         return userConverter.updateEntity(requestDto, user);
     }
 
     @Transactional
     public User updateActiveUserInfo(BaseUserSaveRequestDto requestDto) {
-        return userRepository.save(userConverter.updateEntity(requestDto, AuthHelper.getActiveUser()));
+        // The authenticated principal may be shared through the principal cache, so never mutate it in place.
+        User user = findById(AuthHelper.getActiveUser().getId());
+        if (changesCredentials(user, requestDto)) user.incrementTokenVersion();
+        applicationEventPublisher.publishEvent(new UpdateUserPrincipalEvent(this, user.getId(), user.getEmail(), user.getTokenVersion()));
+        return userRepository.save(userConverter.updateEntity(requestDto, user));
+    }
+
+    // Tokens are only revoked when what they authenticate changes; a name change keeps the user signed in.
+    private boolean changesCredentials(User user, BaseUserSaveRequestDto requestDto) {
+        return !user.getEmail().equals(requestDto.getEmail())
+                || (requestDto.getPassword() != null && !bCryptPasswordEncoder.matches(requestDto.getPassword(), user.getPassword()));
     }
 
     private Page<UserListView> findAllByAuthorities(UserRole role, PageRequest pageRequest) {
@@ -0,0 +1,61 @@
+package com.application.library.utils;
+
+import com.application.library.constants.MessageConstants;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A slice of a keyset-paginated listing. Instead of a total count it reports whether another page
+ * exists and the cursor to request it with.
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Limit for a keyset query: one row more than the page size, so that a next page can be detected without counting.
+     */
+    public static Pageable limit(int size) {
+        if (size < 1) throw new IllegalArgumentException(MessageConstants.INVALID_PAGE_SIZE);
+        return PageRequest.ofSize(size + 1);
+    }
+
+    /**
+     * Builds the page from rows fetched with {@link #limit(int)}.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? List.copyOf(rows.subList(0, size)) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
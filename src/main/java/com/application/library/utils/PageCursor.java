@@ -0,0 +1,72 @@
+package com.application.library.utils;
+
+import com.application.library.constants.MessageConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token for keyset pagination. A cursor holds the sort key values of the last
+ * row of a page (always ending with its id); the next page continues strictly after that row.
+ */
+public class PageCursor {
+
+    private static final String SEPARATOR = ".";
+
+    private final String[] keys;
+
+    private PageCursor(String[] keys) {
+        this.keys = keys;
+    }
+
+    public static String encode(Object... keys) {
+        return String.join(SEPARATOR, Arrays.stream(keys)
+                .map(key -> Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(key).getBytes(StandardCharsets.UTF_8)))
+                .toArray(String[]::new));
+    }
+
+    public static PageCursor decode(String token, int keyCount) {
+        String[] parts = token.split("\\" + SEPARATOR, -1);
+        if (parts.length != keyCount) throw new IllegalArgumentException(MessageConstants.INVALID_PAGE_CURSOR);
+        try {
+            return new PageCursor(Arrays.stream(parts)
+                    .map(part -> new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8))
+                    .toArray(String[]::new));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(MessageConstants.INVALID_PAGE_CURSOR);
+        }
+    }
+
+    public String getString(int index) {
+        return keys[index];
+    }
+
+    public Long getLong(int index) {
+        return parse(index, Long::valueOf);
+    }
+
+    public LocalDate getDate(int index) {
+        return parse(index, LocalDate::parse);
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return parse(index, LocalDateTime::parse);
+    }
+
+    public UUID getUuid(int index) {
+        return parse(index, UUID::fromString);
+    }
+
+    private <T> T parse(int index, Function<String, T> parser) {
+        try {
+            return parser.apply(keys[index]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(MessageConstants.INVALID_PAGE_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+create index if not exists idx_book_comment_updated
+   on book_comment (updated_at);
+
+create index if not exists idx_book_comment_deleted_date_time
+   on book_comment (deleted_date_time);
@@ -0,0 +1,20 @@
+-- Columns and tables introduced after the baseline. Guarded so that databases
+-- previously evolved by hibernate ddl-auto=update can be baselined at V1.
+
+alter table users add column if not exists token_version integer;
+alter table books add column if not exists version bigint default 0;
+alter table shelf add column if not exists version bigint default 0;
+alter table lend_transaction add column if not exists version bigint default 0;
+
+create table if not exists cache_invalidations (
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    cache_key varchar(255),
+    cache_name varchar(255) not null,
+    origin varchar(255) not null,
+    primary key (id)
+);
+
+create index if not exists idx_cache_invalidations_created_at
+   on cache_invalidations (created_at);
@@ -0,0 +1,22 @@
+-- H2 has no partial indexes; the filtered column leads or trails the composite instead.
+
+create index if not exists idx_lend_transaction_book_open
+   on lend_transaction (book_id, returned, dead_line_date);
+
+create index if not exists idx_lend_transaction_user_returned
+   on lend_transaction (user_id, returned);
+
+create index if not exists idx_book_reservation_book_open
+   on book_reservation (book_id, completed, reservation_date);
+
+create index if not exists idx_book_reservation_user
+   on book_reservation (user_id);
+
+create index if not exists idx_book_comment_book_live
+   on book_comment (book_id, deleted);
+
+create index if not exists idx_books_shelf_live
+   on books (shelf_id, deleted);
+
+create index if not exists idx_reading_list_user
+   on reading_list (user_id);
@@ -0,0 +1,13 @@
+create index if not exists idx_books_name_id_live
+   on books (name, id);
+
+create index if not exists idx_users_name_id_live
+   on users (first_name, last_name, id);
+
+create index if not exists idx_lend_transaction_returned_created
+   on lend_transaction (returned, created_at desc, id desc);
+
+create index if not exists idx_book_comment_book_created_live
+   on book_comment (book_id, created_at desc, id desc);
+
+drop index if exists idx_book_comment_book_live;
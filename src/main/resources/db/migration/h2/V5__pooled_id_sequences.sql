@@ -0,0 +1,38 @@
+-- Integer ids move from identity columns to one sequence per table, consumed in blocks of
+-- ${id_allocation_size} by hibernate's pooled-lo optimizer. Each sequence restarts after the
+-- current max(id), and the column default draws from it so plain SQL inserts stay collision free.
+
+create sequence if not exists books_seq start with 1 increment by ${id_allocation_size};
+alter sequence books_seq restart with (select coalesce(max(id), 0) + 1 from books);
+alter table books alter column id drop identity;
+alter table books alter column id set default next value for books_seq;
+
+create sequence if not exists shelf_seq start with 1 increment by ${id_allocation_size};
+alter sequence shelf_seq restart with (select coalesce(max(id), 0) + 1 from shelf);
+alter table shelf alter column id drop identity;
+alter table shelf alter column id set default next value for shelf_seq;
+
+create sequence if not exists users_seq start with 1 increment by ${id_allocation_size};
+alter sequence users_seq restart with (select coalesce(max(id), 0) + 1 from users);
+alter table users alter column id drop identity;
+alter table users alter column id set default next value for users_seq;
+
+create sequence if not exists book_comment_seq start with 1 increment by ${id_allocation_size};
+alter sequence book_comment_seq restart with (select coalesce(max(id), 0) + 1 from book_comment);
+alter table book_comment alter column id drop identity;
+alter table book_comment alter column id set default next value for book_comment_seq;
+
+create sequence if not exists book_reservation_seq start with 1 increment by ${id_allocation_size};
+alter sequence book_reservation_seq restart with (select coalesce(max(id), 0) + 1 from book_reservation);
+alter table book_reservation alter column id drop identity;
+alter table book_reservation alter column id set default next value for book_reservation_seq;
+
+create sequence if not exists reading_list_seq start with 1 increment by ${id_allocation_size};
+alter sequence reading_list_seq restart with (select coalesce(max(id), 0) + 1 from reading_list);
+alter table reading_list alter column id drop identity;
+alter table reading_list alter column id set default next value for reading_list_seq;
+
+create sequence if not exists cache_invalidations_seq start with 1 increment by ${id_allocation_size};
+alter sequence cache_invalidations_seq restart with (select coalesce(max(id), 0) + 1 from cache_invalidations);
+alter table cache_invalidations alter column id drop identity;
+alter table cache_invalidations alter column id set default next value for cache_invalidations_seq;
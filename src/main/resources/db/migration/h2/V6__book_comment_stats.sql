@@ -0,0 +1,30 @@
+-- Comment count, rating sum and star histogram per book, maintained as comments are written so
+-- book pages need not aggregate book_comment. A rating falls in the star it rounds to, half up,
+-- clamped to 1-5. Rows are created with a book's first comment; existing ones are backfilled here.
+
+create table book_comment_stats (
+    book_id bigint not null,
+    comment_count bigint not null,
+    rating_sum float(53) not null,
+    one_star_count bigint not null,
+    two_star_count bigint not null,
+    three_star_count bigint not null,
+    four_star_count bigint not null,
+    five_star_count bigint not null,
+    primary key (book_id),
+    foreign key (book_id) references books
+);
+
+insert into book_comment_stats (book_id, comment_count, rating_sum, one_star_count, two_star_count,
+                                three_star_count, four_star_count, five_star_count)
+select book_id,
+       count(*),
+       sum(rating),
+       sum(case when rating < 1.5 then 1 else 0 end),
+       sum(case when rating >= 1.5 and rating < 2.5 then 1 else 0 end),
+       sum(case when rating >= 2.5 and rating < 3.5 then 1 else 0 end),
+       sum(case when rating >= 3.5 and rating < 4.5 then 1 else 0 end),
+       sum(case when rating >= 4.5 then 1 else 0 end)
+from book_comment
+where deleted = false
+group by book_id;
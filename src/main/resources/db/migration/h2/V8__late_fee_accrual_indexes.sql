@@ -0,0 +1,7 @@
+-- H2 has no partial indexes; the filtered columns lead the composite instead.
+
+create index if not exists idx_lend_transaction_overdue
+   on lend_transaction (overdue, dead_line_date, id);
+
+create index if not exists idx_lend_transaction_open_not_overdue
+   on lend_transaction (returned, overdue, dead_line_date);
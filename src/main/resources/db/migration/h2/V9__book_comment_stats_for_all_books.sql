@@ -0,0 +1,8 @@
+-- Stats rows are now created together with their book, so comment writes only ever update them.
+-- Books that have not been commented on yet get an empty row here.
+
+insert into book_comment_stats (book_id, comment_count, rating_sum, one_star_count, two_star_count,
+                                three_star_count, four_star_count, five_star_count)
+select b.id, 0, 0, 0, 0, 0, 0, 0
+from books b
+where not exists (select 1 from book_comment_stats s where s.book_id = b.id);
@@ -0,0 +1,10 @@
+-- Indexes for the comment stats reconciliation, which only recounts books whose comments changed since its
+-- previous run. Built concurrently so large tables stay writable; flyway runs this script outside a transaction.
+
+-- comments created or edited recently
+create index concurrently if not exists idx_book_comment_updated
+   on book_comment (updated_at);
+
+-- comments deleted recently
+create index concurrently if not exists idx_book_comment_deleted_date_time
+   on book_comment (deleted_date_time) where deleted_date_time is not null;
@@ -0,0 +1,13 @@
+-- State of the comment stats reconciliation shared by all nodes, in a single row. claimed_at is when a node last took
+-- a run, so the others skip theirs instead of rescanning and relocking the same books; reconciled_at is when the last
+-- completed run started, from which the next one looks back for changed comments.
+
+create table book_comment_stats_reconciliation (
+    id integer not null,
+    claimed_at timestamp(6) not null,
+    reconciled_at timestamp(6) not null,
+    primary key (id)
+);
+
+insert into book_comment_stats_reconciliation (id, claimed_at, reconciled_at)
+values (1, timestamp '1970-01-01 00:00:00', current_timestamp);
@@ -0,0 +1,174 @@
+create table authorities (
+    user_id bigint not null,
+    role varchar(255) not null check (role in ('ROLE_USER','ROLE_ADMIN','ROLE_LIBRARIAN')),
+    primary key (user_id, role)
+);
+
+create table book_comment (
+    deleted boolean,
+    rating float(53) not null,
+    book_id bigint not null,
+    created_at timestamp(6),
+    deleted_date_time timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    comment_text varchar(255) not null,
+    primary key (id)
+);
+
+create table book_reservation (
+    completed boolean not null,
+    deleted boolean,
+    reservation_date date not null,
+    book_id bigint not null,
+    created_at timestamp(6),
+    deleted_date_time timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table books (
+    available_count integer not null,
+    deleted boolean,
+    page_count integer not null,
+    total_count integer not null,
+    created_at timestamp(6),
+    deleted_date_time timestamp(6),
+    id bigserial not null,
+    shelf_id bigint not null,
+    updated_at timestamp(6),
+    author varchar(255) not null,
+    description varchar(255) not null,
+    image_url varchar(255) not null,
+    isbn varchar(255) not null unique,
+    language varchar(255) not null,
+    name varchar(255) not null,
+    published_at varchar(255) not null,
+    publisher varchar(255) not null,
+    primary key (id)
+);
+
+create table lend_transaction (
+    dead_line_date date not null,
+    late_fee_paid float(53),
+    returned boolean not null,
+    book_id bigint not null,
+    created_at timestamp(6),
+    lender_id bigint not null,
+    return_date timestamp(6),
+    updated_at timestamp(6),
+    user_id bigint not null,
+    id uuid not null,
+    primary key (id)
+);
+
+create table reading_list (
+    created_at timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table reading_list_books (
+    book_id bigint not null,
+    reading_list_id bigint not null,
+    primary key (book_id, reading_list_id)
+);
+
+create table settings (
+    settings_key varchar(255) not null check (settings_key in ('LATE_FEE_PER_DAY','LEND_DAY')),
+    settings_value varchar(255),
+    primary key (settings_key)
+);
+
+create table shelf (
+    available_capacity integer,
+    capacity integer not null,
+    created_at timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table users (
+    account_non_expired boolean,
+    account_non_locked boolean,
+    credentials_non_expired boolean,
+    deleted boolean,
+    is_enabled boolean,
+    created_at timestamp(6),
+    deleted_date_time timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id),
+    unique (email, deleted)
+);
+
+alter table if exists authorities
+   add constraint FKk91upmbueyim93v469wj7b2qh
+   foreign key (user_id)
+   references users;
+
+alter table if exists book_comment
+   add constraint FKi9gh469jh9ddll9ihddc8qtt0
+   foreign key (book_id)
+   references books;
+
+alter table if exists book_comment
+   add constraint FKpabthreqr29vo0w3fuaj2dak9
+   foreign key (user_id)
+   references users;
+
+alter table if exists book_reservation
+   add constraint FKsl6dk2akok0ucgo17xhxdnoe7
+   foreign key (book_id)
+   references books;
+
+alter table if exists book_reservation
+   add constraint FKbrs1gx2u40r2khqmxvf7vo83i
+   foreign key (user_id)
+   references users;
+
+alter table if exists books
+   add constraint FKqbnybw0p27nqkvwqbww53dc0j
+   foreign key (shelf_id)
+   references shelf;
+
+alter table if exists lend_transaction
+   add constraint FKj7oht16ijhsrcyexp6mq4yqjd
+   foreign key (book_id)
+   references books;
+
+alter table if exists lend_transaction
+   add constraint FKt28x9o9wuxjub2lqkowwume7w
+   foreign key (lender_id)
+   references users;
+
+alter table if exists lend_transaction
+   add constraint FKcmsc92gsetllddpeab9vvg43t
+   foreign key (user_id)
+   references users;
+
+alter table if exists reading_list
+   add constraint FKkmnfc35n17mesnbhvsqfshc64
+   foreign key (user_id)
+   references users;
+
+alter table if exists reading_list_books
+   add constraint FK9f60v0h37oywfpax69kvcbjrn
+   foreign key (book_id)
+   references books;
+
+alter table if exists reading_list_books
+   add constraint FKpyebsvgod0oo96tdv8d17d16f
+   foreign key (reading_list_id)
+   references reading_list;
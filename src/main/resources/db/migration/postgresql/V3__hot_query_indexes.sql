@@ -0,0 +1,26 @@
+-- Indexes backing the hot lookup predicates. Built concurrently so large tables
+-- stay writable; flyway runs this script outside a transaction.
+
+-- open lends of a book, ordered by deadline (lend/return, overdue and availability lookups)
+create index concurrently if not exists idx_lend_transaction_book_open
+   on lend_transaction (book_id, dead_line_date) where returned = false;
+
+-- a user's lend history filtered by returned flag
+create index concurrently if not exists idx_lend_transaction_user_returned
+   on lend_transaction (user_id, returned);
+
+-- pending reservations of a book in reservation order
+create index concurrently if not exists idx_book_reservation_book_open
+   on book_reservation (book_id, reservation_date) where completed = false;
+
+create index concurrently if not exists idx_book_reservation_user
+   on book_reservation (user_id);
+
+create index concurrently if not exists idx_book_comment_book_live
+   on book_comment (book_id) where deleted = false;
+
+create index concurrently if not exists idx_books_shelf_live
+   on books (shelf_id) where deleted = false;
+
+create index concurrently if not exists idx_reading_list_user
+   on reading_list (user_id);
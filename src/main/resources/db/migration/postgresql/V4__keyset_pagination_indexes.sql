@@ -0,0 +1,16 @@
+-- Indexes matching the keyset pagination orderings, so each page is a single index range scan.
+
+create index concurrently if not exists idx_books_name_id_live
+   on books (name, id) where deleted = false;
+
+create index concurrently if not exists idx_users_name_id_live
+   on users (first_name, last_name, id) where deleted = false;
+
+create index concurrently if not exists idx_lend_transaction_returned_created
+   on lend_transaction (returned, created_at desc, id desc);
+
+-- supersedes idx_book_comment_book_live
+create index concurrently if not exists idx_book_comment_book_created_live
+   on book_comment (book_id, created_at desc, id desc) where deleted = false;
+
+drop index concurrently if exists idx_book_comment_book_live;
@@ -0,0 +1,45 @@
+-- Integer ids move from bigserial/identity columns to one sequence per table, consumed in blocks of
+-- ${id_allocation_size} by hibernate's pooled-lo optimizer. Each sequence is positioned after the
+-- current max(id), and the column default draws from it so plain SQL inserts stay collision free.
+
+create sequence if not exists books_seq start with 1 increment by ${id_allocation_size};
+select setval('books_seq', (select coalesce(max(id), 0) + 1 from books), false);
+alter table books alter column id drop identity if exists;
+alter table books alter column id set default nextval('books_seq');
+drop sequence if exists books_id_seq;
+
+create sequence if not exists shelf_seq start with 1 increment by ${id_allocation_size};
+select setval('shelf_seq', (select coalesce(max(id), 0) + 1 from shelf), false);
+alter table shelf alter column id drop identity if exists;
+alter table shelf alter column id set default nextval('shelf_seq');
+drop sequence if exists shelf_id_seq;
+
+create sequence if not exists users_seq start with 1 increment by ${id_allocation_size};
+select setval('users_seq', (select coalesce(max(id), 0) + 1 from users), false);
+alter table users alter column id drop identity if exists;
+alter table users alter column id set default nextval('users_seq');
+drop sequence if exists users_id_seq;
+
+create sequence if not exists book_comment_seq start with 1 increment by ${id_allocation_size};
+select setval('book_comment_seq', (select coalesce(max(id), 0) + 1 from book_comment), false);
+alter table book_comment alter column id drop identity if exists;
+alter table book_comment alter column id set default nextval('book_comment_seq');
+drop sequence if exists book_comment_id_seq;
+
+create sequence if not exists book_reservation_seq start with 1 increment by ${id_allocation_size};
+select setval('book_reservation_seq', (select coalesce(max(id), 0) + 1 from book_reservation), false);
+alter table book_reservation alter column id drop identity if exists;
+alter table book_reservation alter column id set default nextval('book_reservation_seq');
+drop sequence if exists book_reservation_id_seq;
+
+create sequence if not exists reading_list_seq start with 1 increment by ${id_allocation_size};
+select setval('reading_list_seq', (select coalesce(max(id), 0) + 1 from reading_list), false);
+alter table reading_list alter column id drop identity if exists;
+alter table reading_list alter column id set default nextval('reading_list_seq');
+drop sequence if exists reading_list_id_seq;
+
+create sequence if not exists cache_invalidations_seq start with 1 increment by ${id_allocation_size};
+select setval('cache_invalidations_seq', (select coalesce(max(id), 0) + 1 from cache_invalidations), false);
+alter table cache_invalidations alter column id drop identity if exists;
+alter table cache_invalidations alter column id set default nextval('cache_invalidations_seq');
+drop sequence if exists cache_invalidations_id_seq;
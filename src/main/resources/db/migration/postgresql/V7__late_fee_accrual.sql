@@ -0,0 +1,29 @@
+-- Overdue flag per lend transaction and the late fee charged per day, so that overdue loans and
+-- outstanding fees can be read without computing them per row. Every accrued day is recorded once in
+-- late_fee_accruals with the running total of fees per day since the first recorded day, so the fee
+-- of an overdue loan is the total at the last accrued day less the total at its deadline, and the
+-- nightly job only has to flag the loans that fell due. Loans already overdue are backfilled here in
+-- accrued_late_fee as charged up to today. Returned loans are left as they are: their fee is set when
+-- they are returned, and what was paid stands for it on loans returned before this migration. The
+-- indexes supporting the job are built in V8.
+
+alter table lend_transaction add column if not exists overdue boolean default false not null;
+alter table lend_transaction add column if not exists accrued_late_fee float(53) default 0 not null;
+
+create table late_fee_accruals (
+    accrual_date date not null,
+    fee_per_day float(53) not null,
+    cumulative_fee float(53) not null,
+    primary key (accrual_date)
+);
+
+insert into late_fee_accruals (accrual_date, fee_per_day, cumulative_fee)
+select current_date, coalesce(max(cast(settings_value as float(53))), 0), 0
+from settings
+where settings_key = 'LATE_FEE_PER_DAY';
+
+update lend_transaction
+set overdue = true,
+    accrued_late_fee = (select fee_per_day from late_fee_accruals) * (current_date - dead_line_date)
+where returned = false
+  and dead_line_date < current_date;
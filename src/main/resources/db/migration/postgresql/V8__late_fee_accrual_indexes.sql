@@ -0,0 +1,10 @@
+-- Indexes for the late fee accrual job and the overdue listing. Built concurrently so large tables
+-- stay writable; flyway runs this script outside a transaction.
+
+-- overdue loans by deadline (overdue listing and outstanding fee totals)
+create index concurrently if not exists idx_lend_transaction_overdue
+   on lend_transaction (dead_line_date, id) where overdue = true;
+
+-- open loans not yet overdue, so each accrual run only visits the ones that fell due since
+create index concurrently if not exists idx_lend_transaction_open_not_overdue
+   on lend_transaction (dead_line_date) where returned = false and overdue = false;
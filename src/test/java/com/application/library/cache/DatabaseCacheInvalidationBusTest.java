@@ -0,0 +1,88 @@
+package com.application.library.cache;
+
+import com.application.library.model.CacheInvalidation;
+import com.application.library.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseCacheInvalidationBusTest {
+
+    private CacheManager cacheManager;
+    private CacheInvalidationRepository cacheInvalidationRepository;
+    private Cache cache;
+    private CacheInvalidationListener listener;
+    private DatabaseCacheInvalidationBus cacheInvalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = mock(CacheManager.class);
+        cacheInvalidationRepository = mock(CacheInvalidationRepository.class);
+        cache = mock(Cache.class);
+        listener = mock(CacheInvalidationListener.class);
+        cacheInvalidationBus = new DatabaseCacheInvalidationBus(cacheManager, List.of(listener), cacheInvalidationRepository, 10000, 3600000);
+        when(cacheManager.getCache("test_cache")).thenReturn(cache);
+        when(listener.getCacheName()).thenReturn("test_index");
+    }
+
+    @Test
+    void testEvict_whenCalledOutsideTransaction_shouldRecordInvalidationAndEvictLocally() {
+        // when
+        cacheInvalidationBus.evict("test_cache", "1");
+
+        // then
+        verify(cacheInvalidationRepository, times(1)).save(any(CacheInvalidation.class));
+        verify(cache, times(1)).evict("1");
+    }
+
+    @Test
+    void testEvictAll_whenCalledOutsideTransaction_shouldRecordInvalidationAndClearLocally() {
+        // when
+        cacheInvalidationBus.evictAll("test_cache");
+
+        // then
+        verify(cacheInvalidationRepository, times(1)).save(any(CacheInvalidation.class));
+        verify(cache, times(1)).clear();
+    }
+
+    @Test
+    void testPoll_whenOtherInstancesRecordedInvalidations_shouldApplyThemLocally() {
+        // given
+        CacheInvalidation keyInvalidation = new CacheInvalidation("test_cache", "1", "other_instance");
+        CacheInvalidation cacheInvalidation = new CacheInvalidation("test_cache", null, "other_instance");
+
+        // when
+        when(cacheInvalidationRepository.findAllByCreatedAtAfterAndOriginNot(any(LocalDateTime.class), anyString()))
+                .thenReturn(List.of(keyInvalidation, cacheInvalidation));
+        cacheInvalidationBus.poll();
+
+        // then
+        verify(cache, times(1)).evict("1");
+        verify(cache, times(1)).clear();
+        verify(cacheInvalidationRepository, never()).save(any());
+    }
+
+    @Test
+    void testPoll_whenOtherInstancesRecordedListenerInvalidations_shouldNotifyListener() {
+        // given
+        CacheInvalidation keyInvalidation = new CacheInvalidation("test_index", "1", "other_instance");
+        CacheInvalidation indexInvalidation = new CacheInvalidation("test_index", null, "other_instance");
+
+        // when
+        when(cacheInvalidationRepository.findAllByCreatedAtAfterAndOriginNot(any(LocalDateTime.class), anyString()))
+                .thenReturn(List.of(keyInvalidation, indexInvalidation));
+        cacheInvalidationBus.poll();
+
+        // then
+        verify(listener, times(1)).evict("1");
+        verify(listener, times(1)).evictAll();
+        verifyNoInteractions(cache);
+    }
+}
@@ -0,0 +1,72 @@
+package com.application.library.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class OptimisticRetryExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetryExecutor = new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    void testExecute_whenConflictResolvesOnRetry_shouldReturnResultAndCountConflict() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        String result = optimisticRetryExecutor.execute("test_operation", () -> {
+            if (attempts.incrementAndGet() == 1) throw new ObjectOptimisticLockingFailureException("books", 1L);
+            return "done";
+        });
+
+        // then
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.get("library.retry.conflicts").tag("operation", "test_operation").counter().count());
+        assertEquals(1.0, meterRegistry.get("library.retry.retries").tag("operation", "test_operation").counter().count());
+    }
+
+    @Test
+    void testExecute_whenConflictPersists_shouldThrowAfterMaxAttempts() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // then
+        assertThatThrownBy(() -> optimisticRetryExecutor.execute("test_operation", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("books", 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("library.retry.exhausted").tag("operation", "test_operation").counter().count());
+    }
+
+    @Test
+    void testExecute_whenOtherExceptionThrown_shouldNotRetry() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // then
+        assertThatThrownBy(() -> optimisticRetryExecutor.execute("test_operation", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertEquals(1, attempts.get());
+    }
+}
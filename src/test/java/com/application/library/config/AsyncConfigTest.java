@@ -0,0 +1,75 @@
+package com.application.library.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new AsyncConfig().eventExecutor(meterRegistry, 1, 1, 1, 5);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testEventExecutor_whenTaskSubmitted_shouldRunOnNamedThreadAndRecordLatency() throws InterruptedException {
+        // given
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        executor.execute(() -> {
+            threadName.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        // then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(threadName.get().startsWith("library-events-"));
+        executor.shutdown();
+        assertEquals(1, meterRegistry.get(AsyncConfig.EVENT_EXECUTOR_METRIC_PREFIX + ".execution").timer().count());
+    }
+
+    @Test
+    void testEventExecutor_whenPoolAndQueueSaturated_shouldRunOnCallerAndCountRejection() throws InterruptedException {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // when
+        executor.execute(() -> runner.set(Thread.currentThread()));
+        release.countDown();
+
+        // then
+        assertSame(Thread.currentThread(), runner.get());
+        assertEquals(1.0, meterRegistry.get(AsyncConfig.EVENT_EXECUTOR_METRIC_PREFIX + ".rejected").counter().count());
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.application.library.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePolicyRegistryTest {
+
+    @Test
+    void testGetPolicy_whenNoOverrideConfigured_shouldReturnDeclaredPolicy() {
+        // given
+        CachePolicy declared = CachePolicy.expireAfterWrite("books", 100, Duration.ofMinutes(5));
+
+        // when
+        CachePolicyRegistry registry = new CachePolicyRegistry(new MockEnvironment(), List.of(declared));
+
+        // then
+        assertEquals(declared, registry.getPolicy("books"));
+        assertTrue(registry.getCacheNames().contains("books"));
+    }
+
+    @Test
+    void testGetPolicy_whenOverrideConfigured_shouldReturnOverriddenPolicy() {
+        // given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.policies.books.maximum-size", "50")
+                .withProperty("cache.policies.books.expire-after-access", "30s");
+
+        // when
+        CachePolicyRegistry registry = new CachePolicyRegistry(environment,
+                List.of(CachePolicy.expireAfterWrite("books", 100, Duration.ofMinutes(5))));
+
+        // then
+        CachePolicy policy = registry.getPolicy("books");
+        assertEquals(50, policy.maximumSize());
+        assertEquals(Duration.ofMinutes(5), policy.expireAfterWrite());
+        assertEquals(Duration.ofSeconds(30), policy.expireAfterAccess());
+    }
+
+    @Test
+    void testCachePolicyRegistry_whenDuplicatePolicyDeclared_shouldThrowIllegalStateException() {
+        // given
+        CachePolicy policy = CachePolicy.expireAfterWrite("books", 100, Duration.ofMinutes(5));
+
+        // then
+        assertThatThrownBy(() -> new CachePolicyRegistry(new MockEnvironment(), List.of(policy, policy)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testCachingConfig_whenCacheManagerBuilt_shouldOnlyExposeDeclaredCaches() {
+        // given
+        CachingConfig cachingConfig = new CachingConfig();
+        CachePolicyRegistry registry = cachingConfig.cachePolicyRegistry(new MockEnvironment(),
+                List.of(cachingConfig.lateFeePerDayCachePolicy(), cachingConfig.lendDayCachePolicy()));
+
+        // when
+        CacheManager cacheManager = cachingConfig.cacheManager(registry);
+
+        // then
+        assertNotNull(cacheManager.getCache(CachingConfig.LATE_FEE_PER_DAY));
+        assertNotNull(cacheManager.getCache(CachingConfig.LEND_DAY));
+        assertNull(cacheManager.getCache("unknown"));
+    }
+}
@@ -3,7 +3,7 @@ package com.application.library.controller;
 import com.application.library.constants.MessageConstants;
 import com.application.library.data.dto.BookCommentDto;
 import com.application.library.data.dto.BookCommentRequestDto;
-import com.application.library.data.view.BookCommentStatsView;
+import com.application.library.data.dto.BookCommentStatsDto;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.exception.handler.DefaultExceptionHandler;
 import com.application.library.model.BookComment;
@@ -21,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
@@ -99,28 +100,19 @@ class BookCommentControllerTest extends BaseRestControllerTest {
     }
 
     @Test
-    void testGetBookCommentStats_whenGetBookCommentStatsCalledWithExistsBookId_shouldReturnBookCommentStatsView() throws Exception {
+    void testGetBookCommentStats_whenGetBookCommentStatsCalledWithExistsBookId_shouldReturnBookCommentStatsDto() throws Exception {
         // given
         Long bookId = 1L;
-        BookCommentStatsView bookCommentStatsView = new BookCommentStatsView() {
-            @Override
-            public Long getTotalComments() {
-                return 10L;
-            }
+        BookCommentStatsDto bookCommentStatsDto = new BookCommentStatsDto(10L, 4.5, Map.of(4, 5L, 5, 5L));
 
-            @Override
-            public Double getAverageRating() {
-                return 4.5;
-            }
-        };
-
-        when(bookCommentService.getBookCommentStats(bookId)).thenReturn(bookCommentStatsView);
+        when(bookCommentService.getBookCommentStats(bookId)).thenReturn(bookCommentStatsDto);
 
         mockMvc.perform(get("/api/comments//book/{bookId}/stats", bookId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data.totalComments", is(bookCommentStatsView.getTotalComments().intValue())))
-                .andExpect(jsonPath("$.data.averageRating", is(bookCommentStatsView.getAverageRating())));
+                .andExpect(jsonPath("$.data.totalComments", is(10)))
+                .andExpect(jsonPath("$.data.averageRating", is(4.5)))
+                .andExpect(jsonPath("$.data.ratingHistogram.5", is(5)));
     }
 
     @Test
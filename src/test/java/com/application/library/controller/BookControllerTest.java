@@ -1,15 +1,25 @@
 package com.application.library.controller;
 
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.AvailabilityDayDto;
+import com.application.library.data.dto.BookAvailabilityDto;
 import com.application.library.data.dto.CreateBookRequestDto;
+import com.application.library.data.dto.BookSearchPageDto;
+import com.application.library.data.dto.FacetedBookPageDto;
 import com.application.library.data.dto.SaveBookRequestDto;
 import com.application.library.data.view.book.BookView;
+import com.application.library.enumerations.BookFacet;
+import com.application.library.enumerations.SuggestionType;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.exception.ShelfFullException;
 import com.application.library.exception.handler.DefaultExceptionHandler;
 import com.application.library.model.Book;
+import com.application.library.search.FacetCount;
+import com.application.library.search.Suggestion;
+import com.application.library.service.BookImportService;
 import com.application.library.service.BookService;
+import com.application.library.utils.CursorPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,11 +31,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -36,12 +51,15 @@ class BookControllerTest extends BaseRestControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookImportService bookImportService;
+
     @Autowired
     MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new BookController(bookService))
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookController(bookService, bookImportService))
                 .setControllerAdvice(DefaultExceptionHandler.class)
                 .build();
     }
@@ -152,6 +170,113 @@ class BookControllerTest extends BaseRestControllerTest {
                 .andExpect(jsonPath("$.data.content[0].language", is(testBookView.getLanguage())));
     }
 
+    @Test
+    void testGetBooksByCursor_whenSizeIsOmitted_shouldUseDefaultSize() throws Exception {
+        // given
+        BookView testBookView = getTestBookView();
+
+        when(bookService.getBooksByCursor(Optional.empty(), 10)).thenReturn(new CursorPage<>(List.of(testBookView), 10, false, null));
+
+        mockMvc.perform(get("/api/books/cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id", is(testBookView.getId().intValue())))
+                .andExpect(jsonPath("$.data.size", is(10)));
+    }
+
+    @Test
+    void testSearchBooks_whenSearchBooksCalledWithQuery_shouldReturnMatchingBooks() throws Exception {
+        // given
+        BookView testBookView = getTestBookView();
+        PageImpl<BookView> bookViewPage = new PageImpl<>(List.of(testBookView), PageRequest.of(0, 10), 1);
+
+        when(bookService.searchBooks("dune", 0, 10)).thenReturn(new BookSearchPageDto(bookViewPage, false));
+
+        mockMvc.perform(get("/api/books/search?query=dune&page=0&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.books.content[0].id", is(testBookView.getId().intValue())))
+                .andExpect(jsonPath("$.data.books.totalElements", is(1)))
+                .andExpect(jsonPath("$.data.totalIsLowerBound", is(false)));
+    }
+
+    @Test
+    void testSearchBooks_whenSearchBooksCalledWithEmptyQuery_shouldReturnHTTP400() throws Exception {
+        when(bookService.searchBooks(" ", 0, 10)).thenThrow(new IllegalArgumentException(MessageConstants.BOOK_SEARCH_QUERY_EMPTY));
+
+        mockMvc.perform(get("/api/books/search").param("query", " ").param("page", "0").param("size", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(MessageConstants.BOOK_SEARCH_QUERY_EMPTY)));
+    }
+
+    @Test
+    void testFilterBooks_whenFilterBooksCalledWithFacetParams_shouldBindThemAndReturnFacets() throws Exception {
+        BookView testBookView = getTestBookView();
+        FacetedBookPageDto facetedPage = new FacetedBookPageDto(new PageImpl<>(List.of(testBookView), PageRequest.of(0, 10), 1),
+                Map.of(BookFacet.LANGUAGE, List.of(new FacetCount("English", 1))));
+        when(bookService.filterBooks(argThat(filter -> filter.getLanguage().equals(List.of("English", "French"))
+                && Boolean.TRUE.equals(filter.getAvailable()) && filter.getMaxPageCount() == 300), eq(0), eq(10)))
+                .thenReturn(facetedPage);
+
+        mockMvc.perform(get("/api/books/filter").param("language", "English", "French").param("available", "true")
+                        .param("maxPageCount", "300").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.books.content[0].id", is(testBookView.getId().intValue())))
+                .andExpect(jsonPath("$.data.facets.LANGUAGE[0].value", is("English")))
+                .andExpect(jsonPath("$.data.facets.LANGUAGE[0].count", is(1)));
+    }
+
+    @Test
+    void testFilterBooks_whenPageCountRangeIsInverted_shouldReturnHTTP400() throws Exception {
+        when(bookService.filterBooks(any(), eq(0), eq(10)))
+                .thenThrow(new IllegalArgumentException(MessageConstants.BOOK_FILTER_INVALID_PAGE_COUNT_RANGE));
+
+        mockMvc.perform(get("/api/books/filter").param("minPageCount", "300").param("maxPageCount", "100")
+                        .param("page", "0").param("size", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(MessageConstants.BOOK_FILTER_INVALID_PAGE_COUNT_RANGE)));
+    }
+
+    @Test
+    void testSuggestBooks_whenSuggestBooksCalledWithoutLimit_shouldReturnTenSuggestions() throws Exception {
+        when(bookService.suggestBooks("du", 10)).thenReturn(List.of(new Suggestion(SuggestionType.TITLE, "Dune", 12)));
+
+        mockMvc.perform(get("/api/books/suggestions").param("prefix", "du"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].type", is("TITLE")))
+                .andExpect(jsonPath("$.data[0].text", is("Dune")))
+                .andExpect(jsonPath("$.data[0].lendCount", is(12)));
+    }
+
+    @Test
+    void testSuggestBooks_whenLimitIsOutOfRange_shouldReturnHTTP400() throws Exception {
+        when(bookService.suggestBooks("du", 0)).thenThrow(new IllegalArgumentException(MessageConstants.BOOK_SUGGESTION_LIMIT_OUT_OF_RANGE));
+
+        mockMvc.perform(get("/api/books/suggestions").param("prefix", "du").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(MessageConstants.BOOK_SUGGESTION_LIMIT_OUT_OF_RANGE)));
+    }
+
+    @Test
+    void testGetAvailability_whenDatesAreOmitted_shouldUseTodayForBoth() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(bookService.getAvailability(List.of(1L, 2L), today, today))
+                .thenReturn(List.of(new BookAvailabilityDto(1L, List.of(new AvailabilityDayDto(today, 3)))));
+
+        mockMvc.perform(get("/api/books/availability").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].bookId", is(1)))
+                .andExpect(jsonPath("$.data[0].days[0].availableCount", is(3)));
+    }
+
+    @Test
+    void testGetAvailability_whenRangeIsInvalid_shouldReturnHTTP400() throws Exception {
+        when(bookService.getAvailability(List.of(1L), LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 1)))
+                .thenThrow(new IllegalArgumentException(MessageConstants.BOOK_AVAILABILITY_INVALID_DATE_RANGE));
+
+        mockMvc.perform(get("/api/books/availability").param("ids", "1").param("from", "2024-03-10").param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(MessageConstants.BOOK_AVAILABILITY_INVALID_DATE_RANGE)));
+    }
+
     @Test
     void testDeleteBook_whenDeleteBookCalledWithId_shouldReturnDeletedBookId() throws Exception {
         // given
@@ -1,9 +1,11 @@
 package com.application.library.controller;
 
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.AvailabilityDayDto;
 import com.application.library.data.dto.BookReservationRequestDto;
 import com.application.library.data.view.BookReservationView;
 import com.application.library.exception.EntityAlreadyExistsException;
+import com.application.library.exception.ServiceBusyException;
 import com.application.library.exception.handler.DefaultExceptionHandler;
 import com.application.library.model.BookReservation;
 import com.application.library.service.BookReservationService;
@@ -17,11 +19,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -69,6 +73,20 @@ class BookReservationControllerTest extends BaseRestControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void testReserveBook_whenAdmissionIsBusy_shouldReturnHTTP503WithRetryAfter() throws Exception {
+        BookReservationRequestDto requestDto = new BookReservationRequestDto();
+        Long testBookId = 1L;
+
+        when(bookReservationService.reserveBook(testBookId, requestDto)).thenThrow(new ServiceBusyException(MessageConstants.RESERVATION_ADMISSION_BUSY, 2));
+
+        mockMvc.perform(post("/api/reservations/{bookId}", testBookId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(requestDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
     @Test
     void testReserveBook_whenReserveBookCalledWithUncompletedReservation_shouldReturnHTTP409() throws Exception {
         BookReservationRequestDto requestDto = new BookReservationRequestDto();
@@ -95,6 +113,34 @@ class BookReservationControllerTest extends BaseRestControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void testGetAvailabilityCalendar_whenGetAvailabilityCalendarCalledWithDays_shouldReturnAvailableCountPerDay() throws Exception {
+        Long testBookId = 1L;
+        LocalDate today = LocalDate.of(2024, 3, 10);
+
+        when(bookReservationService.getAvailabilityCalendar(testBookId, 2))
+                .thenReturn(List.of(new AvailabilityDayDto(today, 0), new AvailabilityDayDto(today.plusDays(1), 2)));
+
+        mockMvc.perform(get("/api/reservations/book/{bookId}/calendar", testBookId)
+                        .param("days", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].availableCount", is(0)))
+                .andExpect(jsonPath("$.data[1].availableCount", is(2)));
+    }
+
+    @Test
+    void testGetAvailabilityCalendar_whenDaysAreOutOfRange_shouldReturnHTTP400() throws Exception {
+        Long testBookId = 1L;
+
+        when(bookReservationService.getAvailabilityCalendar(testBookId, 1000))
+                .thenThrow(new IllegalArgumentException(MessageConstants.RESERVATION_CALENDAR_DAYS_OUT_OF_RANGE));
+
+        mockMvc.perform(get("/api/reservations/book/{bookId}/calendar", testBookId)
+                        .param("days", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(MessageConstants.RESERVATION_CALENDAR_DAYS_OUT_OF_RANGE)));
+    }
+
     @Test
     void testGetAuthenticationUserReservations_whenGetAuthenticationUserReservationsCalled_shouldReturnReservations() throws Exception {
         int page = 0;
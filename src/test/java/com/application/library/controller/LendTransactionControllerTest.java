@@ -1,12 +1,17 @@
 package com.application.library.controller;
 
 import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.LendTransactionBatchItemDto;
+import com.application.library.data.dto.LendTransactionBatchResultDto;
 import com.application.library.data.dto.LendTransactionRequestDto;
+import com.application.library.data.dto.OverdueSummaryDto;
 import com.application.library.data.view.transaction.lend.LendTransactionAuthUserView;
 import com.application.library.data.view.transaction.lend.LendTransactionView;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.handler.DefaultExceptionHandler;
 import com.application.library.model.LendTransaction;
+import com.application.library.enumerations.ExportFormat;
+import com.application.library.service.LendTransactionExportService;
 import com.application.library.service.LendTransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,28 +19,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class LendTransactionControllerTest extends BaseRestControllerTest {
     @MockBean
     private LendTransactionService lendTransactionService;
 
+    @MockBean
+    private LendTransactionExportService lendTransactionExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new LendTransactionController(lendTransactionService))
+        mockMvc = MockMvcBuilders.standaloneSetup(new LendTransactionController(lendTransactionService, lendTransactionExportService))
                 .setControllerAdvice(DefaultExceptionHandler.class)
                 .build();
     }
@@ -124,6 +141,41 @@ class LendTransactionControllerTest extends BaseRestControllerTest {
                 .andExpect(jsonPath("$.errorMessage", is(errorMessage)));
     }
 
+    @Test
+    void testLendBooks_whenSomeItemsFail_shouldReturnResultPerItem() throws Exception {
+        // given
+        LendTransactionRequestDto requestDto = new LendTransactionRequestDto();
+        UUID lentId = UUID.randomUUID();
+        LendTransactionBatchResultDto result = new LendTransactionBatchResultDto(2, 1, List.of(
+                new LendTransactionBatchItemDto(1, lentId, null),
+                new LendTransactionBatchItemDto(2, null, MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING)));
+
+        when(lendTransactionService.lendBooks(List.of(requestDto, requestDto))).thenReturn(result);
+
+        mockMvc.perform(post("/api/lend/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(requestDto, requestDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.succeededItems", is(1)))
+                .andExpect(jsonPath("$.data.results[0].transactionId", is(lentId.toString())))
+                .andExpect(jsonPath("$.data.results[1].error", is(MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING)));
+    }
+
+    @Test
+    void testReturnBooks_whenBatchIsTooLarge_shouldReturnHTTP400() throws Exception {
+        // given
+        List<UUID> ids = List.of(UUID.randomUUID());
+        String errorMessage = MessageConstants.LEND_BATCH_SIZE_OUT_OF_RANGE;
+
+        when(lendTransactionService.returnBooks(ids)).thenThrow(new IllegalArgumentException(errorMessage));
+
+        mockMvc.perform(put("/api/lend/transactions/batch/return")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(ids)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(errorMessage)));
+    }
+
     @Test
     void testPayLateFee_whenPayLateFeeCalledWithValidId_shouldReturnLendTransactionId() throws Exception {
         // given
@@ -149,6 +201,26 @@ class LendTransactionControllerTest extends BaseRestControllerTest {
                 .andExpect(jsonPath("$.errorMessage", is(errorMessage)));
     }
 
+    @Test
+    void testGetOverdueSummary_whenGetOverdueSummaryCalled_shouldReturnCountAndOutstandingFees() throws Exception {
+        when(lendTransactionService.getOverdueSummary()).thenReturn(new OverdueSummaryDto(3, 42.5, LocalDate.now()));
+
+        mockMvc.perform(get("/api/lend/transactions/overdue/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.overdueCount", is(3)))
+                .andExpect(jsonPath("$.data.outstandingLateFees", is(42.5)));
+    }
+
+    @Test
+    void testFindOverdueLendTransactions_whenCursorIsInvalid_shouldReturnHTTP400() throws Exception {
+        when(lendTransactionService.findOverdueLendTransactions(Optional.of("bad"), 10))
+                .thenThrow(new IllegalArgumentException(MessageConstants.INVALID_PAGE_CURSOR));
+
+        mockMvc.perform(get("/api/lend/transactions/overdue").param("cursor", "bad").param("size", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is(MessageConstants.INVALID_PAGE_CURSOR)));
+    }
+
     @Test
     void testGetPayLateFeeById_whenGetPayLateFeeByIdCalledWithValidId_shouldReturnLateFee() throws Exception {
         // given
@@ -220,4 +292,24 @@ class LendTransactionControllerTest extends BaseRestControllerTest {
                 .andExpect(jsonPath("$.data.content[0].id", is(lendTransactionView.get(0).getId().toString())))
                 .andExpect(jsonPath("$.data.content[0].returned", is(returned)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExportLendTransactions_whenExportCalled_shouldStreamExportWithAttachmentHeaders() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(5);
+            outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(lendTransactionExportService).export(eq(ExportFormat.NDJSON), any(), any(), any(), any(), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/lend/transactions/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lend-transactions.ndjson\""))
+                .andExpect(content().contentType(ExportFormat.NDJSON.getContentType()))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
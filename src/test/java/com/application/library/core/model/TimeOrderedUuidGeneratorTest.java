@@ -0,0 +1,73 @@
+package com.application.library.core.model;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest extends TestSupport {
+
+    @Test
+    void testNext_whenCalled_shouldReturnVersion7UuidWithTimestamp() {
+        // given
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(true);
+        long now = System.currentTimeMillis();
+
+        // when
+        UUID uuid = generator.next(now);
+
+        // then
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(now, TimeOrderedUuidGenerator.timestampOf(uuid));
+    }
+
+    @Test
+    void testNext_whenCalledManyTimesWithinSameMillisecond_shouldReturnIncreasingIds() {
+        // given
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(true);
+        long now = System.currentTimeMillis();
+
+        // when
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            uuids.add(generator.next(now));
+        }
+
+        // then
+        for (int i = 1; i < uuids.size(); i++) {
+            assertTrue(Long.compareUnsigned(uuids.get(i - 1).getMostSignificantBits(), uuids.get(i).getMostSignificantBits()) < 0);
+        }
+        assertTrue(TimeOrderedUuidGenerator.timestampOf(uuids.get(uuids.size() - 1)) > now);
+    }
+
+    @Test
+    void testNext_whenClockMovesBackwards_shouldStillReturnIncreasingIds() {
+        // given
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(true);
+        long now = System.currentTimeMillis();
+        UUID first = generator.next(now);
+
+        // when
+        UUID second = generator.next(now - 1000);
+
+        // then
+        assertTrue(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void testGenerate_whenTimeOrderingDisabled_shouldReturnRandomUuid() {
+        // given
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(false);
+
+        // when
+        UUID uuid = (UUID) generator.generate(null, null, null, null);
+
+        // then
+        assertEquals(4, uuid.version());
+    }
+}
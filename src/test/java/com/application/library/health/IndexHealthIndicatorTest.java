@@ -0,0 +1,72 @@
+package com.application.library.health;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexHealthIndicatorTest {
+
+    private JdbcDataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:index-check-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        meterRegistry = new SimpleMeterRegistry();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table lend_transaction (id bigint primary key, book_id bigint, returned boolean)");
+            statement.execute("create index idx_lend_transaction_book_open on lend_transaction (book_id, returned)");
+        }
+    }
+
+    @Test
+    void testCheck_whenAllExpectedIndexesExist_shouldReportNoMissingIndexes() {
+        // given
+        IndexHealthIndicator indicator = new IndexHealthIndicator(dataSource, meterRegistry, List.of("IDX_LEND_TRANSACTION_BOOK_OPEN"));
+
+        // when
+        indicator.check();
+
+        // then
+        assertEquals(Set.of(), indicator.getMissingIndexes());
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(0.0, meterRegistry.get("library.db.indexes.missing").gauge().value());
+    }
+
+    @Test
+    void testCheck_whenExpectedIndexIsMissing_shouldReportItInHealthAndGauge() {
+        // given
+        IndexHealthIndicator indicator = new IndexHealthIndicator(dataSource, meterRegistry,
+                List.of("idx_lend_transaction_book_open", "idx_lend_transaction_user_returned"));
+
+        // when
+        indicator.check();
+        Health health = indicator.health();
+
+        // then
+        assertEquals(Set.of("idx_lend_transaction_user_returned"), indicator.getMissingIndexes());
+        assertEquals(Set.of("idx_lend_transaction_user_returned"), health.getDetails().get("missingIndexes"));
+        assertEquals(1.0, meterRegistry.get("library.db.indexes.missing").gauge().value());
+    }
+
+    @Test
+    void testHealth_whenCheckHasNotRun_shouldReturnUnknown() {
+        // given
+        IndexHealthIndicator indicator = new IndexHealthIndicator(dataSource, meterRegistry, List.of("idx_books_shelf_live"));
+
+        // then
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+    }
+}
@@ -1,11 +1,17 @@
 package com.application.library.listener;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.config.CachingConfig;
 import com.application.library.listener.event.UpdateBookAvailableCountEvent;
 import com.application.library.model.Book;
 import com.application.library.repository.BookRepository;
 import com.application.library.repository.LendTransactionRepository;
+import com.application.library.search.BookFacetIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Optional;
 
@@ -15,13 +21,16 @@ import static org.mockito.Mockito.*;
 class BookListenerTest {
     private BookRepository bookRepository;
     private LendTransactionRepository lendTransactionRepository;
+    private CacheInvalidationBus cacheInvalidationBus;
     private BookListener bookListener;
 
     @BeforeEach
     public void setUp() {
         bookRepository = mock(BookRepository.class);
         lendTransactionRepository = mock(LendTransactionRepository.class);
-        bookListener = new BookListener(bookRepository, lendTransactionRepository);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        bookListener = new BookListener(bookRepository, lendTransactionRepository, cacheInvalidationBus,
+                new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, 1, 1), new SimpleMeterRegistry());
     }
 
     @Test
@@ -37,9 +46,35 @@ class BookListenerTest {
 
         // then
         bookListener.onRegistrationUserConfirmationOrderCreatedEvent(event);
+        bookListener.flush();
 
         assertEquals(3, book.getAvailableCount()); // 5 total count - 2 lent count = 3 available count
         verify(bookRepository, times(1)).save(book);
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, "1");
+        verify(cacheInvalidationBus, times(1)).evict(BookFacetIndex.INDEX_NAME, "1");
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.BOOK_VIEW_PAGES);
+    }
+
+    @Test
+    public void testUpdateBookAvailableCountEvent_whenSameBookUpdatedRepeatedly_shouldRecomputeOnce() {
+        // given
+        UpdateBookAvailableCountEvent event = new UpdateBookAvailableCountEvent(this, 1L);
+        Book book = new Book();
+        book.setTotalCount(5);
+        when(bookRepository.findById(event.getBookId())).thenReturn(Optional.of(book));
+
+        // when
+        when(lendTransactionRepository.countAllByBook_IdAndReturnedFalse(event.getBookId())).thenReturn(1);
+
+        // then
+        bookListener.onRegistrationUserConfirmationOrderCreatedEvent(event);
+        bookListener.onRegistrationUserConfirmationOrderCreatedEvent(event);
+        bookListener.onRegistrationUserConfirmationOrderCreatedEvent(event);
+        bookListener.flush();
+
+        assertEquals(4, book.getAvailableCount());
+        verify(lendTransactionRepository, times(1)).countAllByBook_IdAndReturnedFalse(event.getBookId());
+        verify(bookRepository, times(1)).save(book);
     }
 
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.application.library.listener;
 
+import com.application.library.cache.CacheInvalidationBus;
 import com.application.library.listener.event.UpdateUserReservationCompleteStatus;
+import com.application.library.listener.event.UpdateUserReservationsCompleteStatus;
 import com.application.library.model.BookReservation;
 import com.application.library.repository.BookReservationRepository;
+import com.application.library.reservation.AvailabilityTimelineCache;
 import com.application.library.support.TestSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,12 +20,14 @@ import static org.mockito.Mockito.*;
 class BookReservationListenerTest extends TestSupport {
 
     private BookReservationRepository bookReservationRepository;
+    private CacheInvalidationBus cacheInvalidationBus;
     private BookReservationListener bookReservationListener;
 
     @BeforeEach
     public void setUp() {
         bookReservationRepository = mock(BookReservationRepository.class);
-        bookReservationListener = new BookReservationListener(bookReservationRepository);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        bookReservationListener = new BookReservationListener(bookReservationRepository, cacheInvalidationBus);
     }
 
     @Test
@@ -37,5 +44,26 @@ class BookReservationListenerTest extends TestSupport {
         // then
         assertTrue(bookReservation.isCompleted());
         verify(bookReservationRepository, times(1)).save(bookReservation);
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, event.getBookId().toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateUserReservationsCompleteStatusEvent_whenUserReservedAnotherBook_shouldCompleteOnlyMatchingReservations() {
+        // given
+        BookReservation lentReservation = getTestBookReservation();
+        BookReservation otherReservation = getTestBookReservation();
+        otherReservation.setUser(getTestUser2());
+        UpdateUserReservationsCompleteStatus event = new UpdateUserReservationsCompleteStatus(this, Map.of(1L, 1L, 2L, 5L));
+        when(bookReservationRepository.findAllByUser_IdInAndCompletedFalse(event.getBookIdsByUserId().keySet()))
+                .thenReturn(List.of(lentReservation, otherReservation));
+
+        // when
+        bookReservationListener.onUpdateUserReservationsCompleteStatus(event);
+
+        // then
+        assertTrue(lentReservation.isCompleted());
+        assertFalse(otherReservation.isCompleted());
+        verify(bookReservationRepository, times(1)).saveAll(List.of(lentReservation));
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, "1");
+    }
+}
@@ -0,0 +1,78 @@
+package com.application.library.listener;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventCoalescer<Long> coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new EventCoalescer<>(meterRegistry, "test_event");
+    }
+
+    @Test
+    void testFlush_whenSameKeySubmittedRepeatedly_shouldRecomputeEachKeyOnce() {
+        // given
+        List<Long> recomputed = new ArrayList<>();
+        coalescer.submit(1L);
+        coalescer.submit(1L);
+        coalescer.submit(2L);
+
+        // when
+        coalescer.flush(recomputed::add);
+
+        // then
+        assertEquals(2, recomputed.size());
+        assertTrue(recomputed.containsAll(List.of(1L, 2L)));
+        assertEquals(0, coalescer.pendingCount());
+        assertEquals(3.0, meterRegistry.get("library.events.coalescer.received").tag("event", "test_event").counter().count());
+        assertEquals(2.0, meterRegistry.get("library.events.coalescer.recomputed").tag("event", "test_event").counter().count());
+    }
+
+    @Test
+    void testFlush_whenKeySubmittedDuringRecompute_shouldKeepItForNextFlush() {
+        // given
+        coalescer.submit(1L);
+
+        // when
+        coalescer.flush(key -> coalescer.submit(key));
+
+        // then
+        assertEquals(1, coalescer.pendingCount());
+    }
+
+    @Test
+    void testFlush_whenRecomputeFails_shouldKeepFailedKeyAndRecomputeTheRest() {
+        // given
+        List<Long> recomputed = new ArrayList<>();
+        coalescer.submit(1L);
+        coalescer.submit(2L);
+        coalescer.submit(3L);
+
+        // when
+        coalescer.flush(key -> {
+            if (key == 2L) throw new IllegalStateException("recompute failed");
+            recomputed.add(key);
+        });
+
+        // then
+        assertTrue(recomputed.containsAll(List.of(1L, 3L)));
+        assertEquals(1, coalescer.pendingCount());
+        assertEquals(2.0, meterRegistry.get("library.events.coalescer.recomputed").tag("event", "test_event").counter().count());
+        assertEquals(1.0, meterRegistry.get("library.events.coalescer.failed").tag("event", "test_event").counter().count());
+
+        coalescer.flush(recomputed::add);
+        assertEquals(3, recomputed.size());
+        assertEquals(0, coalescer.pendingCount());
+    }
+}
@@ -1,46 +1,62 @@
 package com.application.library.listener;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.config.CachingConfig;
 import com.application.library.listener.event.UpdateShelfAvailableCapacityEvent;
-import com.application.library.model.Book;
 import com.application.library.model.Shelf;
 import com.application.library.repository.ShelfRepository;
 import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.util.*;
-
-import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class ShelfListenerTest extends TestSupport {
     private ShelfRepository shelfRepository;
+    private CacheInvalidationBus cacheInvalidationBus;
     private ShelfListener shelfListener;
 
     @BeforeEach
     public void setUp() {
         shelfRepository = mock(ShelfRepository.class);
-        shelfListener = new ShelfListener(shelfRepository);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        shelfListener = new ShelfListener(shelfRepository, cacheInvalidationBus,
+                new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, 1, 1), new SimpleMeterRegistry());
     }
 
     @Test
     public void testUpdateShelfAvailableCapacityEvent() {
         // given
         Shelf shelf = getTestShelf();
-        shelf.setCapacity(10);
-
-        Set<Book> books = new HashSet<>();
-        books.add(new Book());
-        books.add(new Book());
-        shelf.setBooks(books);
-
         UpdateShelfAvailableCapacityEvent event = new UpdateShelfAvailableCapacityEvent(this, shelf.getId());
-        when(shelfRepository.findById(event.getShelfId())).thenReturn(Optional.of(shelf));
+        when(shelfRepository.recomputeAvailableCapacity(shelf.getId())).thenReturn(1);
 
         // when
         shelfListener.onRegistrationUserConfirmationOrderCreatedEvent(event);
+        shelfListener.flush();
+
+        // then
+        verify(shelfRepository, times(1)).recomputeAvailableCapacity(shelf.getId());
+        verify(shelfRepository, never()).findById(any());
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.BOOK_VIEW);
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.BOOK_VIEW_PAGES);
+    }
+
+    @Test
+    public void testUpdateShelfAvailableCapacityEvent_whenCapacityIsAlreadyRight_shouldNotEvictBookViews() {
+        // given
+        Shelf shelf = getTestShelf();
+        when(shelfRepository.recomputeAvailableCapacity(shelf.getId())).thenReturn(0);
+
+        // when
+        shelfListener.onRegistrationUserConfirmationOrderCreatedEvent(new UpdateShelfAvailableCapacityEvent(this, shelf.getId()));
+        shelfListener.flush();
 
         // then
-        assertEquals(8, shelf.getAvailableCapacity()); // 10 capacity - 2 books = 8 available capacity
+        verify(shelfRepository, times(1)).recomputeAvailableCapacity(shelf.getId());
+        verifyNoInteractions(cacheInvalidationBus);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.application.library.listener;
+
+import com.application.library.listener.event.UpdateUserPrincipalEvent;
+import com.application.library.security.TokenRevocationRegistry;
+import com.application.library.security.UserPrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+class UserPrincipalListenerTest {
+
+    private UserPrincipalCache userPrincipalCache;
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    private UserPrincipalListener userPrincipalListener;
+
+    @BeforeEach
+    public void setUp() {
+        userPrincipalCache = mock(UserPrincipalCache.class);
+        tokenRevocationRegistry = mock(TokenRevocationRegistry.class);
+        userPrincipalListener = new UserPrincipalListener(userPrincipalCache, tokenRevocationRegistry);
+    }
+
+    @Test
+    public void testUpdateUserPrincipalEvent() {
+        // given
+        UpdateUserPrincipalEvent event = new UpdateUserPrincipalEvent(this, 1L, "test_email", 2);
+
+        // when
+        userPrincipalListener.onUpdateUserPrincipalEvent(event);
+
+        // then
+        verify(userPrincipalCache, times(1)).evict("test_email");
+        verify(tokenRevocationRegistry, times(1)).revoke(1L, 2);
+    }
+}
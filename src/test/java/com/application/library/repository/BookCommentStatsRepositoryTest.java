@@ -0,0 +1,124 @@
+package com.application.library.repository;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@Transactional
+class BookCommentStatsRepositoryTest extends TestSupport {
+
+    private static final List<Long> ALL = List.of(9201L, 9202L, 9203L);
+    private static final LocalDateTime SINCE = LocalDateTime.of(2099, 1, 1, 10, 0);
+
+    @Autowired
+    private BookCommentStatsRepository bookCommentStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO shelf (id, name, capacity, available_capacity) VALUES (9201, 'stats-shelf', 10, 7)");
+        jdbcTemplate.update("INSERT INTO users (id, email, first_name, last_name, password, deleted, account_non_expired, " +
+                "account_non_locked, credentials_non_expired, is_enabled) VALUES (9201, 'commenter@stats.test', 'first', 'last', " +
+                "'password', false, true, true, true, true)");
+        ALL.forEach(this::insertBook);
+        insertStats(9201L, 1, 4.0, 0, 1);
+        insertStats(9202L, 2, 6.0, 2, 0);
+        insertComment(9201L, 9201L, 4.0, SINCE.minusDays(1), null);
+        insertComment(9202L, 9202L, 3.0, SINCE.plusHours(1), null);
+        insertComment(9203L, 9202L, 3.0, SINCE.minusDays(1), SINCE.plusHours(2));
+        insertComment(9204L, 9203L, 5.0, SINCE.minusDays(1), null);
+    }
+
+    @Test
+    void testFindBookIdsWithCommentsChangedSince_whenCommentsWereWrittenOrDeleted_shouldReturnTheirBooks() {
+        // then
+        assertEquals(List.of(9202L), bookCommentStatsRepository.findBookIdsWithCommentsChangedSince(SINCE).stream()
+                .filter(ALL::contains).toList());
+    }
+
+    @Test
+    void testFindBookIdsWithDrift_whenStatsCountDeletedComment_shouldReturnOnlyThatBook() {
+        // then
+        assertEquals(List.of(9202L), bookCommentStatsRepository.findBookIdsWithDrift(ALL));
+        assertEquals(List.of(), bookCommentStatsRepository.findBookIdsWithDrift(List.of(9201L)));
+    }
+
+    @Test
+    void testFindCommentedBookIdsWithoutStats_whenRowIsMissing_shouldReturnOnlyGivenBooks() {
+        // then
+        assertEquals(List.of(9203L), bookCommentStatsRepository.findCommentedBookIdsWithoutStats(ALL));
+        assertEquals(List.of(), bookCommentStatsRepository.findCommentedBookIdsWithoutStats(List.of(9201L, 9202L)));
+    }
+
+    @Test
+    void testFindBookIdsAfter_whenPaged_shouldReturnStatsRowsInBookIdOrder() {
+        // then
+        assertEquals(List.of(9201L, 9202L), bookCommentStatsRepository.findBookIdsAfter(9200L, PageRequest.of(0, 1000)).stream()
+                .filter(ALL::contains).toList());
+        assertEquals(List.of(9202L), bookCommentStatsRepository.findBookIdsAfter(9201L, PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void testFindCommentedBookIdsWithoutStatsAfter_whenRowIsMissing_shouldReturnBooksAfterGivenId() {
+        // then
+        assertEquals(List.of(9203L), bookCommentStatsRepository.findCommentedBookIdsWithoutStatsAfter(9200L, PageRequest.of(0, 1000)).stream()
+                .filter(ALL::contains).toList());
+        assertEquals(List.of(), bookCommentStatsRepository.findCommentedBookIdsWithoutStatsAfter(9203L, PageRequest.of(0, 1000)).stream()
+                .filter(ALL::contains).toList());
+    }
+
+    @Test
+    void testClaimReconciliation_whenClaimedRecently_shouldNotClaimAgain() {
+        // given
+        jdbcTemplate.update("UPDATE book_comment_stats_reconciliation SET claimed_at = ?, reconciled_at = ? WHERE id = 1",
+                SINCE.minusHours(1), SINCE.minusHours(2));
+
+        // then
+        assertEquals(1, bookCommentStatsRepository.claimReconciliation(SINCE, SINCE.minusMinutes(30)));
+        assertEquals(0, bookCommentStatsRepository.claimReconciliation(SINCE.plusMinutes(10), SINCE.minusMinutes(20)));
+        assertEquals(SINCE.minusHours(2), bookCommentStatsRepository.findReconciledAt());
+    }
+
+    @Test
+    void testUpdateReconciledAt_shouldMoveTheWatermark() {
+        // when
+        bookCommentStatsRepository.updateReconciledAt(SINCE);
+
+        // then
+        assertEquals(SINCE, bookCommentStatsRepository.findReconciledAt());
+    }
+
+    private void insertBook(Long id) {
+        jdbcTemplate.update("INSERT INTO books (id, name, author, isbn, page_count, publisher, published_at, language, description, " +
+                "image_url, total_count, available_count, shelf_id, deleted) VALUES (?, 'book', 'author', ?, 100, 'publisher', '2000', " +
+                "'en', 'description', 'image', 1, 1, 9201, false)", id, "stats-isbn-" + id);
+    }
+
+    private void insertStats(Long bookId, long commentCount, double ratingSum, long threeStarCount, long fourStarCount) {
+        jdbcTemplate.update("DELETE FROM book_comment_stats WHERE book_id = ?", bookId);
+        jdbcTemplate.update("INSERT INTO book_comment_stats (book_id, comment_count, rating_sum, one_star_count, two_star_count, " +
+                "three_star_count, four_star_count, five_star_count) VALUES (?, ?, ?, 0, 0, ?, ?, 0)",
+                bookId, commentCount, ratingSum, threeStarCount, fourStarCount);
+    }
+
+    private void insertComment(Long id, Long bookId, double rating, LocalDateTime updatedAt, LocalDateTime deletedAt) {
+        jdbcTemplate.update("INSERT INTO book_comment (id, book_id, user_id, rating, comment_text, created_at, updated_at, " +
+                        "deleted, deleted_date_time) VALUES (?, ?, 9201, ?, 'comment', ?, ?, ?, ?)",
+                id, bookId, rating, updatedAt, updatedAt, deletedAt == null ? Boolean.FALSE : null, deletedAt);
+    }
+}
@@ -0,0 +1,70 @@
+package com.application.library.repository;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@Transactional
+class BookReservationRepositoryTest extends TestSupport {
+
+    private static final LocalDate DAY = LocalDate.of(2099, 1, 10);
+
+    @Autowired
+    private BookReservationRepository bookReservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO shelf (id, name, capacity, available_capacity) VALUES (9301, 'reservation-shelf', 10, 9)");
+        jdbcTemplate.update("INSERT INTO books (id, name, author, isbn, page_count, publisher, published_at, language, description, " +
+                "image_url, total_count, available_count, shelf_id, deleted) VALUES (9301, 'book', 'author', 'reservation-isbn', 100, " +
+                "'publisher', '2000', 'en', 'description', 'image', 1, 1, 9301, false)");
+        jdbcTemplate.update("INSERT INTO users (id, email, first_name, last_name, password, deleted, account_non_expired, " +
+                "account_non_locked, credentials_non_expired, is_enabled) VALUES (9301, 'patron@reservation.test', 'first', 'last', " +
+                "'password', false, true, true, true, true)");
+        insertLend("00000000-0000-0000-0000-000000009301", DAY.minusDays(1), false);
+        insertLend("00000000-0000-0000-0000-000000009302", DAY.minusDays(2), false);
+        insertLend("00000000-0000-0000-0000-000000009303", DAY.minusDays(3), true);
+        insertLend("00000000-0000-0000-0000-000000009304", DAY, false);
+        insertReservation(9301L, DAY.minusDays(1), false);
+        insertReservation(9302L, DAY.plusDays(1), false);
+        insertReservation(9303L, DAY.plusDays(2), true);
+    }
+
+    @Test
+    void testCountByBook_IdAndCompletedFalseAndReservationDateBefore_shouldCountOnlyPendingReservationsBeforeDate() {
+        // then
+        assertEquals(1, bookReservationRepository.countByBook_IdAndCompletedFalseAndReservationDateBefore(9301L, DAY));
+        assertEquals(2, bookReservationRepository.countByBook_IdAndCompletedFalseAndReservationDateBefore(9301L, DAY.plusDays(3)));
+    }
+
+    @Test
+    void testCountAvailabilityChangeOn_shouldSubtractPendingReservationsAfterFromOpenLendsDueBefore() {
+        // then
+        assertEquals(1, bookReservationRepository.countAvailabilityChangeOn(9301L, DAY));
+        assertEquals(-2, bookReservationRepository.countAvailabilityChangeOn(9301L, DAY.minusDays(2)));
+    }
+
+    private void insertLend(String id, LocalDate deadlineDate, boolean returned) {
+        jdbcTemplate.update("INSERT INTO lend_transaction (id, user_id, book_id, lender_id, created_at, dead_line_date, returned) " +
+                "VALUES (CAST(? AS uuid), 9301, 9301, 9301, ?, ?, ?)", id, deadlineDate.minusDays(14).atStartOfDay(), deadlineDate, returned);
+    }
+
+    private void insertReservation(Long id, LocalDate reservationDate, boolean completed) {
+        jdbcTemplate.update("INSERT INTO book_reservation (id, book_id, user_id, reservation_date, completed, deleted) VALUES (?, 9301, 9301, ?, ?, false)",
+                id, reservationDate, completed);
+    }
+}
@@ -0,0 +1,129 @@
+package com.application.library.repository;
+
+import com.application.library.data.view.transaction.lend.LendTransactionExportView;
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@Transactional
+class LendTransactionRepositoryTest extends TestSupport {
+
+    private static final String OPEN = "00000000-0000-0000-0000-000000009101";
+    private static final String RETURNED = "00000000-0000-0000-0000-000000009102";
+    private static final String RETURNED_BY_FIRST_USER = "00000000-0000-0000-0000-000000009103";
+    private static final List<String> ALL = List.of(OPEN, RETURNED, RETURNED_BY_FIRST_USER);
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2099, 1, 1, 10, 0);
+
+    @Autowired
+    private LendTransactionRepository lendTransactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO shelf (id, name, capacity, available_capacity) VALUES (9101, 'export-shelf', 10, 8)");
+        insertBook(9101L, "export-isbn-1");
+        insertBook(9102L, "export-isbn-2");
+        insertUser(9101L, "first@export.test");
+        insertUser(9102L, "second@export.test");
+        insertUser(9103L, "lender@export.test");
+        insertLend(OPEN, 9101L, 9101L, FIRST_DAY, false, null);
+        insertLend(RETURNED, 9102L, 9102L, FIRST_DAY.plusDays(1), true, 1.5);
+        insertLend(RETURNED_BY_FIRST_USER, 9101L, 9102L, FIRST_DAY.plusDays(2), true, null);
+    }
+
+    @Test
+    void testStreamForExport_whenNoFilterIsSet_shouldReturnAllTransactionsInCreationOrder() {
+        // when
+        List<LendTransactionExportView> result;
+        try (Stream<LendTransactionExportView> stream = lendTransactionRepository.streamForExport(null, null, null, null)) {
+            result = stream.filter(view -> ALL.contains(view.getId())).toList();
+        }
+
+        // then
+        assertEquals(ALL, result.stream().map(LendTransactionExportView::getId).toList());
+        LendTransactionExportView returned = result.get(1);
+        assertEquals(FIRST_DAY.plusDays(1), returned.getCreatedAt());
+        assertEquals(9102L, returned.getBookId());
+        assertEquals("export-isbn-2", returned.getBookIsbn());
+        assertEquals("book export-isbn-2", returned.getBookName());
+        assertEquals(9102L, returned.getUserId());
+        assertEquals("second@export.test", returned.getUserEmail());
+        assertEquals(9103L, returned.getLenderId());
+        assertEquals(LocalDate.of(2099, 1, 16), returned.getDeadlineDate());
+        assertEquals(FIRST_DAY.plusDays(3), returned.getReturnDate());
+        assertEquals(true, returned.getReturned());
+        assertEquals(1.5, returned.getLateFeePaid());
+    }
+
+    @Test
+    void testStreamForExport_whenReturnedIsSet_shouldReturnOnlyMatchingTransactions() {
+        // then
+        assertEquals(List.of(RETURNED, RETURNED_BY_FIRST_USER), export(true, null, null, null));
+        assertEquals(List.of(OPEN), export(false, null, null, null));
+    }
+
+    @Test
+    void testStreamForExport_whenUserIdIsSet_shouldReturnOnlyTransactionsOfUser() {
+        // then
+        assertEquals(List.of(OPEN, RETURNED_BY_FIRST_USER), export(null, 9101L, null, null));
+    }
+
+    @Test
+    void testStreamForExport_whenFromIsSet_shouldReturnTransactionsCreatedFromThen() {
+        // then
+        assertEquals(List.of(RETURNED, RETURNED_BY_FIRST_USER), export(null, null, FIRST_DAY.plusDays(1), null));
+    }
+
+    @Test
+    void testStreamForExport_whenToIsSet_shouldReturnTransactionsCreatedBeforeThen() {
+        // then
+        assertEquals(List.of(OPEN), export(null, null, null, FIRST_DAY.plusDays(1)));
+    }
+
+    @Test
+    void testStreamForExport_whenAllFiltersAreSet_shouldCombineThem() {
+        // then
+        assertEquals(List.of(RETURNED_BY_FIRST_USER), export(true, 9101L, FIRST_DAY, FIRST_DAY.plusDays(3)));
+    }
+
+    private List<String> export(Boolean returned, Long userId, LocalDateTime from, LocalDateTime to) {
+        try (Stream<LendTransactionExportView> stream = lendTransactionRepository.streamForExport(returned, userId, from, to)) {
+            return stream.map(LendTransactionExportView::getId).filter(ALL::contains).toList();
+        }
+    }
+
+    private void insertBook(Long id, String isbn) {
+        jdbcTemplate.update("INSERT INTO books (id, name, author, isbn, page_count, publisher, published_at, language, description, " +
+                "image_url, total_count, available_count, shelf_id, deleted) VALUES (?, ?, 'author', ?, 100, 'publisher', '2000', " +
+                "'en', 'description', 'image', 1, 1, 9101, false)", id, "book " + isbn, isbn);
+    }
+
+    private void insertUser(Long id, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, email, first_name, last_name, password, deleted, account_non_expired, " +
+                "account_non_locked, credentials_non_expired, is_enabled) VALUES (?, ?, 'first', 'last', 'password', false, true, true, true, true)",
+                id, email);
+    }
+
+    private void insertLend(String id, Long userId, Long bookId, LocalDateTime createdAt, boolean returned, Double lateFeePaid) {
+        jdbcTemplate.update("INSERT INTO lend_transaction (id, user_id, book_id, lender_id, created_at, dead_line_date, returned, " +
+                        "return_date, late_fee_paid) VALUES (CAST(? AS uuid), ?, ?, 9103, ?, ?, ?, ?, ?)",
+                id, userId, bookId, createdAt, createdAt.toLocalDate().plusDays(14), returned,
+                returned ? createdAt.plusDays(2) : null, lateFeePaid);
+    }
+}
@@ -0,0 +1,66 @@
+package com.application.library.repository;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@Transactional
+class ShelfRepositoryTest extends TestSupport {
+
+    @Autowired
+    private ShelfRepository shelfRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO shelf (id, name, capacity, available_capacity, version) VALUES (9401, 'recount-shelf', 10, 10, 0)");
+        insertBook(9401L, false);
+        insertBook(9402L, false);
+        insertBook(9403L, true);
+    }
+
+    @Test
+    void testRecomputeAvailableCapacity_whenCapacityDrifted_shouldSetItFromBookCount() {
+        // when
+        int updated = shelfRepository.recomputeAvailableCapacity(9401L);
+
+        // then
+        assertEquals(1, updated);
+        assertEquals(8, availableCapacity());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT version FROM shelf WHERE id = 9401", Integer.class));
+    }
+
+    @Test
+    void testRecomputeAvailableCapacity_whenCapacityIsRight_shouldNotUpdate() {
+        // given
+        jdbcTemplate.update("UPDATE shelf SET available_capacity = 8 WHERE id = 9401");
+
+        // when
+        int updated = shelfRepository.recomputeAvailableCapacity(9401L);
+
+        // then
+        assertEquals(0, updated);
+        assertEquals(8, availableCapacity());
+    }
+
+    private int availableCapacity() {
+        return jdbcTemplate.queryForObject("SELECT available_capacity FROM shelf WHERE id = 9401", Integer.class);
+    }
+
+    private void insertBook(Long id, boolean deleted) {
+        jdbcTemplate.update("INSERT INTO books (id, name, author, isbn, page_count, publisher, published_at, language, description, " +
+                "image_url, total_count, available_count, shelf_id, deleted) VALUES (?, 'book', 'author', ?, 100, 'publisher', '2000', " +
+                "'en', 'description', 'image', 1, 1, 9401, ?)", id, "recount-isbn-" + id, deleted);
+    }
+}
@@ -0,0 +1,54 @@
+package com.application.library.reservation;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AvailabilityTimelineTest extends TestSupport {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    private final AvailabilityTimeline timeline = AvailabilityTimeline.of(
+            List.of(DAY.plusDays(4), DAY, DAY.minusDays(2), DAY),
+            List.of(DAY.plusDays(1), DAY, DAY.plusDays(6)));
+
+    @Test
+    void testLendsDueBefore_whenDeadlinesFallOnTheDate_shouldNotCountThem() {
+        // then
+        assertEquals(1, timeline.lendsDueBefore(DAY));
+        assertEquals(3, timeline.lendsDueBefore(DAY.plusDays(1)));
+        assertEquals(4, timeline.lendsDueBefore(DAY.plusYears(1)));
+    }
+
+    @Test
+    void testReservations_whenReservationFallsOnTheDate_shouldCountItNeitherBeforeNorAfter() {
+        // then
+        assertEquals(0, timeline.reservationsBefore(DAY));
+        assertEquals(2, timeline.reservationsAfter(DAY));
+        assertEquals(3, timeline.reservationsAfter(DAY.minusDays(1)));
+    }
+
+    @Test
+    void testAvailableOn_whenLendsAreDueAndReservationsFollow_shouldBalanceThemAgainstAvailableCount() {
+        // then
+        assertEquals(1 + 1 - 2, timeline.availableOn(1, DAY));
+        assertEquals(1 + 3 - 1, timeline.availableOn(1, DAY.plusDays(2)));
+        assertEquals(1 + 4, timeline.availableOn(1, DAY.plusDays(7)));
+    }
+
+    @Test
+    void testAvailableBetween_whenRangeSpansLendsAndReservations_shouldMatchAvailableOnForEveryDay() {
+        // when
+        long[] result = timeline.availableBetween(1, DAY.minusDays(3), DAY.plusDays(8));
+
+        // then
+        assertEquals(12, result.length);
+        for (int day = 0; day < result.length; day++) {
+            assertEquals(timeline.availableOn(1, DAY.minusDays(3).plusDays(day)), result[day]);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.application.library.reservation;
+
+import com.application.library.constants.MessageConstants;
+import com.application.library.exception.EntityNotFoundException;
+import com.application.library.exception.ServiceBusyException;
+import com.application.library.model.Book;
+import com.application.library.repository.BookRepository;
+import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationAdmissionTest extends TestSupport {
+
+    private BookRepository bookRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        book = getTestBook();
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(getTestBook()));
+    }
+
+    @Test
+    void testAdmit_whenBookExists_shouldRunActionWithLockedBookAndCountAdmission() {
+        // when
+        Book result = admission(100).admit(1L, locked -> locked);
+
+        // then
+        assertSame(book, result);
+        assertEquals(1.0, meterRegistry.get("library.reservations.admission").tag("outcome", "admitted").counter().count());
+    }
+
+    @Test
+    void testAdmit_whenBookDoesNotExist_shouldThrowEntityNotFoundExceptionAndCountRejection() {
+        // then
+        assertThatThrownBy(() -> admission(100).admit(3L, locked -> locked))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage(MessageConstants.BOOK_NOT_FOUND);
+        assertEquals(1.0, meterRegistry.get("library.reservations.admission").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void testAdmit_whenSameBookIsHeldPastTimeout_shouldThrowIllegalStateExceptionButAdmitOtherBooks() throws Exception {
+        // given
+        ReservationAdmission admission = admission(50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Book> holder = executor.submit(() -> admission.admit(1L, locked -> {
+            held.countDown();
+            await(release);
+            return locked;
+        }));
+        held.await();
+
+        // then
+        assertThatThrownBy(() -> admission.admit(1L, locked -> locked))
+                .isInstanceOf(ServiceBusyException.class)
+                .hasMessage(MessageConstants.RESERVATION_ADMISSION_BUSY);
+        assertEquals(1.0, meterRegistry.get("library.reservations.admission").tag("outcome", "busy").counter().count());
+        admission.admit(2L, locked -> locked);
+
+        release.countDown();
+        assertSame(book, holder.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testAdmit_whenManyPatronsReserveLastCopiesAtOnce_shouldAdmitOnlyAsManyAsThereAreCopies() throws Exception {
+        // given
+        ReservationAdmission admission = admission(5000);
+        AtomicInteger copies = new AtomicInteger(3);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> {
+                await(start);
+                return admission.admit(1L, locked -> {
+                    int remaining = copies.get();
+                    if (remaining == 0) return false;
+                    Thread.yield();
+                    copies.set(remaining - 1);
+                    return admitted.incrementAndGet() > 0;
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(3, admitted.get());
+        assertEquals(0, copies.get());
+        assertTrue(meterRegistry.get("library.reservations.admission.wait").timer().count() >= 16);
+    }
+
+    private ReservationAdmission admission(long lockTimeoutMillis) {
+        return new ReservationAdmission(bookRepository, mock(PlatformTransactionManager.class), meterRegistry, 2, lockTimeoutMillis);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.BookFacet;
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest extends TestSupport {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        put(1L, "Dune", 412, "English", "Frank Herbert", true);
+        put(2L, "Children of Dune", 444, "English", "Frank Herbert", false);
+        put(3L, "Cien años de soledad", 417, "Spanish", "Gabriel García Márquez", true);
+        put(4L, "Animal Farm", 92, "English", "George Orwell", true);
+    }
+
+    @Test
+    void testQuery_whenNothingIsFiltered_shouldReturnAllBooksInNameOrderWithCounts() {
+        // when
+        FacetHits result = index.query(filter(Map.of()), 0, 10, 10);
+
+        // then
+        assertEquals(4, result.total());
+        assertEquals(List.of(4L, 2L, 3L, 1L), result.bookIds());
+        assertEquals(List.of(new FacetCount("English", 3), new FacetCount("Spanish", 1)), result.facets().get(BookFacet.LANGUAGE));
+        assertEquals(List.of(new FacetCount("300-499", 3), new FacetCount("0-99", 1)), result.facets().get(BookFacet.PAGE_COUNT));
+    }
+
+    @Test
+    void testQuery_whenFacetsAreFiltered_shouldMatchAllFacetsAndCountEachWithoutItsOwnFilter() {
+        // when
+        FacetHits result = index.query(filter(Map.of(
+                BookFacet.LANGUAGE, Set.of("English"),
+                BookFacet.AVAILABILITY, Set.of("true"))), 0, 10, 10);
+
+        // then
+        assertEquals(List.of(4L, 1L), result.bookIds());
+        assertEquals(List.of(new FacetCount("English", 2), new FacetCount("Spanish", 1)), result.facets().get(BookFacet.LANGUAGE));
+        assertEquals(List.of(new FacetCount("true", 2), new FacetCount("false", 1)), result.facets().get(BookFacet.AVAILABILITY));
+        assertEquals(List.of(new FacetCount("Frank Herbert", 1), new FacetCount("George Orwell", 1)), result.facets().get(BookFacet.AUTHOR));
+    }
+
+    @Test
+    void testQuery_whenSeveralValuesOfOneFacetAreFiltered_shouldMatchAnyOfThem() {
+        // when
+        FacetHits result = index.query(filter(Map.of(BookFacet.AUTHOR, Set.of("George Orwell", "Gabriel García Márquez"))), 0, 10, 10);
+
+        // then
+        assertEquals(List.of(4L, 3L), result.bookIds());
+    }
+
+    @Test
+    void testQuery_whenPageCountRangeIsGiven_shouldMatchInclusively() {
+        // when
+        FacetHits result = index.query(new FacetFilter(Map.of(), 92, 417), 0, 10, 10);
+
+        // then
+        assertEquals(List.of(4L, 3L, 1L), result.bookIds());
+    }
+
+    @Test
+    void testQuery_whenSecondPageIsRequested_shouldSkipFirstPageAndKeepTotal() {
+        // when
+        FacetHits result = index.query(filter(Map.of()), 2, 2, 10);
+
+        // then
+        assertEquals(4, result.total());
+        assertEquals(List.of(3L, 1L), result.bookIds());
+    }
+
+    @Test
+    void testQuery_whenFacetHasMoreValuesThanLimit_shouldKeepMostCommonAndSelectedValues() {
+        // when
+        FacetHits result = index.query(filter(Map.of(BookFacet.LANGUAGE, Set.of("Spanish"))), 0, 10, 1);
+
+        // then
+        assertEquals(List.of(new FacetCount("English", 3), new FacetCount("Spanish", 1)), result.facets().get(BookFacet.LANGUAGE));
+        assertEquals(List.of(new FacetCount("Gabriel García Márquez", 1)), result.facets().get(BookFacet.AUTHOR));
+    }
+
+    @Test
+    void testPut_whenBookChanges_shouldMoveItBetweenValues() {
+        // when
+        put(2L, "Children of Dune", 444, "English", "Frank Herbert", true);
+        index.remove(4L);
+
+        // then
+        FacetHits result = index.query(filter(Map.of(BookFacet.AVAILABILITY, Set.of("true"))), 0, 10, 10);
+        assertEquals(List.of(2L, 3L, 1L), result.bookIds());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testQuery_whenNameOrderIsIndexed_shouldKeepItAcrossRenamesAndRemovals() {
+        // given
+        index.indexNameOrder();
+
+        // when
+        put(1L, "Brave New World", 311, "English", "Aldous Huxley", true);
+        put(5L, "Bleak House", 1017, "English", "Charles Dickens", true);
+        index.remove(4L);
+        FacetHits result = index.query(filter(Map.of()), 0, 10, 10);
+
+        // then
+        assertEquals(List.of(5L, 1L, 2L, 3L), result.bookIds());
+        assertEquals(List.of(new FacetCount("English", 3), new FacetCount("Spanish", 1)), result.facets().get(BookFacet.LANGUAGE));
+    }
+
+    @Test
+    void testQuery_whenFacetHasTooManyValuesForBitsets_shouldStillFilterByValue() {
+        // given
+        for (long id = 10; id < 10 + FacetIndex.MAX_BITSET_VALUES; id++) {
+            put(id, "Book " + id, 100, "English", "Author " + id, true);
+        }
+
+        // when
+        put(3L, "Cien años de soledad", 417, "Spanish", "Author 10", true);
+        FacetHits result = index.query(filter(Map.of(BookFacet.AUTHOR, Set.of("Author 10"))), 0, 10, 10);
+
+        // then
+        assertEquals(List.of(10L, 3L), result.bookIds());
+    }
+
+    private void put(long bookId, String name, int pageCount, String language, String author, boolean available) {
+        Map<BookFacet, String> values = new EnumMap<>(BookFacet.class);
+        values.put(BookFacet.LANGUAGE, language);
+        values.put(BookFacet.PUBLISHER, "Publisher");
+        values.put(BookFacet.AUTHOR, author);
+        values.put(BookFacet.SHELF, "1");
+        values.put(BookFacet.AVAILABILITY, String.valueOf(available));
+        index.put(bookId, name, pageCount, values);
+    }
+
+    private static FacetFilter filter(Map<BookFacet, Set<String>> values) {
+        return new FacetFilter(values, null, null);
+    }
+}
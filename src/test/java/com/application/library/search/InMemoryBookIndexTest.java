@@ -0,0 +1,126 @@
+package com.application.library.search;
+
+import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryBookIndexTest extends TestSupport {
+
+    private TestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TestIndex();
+    }
+
+    @Test
+    void testRefresh_whenFirstCalled_shouldRebuildIndex() {
+        // given
+        index.catalog.addAll(List.of(1L, 2L));
+
+        // when
+        index.refresh();
+
+        // then
+        assertEquals(2, index.size());
+        assertEquals(1, index.rebuilds);
+        assertEquals(1, index.refreshes);
+    }
+
+    @Test
+    void testRefresh_whenRebuildFails_shouldRetryOnNextRefresh() {
+        // given
+        index.failRebuild = true;
+
+        // when
+        assertThrows(IllegalStateException.class, index::refresh);
+        index.failRebuild = false;
+        index.catalog.add(1L);
+        index.refresh();
+
+        // then
+        assertEquals(1, index.size());
+        assertEquals(2, index.rebuilds);
+    }
+
+    @Test
+    void testRefresh_whenBooksAreEvicted_shouldReindexOnlyThoseInChunks() {
+        // given
+        index.refresh();
+        for (long id = 1; id <= InMemoryBookIndex.LOAD_CHUNK_SIZE + 1; id++) {
+            index.catalog.add(id);
+            index.evict(String.valueOf(id));
+        }
+
+        // when
+        index.refresh();
+
+        // then
+        assertEquals(InMemoryBookIndex.LOAD_CHUNK_SIZE + 1, index.size());
+        assertEquals(List.of(InMemoryBookIndex.LOAD_CHUNK_SIZE, 1), index.chunkSizes);
+        assertEquals(1, index.rebuilds);
+    }
+
+    @Test
+    void testRefresh_whenAllAreEvicted_shouldRebuildIndex() {
+        // given
+        index.refresh();
+        index.catalog.add(1L);
+
+        // when
+        index.evictAll();
+        index.refresh();
+
+        // then
+        assertEquals(1, index.size());
+        assertEquals(2, index.rebuilds);
+        assertEquals("test-index", index.getCacheName());
+    }
+
+    private static class TestIndex extends InMemoryBookIndex<Set<Long>> {
+
+        private final Set<Long> catalog = new HashSet<>();
+        private final List<Integer> chunkSizes = new ArrayList<>();
+        private boolean failRebuild;
+        private int rebuilds;
+        private int refreshes;
+
+        private TestIndex() {
+            super("test-index", new HashSet<>(), new SimpleMeterRegistry());
+        }
+
+        @Override
+        protected Set<Long> rebuild() {
+            rebuilds++;
+            if (failRebuild) throw new IllegalStateException("rebuild failed");
+            return new HashSet<>(catalog);
+        }
+
+        @Override
+        protected void reindex(Set<Long> index, List<Long> bookIds) {
+            chunkSizes.add(bookIds.size());
+            for (Long bookId : bookIds) {
+                if (catalog.contains(bookId)) index.add(bookId);
+                else index.remove(bookId);
+            }
+        }
+
+        @Override
+        protected int size(Set<Long> index) {
+            return index.size();
+        }
+
+        @Override
+        protected void refreshed(Set<Long> index) {
+            refreshes++;
+        }
+    }
+}
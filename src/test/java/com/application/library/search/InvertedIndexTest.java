@@ -0,0 +1,193 @@
+package com.application.library.search;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest extends TestSupport {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1L, weights("dune", 8, "frank", 5, "herbert", 5, "desert", 1));
+        index.put(2L, weights("children", 8, "dune", 8, "frank", 5, "herbert", 5));
+        index.put(3L, weights("desert", 8, "solitaire", 8, "dune", 1));
+    }
+
+    @Test
+    void testSearch_whenAllTermsMatch_shouldRankByWeight() {
+        // when
+        SearchHits result = index.search(List.of("dune"), 10);
+
+        // then
+        assertEquals(3, result.total());
+        assertEquals(3L, result.bookIds().get(2));
+    }
+
+    @Test
+    void testSearch_whenOneTermDoesNotMatch_shouldReturnOnlyBooksMatchingAllTerms() {
+        // when
+        SearchHits result = index.search(List.of("dune", "children"), 10);
+
+        // then
+        assertEquals(new SearchHits(1, false, List.of(2L)), result);
+    }
+
+    @Test
+    void testSearch_whenTermIsPrefix_shouldMatchLongerTerms() {
+        // when
+        SearchHits result = index.search(List.of("herb"), 10);
+
+        // then
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void testSearch_whenTermHasTypo_shouldMatchWithinEditDistance() {
+        // when
+        SearchHits result = index.search(List.of("herbret"), 10);
+
+        // then
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void testSearch_whenMoreHitsThanLimit_shouldReturnTotalAndTopHits() {
+        // when
+        SearchHits result = index.search(List.of("dune"), 1);
+
+        // then
+        assertEquals(3, result.total());
+        assertEquals(1, result.bookIds().size());
+    }
+
+    @Test
+    void testSearch_whenCommonTermFollowsRareTerm_shouldMatchByBookTerms() {
+        // given
+        InvertedIndex largeIndex = new InvertedIndex();
+        for (long id = 1; id <= 1000; id++) {
+            largeIndex.put(id, weights("the", 1, "title" + id, 8));
+        }
+        largeIndex.put(1001L, weights("the", 8, "hobbit", 8));
+        largeIndex.put(1002L, weights("hobbit", 8, "tolkien", 5));
+
+        // when
+        SearchHits result = largeIndex.search(List.of("the", "hobbit"), 10);
+
+        // then
+        assertEquals(new SearchHits(1, false, List.of(1001L)), result);
+        assertEquals(new SearchHits(1, false, List.of(1002L)), largeIndex.search(List.of("hobbit", "tolk"), 10));
+    }
+
+    @Test
+    void testSearch_whenCommonTermMatchesManyBooks_shouldStopCountingAndKeepTopHits() {
+        // given
+        InvertedIndex largeIndex = new InvertedIndex();
+        for (long id = 1; id <= 50_000; id++) {
+            largeIndex.put(id, weights("the", id % 1000 == 0 ? 8 : 1));
+        }
+
+        // when
+        SearchHits result = largeIndex.search(List.of("the"), 3);
+
+        // then
+        assertTrue(result.totalIsLowerBound());
+        assertTrue(result.total() >= InvertedIndex.MAX_COUNTED_HITS && result.total() < 50_000);
+        assertEquals(List.of(1000L, 2000L, 3000L), result.bookIds());
+    }
+
+    @Test
+    void testSearch_whenCommonTermsMatchFewBooksTogether_shouldCountExactly() {
+        // given
+        InvertedIndex largeIndex = new InvertedIndex();
+        for (long id = 1; id <= 50_000; id++) {
+            largeIndex.put(id, id % 10 == 0 ? weights("the", 1, "of", 1) : weights("the", 1, "and", 1));
+        }
+
+        // when
+        SearchHits result = largeIndex.search(List.of("the", "of"), 3);
+
+        // then
+        assertEquals(new SearchHits(5_000, false, List.of(10L, 20L, 30L)), result);
+    }
+
+    @Test
+    void testPut_whenBookIsReindexed_shouldReplaceItsTerms() {
+        // given
+        index.put(3L, weights("arrakis", 8));
+
+        // then
+        assertEquals(2, index.search(List.of("dune"), 10).total());
+        assertEquals(List.of(3L), index.search(List.of("arrakis"), 10).bookIds());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRemove_whenBookIsRemoved_shouldNotReturnIt() {
+        // given
+        index.remove(1L);
+
+        // then
+        assertEquals(List.of(2L, 3L), index.search(List.of("dune"), 10).bookIds());
+        assertEquals(0, index.search(List.of("desert", "frank"), 10).total());
+    }
+
+    @Test
+    void testRemove_whenManyBooksAreRemoved_shouldPurgeRetiredPostingsAndKeepResults() {
+        // given
+        InvertedIndex largeIndex = new InvertedIndex();
+        for (long id = 1; id <= 100_000; id++) {
+            largeIndex.put(id, weights("common", 1, "book" + id, 8));
+        }
+        for (long id = 1; id <= 90_000; id++) {
+            largeIndex.remove(id);
+        }
+
+        // then
+        assertEquals(10_000, largeIndex.search(List.of("common"), 10).total());
+        assertEquals(List.of(95_000L), largeIndex.search(List.of("book95000"), 10).bookIds());
+    }
+
+    @Test
+    void testPut_whenBookIsReindexedRepeatedly_shouldReuseOrdinalsAndKeepCapacityBounded() {
+        // given
+        for (int i = 0; i < 100_000; i++) {
+            index.put(1L, weights("dune", 8, "frank", 5, "edition" + i, 1));
+            index.put(3L, weights("desert", 8, "solitaire", 8, "dune", 1));
+        }
+
+        // then
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L, 2L, 3L), index.search(List.of("dune"), 10).bookIds());
+        assertEquals(List.of(1L), index.search(List.of("edition99999"), 10).bookIds());
+        assertEquals(0, index.search(List.of("edition5"), 10).total());
+        assertEquals(List.of(1L, 2L), index.search(List.of("frank"), 10).bookIds());
+        assertTrue(index.capacity() <= 4096);
+    }
+
+    @Test
+    void testEditDistance_whenStringsDiffer_shouldStopAboveMaximum() {
+        // then
+        assertEquals(1, InvertedIndex.editDistance("herbert", "herbrt", 2));
+        assertEquals(1, InvertedIndex.editDistance("herbert", "hrebert", 2));
+        assertEquals(2, InvertedIndex.editDistance("herbert", "hrebret", 2));
+        assertEquals(3, InvertedIndex.editDistance("herbert", "lambda", 2));
+    }
+
+    private static Map<String, Integer> weights(Object... termsAndWeights) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < termsAndWeights.length; i += 2) {
+            weights.put((String) termsAndWeights[i], (Integer) termsAndWeights[i + 1]);
+        }
+        return weights;
+    }
+}
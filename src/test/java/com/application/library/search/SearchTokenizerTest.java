@@ -0,0 +1,44 @@
+package com.application.library.search;
+
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchTokenizerTest extends TestSupport {
+
+    @Test
+    void testTokenize_whenTextHasPunctuationAndAccents_shouldReturnLowercaseTermsWithoutAccents() {
+        // when
+        List<String> result = SearchTokenizer.tokenize("Les Misérables, by Victor HUGO (1862)");
+
+        // then
+        assertEquals(List.of("les", "miserables", "by", "victor", "hugo", "1862"), result);
+    }
+
+    @Test
+    void testTokenize_whenTextIsHyphenatedIsbn_shouldReturnSingleTerm() {
+        // when
+        List<String> result = SearchTokenizer.tokenize("ISBN 978-0-306-40615-7 and 0-8044-2957-X");
+
+        // then
+        assertEquals(List.of("isbn", "9780306406157", "and", "080442957x"), result);
+    }
+
+    @Test
+    void testTokenize_whenWordsAreHyphenated_shouldSplitThem() {
+        // when
+        List<String> result = SearchTokenizer.tokenize("Jean-Paul Sartre");
+
+        // then
+        assertEquals(List.of("jean", "paul", "sartre"), result);
+    }
+
+    @Test
+    void testTokenize_whenTextIsNull_shouldReturnEmptyList() {
+        // then
+        assertEquals(List.of(), SearchTokenizer.tokenize(null));
+    }
+}
@@ -0,0 +1,124 @@
+package com.application.library.search;
+
+import com.application.library.enumerations.SuggestionType;
+import com.application.library.support.TestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest extends TestSupport {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex(Duration.ofMinutes(1));
+        index.put(1L, "Dune", "Frank Herbert", 5);
+        index.put(2L, "Dune Messiah", "Frank Herbert", 2);
+        index.put(3L, "Children of Dune", "Frank Herbert", 9);
+        index.put(4L, "The Dubliners", "James Joyce", 1);
+        index.publish();
+    }
+
+    @Test
+    void testSuggest_whenPrefixMatchesSeveralTitles_shouldRankByLendCount() {
+        // when
+        List<Suggestion> result = index.suggest("du", 10);
+
+        // then
+        assertEquals(List.of("Children of Dune", "Dune", "Dune Messiah", "The Dubliners"), texts(result));
+        assertEquals(9, result.get(0).lendCount());
+    }
+
+    @Test
+    void testSuggest_whenSeveralBooksShareAnAuthor_shouldSuggestAuthorOnceWithSummedLendCount() {
+        // when
+        List<Suggestion> result = index.suggest("Herb", 10);
+
+        // then
+        assertEquals(List.of(new Suggestion(SuggestionType.AUTHOR, "Frank Herbert", 16)), result);
+    }
+
+    @Test
+    void testSuggest_whenPrefixSpansWordsWithDifferentCaseAndAccents_shouldMatch() {
+        // when
+        List<Suggestion> result = index.suggest("  DUNE   mé", 10);
+
+        // then
+        assertEquals(List.of("Dune Messiah"), texts(result));
+    }
+
+    @Test
+    void testSuggest_whenLimitIsReached_shouldReturnOnlyTheMostLent() {
+        // when
+        List<Suggestion> result = index.suggest("d", 2);
+
+        // then
+        assertEquals(List.of("Children of Dune", "Dune"), texts(result));
+    }
+
+    @Test
+    void testSuggest_whenPrefixIsBlank_shouldReturnNothing() {
+        // then
+        assertTrue(index.suggest(" - ", 10).isEmpty());
+    }
+
+    @Test
+    void testPut_whenBookIsRenamed_shouldDropOldTitleAfterPublish() {
+        // when
+        index.put(1L, "Dune: Deluxe Edition", "Frank Herbert", 5);
+        index.publish();
+
+        // then
+        assertEquals(List.of("Children of Dune", "Dune: Deluxe Edition", "Dune Messiah"), texts(index.suggest("dune", 10)));
+    }
+
+    @Test
+    void testPut_whenLendCountGrows_shouldReorderWithoutPublish() {
+        // when
+        index.put(2L, "Dune Messiah", "Frank Herbert", 20);
+
+        // then
+        assertEquals(List.of("Dune Messiah", "Children of Dune", "Dune"), texts(index.suggest("dune", 10)));
+    }
+
+    @Test
+    void testRemove_whenLastBookWithTitleIsRemoved_shouldStopSuggestingIt() {
+        // when
+        index.remove(4L);
+
+        // then
+        assertTrue(index.suggest("dubl", 10).isEmpty());
+        assertTrue(index.suggest("joyce", 10).isEmpty());
+
+        index.publish();
+        assertTrue(index.suggest("dubl", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testSuggest_whenRangeIsTooBroadToScan_shouldReturnTopFromWholeRange() {
+        // given
+        for (long id = 10; id < 10 + SuggestionIndex.SCAN_LIMIT; id++) {
+            index.put(id, "Dust " + id, "Author " + id, id == 500 ? 100 : 0);
+        }
+        index.publish();
+
+        // when
+        List<Suggestion> first = index.suggest("d", 3);
+        List<Suggestion> second = index.suggest("d", 3);
+
+        // then
+        assertEquals(List.of("Dust 500", "Children of Dune", "Dune"), texts(first));
+        assertEquals(first, second);
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
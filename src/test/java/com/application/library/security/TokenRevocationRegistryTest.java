@@ -0,0 +1,110 @@
+package com.application.library.security;
+
+import com.application.library.data.view.UserTokenVersionView;
+import com.application.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationRegistryTest {
+
+    private UserRepository userRepository;
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenRevocationRegistry = new TokenRevocationRegistry(userRepository, 10_000, true);
+    }
+
+    @Test
+    void testIsRevoked_whenNoRevocationRecorded_shouldReturnFalse() {
+        assertFalse(tokenRevocationRegistry.isRevoked(1L, 0));
+    }
+
+    @Test
+    void testIsRevoked_whenTokenVersionBelowMinimum_shouldReturnTrue() {
+        // given
+        tokenRevocationRegistry.revoke(1L, 2);
+
+        // then
+        assertTrue(tokenRevocationRegistry.isRevoked(1L, 1));
+        assertFalse(tokenRevocationRegistry.isRevoked(1L, 2));
+    }
+
+    @Test
+    void testRevoke_whenLowerMinimumRecordedLater_shouldKeepHigherMinimum() {
+        // given
+        tokenRevocationRegistry.revoke(1L, 3);
+
+        // when
+        tokenRevocationRegistry.revoke(1L, 1);
+
+        // then
+        assertTrue(tokenRevocationRegistry.isRevoked(1L, 2));
+    }
+
+    @Test
+    void testRefresh_whenUsersChangedOrDeleted_shouldRecordRevocations() {
+        // given
+        UserTokenVersionView updatedUser = tokenVersionView(1L, 2, false);
+        UserTokenVersionView deletedUser = tokenVersionView(2L, 0, null);
+
+        // when
+        when(userRepository.findTokenVersionsChangedSince(any(LocalDateTime.class))).thenReturn(List.of(updatedUser, deletedUser));
+        tokenRevocationRegistry.refresh();
+
+        // then
+        assertTrue(tokenRevocationRegistry.isRevoked(1L, 1));
+        assertFalse(tokenRevocationRegistry.isRevoked(1L, 2));
+        assertTrue(tokenRevocationRegistry.isRevoked(2L, 5));
+        verify(userRepository, times(1)).findTokenVersionsChangedSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRefresh_whenPolledAgain_shouldRereadOverlapBeforeLastPoll() {
+        // given
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(userRepository.findTokenVersionsChangedSince(any(LocalDateTime.class))).thenReturn(List.of());
+
+        // when
+        tokenRevocationRegistry.refresh();
+        LocalDateTime firstPollEnd = LocalDateTime.now();
+        tokenRevocationRegistry.refresh();
+
+        // then
+        verify(userRepository, times(2)).findTokenVersionsChangedSince(since.capture());
+        assertFalse(since.getAllValues().get(1).isAfter(firstPollEnd.minusSeconds(10)));
+        assertTrue(since.getAllValues().get(1).isAfter(since.getAllValues().get(0)));
+    }
+
+    private UserTokenVersionView tokenVersionView(Long id, Integer tokenVersion, Boolean deleted) {
+        UserTokenVersionView view = mock(UserTokenVersionView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTokenVersion()).thenReturn(tokenVersion);
+        when(view.getDeleted()).thenReturn(deleted);
+        return view;
+    }
+
+    @Test
+    void testRefresh_whenSelfContainedClaimsAreDisabled_shouldNotQueryUsers() {
+        // given
+        TokenRevocationRegistry disabledRegistry = new TokenRevocationRegistry(userRepository, 10_000, false);
+
+        // when
+        disabledRegistry.refresh();
+        disabledRegistry.revoke(1L, 2);
+
+        // then
+        verifyNoInteractions(userRepository);
+        assertFalse(disabledRegistry.isRevoked(1L, 1));
+    }
+}
@@ -0,0 +1,54 @@
+package com.application.library.security;
+
+import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest extends TestSupport {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserPrincipalCache userPrincipalCache;
+    private Function<String, UserDetails> loader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userPrincipalCache = new UserPrincipalCache(meterRegistry, 60, 100);
+        loader = mock(Function.class);
+        when(loader.apply("test_email")).thenAnswer(invocation -> getTestUser());
+    }
+
+    @Test
+    void testGet_whenGetCalledTwiceForSameEmail_shouldLoadOnceAndRecordHitAndMiss() {
+        // when
+        UserDetails first = userPrincipalCache.get("test_email", loader);
+        UserDetails second = userPrincipalCache.get("test_email", loader);
+
+        // then
+        assertEquals(first, second);
+        verify(loader, times(1)).apply("test_email");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserPrincipalCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserPrincipalCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testEvict_whenEvictCalled_shouldReloadOnNextGet() {
+        // given
+        userPrincipalCache.get("test_email", loader);
+
+        // when
+        userPrincipalCache.evict("test_email");
+        userPrincipalCache.get("test_email", loader);
+
+        // then
+        verify(loader, times(2)).apply("test_email");
+    }
+}
@@ -55,7 +55,7 @@ class AuthServiceTest extends TestSupport {
         // when
         when(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
                 loginRequestDto.getEmail(), loginRequestDto.getPassword()))).thenReturn(testAuthenticationByRole);
-        when(jwtUtil.generateToken(testUser.getEmail())).thenReturn(token);
+        when(jwtUtil.generateToken(testUser)).thenReturn(token);
         when(userConverter.toBaseDto(any())).thenReturn(baseUserDto);
         when(userDetailsService.loadUserByUsername(testUser.getEmail())).thenReturn(testUser);
 
@@ -67,7 +67,7 @@ class AuthServiceTest extends TestSupport {
         verify(authenticationManager, times(1)).authenticate(new UsernamePasswordAuthenticationToken(
                 loginRequestDto.getEmail(), loginRequestDto.getPassword()));
 
-        verify(jwtUtil, times(1)).generateToken(testUser.getEmail());
+        verify(jwtUtil, times(1)).generateToken(testUser);
         verify(userConverter, times(1)).toBaseDto(testUser);
     }
 
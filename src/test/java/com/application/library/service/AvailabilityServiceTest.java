@@ -0,0 +1,161 @@
+package com.application.library.service;
+
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
+import com.application.library.constants.MessageConstants;
+import com.application.library.exception.EntityAlreadyExistsException;
+import com.application.library.exception.ShelfFullException;
+import com.application.library.listener.event.UpdateBookAvailableCountEvent;
+import com.application.library.listener.event.UpdateShelfAvailableCapacityEvent;
+import com.application.library.repository.BookRepository;
+import com.application.library.repository.ShelfRepository;
+import com.application.library.search.BookFacetIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AvailabilityServiceTest {
+
+    private BookRepository bookRepository;
+    private ShelfRepository shelfRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        shelfRepository = mock(ShelfRepository.class);
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityService = availabilityService(AvailabilityService.DELTA_MODE);
+    }
+
+    @Test
+    void testBookLent_whenCopyAvailable_shouldDecrementAndEvictBookView() {
+        // when
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(1);
+
+        // then
+        availabilityService.bookLent(1L);
+
+        verify(bookRepository, times(1)).decrementAvailableCount(1L);
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, "1");
+        verify(cacheInvalidationBus, times(1)).evict(BookFacetIndex.INDEX_NAME, "1");
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    @Test
+    void testBookLent_whenNoCopyAvailable_shouldThrowEntityAlreadyExistsException() {
+        // when
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(0);
+
+        // then
+        assertThatThrownBy(() -> availabilityService.bookLent(1L))
+                .isInstanceOf(EntityAlreadyExistsException.class)
+                .hasMessage(MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING);
+    }
+
+    @Test
+    void testBookReturned_whenCounterAlreadyAtTotal_shouldScheduleRecompute() {
+        // when
+        when(bookRepository.incrementAvailableCount(1L)).thenReturn(0);
+
+        // then
+        availabilityService.bookReturned(1L);
+
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateBookAvailableCountEvent.class));
+    }
+
+    @Test
+    void testBookAddedToShelf_whenShelfFull_shouldThrowShelfFullException() {
+        // when
+        when(shelfRepository.decrementAvailableCapacity(1L)).thenReturn(0);
+
+        // then
+        assertThatThrownBy(() -> availabilityService.bookAddedToShelf(1L))
+                .isInstanceOf(ShelfFullException.class)
+                .hasMessage(MessageConstants.SHELF_FULL);
+    }
+
+    @Test
+    void testBookLent_whenRecomputeMode_shouldPublishEventWithoutUpdating() {
+        // given
+        availabilityService = availabilityService("recompute");
+
+        // when
+        availabilityService.bookLent(1L);
+
+        // then
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateBookAvailableCountEvent.class));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testBooksLent_whenCopiesAvailable_shouldDecreaseEachBookOnce() {
+        // when
+        when(bookRepository.decreaseAvailableCount(1L, 3)).thenReturn(1);
+        when(bookRepository.decreaseAvailableCount(2L, 1)).thenReturn(1);
+
+        // then
+        availabilityService.booksLent(Map.of(1L, 3, 2L, 1));
+
+        verify(bookRepository, times(1)).decreaseAvailableCount(1L, 3);
+        verify(bookRepository, times(1)).decreaseAvailableCount(2L, 1);
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, "1");
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, "2");
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    @Test
+    void testBooksLent_whenNotEnoughCopiesAvailable_shouldThrowEntityAlreadyExistsException() {
+        // when
+        when(bookRepository.decreaseAvailableCount(1L, 3)).thenReturn(0);
+
+        // then
+        assertThatThrownBy(() -> availabilityService.booksLent(Map.of(1L, 3)))
+                .isInstanceOf(EntityAlreadyExistsException.class)
+                .hasMessage(MessageConstants.BOOK_NOT_AVAILABLE_FOR_LENDING);
+    }
+
+    @Test
+    void testBooksReturned_whenCountWouldExceedTotal_shouldScheduleRecompute() {
+        // when
+        when(bookRepository.increaseAvailableCount(1L, 2)).thenReturn(0);
+
+        // then
+        availabilityService.booksReturned(Map.of(1L, 2));
+
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateBookAvailableCountEvent.class));
+    }
+
+    @Test
+    void testReconcile_whenCountersDrifted_shouldCountDriftAndScheduleRecompute() {
+        // when
+        when(bookRepository.findIdsWithAvailableCountDrift()).thenReturn(List.of(1L, 2L));
+        when(shelfRepository.findIdsWithAvailableCapacityDrift()).thenReturn(List.of(3L));
+
+        // then
+        availabilityService.reconcile();
+
+        verify(applicationEventPublisher, times(2)).publishEvent(any(UpdateBookAvailableCountEvent.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateShelfAvailableCapacityEvent.class));
+        assertEquals(2.0, meterRegistry.get("library.availability.drift").tag("entity", "book").counter().count());
+        assertEquals(1.0, meterRegistry.get("library.availability.drift").tag("entity", "shelf").counter().count());
+    }
+
+    private AvailabilityService availabilityService(String mode) {
+        return new AvailabilityService(bookRepository, shelfRepository, applicationEventPublisher, cacheInvalidationBus, meterRegistry, mode);
+    }
+}
@@ -3,11 +3,13 @@ package com.application.library.service;
 import com.application.library.converter.BookCommentConverter;
 import com.application.library.data.dto.BookCommentDto;
 import com.application.library.data.dto.BookCommentRequestDto;
-import com.application.library.data.view.BookCommentStatsView;
+import com.application.library.data.dto.BookCommentStatsDto;
 import com.application.library.helper.AuthHelper;
 import com.application.library.model.BookComment;
 import com.application.library.repository.BookCommentRepository;
 import com.application.library.support.TestSupport;
+import com.application.library.utils.CursorPage;
+import com.application.library.utils.PageCursor;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,17 +21,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class BookCommentServiceTest extends TestSupport {
 
     private BookCommentRepository bookCommentRepository;
     private BookCommentConverter bookCommentConverter;
+    private BookCommentStatsService bookCommentStatsService;
     private BookCommentService bookCommentService;
 
     private static MockedStatic<AuthHelper> authHelperMockedStatic;
@@ -48,7 +52,8 @@ class BookCommentServiceTest extends TestSupport {
     void setUp() {
         bookCommentRepository = mock(BookCommentRepository.class);
         bookCommentConverter = mock(BookCommentConverter.class);
-        bookCommentService = new BookCommentService(bookCommentRepository, bookCommentConverter);
+        bookCommentStatsService = mock(BookCommentStatsService.class);
+        bookCommentService = new BookCommentService(bookCommentRepository, bookCommentConverter, bookCommentStatsService);
     }
 
     @Test
@@ -69,6 +74,7 @@ class BookCommentServiceTest extends TestSupport {
 
         verify(bookCommentConverter, times(1)).toEntity(bookId, bookCommentRequestDto);
         verify(bookCommentRepository, times(1)).save(testBookComment);
+        verify(bookCommentStatsService, times(1)).commentAdded(bookId, testBookComment.getRating());
     }
 
     @Test
@@ -90,6 +96,7 @@ class BookCommentServiceTest extends TestSupport {
 
         verify(bookCommentRepository, times(1)).findById(commentId);
         verify(bookCommentConverter, times(1)).updateEntity(bookCommentRequestDto, testBookComment);
+        verify(bookCommentStatsService, times(1)).ratingChanged(testBookComment.getBook().getId(), testBookComment.getRating(), testBookComment.getRating());
     }
 
     @Test
@@ -128,6 +135,7 @@ class BookCommentServiceTest extends TestSupport {
 
         verify(bookCommentRepository, times(1)).findById(commentId);
         verify(bookCommentRepository, times(1)).delete(testBookComment);
+        verify(bookCommentStatsService, times(1)).commentRemoved(testBookComment.getBook().getId(), testBookComment.getRating());
     }
 
     @Test
@@ -167,29 +175,65 @@ class BookCommentServiceTest extends TestSupport {
     }
 
     @Test
-    void testGetBookCommentStats_whenTestGetBookCommentStatsCalledWithBookId_shouldReturnBookCommentStatsView() {
+    void testGetCommentsByBookIdCursor_whenMoreRowsThanSize_shouldReturnPageWithNextCursor() {
         // given
         Long bookId = 1L;
-        BookCommentStatsView bookCommentStatsView = new BookCommentStatsView() {
-            @Override
-            public Long getTotalComments() {
-                return 5L;
-            }
-
-            @Override
-            public Double getAverageRating() {
-                return 5.0;
-            }
-        };
+        LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+        BookCommentDto newest = new BookCommentDto(3L, now, now, "text", 5.0, "first", "last");
+        BookCommentDto middle = new BookCommentDto(2L, now.minusHours(1), now, "text", 5.0, "first", "last");
+        BookCommentDto oldest = new BookCommentDto(1L, now.minusHours(2), now, "text", 5.0, "first", "last");
 
         // when
-        when(bookCommentRepository.getBookCommentStats(bookId)).thenReturn(bookCommentStatsView);
+        when(bookCommentRepository.findFirstByBookIdOrderByNewest(bookId, PageRequest.ofSize(3))).thenReturn(List.of(newest, middle, oldest));
 
         // then
-        BookCommentStatsView bookCommentStats = bookCommentService.getBookCommentStats(bookId);
+        CursorPage<BookCommentDto> result = bookCommentService.getCommentsByBookIdCursor(bookId, Optional.empty(), 2);
 
-        assertEquals(bookCommentStatsView, bookCommentStats);
+        assertEquals(List.of(newest, middle), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals(PageCursor.encode(middle.getCreatedAt(), middle.getId()), result.getNextCursor());
+    }
+
+    @Test
+    void testGetCommentsByBookIdCursor_whenCursorGiven_shouldContinueAfterCursorRow() {
+        // given
+        Long bookId = 1L;
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 11, 0);
+        BookCommentDto oldest = new BookCommentDto(1L, createdAt.minusHours(1), createdAt, "text", 5.0, "first", "last");
+
+        // when
+        when(bookCommentRepository.findAfterByBookIdOrderByNewest(bookId, createdAt, 2L, PageRequest.ofSize(3))).thenReturn(List.of(oldest));
+
+        // then
+        CursorPage<BookCommentDto> result = bookCommentService.getCommentsByBookIdCursor(bookId, Optional.of(PageCursor.encode(createdAt, 2L)), 2);
+
+        assertEquals(List.of(oldest), result.getContent());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetCommentsByBookIdCursor_whenCursorIsMalformed_shouldThrowIllegalArgumentException() {
+        // then
+        assertThrows(IllegalArgumentException.class, () -> bookCommentService.getCommentsByBookIdCursor(1L, Optional.of("not-a-cursor"), 2));
+        verifyNoInteractions(bookCommentRepository);
+    }
+
+    @Test
+    void testGetBookCommentStats_whenTestGetBookCommentStatsCalledWithBookId_shouldReturnBookCommentStatsDto() {
+        // given
+        Long bookId = 1L;
+        BookCommentStatsDto bookCommentStatsDto = new BookCommentStatsDto(5L, 5.0, Map.of(5, 5L));
+
+        // when
+        when(bookCommentStatsService.getStats(bookId)).thenReturn(bookCommentStatsDto);
+
+        // then
+        BookCommentStatsDto bookCommentStats = bookCommentService.getBookCommentStats(bookId);
+
+        assertEquals(bookCommentStatsDto, bookCommentStats);
 
-        verify(bookCommentRepository, times(1)).getBookCommentStats(bookId);
+        verify(bookCommentStatsService, times(1)).getStats(bookId);
+        verifyNoInteractions(bookCommentRepository);
     }
-}
\ No newline at end of file
+}
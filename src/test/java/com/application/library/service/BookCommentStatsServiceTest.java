@@ -0,0 +1,295 @@
+package com.application.library.service;
+
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
+import com.application.library.data.dto.BookCommentStatsDto;
+import com.application.library.data.view.BookCommentAggregateView;
+import com.application.library.model.BookCommentStats;
+import com.application.library.repository.BookCommentRepository;
+import com.application.library.repository.BookCommentStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookCommentStatsServiceTest {
+
+    private BookCommentStatsRepository bookCommentStatsRepository;
+    private BookCommentRepository bookCommentRepository;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private BookCommentStatsService bookCommentStatsService;
+
+    @BeforeEach
+    void setUp() {
+        bookCommentStatsRepository = mock(BookCommentStatsRepository.class);
+        bookCommentRepository = mock(BookCommentRepository.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        bookCommentStatsService = new BookCommentStatsService(bookCommentStatsRepository, bookCommentRepository, cacheInvalidationBus,
+                transactionManager, meterRegistry, 3600000);
+    }
+
+    @Test
+    void testBooksCreated_whenBooksAreGiven_shouldInsertEmptyStatsRows() {
+        // then
+        bookCommentStatsService.booksCreated(List.of(1L, 2L));
+
+        verify(bookCommentStatsRepository, times(1)).insertEmpty(List.of(1L, 2L));
+        verifyNoInteractions(bookCommentRepository, cacheInvalidationBus);
+    }
+
+    @Test
+    void testBooksCreated_whenNoBooksAreGiven_shouldNotQuery() {
+        // then
+        bookCommentStatsService.booksCreated(List.of());
+
+        verifyNoInteractions(bookCommentStatsRepository);
+    }
+
+    @Test
+    void testCommentAdded_whenStatsRowExists_shouldAddRatingAndEvictStats() {
+        // when
+        when(bookCommentStatsRepository.addRatings(1L, 4, 1, 4.4)).thenReturn(1);
+
+        // then
+        bookCommentStatsService.commentAdded(1L, 4.4);
+
+        verify(bookCommentStatsRepository, times(1)).addRatings(1L, 4, 1, 4.4);
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_COMMENT_STATS, "1");
+        verifyNoInteractions(bookCommentRepository);
+    }
+
+    @Test
+    void testCommentAdded_whenStatsRowIsMissing_shouldCreateItFromRecount() {
+        // given
+        BookCommentAggregateView aggregate = aggregate(2L, 9.5, 0L, 0L, 0L, 1L, 1L);
+
+        // when
+        when(bookCommentStatsRepository.addRatings(1L, 5, 1, 5.0)).thenReturn(0);
+        when(bookCommentRepository.aggregateByBookId(1L)).thenReturn(aggregate);
+        when(bookCommentStatsRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        // then
+        bookCommentStatsService.commentAdded(1L, 5.0);
+
+        ArgumentCaptor<BookCommentStats> captor = ArgumentCaptor.forClass(BookCommentStats.class);
+        verify(bookCommentStatsRepository, times(1)).save(captor.capture());
+        assertEquals(1L, captor.getValue().getBookId());
+        assertEquals(2L, captor.getValue().getCommentCount());
+        assertEquals(9.5, captor.getValue().getRatingSum());
+        assertEquals(1L, captor.getValue().getFiveStarCount());
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_COMMENT_STATS, "1");
+    }
+
+    @Test
+    void testRatingChanged_whenRatingIsUnchanged_shouldNotTouchStats() {
+        // then
+        bookCommentStatsService.ratingChanged(1L, 3.0, 3.0);
+
+        verifyNoInteractions(bookCommentStatsRepository, cacheInvalidationBus);
+    }
+
+    @Test
+    void testRatingChanged_whenRatingChanges_shouldMoveItBetweenStars() {
+        // when
+        when(bookCommentStatsRepository.addRatings(eq(1L), anyInt(), anyLong(), anyDouble())).thenReturn(1);
+
+        // then
+        bookCommentStatsService.ratingChanged(1L, 1.0, 2.5);
+
+        verify(bookCommentStatsRepository, times(1)).addRatings(1L, 1, -1, -1.0);
+        verify(bookCommentStatsRepository, times(1)).addRatings(1L, 3, 1, 2.5);
+    }
+
+    @Test
+    void testGetStats_whenStatsRowExists_shouldReturnAverageAndHistogram() {
+        // given
+        BookCommentStats stats = new BookCommentStats();
+        stats.setBookId(1L);
+        stats.setCommentCount(4);
+        stats.setRatingSum(14.0);
+        stats.setTwoStarCount(1);
+        stats.setFourStarCount(3);
+
+        // when
+        when(bookCommentStatsRepository.findById(1L)).thenReturn(Optional.of(stats));
+
+        // then
+        BookCommentStatsDto result = bookCommentStatsService.getStats(1L);
+
+        assertEquals(4, result.getTotalComments());
+        assertEquals(3.5, result.getAverageRating());
+        assertEquals(Map.of(1, 0L, 2, 1L, 3, 0L, 4, 3L, 5, 0L), result.getRatingHistogram());
+    }
+
+    @Test
+    void testGetStats_whenBookHasNoComments_shouldReturnZeroCountAndNoAverage() {
+        // when
+        when(bookCommentStatsRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // then
+        BookCommentStatsDto result = bookCommentStatsService.getStats(1L);
+
+        assertEquals(0, result.getTotalComments());
+        assertNull(result.getAverageRating());
+    }
+
+    @Test
+    void testReconcile_whenStatsDriftedOrAreMissing_shouldRecountAndReportDrift() {
+        // given
+        BookCommentAggregateView aggregate = aggregate(1L, 3.0, 0L, 0L, 1L, 0L, 0L);
+
+        // when
+        claimReconciliation(LocalDateTime.now().minusHours(1));
+        when(bookCommentStatsRepository.findBookIdsWithCommentsChangedSince(any())).thenReturn(List.of(1L, 2L, 3L));
+        when(bookCommentStatsRepository.findBookIdsWithDrift(List.of(1L, 2L, 3L))).thenReturn(List.of(1L));
+        when(bookCommentStatsRepository.findCommentedBookIdsWithoutStats(List.of(1L, 2L, 3L))).thenReturn(List.of(2L));
+        when(bookCommentRepository.aggregateByBookId(anyLong())).thenReturn(aggregate);
+        when(bookCommentStatsRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
+
+        // then
+        bookCommentStatsService.reconcile();
+
+        verify(bookCommentStatsRepository, times(2)).save(any(BookCommentStats.class));
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_COMMENT_STATS, "1");
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_COMMENT_STATS, "2");
+        assertEquals(2.0, meterRegistry.get("library.comments.stats.drift").counter().count());
+    }
+
+    @Test
+    void testReconcile_whenNoCommentsChanged_shouldNotLookForDrift() {
+        // when
+        claimReconciliation(LocalDateTime.now().minusHours(1));
+        when(bookCommentStatsRepository.findBookIdsWithCommentsChangedSince(any())).thenReturn(List.of());
+
+        // then
+        bookCommentStatsService.reconcile();
+
+        verify(bookCommentStatsRepository, never()).findBookIdsWithDrift(anyCollection());
+        verify(bookCommentStatsRepository, never()).save(any(BookCommentStats.class));
+        assertEquals(0.0, meterRegistry.get("library.comments.stats.drift").counter().count());
+    }
+
+    @Test
+    void testReconcile_whenClaimed_shouldLookBackFromLastRunAndMoveItForward() {
+        // given
+        LocalDateTime reconciledAt = LocalDateTime.of(2024, 1, 10, 12, 0);
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        claimReconciliation(reconciledAt);
+        when(bookCommentStatsRepository.findBookIdsWithCommentsChangedSince(any())).thenReturn(List.of());
+
+        // when
+        bookCommentStatsService.reconcile();
+
+        // then
+        verify(bookCommentStatsRepository, times(1)).findBookIdsWithCommentsChangedSince(reconciledAt.minusHours(1));
+        verify(bookCommentStatsRepository, times(1)).claimReconciliation(any(), captor.capture());
+        verify(bookCommentStatsRepository, times(1)).updateReconciledAt(captor.capture());
+        assertTrue(captor.getAllValues().get(0).isBefore(LocalDateTime.now().minusMinutes(29)));
+        assertTrue(captor.getAllValues().get(1).isAfter(LocalDateTime.now().minusMinutes(1)));
+    }
+
+    @Test
+    void testReconcile_whenAnotherNodeHasTheRun_shouldSkipIt() {
+        // given
+        when(bookCommentStatsRepository.claimReconciliation(any(), any())).thenReturn(0);
+
+        // when
+        bookCommentStatsService.reconcile();
+
+        // then
+        verify(bookCommentStatsRepository, never()).findReconciledAt();
+        verify(bookCommentStatsRepository, never()).findBookIdsWithCommentsChangedSince(any());
+        verify(bookCommentStatsRepository, never()).updateReconciledAt(any());
+    }
+
+    @Test
+    void testReconcile_whenManyCommentsChanged_shouldRecountEachChunkInItsOwnTransaction() {
+        // given
+        List<Long> changedBookIds = LongStream.rangeClosed(1, 1001).boxed().toList();
+        claimReconciliation(LocalDateTime.now().minusHours(1));
+        when(bookCommentStatsRepository.findBookIdsWithCommentsChangedSince(any())).thenReturn(changedBookIds);
+
+        // when
+        bookCommentStatsService.reconcile();
+
+        // then
+        verify(bookCommentStatsRepository, times(1)).findBookIdsWithDrift(changedBookIds.subList(0, 1000));
+        verify(bookCommentStatsRepository, times(1)).findBookIdsWithDrift(changedBookIds.subList(1000, 1001));
+        // the claim, two chunks and the watermark
+        verify(transactionManager, times(4)).getTransaction(any());
+    }
+
+    @Test
+    void testRebuild_whenStatsDriftedOutsideReconcileWindow_shouldWalkAllRowsInChunks() {
+        // given
+        List<Long> firstChunk = LongStream.rangeClosed(1, 1000).boxed().toList();
+        BookCommentAggregateView aggregate = aggregate(1L, 3.0, 0L, 0L, 1L, 0L, 0L);
+
+        // when
+        when(bookCommentStatsRepository.findBookIdsAfter(eq(0L), any(Pageable.class))).thenReturn(firstChunk);
+        when(bookCommentStatsRepository.findBookIdsAfter(eq(1000L), any(Pageable.class))).thenReturn(List.of(1001L));
+        when(bookCommentStatsRepository.findBookIdsWithDrift(firstChunk)).thenReturn(List.of(7L));
+        when(bookCommentStatsRepository.findBookIdsWithDrift(List.of(1001L))).thenReturn(List.of());
+        when(bookCommentStatsRepository.findCommentedBookIdsWithoutStatsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(2001L));
+        when(bookCommentRepository.aggregateByBookId(anyLong())).thenReturn(aggregate);
+        when(bookCommentStatsRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
+
+        // then
+        bookCommentStatsService.rebuild();
+
+        verify(bookCommentStatsRepository, never()).findBookIdsAfter(eq(1001L), any(Pageable.class));
+        verify(bookCommentStatsRepository, never()).findCommentedBookIdsWithoutStatsAfter(eq(2001L), any(Pageable.class));
+        verify(bookCommentStatsRepository, times(2)).save(any(BookCommentStats.class));
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_COMMENT_STATS, "7");
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_COMMENT_STATS, "2001");
+        assertEquals(2.0, meterRegistry.get("library.comments.stats.drift").counter().count());
+    }
+
+    @Test
+    void testRebuild_whenThereAreNoStats_shouldNotLookForDrift() {
+        // when
+        when(bookCommentStatsRepository.findBookIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+        when(bookCommentStatsRepository.findCommentedBookIdsWithoutStatsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        // then
+        bookCommentStatsService.rebuild();
+
+        verify(bookCommentStatsRepository, never()).findBookIdsWithDrift(anyCollection());
+        verify(bookCommentStatsRepository, never()).save(any(BookCommentStats.class));
+    }
+
+    private void claimReconciliation(LocalDateTime reconciledAt) {
+        when(bookCommentStatsRepository.claimReconciliation(any(), any())).thenReturn(1);
+        when(bookCommentStatsRepository.findReconciledAt()).thenReturn(reconciledAt);
+    }
+
+    private static BookCommentAggregateView aggregate(Long commentCount, Double ratingSum, Long one, Long two, Long three, Long four, Long five) {
+        BookCommentAggregateView aggregate = mock(BookCommentAggregateView.class);
+        when(aggregate.getCommentCount()).thenReturn(commentCount);
+        when(aggregate.getRatingSum()).thenReturn(ratingSum);
+        when(aggregate.getOneStarCount()).thenReturn(one);
+        when(aggregate.getTwoStarCount()).thenReturn(two);
+        when(aggregate.getThreeStarCount()).thenReturn(three);
+        when(aggregate.getFourStarCount()).thenReturn(four);
+        when(aggregate.getFiveStarCount()).thenReturn(five);
+        return aggregate;
+    }
+}
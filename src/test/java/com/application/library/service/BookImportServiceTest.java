@@ -0,0 +1,274 @@
+package com.application.library.service;
+
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
+import com.application.library.constants.MessageConstants;
+import com.application.library.converter.BookConverter;
+import com.application.library.data.dto.BookImportResultDto;
+import com.application.library.data.dto.BookImportRowErrorDto;
+import com.application.library.data.dto.CreateBookRequestDto;
+import com.application.library.model.Book;
+import com.application.library.model.Shelf;
+import com.application.library.repository.BookRepository;
+import com.application.library.repository.ShelfRepository;
+import com.application.library.search.BookFacetIndex;
+import com.application.library.search.BookSearchIndex;
+import com.application.library.search.BookSuggestionIndex;
+import com.application.library.support.TestSupport;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookImportServiceTest extends TestSupport {
+
+    private BookRepository bookRepository;
+    private ShelfRepository shelfRepository;
+    private AvailabilityService availabilityService;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private BookCommentStatsService bookCommentStatsService;
+    private BookConverter bookConverter;
+    private EntityManager entityManager;
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        shelfRepository = mock(ShelfRepository.class);
+        availabilityService = mock(AvailabilityService.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        bookCommentStatsService = mock(BookCommentStatsService.class);
+        bookConverter = mock(BookConverter.class);
+        entityManager = mock(EntityManager.class);
+        bookImportService = new BookImportService(bookRepository, shelfRepository, availabilityService, cacheInvalidationBus, bookCommentStatsService, bookConverter, entityManager, 1, 3);
+        when(bookConverter.updateEntity(any(CreateBookRequestDto.class), any(Book.class))).thenAnswer(invocation -> {
+            CreateBookRequestDto dto = invocation.getArgument(0);
+            Book book = invocation.getArgument(1);
+            book.setName(dto.getName());
+            book.setIsbn(dto.getIsbn());
+            book.setTotalCount(dto.getTotalCount());
+            return book;
+        });
+        AtomicLong nextId = new AtomicLong();
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> batch = invocation.getArgument(0);
+            batch.forEach(book -> ReflectionTestUtils.setField(book, "id", nextId.incrementAndGet()));
+            return batch;
+        });
+    }
+
+    @Test
+    void testImportBooks_whenRowsAreInvalid_shouldImportValidRowsAndReportErrors() {
+        // given
+        Shelf shelf = getTestShelf();
+        shelf.setAvailableCapacity(2);
+        CreateBookRequestDto valid = createBookRequest("isbn-1", shelf.getId());
+        CreateBookRequestDto existing = createBookRequest("isbn-2", shelf.getId());
+        CreateBookRequestDto duplicate = createBookRequest("isbn-1", shelf.getId());
+        CreateBookRequestDto unknownShelf = createBookRequest("isbn-3", 999L);
+        CreateBookRequestDto incomplete = createBookRequest("isbn-4", shelf.getId());
+        incomplete.setName(" ");
+
+        // when
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of("isbn-2"));
+        when(shelfRepository.findAllById(Set.of(shelf.getId(), 999L))).thenReturn(List.of(shelf));
+
+        // then
+        BookImportResultDto result = bookImportService.importBooks(List.of(valid, existing, duplicate, unknownShelf, incomplete));
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(List.of(2, 3, 4, 5), result.getErrors().stream().map(BookImportRowErrorDto::getRow).toList());
+        assertEquals(List.of(MessageConstants.BOOK_ALREADY_EXISTS_WITH_ISBN, MessageConstants.BOOK_IMPORT_DUPLICATE_ISBN,
+                        MessageConstants.SHELF_NOT_FOUND, MessageConstants.BOOK_IMPORT_MISSING_FIELD),
+                result.getErrors().stream().map(BookImportRowErrorDto::getMessage).toList());
+        List<Book> saved = captureSavedBooks(1);
+        assertEquals("isbn-1", saved.get(0).getIsbn());
+        assertEquals(shelf, saved.get(0).getShelf());
+        assertEquals(3, saved.get(0).getAvailableCount());
+        verify(availabilityService, times(1)).booksAddedToShelf(shelf.getId(), 1);
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.BOOK_VIEW_PAGES);
+    }
+
+    @Test
+    void testImportBooks_whenShelfCapacityIsExceeded_shouldRejectRowsBeyondCapacity() {
+        // given
+        Shelf shelf = getTestShelf();
+        shelf.setAvailableCapacity(1);
+        CreateBookRequestDto first = createBookRequest("isbn-1", shelf.getId());
+        CreateBookRequestDto second = createBookRequest("isbn-2", shelf.getId());
+
+        // when
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(shelfRepository.findAllById(Set.of(shelf.getId()))).thenReturn(List.of(shelf));
+
+        // then
+        BookImportResultDto result = bookImportService.importBooks(List.of(first, second));
+
+        assertEquals(1, result.getImportedRows());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(MessageConstants.SHELF_FULL, result.getErrors().get(0).getMessage());
+        verify(availabilityService, times(1)).booksAddedToShelf(shelf.getId(), 1);
+    }
+
+    @Test
+    void testImportBooks_whenItemIsNull_shouldReportRowAndImportTheRest() {
+        // given
+        Shelf shelf = getTestShelf();
+        shelf.setAvailableCapacity(10);
+        CreateBookRequestDto valid = createBookRequest("isbn-1", shelf.getId());
+
+        // when
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(shelfRepository.findAllById(Set.of(shelf.getId()))).thenReturn(List.of(shelf));
+
+        // then
+        BookImportResultDto result = bookImportService.importBooks(Arrays.asList(null, valid));
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getRow());
+        assertEquals(MessageConstants.BOOK_IMPORT_INVALID_ROW, result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void testImportBooks_whenRowsExceedBatchSize_shouldFlushAndClearEachBatch() {
+        // given
+        Shelf shelf = getTestShelf();
+        shelf.setAvailableCapacity(10);
+        List<CreateBookRequestDto> books = List.of(createBookRequest("isbn-1", shelf.getId()),
+                createBookRequest("isbn-2", shelf.getId()), createBookRequest("isbn-3", shelf.getId()));
+
+        // when
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(shelfRepository.findAllById(Set.of(shelf.getId()))).thenReturn(List.of(shelf));
+
+        // then
+        BookImportResultDto result = bookImportService.importBooks(books);
+
+        assertEquals(3, result.getImportedRows());
+        assertEquals(List.of("isbn-1", "isbn-2", "isbn-3"), captureSavedBooks(3).stream().map(Book::getIsbn).toList());
+        verify(bookRepository, times(3)).flush();
+        verify(bookCommentStatsService, times(3)).booksCreated(anyList());
+        verify(entityManager, times(3)).clear();
+        verify(availabilityService, times(1)).booksAddedToShelf(shelf.getId(), 3);
+        for (String bookId : List.of("1", "2", "3")) {
+            verify(cacheInvalidationBus, times(1)).evict(BookSearchIndex.INDEX_NAME, bookId);
+            verify(cacheInvalidationBus, times(1)).evict(BookSuggestionIndex.INDEX_NAME, bookId);
+            verify(cacheInvalidationBus, times(1)).evict(BookFacetIndex.INDEX_NAME, bookId);
+        }
+        verify(cacheInvalidationBus, never()).evictAll(BookSearchIndex.INDEX_NAME);
+        verify(cacheInvalidationBus, never()).evictAll(BookSuggestionIndex.INDEX_NAME);
+        verify(cacheInvalidationBus, never()).evictAll(BookFacetIndex.INDEX_NAME);
+    }
+
+    @Test
+    void testImportBooks_whenMoreBooksThanReindexMaximum_shouldRebuildIndexesOnce() {
+        // given
+        Shelf shelf = getTestShelf();
+        shelf.setAvailableCapacity(10);
+        List<CreateBookRequestDto> books = List.of(createBookRequest("isbn-1", shelf.getId()), createBookRequest("isbn-2", shelf.getId()),
+                createBookRequest("isbn-3", shelf.getId()), createBookRequest("isbn-4", shelf.getId()));
+
+        // when
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(shelfRepository.findAllById(Set.of(shelf.getId()))).thenReturn(List.of(shelf));
+
+        // then
+        BookImportResultDto result = bookImportService.importBooks(books);
+
+        assertEquals(4, result.getImportedRows());
+        verify(cacheInvalidationBus, times(1)).evictAll(BookSearchIndex.INDEX_NAME);
+        verify(cacheInvalidationBus, times(1)).evictAll(BookSuggestionIndex.INDEX_NAME);
+        verify(cacheInvalidationBus, times(1)).evictAll(BookFacetIndex.INDEX_NAME);
+        verify(cacheInvalidationBus, never()).evict(anyString(), anyString());
+    }
+
+    @Test
+    void testImportCsv_whenRowCannotBeParsed_shouldReportRowAndImportTheRest() throws IOException {
+        // given
+        Shelf shelf = getTestShelf();
+        shelf.setAvailableCapacity(10);
+        String csv = "name,author,isbn,pageCount,publisher,publishedAt,language,description,imageUrl,totalCount,shelfId\n" +
+                "\"Dune, Part One\",Herbert,isbn-1,412,Chilton,1965,en,\"A \"\"desert\"\" planet\",img,2," + shelf.getId() + "\n" +
+                "Emma,Austen,isbn-2,not-a-number,Murray,1815,en,Novel,img,1," + shelf.getId() + "\n";
+
+        // when
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(shelfRepository.findAllById(Set.of(shelf.getId()))).thenReturn(List.of(shelf));
+
+        // then
+        BookImportResultDto result = bookImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(MessageConstants.BOOK_IMPORT_INVALID_ROW, result.getErrors().get(0).getMessage());
+        ArgumentCaptor<CreateBookRequestDto> imported = ArgumentCaptor.forClass(CreateBookRequestDto.class);
+        verify(bookConverter, times(1)).updateEntity(imported.capture(), any(Book.class));
+        assertEquals("Dune, Part One", imported.getValue().getName());
+        assertEquals("A \"desert\" planet", imported.getValue().getDescription());
+        assertEquals("Dune, Part One", captureSavedBooks(1).get(0).getName());
+    }
+
+    @Test
+    void testImportCsv_whenHeaderIsIncomplete_shouldThrowIllegalArgumentException() {
+        // given
+        String csv = "name,author,isbn\nDune,Herbert,isbn-1\n";
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> bookImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testImportCsv_whenQuoteIsNeverClosed_shouldThrowIllegalArgumentException() {
+        // given
+        String csv = "name,author,isbn,pageCount,publisher,publishedAt,language,description,imageUrl,totalCount,shelfId\n" +
+                "\"Dune,Herbert,isbn-1,412,Chilton,1965,en,Novel,img,2,1\n";
+
+        // then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(MessageConstants.BOOK_IMPORT_UNTERMINATED_QUOTE, exception.getMessage());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Book> captureSavedBooks(int batches) {
+        ArgumentCaptor<List<Book>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository, times(batches)).saveAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private CreateBookRequestDto createBookRequest(String isbn, Long shelfId) {
+        CreateBookRequestDto requestDto = new CreateBookRequestDto();
+        requestDto.setName("name");
+        requestDto.setAuthor("author");
+        requestDto.setIsbn(isbn);
+        requestDto.setPageCount(100);
+        requestDto.setPublisher("publisher");
+        requestDto.setPublishedAt("2020");
+        requestDto.setLanguage("en");
+        requestDto.setDescription("description");
+        requestDto.setImageUrl("image");
+        requestDto.setTotalCount(3);
+        requestDto.setShelfId(shelfId);
+        return requestDto;
+    }
+}
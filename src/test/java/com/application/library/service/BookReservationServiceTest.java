@@ -1,14 +1,21 @@
 package com.application.library.service;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.constants.MessageConstants;
+import com.application.library.data.dto.AvailabilityDayDto;
 import com.application.library.data.dto.BookReservationRequestDto;
 import com.application.library.data.view.BookReservationView;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
+import com.application.library.exception.ServiceBusyException;
 import com.application.library.helper.AuthHelper;
 import com.application.library.model.Book;
 import com.application.library.model.BookReservation;
 import com.application.library.model.User;
 import com.application.library.repository.BookReservationRepository;
+import com.application.library.reservation.AvailabilityTimeline;
+import com.application.library.reservation.AvailabilityTimelineCache;
+import com.application.library.reservation.ReservationAdmission;
 import com.application.library.support.TestSupport;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -23,17 +30,21 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class BookReservationServiceTest extends TestSupport {
 
     private BookReservationRepository bookReservationRepository;
     private BookService bookService;
-    private LendTransactionService lendTransactionService;
+    private AvailabilityTimelineCache availabilityTimelineCache;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private ReservationAdmission reservationAdmission;
     private BookReservationService bookReservationService;
 
     private static MockedStatic<AuthHelper> authHelperMockedStatic;
@@ -52,8 +63,10 @@ class BookReservationServiceTest extends TestSupport {
     void setUp() {
         bookReservationRepository = mock(BookReservationRepository.class);
         bookService = mock(BookService.class);
-        lendTransactionService = mock(LendTransactionService.class);
-        bookReservationService = new BookReservationService(bookReservationRepository, bookService, lendTransactionService);
+        availabilityTimelineCache = mock(AvailabilityTimelineCache.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        reservationAdmission = mock(ReservationAdmission.class);
+        bookReservationService = new BookReservationService(bookReservationRepository, bookService, availabilityTimelineCache, cacheInvalidationBus, reservationAdmission, 90);
     }
 
     @Test
@@ -73,9 +86,8 @@ class BookReservationServiceTest extends TestSupport {
         when(AuthHelper.getActiveUser()).thenReturn(user);
         when(bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), now)).thenReturn(false);
         when(bookReservationRepository.existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, now.minusDays(7).atTime(LocalTime.MAX))).thenReturn(false);
-        when(bookService.findById(bookId)).thenReturn(book);
-        when(lendTransactionService.countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate())).thenReturn(0L);
-        when(bookReservationRepository.countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate())).thenReturn(0L);
+        admit(book);
+        when(bookReservationRepository.countAvailabilityChangeOn(bookId, requestDto.getReservationDate())).thenReturn(0L);
         when(bookReservationRepository.save(any(BookReservation.class))).thenReturn(bookReservation);
 
         // then
@@ -84,10 +96,10 @@ class BookReservationServiceTest extends TestSupport {
 
         verify(bookReservationRepository, times(1)).existsByUser_IdAndReservationDateAfter(user.getId(), now);
         verify(bookReservationRepository, times(1)).existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, now.minusDays(7).atTime(LocalTime.MAX));
-        verify(bookService, times(1)).findById(bookId);
-        verify(lendTransactionService, times(1)).countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate());
-        verify(bookReservationRepository, times(1)).countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate());
+        verify(reservationAdmission, times(1)).admit(eq(bookId), any());
+        verify(bookReservationRepository, times(1)).countAvailabilityChangeOn(bookId, requestDto.getReservationDate());
         verify(bookReservationRepository, times(1)).save(any(BookReservation.class));
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, bookId.toString());
     }
 
     @Test
@@ -98,6 +110,7 @@ class BookReservationServiceTest extends TestSupport {
         BookReservationRequestDto requestDto = new BookReservationRequestDto();
 
         // when
+        admit(getTestBook());
         when(AuthHelper.getActiveUser()).thenReturn(user);
         when(bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), LocalDate.now())).thenReturn(true);
         when(bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), LocalDate.now())).thenReturn(true);
@@ -114,6 +127,7 @@ class BookReservationServiceTest extends TestSupport {
         BookReservationRequestDto requestDto = new BookReservationRequestDto();
 
         // when
+        admit(getTestBook());
         when(AuthHelper.getActiveUser()).thenReturn(user);
         when(bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), LocalDate.now())).thenReturn(false);
         when(bookReservationRepository.existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, LocalDate.now().minusDays(7).atTime(LocalTime.MAX))).thenReturn(true);
@@ -138,18 +152,16 @@ class BookReservationServiceTest extends TestSupport {
         when(AuthHelper.getActiveUser()).thenReturn(user);
         when(bookReservationRepository.existsByUser_IdAndReservationDateAfter(user.getId(), now)).thenReturn(false);
         when(bookReservationRepository.existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, now.minusDays(7).atTime(LocalTime.MAX))).thenReturn(false);
-        when(bookService.findById(bookId)).thenReturn(book);
-        when(lendTransactionService.countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate())).thenReturn(0L);
-        when(bookReservationRepository.countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate())).thenReturn(5L);
+        admit(book);
+        when(bookReservationRepository.countAvailabilityChangeOn(bookId, requestDto.getReservationDate())).thenReturn(-5L);
 
         // then
         assertThrows(IllegalStateException.class, () -> bookReservationService.reserveBook(bookId, requestDto));
 
         verify(bookReservationRepository, times(1)).existsByUser_IdAndReservationDateAfter(user.getId(), now);
         verify(bookReservationRepository, times(1)).existsByUser_IdAndCompletedAndCreatedAtAfter(user.getId(), false, now.minusDays(7).atTime(LocalTime.MAX));
-        verify(bookService, times(1)).findById(bookId);
-        verify(lendTransactionService, times(1)).countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate());
-        verify(bookReservationRepository, times(1)).countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate());
+        verify(reservationAdmission, times(1)).admit(eq(bookId), any());
+        verify(bookReservationRepository, times(1)).countAvailabilityChangeOn(bookId, requestDto.getReservationDate());
         verify(bookReservationRepository, times(0)).save(any(BookReservation.class));
     }
 
@@ -187,17 +199,17 @@ class BookReservationServiceTest extends TestSupport {
         bookReservation.setBook(testBook);
 
         // when
+        admit(testBook);
+        when(bookReservationRepository.findBookIdById(id)).thenReturn(Optional.of(testBook.getId()));
         when(bookReservationRepository.findById(id)).thenReturn(Optional.of(bookReservation));
-        when(lendTransactionService.countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate())).thenReturn(5L);
-        when(bookReservationRepository.countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate())).thenReturn(0L);
+        when(bookReservationRepository.countAvailabilityChangeOn(bookId, requestDto.getReservationDate())).thenReturn(5L);
 
         // then
         BookReservation result = bookReservationService.updateReservation(id, requestDto);
         assertEquals(bookReservation, result);
 
         verify(bookReservationRepository, times(1)).findById(id);
-        verify(lendTransactionService, times(1)).countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate());
-        verify(bookReservationRepository, times(1)).countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate());
+        verify(bookReservationRepository, times(1)).countAvailabilityChangeOn(bookId, requestDto.getReservationDate());
     }
 
     @Test
@@ -207,12 +219,13 @@ class BookReservationServiceTest extends TestSupport {
         BookReservationRequestDto requestDto = new BookReservationRequestDto();
 
         // when
-        when(bookReservationRepository.findById(id)).thenReturn(Optional.empty());
+        when(bookReservationRepository.findBookIdById(id)).thenReturn(Optional.empty());
 
         // then
         assertThrows(EntityNotFoundException.class, () -> bookReservationService.updateReservation(id, requestDto));
 
-        verify(bookReservationRepository, times(1)).findById(id);
+        verify(bookReservationRepository, times(1)).findBookIdById(id);
+        verifyNoInteractions(reservationAdmission);
     }
 
     @Test
@@ -228,19 +241,36 @@ class BookReservationServiceTest extends TestSupport {
         bookReservation.setBook(testBook);
 
         // when
+        admit(testBook);
+        when(bookReservationRepository.findBookIdById(id)).thenReturn(Optional.of(testBook.getId()));
         when(bookReservationRepository.findById(id)).thenReturn(Optional.of(bookReservation));
-        when(lendTransactionService.countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate())).thenReturn(5L);
-        when(bookReservationRepository.countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate())).thenReturn(5L);
+        when(bookReservationRepository.countAvailabilityChangeOn(bookId, requestDto.getReservationDate())).thenReturn(0L);
 
         // then
         assertThrows(IllegalStateException.class, () -> bookReservationService.updateReservation(id, requestDto));
 
         verify(bookReservationRepository, times(1)).findById(id);
-        verify(lendTransactionService, times(1)).countByBookIdAndReturnedAndDeadlineDateAfter(bookId, false, requestDto.getReservationDate());
-        verify(bookReservationRepository, times(1)).countByBook_IdAndReservationDateAfterAndCompletedFalse(bookId, requestDto.getReservationDate());
+        verify(bookReservationRepository, times(1)).countAvailabilityChangeOn(bookId, requestDto.getReservationDate());
     }
 
 
+    @Test
+    void testUpdateReservation_whenAdmissionIsBusy_shouldNotLoadReservation() {
+        // given
+        Long id = 1L;
+        BookReservationRequestDto requestDto = new BookReservationRequestDto();
+
+        // when
+        when(bookReservationRepository.findBookIdById(id)).thenReturn(Optional.of(2L));
+        when(reservationAdmission.admit(eq(2L), any())).thenThrow(new ServiceBusyException(MessageConstants.RESERVATION_ADMISSION_BUSY, 1));
+
+        // then
+        assertThrows(ServiceBusyException.class, () -> bookReservationService.updateReservation(id, requestDto));
+
+        verify(bookReservationRepository, never()).findById(id);
+        verifyNoInteractions(availabilityTimelineCache);
+    }
+
     @Test
     void testUpdateReservation_whenReservationIsCompleted_shouldThrowIllegalStateException() {
         // given
@@ -248,14 +278,19 @@ class BookReservationServiceTest extends TestSupport {
         BookReservationRequestDto requestDto = new BookReservationRequestDto();
         BookReservation bookReservation = new BookReservation();
         bookReservation.setCompleted(true);
+        Book testBook = getTestBook();
+        bookReservation.setBook(testBook);
 
         // when
+        admit(testBook);
+        when(bookReservationRepository.findBookIdById(id)).thenReturn(Optional.of(testBook.getId()));
         when(bookReservationRepository.findById(id)).thenReturn(Optional.of(bookReservation));
 
         // then
         assertThrows(IllegalStateException.class, () -> bookReservationService.updateReservation(id, requestDto));
 
         verify(bookReservationRepository, times(1)).findById(id);
+        verifyNoInteractions(availabilityTimelineCache);
     }
 
     @Test
@@ -264,6 +299,7 @@ class BookReservationServiceTest extends TestSupport {
         Long id = 1L;
         BookReservation bookReservation = new BookReservation();
         bookReservation.setCompleted(false);
+        bookReservation.setBook(getTestBook());
 
         // when
         when(bookReservationRepository.findById(id)).thenReturn(Optional.of(bookReservation));
@@ -274,6 +310,7 @@ class BookReservationServiceTest extends TestSupport {
 
         verify(bookReservationRepository, times(1)).findById(id);
         verify(bookReservationRepository, times(1)).delete(bookReservation);
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, bookReservation.getBook().getId().toString());
     }
 
     @Test
@@ -308,4 +345,37 @@ class BookReservationServiceTest extends TestSupport {
         verify(bookReservationRepository, times(0)).delete(any(BookReservation.class));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void testGetAvailabilityCalendar_whenDaysAreInRange_shouldReturnAvailableCountPerDay() {
+        // given
+        Book book = getTestBook();
+        book.setAvailableCount(0);
+        Long bookId = book.getId();
+        LocalDate today = LocalDate.now();
+
+        // when
+        when(bookService.findById(bookId)).thenReturn(book);
+        when(availabilityTimelineCache.get(bookId)).thenReturn(AvailabilityTimeline.of(List.of(today.plusDays(1)), List.of()));
+
+        // then
+        List<AvailabilityDayDto> result = bookReservationService.getAvailabilityCalendar(bookId, 3);
+
+        assertEquals(List.of(today, today.plusDays(1), today.plusDays(2)), result.stream().map(AvailabilityDayDto::getDate).toList());
+        assertEquals(List.of(0L, 0L, 1L), result.stream().map(AvailabilityDayDto::getAvailableCount).toList());
+        verify(availabilityTimelineCache, times(1)).get(bookId);
+    }
+
+    @Test
+    void testGetAvailabilityCalendar_whenDaysAreOutOfRange_shouldThrowIllegalArgumentException() {
+        // then
+        assertThrows(IllegalArgumentException.class, () -> bookReservationService.getAvailabilityCalendar(1L, 91));
+        assertThrows(IllegalArgumentException.class, () -> bookReservationService.getAvailabilityCalendar(1L, 0));
+        verifyNoInteractions(bookService, availabilityTimelineCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void admit(Book book) {
+        when(reservationAdmission.admit(eq(book.getId()), any())).thenAnswer(invocation -> invocation.getArgument(1, Function.class).apply(book));
+    }
+}
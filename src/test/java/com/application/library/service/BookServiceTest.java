@@ -1,27 +1,60 @@
 package com.application.library.service;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.config.CachingConfig;
+import com.application.library.constants.MessageConstants;
 import com.application.library.converter.BookConverter;
+import com.application.library.data.dto.AvailabilityDayDto;
+import com.application.library.data.dto.BookAvailabilityDto;
 import com.application.library.data.dto.BookCommentDto;
+import com.application.library.data.dto.BookFilterRequestDto;
 import com.application.library.data.dto.CreateBookRequestDto;
+import com.application.library.data.dto.BookSearchPageDto;
+import com.application.library.data.dto.FacetedBookPageDto;
 import com.application.library.data.dto.SaveBookRequestDto;
+import com.application.library.data.view.book.BookAvailableCountView;
 import com.application.library.data.view.book.BookView;
+import com.application.library.data.view.book.BookViewSnapshot;
+import com.application.library.enumerations.BookFacet;
+import com.application.library.enumerations.SuggestionType;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.model.Book;
 import com.application.library.model.Shelf;
 import com.application.library.repository.BookRepository;
 import com.application.library.repository.LendTransactionRepository;
+import com.application.library.reservation.AvailabilityTimeline;
+import com.application.library.reservation.AvailabilityTimelineCache;
+import com.application.library.search.BookFacetIndex;
+import com.application.library.search.BookSearchIndex;
+import com.application.library.search.BookSuggestionIndex;
+import com.application.library.search.FacetCount;
+import com.application.library.search.FacetFilter;
+import com.application.library.search.FacetHits;
+import com.application.library.search.SearchHits;
+import com.application.library.search.Suggestion;
+import com.application.library.search.SuggestionIndex;
 import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class BookServiceTest extends TestSupport {
@@ -31,6 +64,13 @@ class BookServiceTest extends TestSupport {
     private ShelfService shelfService;
     private LendTransactionRepository lendTransactionRepository;
     private ApplicationEventPublisher applicationEventPublisher;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private AvailabilityService availabilityService;
+    private BookSearchIndex bookSearchIndex;
+    private BookSuggestionIndex bookSuggestionIndex;
+    private BookFacetIndex bookFacetIndex;
+    private AvailabilityTimelineCache availabilityTimelineCache;
+    private BookCommentStatsService bookCommentStatsService;
     private BookService bookService;
 
     @BeforeEach
@@ -40,7 +80,15 @@ class BookServiceTest extends TestSupport {
         shelfService = mock(ShelfService.class);
         lendTransactionRepository = mock(LendTransactionRepository.class);
         applicationEventPublisher = mock(ApplicationEventPublisher.class);
-        bookService = new BookService(bookRepository, bookConverter, shelfService, lendTransactionRepository, applicationEventPublisher);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        availabilityService = mock(AvailabilityService.class);
+        bookSearchIndex = mock(BookSearchIndex.class);
+        bookSuggestionIndex = mock(BookSuggestionIndex.class);
+        bookFacetIndex = mock(BookFacetIndex.class);
+        availabilityTimelineCache = mock(AvailabilityTimelineCache.class);
+        bookCommentStatsService = mock(BookCommentStatsService.class);
+        bookService = new BookService(bookRepository, bookConverter, shelfService, lendTransactionRepository, applicationEventPublisher, cacheInvalidationBus, availabilityService,
+                new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, 1, 1), bookSearchIndex, bookSuggestionIndex, bookFacetIndex, availabilityTimelineCache, bookCommentStatsService, 2, 90);
     }
 
     @Test
@@ -63,6 +111,10 @@ class BookServiceTest extends TestSupport {
         verify(bookRepository, times(1)).existsByIsbn(createBookRequestDto.getIsbn());
         verify(bookConverter, times(1)).toEntity(createBookRequestDto);
         verify(bookRepository, times(1)).save(testBook);
+        verify(bookCommentStatsService, times(1)).booksCreated(List.of(testBook.getId()));
+        verify(availabilityService, times(1)).bookAddedToShelf(testBook.getShelf().getId());
+        verify(cacheInvalidationBus, times(1)).evict(BookSearchIndex.INDEX_NAME, testBook.getId().toString());
+        verify(cacheInvalidationBus, times(1)).evict(BookSuggestionIndex.INDEX_NAME, testBook.getId().toString());
     }
 
     @Test
@@ -123,7 +175,10 @@ class BookServiceTest extends TestSupport {
 
         // then
         BookView result = bookService.getBookById(id);
-        assertEquals(testBook, result);
+        assertInstanceOf(BookViewSnapshot.class, result);
+        assertEquals(testBook.getId(), result.getId());
+        assertEquals(testBook.getName(), result.getName());
+        assertEquals(testBook.getShelf().getId(), result.getShelf().getId());
 
         verify(bookRepository, times(1)).getBookById(id);
     }
@@ -158,6 +213,9 @@ class BookServiceTest extends TestSupport {
 
         verify(bookRepository, times(1)).findById(id);
         verify(bookRepository, times(1)).delete(testBook);
+        verify(availabilityService, times(1)).bookRemovedFromShelf(testBook.getShelf().getId());
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, id.toString());
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.BOOK_VIEW_PAGES);
     }
 
     @Test
@@ -194,6 +252,7 @@ class BookServiceTest extends TestSupport {
 
         verify(bookRepository, times(1)).findById(bookId);
         verify(lendTransactionRepository, times(1)).countAllByBook_IdAndReturnedFalse(testBook.getId());
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, bookId.toString());
     }
 
     @Test
@@ -249,8 +308,10 @@ class BookServiceTest extends TestSupport {
         assertEquals(testBook, result);
 
         verify(bookRepository, times(1)).findById(bookId);
-        verify(shelfService, times(1)).checkShelfCapacity(testBook.getShelf());
-        verify(applicationEventPublisher, times(2)).publishEvent(any());
+        verify(shelfService, times(1)).checkShelfCapacity(testShelf);
+        verify(availabilityService, times(1)).bookRemovedFromShelf(any());
+        verify(availabilityService, times(1)).bookAddedToShelf(shelfId);
+        verify(cacheInvalidationBus, times(1)).evict(CachingConfig.BOOK_VIEW, bookId.toString());
     }
 
     @Test
@@ -303,6 +364,156 @@ class BookServiceTest extends TestSupport {
         verify(bookRepository, times(1)).getAllBy(any());
     }
 
+    @Test
+    void testSearchBooks_whenSearchBooksCalled_shouldReturnBookViewsInRelevanceOrder() {
+        // given
+        BookView first = mock(BookView.class);
+        BookView second = mock(BookView.class);
+        when(first.getId()).thenReturn(7L);
+        when(second.getId()).thenReturn(3L);
+
+        // when
+        when(bookSearchIndex.search("dune", 2)).thenReturn(new SearchHits(5, false, List.of(7L, 3L)));
+        when(bookRepository.findAllByIdIn(List.of(7L, 3L))).thenReturn(List.of(second, first));
+
+        // then
+        BookSearchPageDto result = bookService.searchBooks("dune", 0, 2);
+
+        assertEquals(List.of(first, second), result.getBooks().getContent());
+        assertEquals(5, result.getBooks().getTotalElements());
+        assertFalse(result.isTotalIsLowerBound());
+    }
+
+    @Test
+    void testSearchBooks_whenSearchBooksCalledForSecondPage_shouldSkipFirstPageHits() {
+        // when
+        when(bookSearchIndex.search("dune", 4)).thenReturn(new SearchHits(10_000, true, List.of(7L, 3L, 9L)));
+        when(bookRepository.findAllByIdIn(List.of(9L))).thenReturn(List.of());
+
+        // then
+        BookSearchPageDto result = bookService.searchBooks("dune", 1, 2);
+
+        assertEquals(10_000, result.getBooks().getTotalElements());
+        assertTrue(result.isTotalIsLowerBound());
+        verify(bookRepository, times(1)).findAllByIdIn(List.of(9L));
+    }
+
+    @Test
+    void testSearchBooks_whenQueryHasNoTerms_shouldThrowIllegalArgumentException() {
+        // then
+        assertThatThrownBy(() -> bookService.searchBooks(" -- ", 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(bookSearchIndex);
+    }
+
+    @Test
+    void testFilterBooks_whenFilterBooksCalled_shouldQueryFacetIndexAndLoadPageInOrder() {
+        // given
+        BookFilterRequestDto requestDto = new BookFilterRequestDto();
+        requestDto.setLanguage(List.of("English"));
+        requestDto.setAvailable(true);
+        requestDto.setMinPageCount(100);
+        BookView first = getTestBookView();
+        Map<BookFacet, List<FacetCount>> facets = Map.of(BookFacet.LANGUAGE, List.of(new FacetCount("English", 3)));
+
+        // when
+        when(bookFacetIndex.query(any(), eq(2), eq(2))).thenReturn(new FacetHits(3, List.of(first.getId()), facets));
+        when(bookRepository.findAllByIdIn(List.of(first.getId()))).thenReturn(List.of(first));
+
+        // then
+        FacetedBookPageDto result = bookService.filterBooks(requestDto, 1, 2);
+
+        assertEquals(3, result.getBooks().getTotalElements());
+        assertEquals(List.of(first), result.getBooks().getContent());
+        assertEquals(facets, result.getFacets());
+
+        ArgumentCaptor<FacetFilter> filterCaptor = ArgumentCaptor.forClass(FacetFilter.class);
+        verify(bookFacetIndex).query(filterCaptor.capture(), eq(2), eq(2));
+        assertEquals(Set.of("English"), filterCaptor.getValue().values().get(BookFacet.LANGUAGE));
+        assertEquals(Set.of("true"), filterCaptor.getValue().values().get(BookFacet.AVAILABILITY));
+        assertEquals(100, filterCaptor.getValue().minPageCount());
+    }
+
+    @Test
+    void testFilterBooks_whenMinPageCountIsGreaterThanMax_shouldThrowIllegalArgumentException() {
+        // given
+        BookFilterRequestDto requestDto = new BookFilterRequestDto();
+        requestDto.setMinPageCount(300);
+        requestDto.setMaxPageCount(100);
+
+        // then
+        assertThatThrownBy(() -> bookService.filterBooks(requestDto, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(bookFacetIndex);
+    }
+
+    @Test
+    void testSuggestBooks_whenSuggestBooksCalledWithPrefix_shouldReturnSuggestionsFromIndex() {
+        // given
+        List<Suggestion> suggestions = List.of(new Suggestion(SuggestionType.TITLE, "Dune", 12));
+
+        // when
+        when(bookSuggestionIndex.suggest("du", 5)).thenReturn(suggestions);
+
+        // then
+        assertEquals(suggestions, bookService.suggestBooks("du", 5));
+        verifyNoInteractions(bookRepository, lendTransactionRepository);
+    }
+
+    @Test
+    void testSuggestBooks_whenLimitIsOutOfRange_shouldThrowIllegalArgumentException() {
+        // then
+        assertThatThrownBy(() -> bookService.suggestBooks("du", SuggestionIndex.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(bookSuggestionIndex);
+    }
+
+    @Test
+    void testGetAvailability_whenBooksHaveLendsAndReservations_shouldReturnEachDayClampedAtZeroAndSkipUnknownBooks() {
+        // given
+        LocalDate from = LocalDate.of(2024, 3, 10);
+        BookAvailableCountView known = mock(BookAvailableCountView.class);
+        when(known.getId()).thenReturn(1L);
+        when(known.getAvailableCount()).thenReturn(0);
+        when(bookRepository.findAvailableCountsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(known));
+        when(availabilityTimelineCache.getAll(Set.of(1L))).thenReturn(Map.of(1L, AvailabilityTimeline.of(
+                List.of(from.plusDays(1)), List.of(from))));
+
+        // when
+        List<BookAvailabilityDto> result = bookService.getAvailability(List.of(2L, 1L), from, from.plusDays(2));
+
+        // then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getBookId());
+        assertEquals(List.of(0L, 0L, 1L), result.get(0).getDays().stream().map(AvailabilityDayDto::getAvailableCount).toList());
+        assertEquals(from.plusDays(2), result.get(0).getDays().get(2).getDate());
+    }
+
+    @Test
+    void testGetAvailability_whenTooManyIdsAreGiven_shouldThrowIllegalArgumentException() {
+        // then
+        assertThatThrownBy(() -> bookService.getAvailability(List.of(1L, 2L, 3L), LocalDate.now(), LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(MessageConstants.BOOK_AVAILABILITY_IDS_OUT_OF_RANGE);
+        verifyNoInteractions(bookRepository, availabilityTimelineCache);
+    }
+
+    @Test
+    void testGetAvailability_whenRangeExceedsMaximumDays_shouldThrowIllegalArgumentException() {
+        // given
+        LocalDate from = LocalDate.now();
+
+        // then
+        assertThatThrownBy(() -> bookService.getAvailability(List.of(1L), from, from.plusDays(90)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(MessageConstants.BOOK_AVAILABILITY_INVALID_DATE_RANGE);
+        assertThatThrownBy(() -> bookService.getAvailability(List.of(1L), from, from.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void testMoveBook_whenMoveBookCalledWithNonExistingShelfId_shouldThrowEntityNotFoundException() {
         // given
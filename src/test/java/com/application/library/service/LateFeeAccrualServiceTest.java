@@ -0,0 +1,97 @@
+package com.application.library.service;
+
+import com.application.library.model.LateFeeAccrual;
+import com.application.library.repository.LateFeeAccrualRepository;
+import com.application.library.repository.LendTransactionRepository;
+import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LateFeeAccrualServiceTest extends TestSupport {
+
+    private LateFeeAccrualRepository lateFeeAccrualRepository;
+    private LendTransactionRepository lendTransactionRepository;
+    private SettingsService settingsService;
+    private SimpleMeterRegistry meterRegistry;
+    private LateFeeAccrualService lateFeeAccrualService;
+
+    @BeforeEach
+    void setUp() {
+        lateFeeAccrualRepository = mock(LateFeeAccrualRepository.class);
+        lendTransactionRepository = mock(LendTransactionRepository.class);
+        settingsService = mock(SettingsService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        lateFeeAccrualService = new LateFeeAccrualService(lateFeeAccrualRepository, lendTransactionRepository, settingsService,
+                mock(PlatformTransactionManager.class), meterRegistry);
+        when(settingsService.getLateFeePerDay()).thenReturn(2.5);
+    }
+
+    @Test
+    void testAccrue_whenDaysWereMissed_shouldRecordRunningTotalAndFlagEachDayInOrder() {
+        // given
+        LocalDate today = LocalDate.now();
+        when(lateFeeAccrualRepository.findLatest()).thenReturn(Optional.of(accrual(today.minusDays(2), 10.0)));
+        when(lendTransactionRepository.markOverdueBefore(any())).thenReturn(1);
+
+        // when
+        lateFeeAccrualService.accrue();
+
+        // then
+        InOrder inOrder = inOrder(lateFeeAccrualRepository, lendTransactionRepository);
+        inOrder.verify(lateFeeAccrualRepository).insert(today.minusDays(1), 2.5, 12.5);
+        inOrder.verify(lendTransactionRepository).markOverdueBefore(today.minusDays(1));
+        inOrder.verify(lateFeeAccrualRepository).insert(today, 2.5, 15.0);
+        inOrder.verify(lendTransactionRepository).markOverdueBefore(today);
+        verifyNoMoreInteractions(lendTransactionRepository);
+        assertEquals(2.0, meterRegistry.get("library.lend.overdue.marked").counter().count());
+        assertEquals(2.0, meterRegistry.get("library.lend.late-fee.accrued-days").counter().count());
+    }
+
+    @Test
+    void testAccrue_whenTodayIsAlreadyAccrued_shouldDoNothing() {
+        // given
+        when(lateFeeAccrualRepository.findLatest()).thenReturn(Optional.of(accrual(LocalDate.now(), 0.0)));
+
+        // when
+        lateFeeAccrualService.accrue();
+
+        // then
+        verify(lateFeeAccrualRepository, never()).insert(any(), anyDouble(), anyDouble());
+        verifyNoInteractions(lendTransactionRepository);
+    }
+
+    @Test
+    void testAccrue_whenAnotherNodeAccruedTheDay_shouldStopWithoutCharging() {
+        // given
+        LocalDate today = LocalDate.now();
+        when(lateFeeAccrualRepository.findLatest()).thenReturn(Optional.of(accrual(today.minusDays(2), 0.0)));
+        when(lateFeeAccrualRepository.insert(today.minusDays(1), 2.5, 2.5)).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // when
+        lateFeeAccrualService.accrue();
+
+        // then
+        verify(lateFeeAccrualRepository, never()).insert(eq(today), anyDouble(), anyDouble());
+        verifyNoInteractions(lendTransactionRepository);
+    }
+
+    private static LateFeeAccrual accrual(LocalDate accrualDate, double cumulativeFee) {
+        LateFeeAccrual accrual = new LateFeeAccrual();
+        accrual.setAccrualDate(accrualDate);
+        accrual.setCumulativeFee(cumulativeFee);
+        return accrual;
+    }
+}
@@ -0,0 +1,126 @@
+package com.application.library.service;
+
+import com.application.library.data.view.transaction.lend.LendTransactionExportView;
+import com.application.library.enumerations.ExportFormat;
+import com.application.library.repository.LendTransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class LendTransactionExportServiceTest {
+
+    private LendTransactionRepository lendTransactionRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private LendTransactionExportService lendTransactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        lendTransactionRepository = mock(LendTransactionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        lendTransactionExportService = new LendTransactionExportService(lendTransactionRepository, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void testExport_whenFormatIsNdjson_shouldWriteOneJsonObjectPerLine() throws IOException {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Stream<LendTransactionExportView> rows = Stream.of(row("1", "Dune", true, 2.5), row("2", "Emma", false, null));
+        when(lendTransactionRepository.streamForExport(null, null, null, null)).thenReturn(rows);
+
+        // when
+        long count = lendTransactionExportService.export(ExportFormat.NDJSON, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"1\""));
+        assertTrue(lines[0].contains("\"bookName\":\"Dune\""));
+        assertTrue(lines[0].contains("\"lateFeePaid\":2.5"));
+        assertTrue(lines[1].contains("\"returned\":false"));
+        assertTrue(lines[1].contains("\"lateFeePaid\":null"));
+        assertEquals(2.0, meterRegistry.get("library.export.rows").tag("format", "ndjson").counter().count());
+    }
+
+    @Test
+    void testExport_whenFormatIsCsv_shouldWriteHeaderAndEscapeValues() throws IOException {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Stream<LendTransactionExportView> rows = Stream.of(row("1", "Name, with \"quotes\"", true, null));
+        when(lendTransactionRepository.streamForExport(null, null, null, null)).thenReturn(rows);
+
+        // when
+        lendTransactionExportService.export(ExportFormat.CSV, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,createdAt,bookId"));
+        assertEquals("1,2024-01-10T12:00,7,isbn,\"Name, with \"\"quotes\"\"\",3,user@mail.com,4,2024-01-24,,true,", lines[1]);
+    }
+
+    @Test
+    void testExport_whenCsvTextStartsLikeFormula_shouldPrefixItWithQuote() throws IOException {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Stream<LendTransactionExportView> rows = Stream.of(
+                row("1", "=HYPERLINK(\"x\")", false, -1.5),
+                row("2", "+1", false, null),
+                row("3", "-1", false, null),
+                row("4", "@SUM(A1)", false, null));
+        when(lendTransactionRepository.streamForExport(null, null, null, null)).thenReturn(rows);
+
+        // when
+        lendTransactionExportService.export(ExportFormat.CSV, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("1,2024-01-10T12:00,7,isbn,\"'=HYPERLINK(\"\"x\"\")\",3,user@mail.com,4,2024-01-24,,false,-1.5", lines[1]);
+        assertTrue(lines[2].contains(",'+1,"));
+        assertTrue(lines[3].contains(",'-1,"));
+        assertTrue(lines[4].contains(",'@SUM(A1),"));
+    }
+
+    @Test
+    void testExport_whenFiltersGiven_shouldQueryInclusiveDateRange() throws IOException {
+        // given
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        when(lendTransactionRepository.streamForExport(any(), any(), any(), any())).thenReturn(Stream.empty());
+
+        // when
+        lendTransactionExportService.export(ExportFormat.NDJSON, Optional.of(true), Optional.of(3L), Optional.of(from), Optional.of(to), new ByteArrayOutputStream());
+
+        // then
+        verify(lendTransactionRepository).streamForExport(true, 3L, from.atStartOfDay(), LocalDate.of(2024, 2, 1).atStartOfDay());
+    }
+
+    private LendTransactionExportView row(String id, String bookName, boolean returned, Double lateFeePaid) {
+        LendTransactionExportView row = mock(LendTransactionExportView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getCreatedAt()).thenReturn(LocalDateTime.of(2024, 1, 10, 12, 0));
+        when(row.getBookId()).thenReturn(7L);
+        when(row.getBookIsbn()).thenReturn("isbn");
+        when(row.getBookName()).thenReturn(bookName);
+        when(row.getUserId()).thenReturn(3L);
+        when(row.getUserEmail()).thenReturn("user@mail.com");
+        when(row.getLenderId()).thenReturn(4L);
+        when(row.getDeadlineDate()).thenReturn(LocalDate.of(2024, 1, 24));
+        when(row.getReturned()).thenReturn(returned);
+        when(row.getLateFeePaid()).thenReturn(lateFeePaid);
+        return row;
+    }
+}
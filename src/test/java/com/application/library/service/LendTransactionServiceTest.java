@@ -1,15 +1,31 @@
 package com.application.library.service;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.concurrency.OptimisticRetryExecutor;
+import com.application.library.constants.MessageConstants;
 import com.application.library.converter.LendTransactionConverter;
+import com.application.library.data.dto.LendTransactionBatchItemDto;
+import com.application.library.data.dto.LendTransactionBatchResultDto;
 import com.application.library.data.dto.LendTransactionRequestDto;
+import com.application.library.data.dto.OverdueSummaryDto;
 import com.application.library.data.view.transaction.lend.LendTransactionAuthUserView;
 import com.application.library.data.view.transaction.lend.LendTransactionView;
+import com.application.library.data.view.transaction.lend.OverdueSummaryView;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.helper.AuthHelper;
+import com.application.library.listener.event.UpdateUserReservationsCompleteStatus;
+import com.application.library.model.Book;
+import com.application.library.model.LateFeeAccrual;
 import com.application.library.model.LendTransaction;
 import com.application.library.model.User;
+import com.application.library.repository.BookRepository;
 import com.application.library.repository.LendTransactionRepository;
+import com.application.library.repository.UserRepository;
+import com.application.library.reservation.AvailabilityTimeline;
+import com.application.library.reservation.AvailabilityTimelineCache;
+import com.application.library.search.BookSuggestionIndex;
 import com.application.library.support.TestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,15 +35,21 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class LendTransactionServiceTest extends TestSupport {
@@ -36,6 +58,12 @@ class LendTransactionServiceTest extends TestSupport {
     private ApplicationEventPublisher applicationEventPublisher;
     private LendTransactionConverter lendTransactionConverter;
     private SettingsService settingsService;
+    private AvailabilityService availabilityService;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private LateFeeAccrualService lateFeeAccrualService;
+    private UserRepository userRepository;
+    private BookRepository bookRepository;
+    private AvailabilityTimelineCache availabilityTimelineCache;
     private LendTransactionService lendTransactionService;
 
     private static MockedStatic<AuthHelper> authHelperMockedStatic;
@@ -56,8 +84,16 @@ class LendTransactionServiceTest extends TestSupport {
         applicationEventPublisher = mock(ApplicationEventPublisher.class);
         lendTransactionConverter = mock(LendTransactionConverter.class);
         settingsService = mock(SettingsService.class);
-
-        lendTransactionService = new LendTransactionService(lendTransactionRepository, applicationEventPublisher, lendTransactionConverter, settingsService);
+        availabilityService = mock(AvailabilityService.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        lateFeeAccrualService = mock(LateFeeAccrualService.class);
+        userRepository = mock(UserRepository.class);
+        bookRepository = mock(BookRepository.class);
+        availabilityTimelineCache = mock(AvailabilityTimelineCache.class);
+
+        lendTransactionService = new LendTransactionService(lendTransactionRepository, applicationEventPublisher, lendTransactionConverter, settingsService, availabilityService,
+                new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, 1, 1), cacheInvalidationBus, lateFeeAccrualService,
+                userRepository, bookRepository, availabilityTimelineCache, 4);
     }
 
     @Test
@@ -106,7 +142,139 @@ class LendTransactionServiceTest extends TestSupport {
         assertEquals(lendTransaction, result);
 
         verify(lendTransactionRepository, times(1)).save(any());
-        verify(applicationEventPublisher, times(2)).publishEvent(any());
+        verify(availabilityService, times(1)).bookLent(lendTransaction.getBook().getId());
+        verify(applicationEventPublisher, times(1)).publishEvent(any());
+        verify(cacheInvalidationBus, times(1)).evict(BookSuggestionIndex.INDEX_NAME, lendTransaction.getBook().getId().toString());
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, lendTransaction.getBook().getId().toString());
+    }
+
+    @Test
+    void testLendBooks_whenSomeItemsCannotBeLent_shouldLendOthersAndReportErrorsPerItem() {
+        // given
+        User user = getTestUser();
+        User userWithOpenLend = getTestUser2();
+        Book book = getTestBook();
+        book.setAvailableCount(2);
+
+        // when
+        when(userRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(user, userWithOpenLend));
+        when(lendTransactionRepository.findUserIdsWithOpenLendIn(Set.of(1L, 2L))).thenReturn(List.of(2L));
+        when(bookRepository.findAllByIdInForUpdate(Set.of(1L))).thenReturn(List.of(book));
+        when(availabilityTimelineCache.loadAll(Set.of(1L))).thenReturn(Map.of(1L, AvailabilityTimeline.of(List.of(), List.of())));
+        when(settingsService.getLendDay()).thenReturn(14);
+
+        // then
+        LendTransactionBatchResultDto result = lendTransactionService.lendBooks(List.of(
+                lendRequest(1L, 1L), lendRequest(1L, 2L), lendRequest(1L, 3L), lendRequest(1L, 1L)));
+
+        assertEquals(4, result.getTotalItems());
+        assertEquals(1, result.getSucceededItems());
+        assertEquals(Arrays.asList(null, MessageConstants.USER_HAS_ALREADY_LENT_A_BOOK, MessageConstants.USER_NOT_FOUND, MessageConstants.USER_HAS_ALREADY_LENT_A_BOOK),
+                result.getResults().stream().map(LendTransactionBatchItemDto::getError).toList());
+
+        verify(lendTransactionRepository, times(1)).saveAll(any());
+        verify(availabilityService, times(1)).booksLent(Map.of(1L, 1));
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateUserReservationsCompleteStatus.class));
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, "1");
+        verify(availabilityTimelineCache, never()).getAll(any());
+        verify(userRepository, never()).findById(any());
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    void testLendBooks_whenBatchLendsMoreCopiesThanAvailableOrReserved_shouldRejectTheRest() {
+        // given
+        Book book = getTestBook();
+        book.setAvailableCount(2);
+        AvailabilityTimeline timeline = AvailabilityTimeline.of(List.of(), List.of(LocalDate.now().plusDays(1)));
+
+        // when
+        when(userRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(getTestUser(), getTestUser2()));
+        when(bookRepository.findAllByIdInForUpdate(Set.of(1L))).thenReturn(List.of(book));
+        when(availabilityTimelineCache.loadAll(Set.of(1L))).thenReturn(Map.of(1L, timeline));
+        when(settingsService.getLendDay()).thenReturn(14);
+
+        // then
+        LendTransactionBatchResultDto result = lendTransactionService.lendBooks(List.of(lendRequest(1L, 1L), lendRequest(1L, 2L)));
+
+        assertEquals(1, result.getSucceededItems());
+        assertEquals(MessageConstants.BOOK_HAS_A_RESERVATION, result.getResults().get(1).getError());
+        verify(availabilityService, times(1)).booksLent(Map.of(1L, 1));
+    }
+
+    @Test
+    void testLendBooks_whenBatchIsEmptyOrTooLarge_shouldThrowIllegalArgumentException() {
+        // then
+        assertThatThrownBy(() -> lendTransactionService.lendBooks(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(MessageConstants.LEND_BATCH_SIZE_OUT_OF_RANGE);
+        assertThatThrownBy(() -> lendTransactionService.returnBooks(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(MessageConstants.LEND_BATCH_SIZE_OUT_OF_RANGE);
+
+        verifyNoInteractions(lendTransactionRepository, availabilityService);
+    }
+
+    @Test
+    void testLendBooks_whenBatchHasNullItem_shouldThrowIllegalArgumentException() {
+        // then
+        assertThatThrownBy(() -> lendTransactionService.lendBooks(Arrays.asList(lendRequest(1L, 1L), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(MessageConstants.LEND_BATCH_NULL_ITEM);
+        assertThatThrownBy(() -> lendTransactionService.returnBooks(Arrays.asList(UUID.randomUUID(), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(MessageConstants.LEND_BATCH_NULL_ITEM);
+
+        verifyNoInteractions(lendTransactionRepository, availabilityService);
+    }
+
+    @Test
+    void testReturnBooks_whenSomeItemsCannotBeReturned_shouldReturnOthersAndReportErrorsPerItem() {
+        // given
+        LendTransaction open = getTestLendTransaction(false);
+        open.setDeadlineDate(LocalDate.now());
+        LendTransaction returned = getTestLendTransaction(true);
+        returned.setDeadlineDate(LocalDate.now());
+        LendTransaction late = getTestLendTransaction(false);
+        late.setDeadlineDate(LocalDate.now().minusDays(2));
+
+        // when
+        when(lendTransactionRepository.findAllById(Set.of(open.getId(), returned.getId(), late.getId())))
+                .thenReturn(List.of(open, returned, late));
+        when(settingsService.getLateFeePerDay()).thenReturn(10.0);
+
+        // then
+        LendTransactionBatchResultDto result = lendTransactionService.returnBooks(List.of(open.getId(), returned.getId(), late.getId()));
+
+        assertEquals(1, result.getSucceededItems());
+        assertEquals(open.getId(), result.getResults().get(0).getTransactionId());
+        assertEquals(MessageConstants.BOOK_HAS_ALREADY_BEEN_RETURN, result.getResults().get(1).getError());
+        assertEquals(MessageConstants.MUST_PAY_LATE_FEE + " 20.0", result.getResults().get(2).getError());
+        assertTrue(open.isReturned());
+        assertFalse(late.isReturned());
+
+        verify(availabilityService, times(1)).booksReturned(Map.of(1L, 1));
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, "1");
+        verify(lendTransactionRepository, never()).findById(any());
+    }
+
+    @Test
+    void testReturnBooks_whenTransactionIsUnknownOrRepeated_shouldReportEachItem() {
+        // given
+        LendTransaction open = getTestLendTransaction(false);
+        open.setDeadlineDate(LocalDate.now().plusDays(1));
+        UUID unknownId = UUID.randomUUID();
+
+        // when
+        when(lendTransactionRepository.findAllById(Set.of(open.getId(), unknownId))).thenReturn(List.of(open));
+
+        // then
+        LendTransactionBatchResultDto result = lendTransactionService.returnBooks(List.of(open.getId(), unknownId, open.getId()));
+
+        assertEquals(1, result.getSucceededItems());
+        assertEquals(MessageConstants.LEND_TRANSACTION_NOT_FOUND, result.getResults().get(1).getError());
+        assertEquals(MessageConstants.BOOK_HAS_ALREADY_BEEN_RETURN, result.getResults().get(2).getError());
+        verify(availabilityService, times(1)).booksReturned(Map.of(1L, 1));
     }
 
     @Test
@@ -129,7 +297,8 @@ class LendTransactionServiceTest extends TestSupport {
         assertEquals(afterLend, result);
 
         verify(lendTransactionRepository, times(1)).findById(id);
-        verify(applicationEventPublisher, times(1)).publishEvent(any());
+        verify(availabilityService, times(1)).bookReturned(beforeLend.getBook().getId());
+        verify(cacheInvalidationBus, times(1)).evict(AvailabilityTimelineCache.CACHE_NAME, beforeLend.getBook().getId().toString());
     }
 
     @Test
@@ -287,38 +456,142 @@ class LendTransactionServiceTest extends TestSupport {
     }
 
     @Test
-    void testGetLateFeeById_whenGetLateFeeByIdCalledWithExistsIdAndNoLateFee_shouldReturnZero() {
+    void testGetLateFeeById_whenFeeIsPartlyAccrued_shouldAddRunningTotalSinceDeadlineAndDaysSinceLastAccrual() {
         // given
         UUID id = UUID.randomUUID();
+        LocalDate deadlineDate = LocalDate.now().minusDays(5);
         LendTransaction lendTransaction = getTestLendTransaction(false);
-        lendTransaction.setDeadlineDate(LocalDate.now().plusDays(2));
+        lendTransaction.setDeadlineDate(deadlineDate);
+        lendTransaction.setLateFeePaid(5.0);
 
         // when
         when(lendTransactionRepository.findById(id)).thenReturn(Optional.of(lendTransaction));
+        when(lateFeeAccrualService.getLatestAccrual()).thenReturn(Optional.of(accrual(LocalDate.now().minusDays(2), 40.0)));
+        when(lateFeeAccrualService.getCumulativeFeesOn(List.of(deadlineDate))).thenReturn(Map.of(deadlineDate, 10.0));
         when(settingsService.getLateFeePerDay()).thenReturn(10.0);
 
         // then
-        double result = lendTransactionService.getLateFeeById(id);
-        assertEquals(0.0, result);
+        assertEquals(40.0 - 10.0 + 2 * 10.0 - 5.0, lendTransactionService.getLateFeeById(id));
+    }
 
-        verify(lendTransactionRepository, times(1)).findById(id);
+    @Test
+    void testGetLateFeeById_whenDeadlinePrecedesFirstAccrual_shouldAddBackfilledFeeToRunningTotal() {
+        // given
+        UUID id = UUID.randomUUID();
+        LendTransaction lendTransaction = getTestLendTransaction(false);
+        lendTransaction.setDeadlineDate(LocalDate.now().minusDays(10));
+        lendTransaction.setAccruedLateFee(50.0);
+
+        // when
+        when(lendTransactionRepository.findById(id)).thenReturn(Optional.of(lendTransaction));
+        when(lateFeeAccrualService.getLatestAccrual()).thenReturn(Optional.of(accrual(LocalDate.now(), 25.0)));
+        when(settingsService.getLateFeePerDay()).thenReturn(10.0);
+
+        // then
+        assertEquals(75.0, lendTransactionService.getLateFeeById(id));
     }
 
     @Test
-    void testCountByBookIdAndReturnedAndDeadlineDateAfter_whenCountByBookIdAndReturnedAndDeadlineDateAfterCalled_shouldReturnCount() {
+    void testGetLateFeeById_whenTransactionIsReturned_shouldNotAccrueFurther() {
         // given
-        Long bookId = 1L;
-        boolean returned = false;
-        LocalDate date = LocalDate.now();
-        int expectedResult = 1;
+        UUID id = UUID.randomUUID();
+        LendTransaction lendTransaction = getTestLendTransaction(true);
+        lendTransaction.setDeadlineDate(LocalDate.now().minusDays(5));
+        lendTransaction.setAccruedLateFee(30.0);
+        lendTransaction.setLateFeePaid(30.0);
+
+        // when
+        when(lendTransactionRepository.findById(id)).thenReturn(Optional.of(lendTransaction));
+
+        // then
+        assertEquals(0.0, lendTransactionService.getLateFeeById(id));
+        verifyNoInteractions(lateFeeAccrualService, settingsService);
+    }
+
+    @Test
+    void testGetLateFeeById_whenTransactionWasReturnedBeforeAccrual_shouldTreatPaidFeeAsSettled() {
+        // given
+        UUID id = UUID.randomUUID();
+        LendTransaction lendTransaction = getTestLendTransaction(true);
+        lendTransaction.setDeadlineDate(LocalDate.now().minusDays(5));
+        lendTransaction.setLateFeePaid(30.0);
+
+        // when
+        when(lendTransactionRepository.findById(id)).thenReturn(Optional.of(lendTransaction));
+
+        // then
+        assertEquals(0.0, lendTransactionService.getLateFeeById(id));
+        verifyNoInteractions(lateFeeAccrualService, settingsService);
+    }
+
+    @Test
+    void testReturnBook_whenLateFeeIsPaidBeforeAccrualCatchesUp_shouldKeepFeeToDateAndClearOverdue() {
+        // given
+        UUID id = UUID.randomUUID();
+        LendTransaction lendTransaction = getTestLendTransaction(false);
+        lendTransaction.setDeadlineDate(LocalDate.now().minusDays(2));
+        lendTransaction.setOverdue(true);
+        lendTransaction.setLateFeePaid(20.0);
+
+        // when
+        when(lendTransactionRepository.findById(id)).thenReturn(Optional.of(lendTransaction));
+        when(lateFeeAccrualService.getLatestAccrual()).thenReturn(Optional.of(accrual(LocalDate.now().minusDays(1), 10.0)));
+        when(settingsService.getLateFeePerDay()).thenReturn(10.0);
+
+        // then
+        LendTransaction result = lendTransactionService.returnBook(id);
+        assertEquals(20.0, result.getAccruedLateFee());
+        assertFalse(result.isOverdue());
+        assertTrue(result.isReturned());
+    }
+
+    @Test
+    void testGetOverdueSummary_whenOverdueTransactionsExist_shouldReturnTotalsAsOfLastAccrual() {
+        // given
+        OverdueSummaryView summary = mock(OverdueSummaryView.class);
+        when(summary.getOverdueCount()).thenReturn(3L);
+        when(summary.getOutstandingLateFees()).thenReturn(42.5);
+        when(lendTransactionRepository.summarizeOverdue()).thenReturn(summary);
+        when(lateFeeAccrualService.getAccruedThrough()).thenReturn(Optional.of(LocalDate.now()));
+
+        // when
+        OverdueSummaryDto result = lendTransactionService.getOverdueSummary();
+
+        // then
+        assertEquals(3L, result.getOverdueCount());
+        assertEquals(42.5, result.getOutstandingLateFees());
+        assertEquals(LocalDate.now(), result.getAccruedThrough());
+    }
+
+    @Test
+    void testGetLateFeeById_whenGetLateFeeByIdCalledWithExistsIdAndNoLateFee_shouldReturnZero() {
+        // given
+        UUID id = UUID.randomUUID();
+        LendTransaction lendTransaction = getTestLendTransaction(false);
+        lendTransaction.setDeadlineDate(LocalDate.now().plusDays(2));
 
         // when
-        when(lendTransactionRepository.countByBook_IdAndReturnedAndDeadlineDateBefore(bookId, returned, date)).thenReturn(expectedResult);
+        when(lendTransactionRepository.findById(id)).thenReturn(Optional.of(lendTransaction));
+        when(settingsService.getLateFeePerDay()).thenReturn(10.0);
 
         // then
-        long result = lendTransactionService.countByBookIdAndReturnedAndDeadlineDateAfter(bookId, returned, date);
-        assertEquals(expectedResult, result);
+        double result = lendTransactionService.getLateFeeById(id);
+        assertEquals(0.0, result);
+
+        verify(lendTransactionRepository, times(1)).findById(id);
+    }
+
+    private static LendTransactionRequestDto lendRequest(Long bookId, Long userId) {
+        LendTransactionRequestDto requestDto = new LendTransactionRequestDto();
+        requestDto.setBookId(bookId);
+        requestDto.setUserId(userId);
+        return requestDto;
+    }
 
-        verify(lendTransactionRepository, times(1)).countByBook_IdAndReturnedAndDeadlineDateBefore(bookId, returned, date);
+    private static LateFeeAccrual accrual(LocalDate accrualDate, double cumulativeFee) {
+        LateFeeAccrual accrual = new LateFeeAccrual();
+        accrual.setAccrualDate(accrualDate);
+        accrual.setCumulativeFee(cumulativeFee);
+        return accrual;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.application.library.service;
 
+import com.application.library.cache.CacheInvalidationBus;
+import com.application.library.config.CachingConfig;
 import com.application.library.enumerations.SettingsKey;
 import com.application.library.model.Settings;
 import com.application.library.repository.SettingsRepository;
@@ -14,12 +16,14 @@ import static org.mockito.Mockito.*;
 class SettingsServiceTest {
 
     private SettingsRepository settingsRepository;
+    private CacheInvalidationBus cacheInvalidationBus;
     private SettingsService settingsService;
 
     @BeforeEach
     void setUp() {
         settingsRepository = mock(SettingsRepository.class);
-        settingsService = new SettingsService(settingsRepository);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        settingsService = new SettingsService(settingsRepository, cacheInvalidationBus);
     }
 
     @Test
@@ -68,6 +72,7 @@ class SettingsServiceTest {
         // then
         assertEquals(settings, settingsService.setLateFeePerDay(lateFeePerDay));
 
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.LATE_FEE_PER_DAY);
         verify(settingsRepository, times(1)).findById(SettingsKey.LATE_FEE_PER_DAY);
         verify(settingsRepository, times(1)).save(settings);
     }
@@ -88,6 +93,7 @@ class SettingsServiceTest {
         Settings actual = settingsService.setLateFeePerDay(lateFeePerDay);
         assertEquals(settings, actual);
 
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.LATE_FEE_PER_DAY);
         verify(settingsRepository, times(1)).findById(SettingsKey.LATE_FEE_PER_DAY);
         verify(settingsRepository, times(1)).save(any(Settings.class));
     }
@@ -107,6 +113,7 @@ class SettingsServiceTest {
         // then
         assertEquals(settings, settingsService.setLendDay(lendDay));
 
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.LEND_DAY);
         verify(settingsRepository, times(1)).findById(SettingsKey.LEND_DAY);
         verify(settingsRepository, times(1)).save(settings);
     }
@@ -126,6 +133,7 @@ class SettingsServiceTest {
         // then
         assertEquals(settings, settingsService.setLendDay(lendDay));
 
+        verify(cacheInvalidationBus, times(1)).evictAll(CachingConfig.LEND_DAY);
         verify(settingsRepository, times(1)).findById(SettingsKey.LEND_DAY);
         verify(settingsRepository, times(1)).save(any(Settings.class));
     }
@@ -10,6 +10,7 @@ import com.application.library.enumerations.UserRole;
 import com.application.library.exception.EntityAlreadyExistsException;
 import com.application.library.exception.EntityNotFoundException;
 import com.application.library.helper.AuthHelper;
+import com.application.library.listener.event.UpdateUserPrincipalEvent;
 import com.application.library.model.User;
 import com.application.library.repository.UserRepository;
 import com.application.library.support.TestSupport;
@@ -18,11 +19,13 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,6 +40,8 @@ class UserServiceTest extends TestSupport {
 
     private UserRepository userRepository;
     private UserConverter userConverter;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
     private UserService userService;
 
     private static MockedStatic<AuthHelper> authHelperMockedStatic;
@@ -55,7 +60,9 @@ class UserServiceTest extends TestSupport {
     void setUp() {
         userRepository = mock(UserRepository.class);
         userConverter = mock(UserConverter.class);
-        userService = new UserService(userRepository, userConverter);
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        bCryptPasswordEncoder = mock(BCryptPasswordEncoder.class);
+        userService = new UserService(userRepository, userConverter, applicationEventPublisher, bCryptPasswordEncoder);
     }
 
     @Test
@@ -248,6 +255,7 @@ class UserServiceTest extends TestSupport {
 
         verify(userRepository, times(1)).findById(user.getId());
         verify(userRepository, times(1)).delete(user);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateUserPrincipalEvent.class));
     }
 
     @Test
@@ -285,6 +293,7 @@ class UserServiceTest extends TestSupport {
 
         verify(userRepository, times(1)).findById(user.getId());
         verify(userRepository, times(1)).delete(user);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateUserPrincipalEvent.class));
     }
 
     @Test
@@ -334,9 +343,11 @@ class UserServiceTest extends TestSupport {
         User result = userService.updateUser(user.getId(), requestDto);
 
         assertEquals(user, result);
+        assertEquals(1, result.getTokenVersion());
 
         verify(userRepository, times(1)).findById(user.getId());
         verify(userConverter, times(1)).updateEntity(requestDto, user);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateUserPrincipalEvent.class));
     }
 
     @Test
@@ -368,6 +379,7 @@ class UserServiceTest extends TestSupport {
 
         // when
         when(AuthHelper.getActiveUser()).thenReturn(user);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(userConverter.updateEntity(requestDto, user)).thenReturn(user);
         when(userRepository.save(user)).thenReturn(user);
 
@@ -375,9 +387,91 @@ class UserServiceTest extends TestSupport {
         User result = userService.updateActiveUserInfo(requestDto);
 
         assertEquals(user, result);
+        assertEquals(1, result.getTokenVersion());
 
+        verify(userRepository, times(1)).findById(user.getId());
         verify(userConverter, times(1)).updateEntity(requestDto, user);
         verify(userRepository, times(1)).save(user);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateUserPrincipalEvent.class));
+    }
+
+    @Test
+    void testUpdateUser_whenOnlyNameChanges_shouldKeepTokenVersion() {
+        // given
+        User user = getTestUser();
+        UserSaveRequestDto requestDto = new UserSaveRequestDto();
+        requestDto.setEmail(user.getEmail());
+        requestDto.setFirstName("new_first_name");
+        requestDto.setPassword("test_password");
+        requestDto.setRoles(Set.of(UserRole.ROLE_USER));
+
+        // when
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bCryptPasswordEncoder.matches("test_password", user.getPassword())).thenReturn(true);
+        when(userConverter.updateEntity(requestDto, user)).thenReturn(user);
+
+        // then
+        User result = userService.updateUser(user.getId(), requestDto);
+
+        assertEquals(0, result.getTokenVersion());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(UpdateUserPrincipalEvent.class));
+    }
+
+    @Test
+    void testUpdateUser_whenRolesChange_shouldIncrementTokenVersion() {
+        // given
+        User user = getTestUser();
+        UserSaveRequestDto requestDto = new UserSaveRequestDto();
+        requestDto.setEmail(user.getEmail());
+        requestDto.setPassword("test_password");
+        requestDto.setRoles(Set.of(UserRole.ROLE_LIBRARIAN));
+
+        // when
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bCryptPasswordEncoder.matches("test_password", user.getPassword())).thenReturn(true);
+        when(userConverter.updateEntity(requestDto, user)).thenReturn(user);
+
+        // then
+        User result = userService.updateUser(user.getId(), requestDto);
+
+        assertEquals(1, result.getTokenVersion());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testUpdateActiveUser_whenOnlyNameChanges_shouldKeepTokenVersion() {
+        // given
+        User user = getTestUser();
+        BaseUserSaveRequestDto requestDto = new BaseUserSaveRequestDto(user.getEmail(), "new_first_name", "new_last_name", "test_password");
+
+        // when
+        when(AuthHelper.getActiveUser()).thenReturn(user);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bCryptPasswordEncoder.matches("test_password", user.getPassword())).thenReturn(true);
+        when(userConverter.updateEntity(requestDto, user)).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(user);
+
+        // then
+        User result = userService.updateActiveUserInfo(requestDto);
+
+        assertEquals(0, result.getTokenVersion());
+    }
+
+    @Test
+    void testUpdateActiveUser_whenPasswordChanges_shouldIncrementTokenVersion() {
+        // given
+        User user = getTestUser();
+        BaseUserSaveRequestDto requestDto = new BaseUserSaveRequestDto(user.getEmail(), "test_first_name", "test_last_name", "new_password");
+
+        // when
+        when(AuthHelper.getActiveUser()).thenReturn(user);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bCryptPasswordEncoder.matches("new_password", user.getPassword())).thenReturn(false);
+        when(userConverter.updateEntity(requestDto, user)).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(user);
+
+        // then
+        User result = userService.updateActiveUserInfo(requestDto);
+
+        assertEquals(1, result.getTokenVersion());
+    }
+}
@@ -0,0 +1,100 @@
+package com.application.library.utils;
+
+import com.application.library.enumerations.UserRole;
+import com.application.library.model.User;
+import com.application.library.security.VerifiedToken;
+import com.application.library.support.TestSupport;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest extends TestSupport {
+
+    private static final String SECRET = "MIGeMA0GCSqGSIb3DQEBAQUAA4GMADCBiAKBgG0iAr4nHODWHRIAfNm5aDZuhTXmvP++HDWVH1cp+BqjP+3o5FHJr5K2a0NWpaZ18BNx59lxjigGGAYnBF4qMONvFsqhbNwQbKpYZAC2n4zmwQzuLZxMHQIZlSjUkzJRHBOfNt6R66dgsh2zAFXDayzuH+jdxscBIN5j7kTUPBflAgMBAAE=";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 100);
+    }
+
+    @Test
+    void testVerifyToken_whenVerifyTokenCalledWithGeneratedToken_shouldReturnSubjectAndExpiration() {
+        // given
+        String token = jwtUtil.generateToken(getTestUser());
+
+        // when
+        VerifiedToken result = jwtUtil.verifyToken(token);
+
+        // then
+        assertEquals("test_email", result.getSubject());
+        assertFalse(result.isExpired());
+    }
+
+    @Test
+    void testVerifyToken_whenVerifyTokenCalledWithGeneratedToken_shouldReturnPrincipalClaims() {
+        // given
+        User user = getTestUser();
+        user.setAuthorities(Set.of(UserRole.ROLE_USER, UserRole.ROLE_LIBRARIAN));
+        user.incrementTokenVersion();
+
+        // when
+        VerifiedToken result = jwtUtil.verifyToken(jwtUtil.generateToken(user));
+
+        // then
+        assertTrue(result.hasPrincipalClaims());
+        assertEquals(user.getId(), result.getUserId());
+        assertEquals(user.getAuthorities(), result.getRoles());
+        assertEquals(1, result.getTokenVersion());
+    }
+
+    @Test
+    void testVerifyToken_whenVerifyTokenCalledTwiceWithSameToken_shouldReturnCachedResult() {
+        // given
+        String token = jwtUtil.generateToken(getTestUser());
+
+        // when
+        VerifiedToken first = jwtUtil.verifyToken(token);
+        VerifiedToken second = jwtUtil.verifyToken(token);
+
+        // then
+        assertSame(first, second);
+    }
+
+    @Test
+    void testVerifyToken_whenVerifyTokenCalledWithTamperedToken_shouldThrowSignatureException() {
+        // given
+        String token = jwtUtil.generateToken(getTestUser());
+        String tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // then
+        assertThatThrownBy(() -> jwtUtil.verifyToken(tamperedToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void testValidateToken_whenSubjectMatchesUser_shouldReturnTrue() {
+        // given
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(jwtUtil.generateToken(getTestUser()));
+
+        // then
+        assertTrue(jwtUtil.validateToken(verifiedToken, getTestUser()));
+    }
+
+    @Test
+    void testValidateToken_whenSubjectDoesNotMatchUser_shouldReturnFalse() {
+        // given
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(jwtUtil.generateToken(getTestUser2()));
+        User user = getTestUser();
+        user.setEmail("other_email");
+
+        // then
+        assertFalse(jwtUtil.validateToken(verifiedToken, user));
+    }
+}
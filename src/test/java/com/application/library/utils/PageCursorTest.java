@@ -0,0 +1,53 @@
+package com.application.library.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void testDecode_whenTokenWasEncodedFromKeys_shouldReturnTypedKeys() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 12, 30, 15, 123456000);
+        UUID id = UUID.randomUUID();
+        String token = PageCursor.encode("name.with.dots", createdAt, id, 42L);
+
+        // when
+        PageCursor cursor = PageCursor.decode(token, 4);
+
+        // then
+        assertEquals("name.with.dots", cursor.getString(0));
+        assertEquals(createdAt, cursor.getDateTime(1));
+        assertEquals(id, cursor.getUuid(2));
+        assertEquals(42L, cursor.getLong(3));
+    }
+
+    @Test
+    void testDecode_whenKeyCountDoesNotMatch_shouldThrowIllegalArgumentException() {
+        // given
+        String token = PageCursor.encode("name", 1L);
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token, 3));
+    }
+
+    @Test
+    void testGetLong_whenKeyIsNotNumeric_shouldThrowIllegalArgumentException() {
+        // given
+        PageCursor cursor = PageCursor.decode(PageCursor.encode("name", "x"), 2);
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> cursor.getLong(1));
+    }
+
+    @Test
+    void testLimit_whenSizeIsNotPositive_shouldThrowIllegalArgumentException() {
+        // then
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.limit(0));
+    }
+}